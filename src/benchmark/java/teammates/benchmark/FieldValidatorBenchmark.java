@@ -0,0 +1,70 @@
+package teammates.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import teammates.common.util.FieldValidator;
+import teammates.common.util.FieldValidator.FieldType;
+
+/**
+ * Measures the {@link FieldValidator} checks done for every student of an enrollment,
+ * over a whole roster at a time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldValidatorBenchmark {
+
+    @Param({"100", "1000"})
+    private int rosterSize;
+
+    private FieldValidator validator;
+    private List<String> names;
+    private List<String> emails;
+    private List<String> courseIds;
+
+    @Setup
+    public void setUp() {
+        validator = new FieldValidator();
+        names = RosterData.names(rosterSize);
+        emails = RosterData.emails(rosterSize);
+        courseIds = RosterData.courseIds(rosterSize);
+    }
+
+    @Benchmark
+    public void validateEmails(Blackhole blackhole) {
+        for (String email : emails) {
+            blackhole.consume(validator.getInvalidityInfoForEmail(email));
+        }
+    }
+
+    @Benchmark
+    public void validateNames(Blackhole blackhole) {
+        for (String name : names) {
+            blackhole.consume(validator.getInvalidityInfoForPersonName(name));
+        }
+    }
+
+    @Benchmark
+    public void validateCourseIds(Blackhole blackhole) {
+        for (String courseId : courseIds) {
+            blackhole.consume(validator.getInvalidityInfo(FieldType.COURSE_ID, courseId));
+        }
+    }
+}
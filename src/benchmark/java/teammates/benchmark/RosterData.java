@@ -0,0 +1,64 @@
+package teammates.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates names, emails, course IDs and answers shaped like those of a real course roster:
+ * mostly plain text, with some apostrophes, accents and HTML special characters.
+ */
+final class RosterData {
+
+    private static final String[] FIRST_NAMES = {
+        "Alice", "Benny", "Charlie", "Danny", "Émilie", "François", "Hùng", "Maëlle", "Siobhán", "Zoë"
+    };
+    private static final String[] LAST_NAMES = {
+        "Tan", "Ng", "O'Brien", "D'Souza", "Müller", "Nguyễn", "van der Berg", "Smith-Jones", "Lim", "Zhang"
+    };
+    private static final String[] ANSWERS = {
+        "Contributed well to the project and was always on time for meetings.",
+        "Did most of the UI work; could communicate more with the team.",
+        "Great team player. Would work with him/her again!",
+        "Code reviews were thorough, e.g. caught the <null> check in the parser & fixed it.",
+        "Quiet during \"brainstorming\" sessions, but delivered on every task.",
+    };
+
+    private RosterData() {
+        // utility class
+    }
+
+    static List<String> names(int count) {
+        Random random = new Random(count);
+        List<String> names = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            names.add(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                      + LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+        }
+        return names;
+    }
+
+    static List<String> emails(int count) {
+        List<String> emails = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            emails.add("student" + i + ".tmms+cs2103@gmail.tmt");
+        }
+        return emails;
+    }
+
+    static List<String> courseIds(int count) {
+        List<String> courseIds = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            courseIds.add("CS" + (1000 + i) + "-AY15.Sem" + (i % 2 + 1));
+        }
+        return courseIds;
+    }
+
+    static List<String> answers(int count) {
+        List<String> answers = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            answers.add(ANSWERS[i % ANSWERS.length]);
+        }
+        return answers;
+    }
+}
@@ -0,0 +1,78 @@
+package teammates.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import teammates.common.util.Sanitizer;
+
+/**
+ * Measures the {@link Sanitizer} methods called for every name and answer shown on results pages,
+ * over a whole roster at a time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SanitizerBenchmark {
+
+    @Param({"100", "1000"})
+    private int rosterSize;
+
+    private List<String> names;
+    private List<String> emails;
+    private List<String> answers;
+
+    @Setup
+    public void setUp() {
+        names = RosterData.names(rosterSize);
+        emails = RosterData.emails(rosterSize);
+        answers = RosterData.answers(rosterSize);
+    }
+
+    @Benchmark
+    public void sanitizeForHtml(Blackhole blackhole) {
+        for (int i = 0; i < rosterSize; i++) {
+            blackhole.consume(Sanitizer.sanitizeForHtml(names.get(i)));
+            blackhole.consume(Sanitizer.sanitizeForHtml(answers.get(i)));
+        }
+    }
+
+    @Benchmark
+    public void sanitizeForJs(Blackhole blackhole) {
+        for (String name : names) {
+            blackhole.consume(Sanitizer.sanitizeForJs(name));
+        }
+    }
+
+    @Benchmark
+    public void sanitizeForCsv(Blackhole blackhole) {
+        for (int i = 0; i < rosterSize; i++) {
+            blackhole.consume(Sanitizer.sanitizeForCsv(names.get(i)));
+            blackhole.consume(Sanitizer.sanitizeForCsv(emails.get(i)));
+            blackhole.consume(Sanitizer.sanitizeForCsv(answers.get(i)));
+        }
+    }
+
+    @Benchmark
+    public void sanitizeForSearch(Blackhole blackhole) {
+        for (int i = 0; i < rosterSize; i++) {
+            blackhole.consume(Sanitizer.sanitizeForSearch(names.get(i)));
+            blackhole.consume(Sanitizer.sanitizeForSearch(emails.get(i)));
+        }
+    }
+}
@@ -2,6 +2,7 @@ package teammates.client.remoteapi;
 
 import java.io.IOException;
 
+import teammates.storage.search.PendingSearchDocuments;
 import teammates.test.driver.TestProperties;
 
 import com.google.appengine.tools.remoteapi.RemoteApiInstaller;
@@ -36,6 +37,9 @@ public abstract class RemoteApiClient {
         installer.install(options);
         try {
             doOperation();
+            // the operation is not a request to the app, so the search documents of the entities
+            // it has written are not put at its end unless it is done here
+            PendingSearchDocuments.putNow();
         } finally {
             installer.uninstall();
         }
@@ -0,0 +1,80 @@
+package teammates.client.scripts;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import teammates.client.remoteapi.RemoteApiClient;
+import teammates.common.datatransfer.CourseAttributes;
+import teammates.storage.api.CoursesDb;
+import teammates.storage.api.FeedbackResponsesDb;
+import teammates.storage.datastore.Datastore;
+import teammates.storage.entity.FeedbackResponse;
+
+/**
+ * Script to set the involvedSections attribute of feedback responses that were
+ * created before the attribute was introduced.
+ *
+ * Responses without the attribute are not returned when responses are fetched by section
+ * through it, so this script has to be run on the live data before app.feedbackresponses.involvedsections.enabled
+ * is set to true in build.properties.
+ *
+ * The lastUpdate time stamps of the responses are preserved.
+ */
+public class DataMigrationForInvolvedSectionsInResponses extends RemoteApiClient {
+
+    private static final CoursesDb coursesDb = new CoursesDb();
+    private static final FeedbackResponsesDb frDb = new FeedbackResponsesDb();
+
+    // modify for preview
+    private static final boolean isPreview = true;
+
+    public static void main(String[] args) throws IOException {
+        DataMigrationForInvolvedSectionsInResponses migrator = new DataMigrationForInvolvedSectionsInResponses();
+        migrator.doOperationRemotely();
+    }
+
+    @Override
+    protected void doOperation() {
+        Datastore.initialize();
+
+        @SuppressWarnings("deprecation")
+        List<CourseAttributes> courses = coursesDb.getAllCourses();
+
+        int numberOfMigratedResponses = 0;
+        for (CourseAttributes course : courses) {
+            numberOfMigratedResponses += migrateResponsesInCourse(course.getId());
+        }
+
+        System.out.println((isPreview ? "Responses to migrate: " : "Responses migrated: ")
+                           + numberOfMigratedResponses);
+    }
+
+    private int migrateResponsesInCourse(String courseId) {
+        List<String> courseIds = new ArrayList<String>();
+        courseIds.add(courseId);
+
+        int numberOfMigratedResponses = 0;
+        for (FeedbackResponse response : frDb.getFeedbackResponseEntitiesForCourses(courseIds)) {
+            if (response.getInvolvedSections() != null) {
+                continue;
+            }
+
+            numberOfMigratedResponses++;
+            if (!isPreview) {
+                response.keepUpdateTimestamp = true;
+                response.updateInvolvedSections();
+            }
+        }
+
+        if (numberOfMigratedResponses > 0) {
+            System.out.println(courseId + ": " + numberOfMigratedResponses + " responses");
+        }
+
+        // persists the changes made to the responses of the course
+        Datastore.getPersistenceManager().close();
+
+        return numberOfMigratedResponses;
+    }
+
+}
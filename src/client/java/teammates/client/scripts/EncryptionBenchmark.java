@@ -0,0 +1,110 @@
+package teammates.client.scripts;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+
+import teammates.common.util.Config;
+import teammates.common.util.StringHelper;
+
+/**
+ * Measures the cost of encrypting the registration keys of a batch of reminder emails,
+ * comparing the former way of creating a new cipher for every key with
+ * {@link StringHelper#encrypt} and {@link StringHelper#encryptAll}. <br>
+ * Uses the encryption key in build.properties; no connection to the app is needed.
+ */
+public final class EncryptionBenchmark {
+
+    private static final int NUM_OF_STUDENTS = 5000;
+    private static final int NUM_OF_WARM_UP_RUNS = 3;
+    private static final int NUM_OF_RUNS = 10;
+
+    private EncryptionBenchmark() {
+        // script-like, not meant to be instantiated
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> keys = new ArrayList<String>();
+        for (int i = 0; i < NUM_OF_STUDENTS; i++) {
+            // registration keys are long strings generated by the Datastore
+            keys.add("agR0ZXN0chsLEgdTdHVkZW50IgtzdHVkZW50LSIrIiIMCxIHQ291cnNlIg0" + i);
+        }
+
+        for (int i = 0; i < NUM_OF_WARM_UP_RUNS; i++) {
+            encryptWithNewCipherForEachKey(keys);
+            encryptEachKey(keys);
+            StringHelper.encryptAll(keys);
+        }
+
+        long newCipherForEachKeyTime = 0;
+        long encryptEachKeyTime = 0;
+        long encryptAllTime = 0;
+        for (int i = 0; i < NUM_OF_RUNS; i++) {
+            long startTime = System.nanoTime();
+            encryptWithNewCipherForEachKey(keys);
+            newCipherForEachKeyTime += System.nanoTime() - startTime;
+
+            startTime = System.nanoTime();
+            encryptEachKey(keys);
+            encryptEachKeyTime += System.nanoTime() - startTime;
+
+            startTime = System.nanoTime();
+            StringHelper.encryptAll(keys);
+            encryptAllTime += System.nanoTime() - startTime;
+        }
+
+        printResult("new cipher for each key", newCipherForEachKeyTime);
+        printResult("StringHelper.encrypt", encryptEachKeyTime);
+        printResult("StringHelper.encryptAll", encryptAllTime);
+    }
+
+    private static void printResult(String method, long totalTimeInNanos) {
+        long batchTimeInMicros = totalTimeInNanos / NUM_OF_RUNS / 1000;
+        System.out.println(String.format("%-25s %8d us per batch of %d keys, %6.2f us per key",
+                                         method, batchTimeInMicros, NUM_OF_STUDENTS,
+                                         (double) batchTimeInMicros / NUM_OF_STUDENTS));
+    }
+
+    private static void encryptEachKey(List<String> keys) {
+        for (String key : keys) {
+            StringHelper.encrypt(key);
+        }
+    }
+
+    /**
+     * Encrypts the keys as StringHelper.encrypt used to, i.e. parsing the key and
+     * creating a new cipher for each value, and converting to hexadecimal digit by digit.
+     */
+    private static void encryptWithNewCipherForEachKey(List<String> keys) throws Exception {
+        for (String key : keys) {
+            SecretKeySpec sks = new SecretKeySpec(hexStringToByteArray(Config.ENCRYPTION_KEY), "AES");
+            Cipher cipher = Cipher.getInstance("AES");
+            cipher.init(Cipher.ENCRYPT_MODE, sks, cipher.getParameters());
+            byteArrayToHexString(cipher.doFinal(key.getBytes()));
+        }
+    }
+
+    private static String byteArrayToHexString(byte[] b) {
+        StringBuilder sb = new StringBuilder(b.length * 2);
+        for (int i = 0; i < b.length; i++) {
+            int v = b[i] & 0xff;
+            if (v < 16) {
+                sb.append('0');
+            }
+            sb.append(Integer.toHexString(v));
+        }
+        return sb.toString().toUpperCase();
+    }
+
+    private static byte[] hexStringToByteArray(String s) {
+        byte[] b = new byte[s.length() / 2];
+        for (int i = 0; i < b.length; i++) {
+            int index = i * 2;
+            int v = Integer.parseInt(s.substring(index, index + 2), 16);
+            b[i] = (byte) v;
+        }
+        return b;
+    }
+}
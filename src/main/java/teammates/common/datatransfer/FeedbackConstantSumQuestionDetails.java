@@ -456,14 +456,13 @@ public class FeedbackConstantSumQuestionDetails extends FeedbackQuestionDetails
             List<FeedbackResponseAttributes> responses) {
         
         Map<String, List<Integer>> optionPoints = new HashMap<String, List<Integer>>();
-        for (FeedbackResponseAttributes response : responses) {
-            FeedbackConstantSumResponseDetails frd = (FeedbackConstantSumResponseDetails) response.getResponseDetails();
-            
-            for (int i = 0; i < frd.getAnswerList().size(); i++) {
+        int[][] answers = FeedbackResponseDetailsDecoder.decodeConstantSumAnswers(responses);
+        for (int r = 0; r < answers.length; r++) {
+            for (int i = 0; i < answers[r].length; i++) {
                 String optionReceivingPoints =
-                        distributeToRecipients ? response.recipientEmail : String.valueOf(i);
+                        distributeToRecipients ? responses.get(r).recipientEmail : String.valueOf(i);
                 
-                int pointsReceived = frd.getAnswerList().get(i);
+                int pointsReceived = answers[r][i];
                 updateOptionPointsMapping(optionPoints, optionReceivingPoints, pointsReceived);
             }
         }
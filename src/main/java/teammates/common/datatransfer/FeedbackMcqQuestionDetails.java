@@ -373,32 +373,7 @@ public class FeedbackMcqQuestionDetails extends FeedbackQuestionDetails {
         }
         
         StringBuilder fragments = new StringBuilder();
-        Map<String, Integer> answerFrequency = new LinkedHashMap<String, Integer>();
-        
-        for (String option : mcqChoices) {
-            answerFrequency.put(option, 0);
-        }
-        
-        if (otherEnabled) {
-            answerFrequency.put("Other", 0);
-        }
-        
-        for (FeedbackResponseAttributes response : responses) {
-            String answerString = response.getResponseDetails().getAnswerString();
-            Boolean isOtherOptionAnswer = ((FeedbackMcqResponseDetails) (response.getResponseDetails())).isOtherOptionAnswer();
-            
-            if (isOtherOptionAnswer) {
-                if (!answerFrequency.containsKey("Other")) {
-                    answerFrequency.put("Other", 0);
-                }
-                answerFrequency.put("Other", answerFrequency.get("Other") + 1);
-            } else {
-                if (!answerFrequency.containsKey(answerString)) {
-                    answerFrequency.put(answerString, 0);
-                }
-                answerFrequency.put(answerString, answerFrequency.get(answerString) + 1);
-            }
-        }
+        Map<String, Integer> answerFrequency = getAnswerFrequency(responses);
         
         DecimalFormat df = new DecimalFormat("#.##");
         
@@ -423,32 +398,7 @@ public class FeedbackMcqQuestionDetails extends FeedbackQuestionDetails {
         }
         
         StringBuilder fragments = new StringBuilder();
-        Map<String, Integer> answerFrequency = new LinkedHashMap<String, Integer>();
-        
-        for (String option : mcqChoices) {
-            answerFrequency.put(option, 0);
-        }
-        
-        if (otherEnabled) {
-            answerFrequency.put("Other", 0);
-        }
-        
-        for (FeedbackResponseAttributes response : responses) {
-            String answerString = response.getResponseDetails().getAnswerString();
-            Boolean isOtherOptionAnswer = ((FeedbackMcqResponseDetails) (response.getResponseDetails())).isOtherOptionAnswer();
-            
-            if (isOtherOptionAnswer) {
-                if (!answerFrequency.containsKey("Other")) {
-                    answerFrequency.put("Other", 0);
-                }
-                answerFrequency.put("Other", answerFrequency.get("Other") + 1);
-            } else {
-                if (!answerFrequency.containsKey(answerString)) {
-                    answerFrequency.put(answerString, 0);
-                }
-                answerFrequency.put(answerString, answerFrequency.get(answerString) + 1);
-            }
-        }
+        Map<String, Integer> answerFrequency = getAnswerFrequency(responses);
         
         DecimalFormat df = new DecimalFormat("#.##");
         
@@ -462,6 +412,26 @@ public class FeedbackMcqQuestionDetails extends FeedbackQuestionDetails {
                + fragments.toString();
     }
     
+    /**
+     * @return the number of responses for each option, in the order the options are shown
+     */
+    private Map<String, Integer> getAnswerFrequency(List<FeedbackResponseAttributes> responses) {
+        List<String> options = new ArrayList<String>(mcqChoices);
+        if (otherEnabled) {
+            options.add(FeedbackResponseDetailsDecoder.OTHER_OPTION);
+        }
+        
+        FeedbackResponseDetailsDecoder.ChoiceAnswers answers =
+                FeedbackResponseDetailsDecoder.decodeMcqAnswers(responses, options);
+        int[] counts = answers.getOptionCounts();
+        
+        Map<String, Integer> answerFrequency = new LinkedHashMap<String, Integer>();
+        for (int i = 0; i < counts.length; i++) {
+            answerFrequency.put(answers.options.get(i), counts[i]);
+        }
+        return answerFrequency;
+    }
+    
     @Override
     public String getCsvHeader() {
         return "Feedback";
@@ -395,59 +395,18 @@ public class FeedbackMsqQuestionDetails extends FeedbackQuestionDetails {
             return "";
         }
         
-        boolean isContainsNonEmptyResponse = false; // we will only show stats if there is at least one nonempty response
-
-        Map<String, Integer> answerFrequency = new LinkedHashMap<String, Integer>();
-        
-        for (String option : msqChoices) {
-            answerFrequency.put(option, 0);
-        }
+        FeedbackResponseDetailsDecoder.ChoiceAnswers answers = decodeAnswers(responses);
         
-        if (otherEnabled) {
-            answerFrequency.put("Other", 0);
+        if (!hasNonEmptyAnswer(answers)) {
+            return "";
         }
         
+        Map<String, Integer> answerFrequency = new LinkedHashMap<String, Integer>();
         int numChoicesSelected = 0;
-        for (FeedbackResponseAttributes response : responses) {
-            List<String> answerStrings = ((FeedbackMsqResponseDetails) response.getResponseDetails()).getAnswerStrings();
-            Boolean isOtherOptionAnswer = ((FeedbackMsqResponseDetails) (response.getResponseDetails())).isOtherOptionAnswer();
-            String otherAnswer = "";
-            
-            if (isOtherOptionAnswer) {
-                if (!answerFrequency.containsKey("Other")) {
-                    answerFrequency.put("Other", 0);
-                }
-                
-                answerFrequency.put("Other", answerFrequency.get("Other") + 1);
-                
-                numChoicesSelected++;
-                // remove other answer temporarily to calculate stats for other options
-                otherAnswer = answerStrings.get(answerStrings.size() - 1);
-                answerStrings.remove(otherAnswer);
-            }
-            
-            for (String answerString : answerStrings) {
-                if (answerString.isEmpty()) {
-                    continue;
-                }
-                
-                isContainsNonEmptyResponse = true;
-                numChoicesSelected++;
-                
-                if (!answerFrequency.containsKey(answerString)) {
-                    answerFrequency.put(answerString, 0);
-                }
-                answerFrequency.put(answerString, answerFrequency.get(answerString) + 1);
-            }
-            
-            // restore other answer if any
-            if (isOtherOptionAnswer) {
-                answerStrings.add(otherAnswer);
-            }
-        }
-        
-        if (!isContainsNonEmptyResponse) {
-            return "";
+        int[] counts = answers.getOptionCounts();
+        for (int i = 0; i < counts.length; i++) {
+            answerFrequency.put(answers.options.get(i), counts[i]);
+            numChoicesSelected += counts[i];
         }
         
         DecimalFormat df = new DecimalFormat("#.##");
@@ -474,57 +433,18 @@ public class FeedbackMsqQuestionDetails extends FeedbackQuestionDetails {
             return "";
         }
 
-        Map<String, Integer> answerFrequency = new LinkedHashMap<String, Integer>();
-        boolean isContainsNonEmptyResponse = false; // we will only show stats if there is at least one nonempty response
+        FeedbackResponseDetailsDecoder.ChoiceAnswers answers = decodeAnswers(responses);
         
-        for (String option : msqChoices) {
-            answerFrequency.put(option, 0);
-        }
-        
-        if (otherEnabled) {
-            answerFrequency.put("Other", 0);
+        if (!hasNonEmptyAnswer(answers)) {
+            return "";
         }
         
+        Map<String, Integer> answerFrequency = new LinkedHashMap<String, Integer>();
         int numChoicesSelected = 0;
-        
-        for (FeedbackResponseAttributes response : responses) {
-            List<String> answerStrings = ((FeedbackMsqResponseDetails) response.getResponseDetails()).getAnswerStrings();
-            Boolean isOtherOptionAnswer = ((FeedbackMsqResponseDetails) (response.getResponseDetails())).isOtherOptionAnswer();
-            String otherAnswer = "";
-            
-            if (isOtherOptionAnswer) {
-                if (!answerFrequency.containsKey("Other")) {
-                    answerFrequency.put("Other", 0);
-                }
-                answerFrequency.put("Other", answerFrequency.get("Other") + 1);
-                
-                numChoicesSelected++;
-                // remove other answer temporarily to calculate stats for other options
-                otherAnswer = answerStrings.get(answerStrings.size() - 1);
-                answerStrings.remove(otherAnswer);
-            }
-            
-            for (String answerString : answerStrings) {
-                if (answerString.isEmpty()) {
-                    continue;
-                }
-                isContainsNonEmptyResponse = true;
-                numChoicesSelected++;
-                if (!answerFrequency.containsKey(answerString)) {
-                    answerFrequency.put(answerString, 0);
-                }
-                answerFrequency.put(answerString, answerFrequency.get(answerString) + 1);
-                
-            }
-            
-            // restore other answer if any
-            if (isOtherOptionAnswer) {
-                answerStrings.add(otherAnswer);
-            }
-        }
-        
-        if (!isContainsNonEmptyResponse) {
-            return "";
+        int[] counts = answers.getOptionCounts();
+        for (int i = 0; i < counts.length; i++) {
+            answerFrequency.put(answers.options.get(i), counts[i]);
+            numChoicesSelected += counts[i];
         }
         
         DecimalFormat df = new DecimalFormat("#.##");
@@ -540,6 +460,27 @@ public class FeedbackMsqQuestionDetails extends FeedbackQuestionDetails {
                + fragments + Const.EOL;
     }
 
+    private FeedbackResponseDetailsDecoder.ChoiceAnswers decodeAnswers(List<FeedbackResponseAttributes> responses) {
+        List<String> options = new ArrayList<String>(msqChoices);
+        if (otherEnabled) {
+            options.add(FeedbackResponseDetailsDecoder.OTHER_OPTION);
+        }
+        return FeedbackResponseDetailsDecoder.decodeMsqAnswers(responses, options);
+    }
+    
+    /**
+     * Stats are only shown if there is at least one nonempty answer other than an "other" answer
+     */
+    private boolean hasNonEmptyAnswer(FeedbackResponseDetailsDecoder.ChoiceAnswers answers) {
+        for (int i = 0; i < answers.chosenOptions.length; i++) {
+            int numOtherAnswers = answers.isOtherAnswer[i] ? 1 : 0;
+            if (answers.chosenOptions[i].length > numOtherAnswers) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
     @Override
     public String getCsvHeader() {
         List<String> sanitizedChoices = Sanitizer.sanitizeListForCsv(msqChoices);
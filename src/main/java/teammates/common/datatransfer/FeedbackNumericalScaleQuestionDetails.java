@@ -519,9 +519,10 @@ public class FeedbackNumericalScaleQuestionDetails extends
             Map<String, Integer> numResponses,
             Map<String, Integer> numResponsesExcludingSelf) {
         
-        for (FeedbackResponseAttributes response : responses) {
-            FeedbackNumericalScaleResponseDetails responseDetails = (FeedbackNumericalScaleResponseDetails) response.getResponseDetails();
-            double answer = responseDetails.getAnswer();
+        double[] answers = FeedbackResponseDetailsDecoder.decodeNumericalScaleAnswers(responses);
+        for (int i = 0; i < answers.length; i++) {
+            FeedbackResponseAttributes response = responses.get(i);
+            double answer = answers[i];
             String giverEmail = response.giverEmail;
             String recipientEmail = response.recipientEmail;
 
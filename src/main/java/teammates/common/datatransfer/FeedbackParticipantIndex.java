@@ -0,0 +1,130 @@
+package teammates.common.datatransfer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import teammates.common.util.Const;
+
+/**
+ * Sorted lists of the possible givers and recipients of the responses in a course,
+ * built once from the {@link CourseRoster} so that they do not have to be rebuilt and
+ * sorted again for every giver or recipient. <br>
+ * All the lists returned are new lists that can be modified by the caller.
+ */
+final class FeedbackParticipantIndex {
+
+    /** Sorted by section name, then team name, then name, as {@link StudentAttributes#sortBySectionName}. */
+    private final String[] studentEmails;
+    private final String[] instructorEmails;
+
+    /** Excludes the team of the instructors. */
+    private final String[] teams;
+
+    /** The emails of the members of each team, including the team of the instructors, sorted alphabetically. */
+    private final Map<String, String[]> teamMemberEmails = new HashMap<String, String[]>();
+
+    /** The members of each team, as the indexes of their emails in {@link #studentEmails}. */
+    private final Map<String, BitSet> teamMemberIndexes = new HashMap<String, BitSet>();
+
+    /**
+     * @param teamNameMembersTable the emails of the members of each team, keyed by team name,
+     *                             including the team of the instructors
+     */
+    FeedbackParticipantIndex(CourseRoster roster, Map<String, Set<String>> teamNameMembersTable) {
+        List<StudentAttributes> students = new ArrayList<StudentAttributes>(roster.getStudents());
+        StudentAttributes.sortBySectionName(students);
+        studentEmails = new String[students.size()];
+        for (int i = 0; i < students.size(); i++) {
+            StudentAttributes student = students.get(i);
+            studentEmails[i] = student.email;
+
+            BitSet members = teamMemberIndexes.get(student.team);
+            if (members == null) {
+                members = new BitSet(studentEmails.length);
+                teamMemberIndexes.put(student.team, members);
+            }
+            members.set(i);
+        }
+
+        List<InstructorAttributes> instructors = roster.getInstructors();
+        instructorEmails = new String[instructors.size()];
+        for (int i = 0; i < instructors.size(); i++) {
+            instructorEmails[i] = instructors.get(i).email;
+        }
+        Arrays.sort(instructorEmails);
+
+        List<String> teamNames = new ArrayList<String>(teamNameMembersTable.keySet());
+        teamNames.remove(Const.USER_TEAM_FOR_INSTRUCTOR);
+        teams = teamNames.toArray(new String[teamNames.size()]);
+        Arrays.sort(teams);
+
+        for (Map.Entry<String, Set<String>> team : teamNameMembersTable.entrySet()) {
+            Set<String> members = team.getValue();
+            String[] sortedMembers = members.toArray(new String[members.size()]);
+            Arrays.sort(sortedMembers);
+            teamMemberEmails.put(team.getKey(), sortedMembers);
+        }
+    }
+
+    List<String> getStudentEmails() {
+        return toList(studentEmails);
+    }
+
+    List<String> getInstructorEmails() {
+        return toList(instructorEmails);
+    }
+
+    List<String> getTeams() {
+        return toList(teams);
+    }
+
+    List<String> getTeamsExcluding(String excludedTeam) {
+        List<String> teamList = new ArrayList<String>(teams.length);
+        for (String team : teams) {
+            if (!team.equals(excludedTeam)) {
+                teamList.add(team);
+            }
+        }
+        return teamList;
+    }
+
+    /**
+     * @return the emails of the members of the team, sorted alphabetically
+     */
+    List<String> getTeamMemberEmails(String team) {
+        String[] members = teamMemberEmails.get(team);
+        return members == null ? new ArrayList<String>() : toList(members);
+    }
+
+    /**
+     * @return the emails of the members of the team except the excluded one, in the same order
+     *         as {@link #getStudentEmails}
+     */
+    List<String> getTeamMemberEmailsInStudentOrder(String team, String excludedEmail) {
+        List<String> members = new ArrayList<String>();
+        BitSet memberIndexes = teamMemberIndexes.get(team);
+        if (memberIndexes == null) {
+            return members;
+        }
+        for (int i = memberIndexes.nextSetBit(0); i >= 0; i = memberIndexes.nextSetBit(i + 1)) {
+            if (!studentEmails[i].equals(excludedEmail)) {
+                members.add(studentEmails[i]);
+            }
+        }
+        return members;
+    }
+
+    boolean isTeamMember(String team, String email) {
+        String[] members = teamMemberEmails.get(team);
+        return members != null && Arrays.binarySearch(members, email) >= 0;
+    }
+
+    private static List<String> toList(String[] values) {
+        return new ArrayList<String>(Arrays.asList(values));
+    }
+}
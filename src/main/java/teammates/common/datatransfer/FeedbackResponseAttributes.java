@@ -37,6 +37,11 @@ public class FeedbackResponseAttributes extends EntityAttributes {
     protected transient Date updatedAt;
     private String feedbackResponseId;
     
+    /** The response details last parsed from {@link #responseMetaData}, see {@link #getResponseDetails()}. */
+    private transient FeedbackResponseDetails parsedResponseDetails;
+    private transient Text parsedResponseMetaData;
+    private transient FeedbackQuestionType parsedResponseType;
+    
     public FeedbackResponseAttributes() {
         // attributes to be set after construction
     }
@@ -193,7 +198,9 @@ public class FeedbackResponseAttributes extends EntityAttributes {
         }
     }
     
-    /** This method retrieves the Feedback*ResponseDetails object for this response
+    /** This method retrieves the Feedback*ResponseDetails object for this response. <br>
+     * The details are parsed only once for each value of {@link #responseMetaData},
+     * so the returned object is shared by all callers and should not be modified.
      * @return The Feedback*ResponseDetails object representing the response's details
      */
     public FeedbackResponseDetails getResponseDetails() {
@@ -202,6 +209,16 @@ public class FeedbackResponseAttributes extends EntityAttributes {
             return null;
         }
         
+        if (parsedResponseDetails == null || parsedResponseMetaData != responseMetaData
+                || parsedResponseType != feedbackQuestionType) {
+            parsedResponseDetails = parseResponseDetails();
+            parsedResponseMetaData = responseMetaData;
+            parsedResponseType = feedbackQuestionType;
+        }
+        return parsedResponseDetails;
+    }
+    
+    private FeedbackResponseDetails parseResponseDetails() {
         Class<? extends FeedbackResponseDetails> responseDetailsClass = getFeedbackResponseDetailsClass();
         
         if (responseDetailsClass == FeedbackTextResponseDetails.class) {
@@ -0,0 +1,169 @@
+package teammates.common.datatransfer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decodes the details of all the responses to a question in one pass into compact typed arrays,
+ * from which the statistics of the question are computed. <br>
+ * Each array has one element per response, in the same order as the given responses.
+ */
+public final class FeedbackResponseDetailsDecoder {
+
+    /** The option that all "other" answers of MCQ and MSQ questions are counted under. */
+    public static final String OTHER_OPTION = "Other";
+
+    private FeedbackResponseDetailsDecoder() {
+        // utility class
+    }
+
+    /**
+     * @return the answer of each numerical scale response
+     */
+    public static double[] decodeNumericalScaleAnswers(List<FeedbackResponseAttributes> responses) {
+        double[] answers = new double[responses.size()];
+        for (int i = 0; i < answers.length; i++) {
+            FeedbackNumericalScaleResponseDetails frd =
+                    (FeedbackNumericalScaleResponseDetails) responses.get(i).getResponseDetails();
+            answers[i] = frd.getAnswer();
+        }
+        return answers;
+    }
+
+    /**
+     * @return the points given by each constant sum response, for each option or recipient
+     */
+    public static int[][] decodeConstantSumAnswers(List<FeedbackResponseAttributes> responses) {
+        int[][] answers = new int[responses.size()][];
+        for (int i = 0; i < answers.length; i++) {
+            FeedbackConstantSumResponseDetails frd =
+                    (FeedbackConstantSumResponseDetails) responses.get(i).getResponseDetails();
+            answers[i] = toIntArray(frd.getAnswerList());
+        }
+        return answers;
+    }
+
+    /**
+     * @return the index of the choice chosen by each rubric response for each sub-question,
+     *         or -1 if no choice is chosen for the sub-question
+     */
+    public static int[][] decodeRubricAnswers(List<FeedbackResponseAttributes> responses) {
+        int[][] answers = new int[responses.size()][];
+        for (int i = 0; i < answers.length; i++) {
+            FeedbackRubricResponseDetails frd = (FeedbackRubricResponseDetails) responses.get(i).getResponseDetails();
+            answers[i] = toIntArray(frd.answer);
+        }
+        return answers;
+    }
+
+    /**
+     * Decodes MCQ responses into the index of the option chosen by each response.
+     * @param options the options that are known before decoding, e.g. the choices of the question.
+     *         Answers that are not among them are added as they are found.
+     */
+    public static ChoiceAnswers decodeMcqAnswers(List<FeedbackResponseAttributes> responses,
+                                                 List<String> options) {
+        ChoiceAnswers choiceAnswers = new ChoiceAnswers(options, responses.size());
+        for (int i = 0; i < responses.size(); i++) {
+            FeedbackMcqResponseDetails frd = (FeedbackMcqResponseDetails) responses.get(i).getResponseDetails();
+            boolean isOther = frd.isOtherOptionAnswer();
+            String chosenOption = isOther ? OTHER_OPTION : frd.getAnswerString();
+
+            choiceAnswers.isOtherAnswer[i] = isOther;
+            choiceAnswers.chosenOptions[i] = new int[] { choiceAnswers.getOptionIndex(chosenOption) };
+        }
+        return choiceAnswers;
+    }
+
+    /**
+     * Decodes MSQ responses into the indices of the options chosen by each response.
+     * Blank answers are left out, and an "other" answer is decoded as {@link #OTHER_OPTION}.
+     * @param options the options that are known before decoding, e.g. the choices of the question.
+     *         Answers that are not among them are added as they are found.
+     */
+    public static ChoiceAnswers decodeMsqAnswers(List<FeedbackResponseAttributes> responses,
+                                                 List<String> options) {
+        ChoiceAnswers choiceAnswers = new ChoiceAnswers(options, responses.size());
+        for (int i = 0; i < responses.size(); i++) {
+            FeedbackMsqResponseDetails frd = (FeedbackMsqResponseDetails) responses.get(i).getResponseDetails();
+            boolean isOther = frd.isOtherOptionAnswer();
+            List<String> answers = frd.getAnswerStrings();
+
+            List<Integer> chosenOptions = new ArrayList<Integer>();
+            // the content of the "other" field is stored as the last answer
+            int numAnswers = answers.size();
+            if (isOther) {
+                chosenOptions.add(choiceAnswers.getOptionIndex(OTHER_OPTION));
+                numAnswers--;
+            }
+            for (int j = 0; j < numAnswers; j++) {
+                if (!answers.get(j).isEmpty()) {
+                    chosenOptions.add(choiceAnswers.getOptionIndex(answers.get(j)));
+                }
+            }
+
+            choiceAnswers.isOtherAnswer[i] = isOther;
+            choiceAnswers.chosenOptions[i] = toIntArray(chosenOptions);
+        }
+        return choiceAnswers;
+    }
+
+    private static int[] toIntArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+    /**
+     * The answers to a question with options, e.g. MCQ or MSQ, as indices of the chosen options.
+     */
+    public static final class ChoiceAnswers {
+
+        /** The distinct options, in the order they are known or first found. */
+        public final List<String> options;
+
+        /** The indices of the options chosen by each response. */
+        public final int[][] chosenOptions;
+
+        /** Whether each response has an "other" answer. */
+        public final boolean[] isOtherAnswer;
+
+        private final Map<String, Integer> optionIndices = new HashMap<String, Integer>();
+
+        private ChoiceAnswers(List<String> knownOptions, int numResponses) {
+            this.options = new ArrayList<String>();
+            this.chosenOptions = new int[numResponses][];
+            this.isOtherAnswer = new boolean[numResponses];
+            for (String option : knownOptions) {
+                getOptionIndex(option);
+            }
+        }
+
+        /**
+         * @return the number of responses that chose each option, indexed like {@link #options}
+         */
+        public int[] getOptionCounts() {
+            int[] counts = new int[options.size()];
+            for (int[] chosen : chosenOptions) {
+                for (int option : chosen) {
+                    counts[option]++;
+                }
+            }
+            return counts;
+        }
+
+        private int getOptionIndex(String option) {
+            Integer index = optionIndices.get(option);
+            if (index == null) {
+                index = options.size();
+                options.add(option);
+                optionIndices.put(option, index);
+            }
+            return index;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package teammates.common.datatransfer;
+
+import java.util.List;
+
+/**
+ * Represents one page of the responses matched by a query, together with the
+ * cursor to use to retrieve the next page.
+ */
+public class FeedbackResponsePage {
+
+    public List<FeedbackResponseAttributes> responses;
+
+    /**
+     * Web-safe string of the Datastore cursor pointing after the last response of the page,
+     * or null if there are no more responses after this page. <br>
+     * As a full page is not checked for further responses, the page after it can be empty.
+     */
+    public String nextCursor;
+
+    public FeedbackResponsePage(List<FeedbackResponseAttributes> responses, String nextCursor) {
+        this.responses = responses;
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean hasNextPage() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,258 @@
+package teammates.common.datatransfer;
+
+import java.util.Comparator;
+
+import teammates.common.util.Const;
+
+/**
+ * The values that the responses in a {@link FeedbackSessionResultsBundle} are sorted by,
+ * resolved once per response so that comparing two responses does not need any lookups. <br>
+ * The orders are the same as those of the comparators of responses in the bundle that they replace.
+ */
+final class FeedbackResponseSortKey {
+
+    // Sorts by giverName > recipientName > qnNumber
+    static final Comparator<FeedbackResponseSortKey> GIVER_RECIPIENT_QUESTION = new Comparator<FeedbackResponseSortKey>() {
+        @Override
+        public int compare(FeedbackResponseSortKey k1, FeedbackResponseSortKey k2) {
+            int order = compareStrings(k1.giverSection, k2.giverSection);
+            order = order == 0 ? compareGiverNames(k1, k2) : order;
+            order = order == 0 ? compareRecipientNames(k1, k2) : order;
+            return order == 0 ? compareQuestions(k1, k2) : order;
+        }
+    };
+
+    // Sorts by giverName > recipientName > answer
+    static final Comparator<FeedbackResponseSortKey> GIVER_RECIPIENT_ANSWER = new Comparator<FeedbackResponseSortKey>() {
+        @Override
+        public int compare(FeedbackResponseSortKey k1, FeedbackResponseSortKey k2) {
+            int order = compareGiverNames(k1, k2);
+            order = order == 0 ? compareRecipientNames(k1, k2) : order;
+            return order == 0 ? compareNames(k1.getAnswer(), k2.getAnswer()) : order;
+        }
+    };
+
+    // Sorts by teamName > giverName > recipientName > qnNumber
+    static final Comparator<FeedbackResponseSortKey> TEAM_GIVER_RECIPIENT_QUESTION =
+            new Comparator<FeedbackResponseSortKey>() {
+        @Override
+        public int compare(FeedbackResponseSortKey k1, FeedbackResponseSortKey k2) {
+            int order = compareStrings(k1.giverSection, k2.giverSection);
+            order = order == 0 ? compareStrings(k1.giverTeam, k2.giverTeam) : order;
+            order = order == 0 ? compareGiverNames(k1, k2) : order;
+            order = order == 0 ? compareRecipientNames(k1, k2) : order;
+            return order == 0 ? compareQuestions(k1, k2) : order;
+        }
+    };
+
+    // Sorts by recipientName > giverName > qnNumber
+    static final Comparator<FeedbackResponseSortKey> RECIPIENT_GIVER_QUESTION = new Comparator<FeedbackResponseSortKey>() {
+        @Override
+        public int compare(FeedbackResponseSortKey k1, FeedbackResponseSortKey k2) {
+            int order = compareStrings(k1.recipientSection, k2.recipientSection);
+            order = order == 0 ? compareRecipientNames(k1, k2) : order;
+            order = order == 0 ? compareGiverNames(k1, k2) : order;
+            return order == 0 ? compareQuestions(k1, k2) : order;
+        }
+    };
+
+    // Sorts by teamName > recipientName > giverName > qnNumber
+    static final Comparator<FeedbackResponseSortKey> TEAM_RECIPIENT_GIVER_QUESTION =
+            new Comparator<FeedbackResponseSortKey>() {
+        @Override
+        public int compare(FeedbackResponseSortKey k1, FeedbackResponseSortKey k2) {
+            int order = compareStrings(k1.recipientSection, k2.recipientSection);
+            order = order == 0 ? compareStrings(k1.recipientTeam, k2.recipientTeam) : order;
+            order = order == 0 ? compareRecipientNames(k1, k2) : order;
+            order = order == 0 ? compareGiverNames(k1, k2) : order;
+            return order == 0 ? compareQuestions(k1, k2) : order;
+        }
+    };
+
+    // Sorts by giverName > question > recipientTeam > recipientName
+    static final Comparator<FeedbackResponseSortKey> GIVER_QUESTION_TEAM_RECIPIENT =
+            new Comparator<FeedbackResponseSortKey>() {
+        @Override
+        public int compare(FeedbackResponseSortKey k1, FeedbackResponseSortKey k2) {
+            int order = compareStrings(k1.giverSection, k2.giverSection);
+            order = order == 0 ? compareGiverNames(k1, k2) : order;
+            order = order == 0 ? compareQuestions(k1, k2) : order;
+            order = order == 0 ? compareStrings(k1.recipientTeam, k2.recipientTeam) : order;
+            return order == 0 ? compareRecipientNames(k1, k2) : order;
+        }
+    };
+
+    // Sorts by giverTeam > giverName > question > recipientTeam > recipientName
+    static final Comparator<FeedbackResponseSortKey> TEAM_GIVER_QUESTION_TEAM_RECIPIENT =
+            new Comparator<FeedbackResponseSortKey>() {
+        @Override
+        public int compare(FeedbackResponseSortKey k1, FeedbackResponseSortKey k2) {
+            int order = compareStrings(k1.giverSection, k2.giverSection);
+            order = order == 0 ? compareStrings(k1.giverTeam, k2.giverTeam) : order;
+            order = order == 0 ? compareGiverNames(k1, k2) : order;
+            order = order == 0 ? compareQuestions(k1, k2) : order;
+            order = order == 0 ? compareStrings(k1.recipientTeam, k2.recipientTeam) : order;
+            return order == 0 ? compareRecipientNames(k1, k2) : order;
+        }
+    };
+
+    // Sorts by recipientName > question > giverTeam > giverName
+    static final Comparator<FeedbackResponseSortKey> RECIPIENT_QUESTION_TEAM_GIVER =
+            new Comparator<FeedbackResponseSortKey>() {
+        @Override
+        public int compare(FeedbackResponseSortKey k1, FeedbackResponseSortKey k2) {
+            int order = compareStrings(k1.recipientSection, k2.recipientSection);
+            order = order == 0 ? compareRecipientNames(k1, k2) : order;
+            order = order == 0 ? compareQuestions(k1, k2) : order;
+            order = order == 0 ? compareStrings(k1.giverTeam, k2.giverTeam) : order;
+            return order == 0 ? compareGiverNames(k1, k2) : order;
+        }
+    };
+
+    // Sorts by recipientTeam > recipientName > question > giverTeam > giverName
+    static final Comparator<FeedbackResponseSortKey> TEAM_RECIPIENT_QUESTION_TEAM_GIVER =
+            new Comparator<FeedbackResponseSortKey>() {
+        @Override
+        public int compare(FeedbackResponseSortKey k1, FeedbackResponseSortKey k2) {
+            int order = compareStrings(k1.recipientSection, k2.recipientSection);
+            order = order == 0 ? compareStrings(k1.recipientTeam, k2.recipientTeam) : order;
+            order = order == 0 ? compareRecipientNames(k1, k2) : order;
+            order = order == 0 ? compareQuestions(k1, k2) : order;
+            order = order == 0 ? compareStrings(k1.giverTeam, k2.giverTeam) : order;
+            return order == 0 ? compareGiverNames(k1, k2) : order;
+        }
+    };
+
+    // Sorts by recipientTeam > question > recipientName > giverTeam > giverName
+    static final Comparator<FeedbackResponseSortKey> TEAM_QUESTION_RECIPIENT_TEAM_GIVER =
+            new Comparator<FeedbackResponseSortKey>() {
+        @Override
+        public int compare(FeedbackResponseSortKey k1, FeedbackResponseSortKey k2) {
+            int order = compareStrings(k1.recipientTeam, k2.recipientTeam);
+            order = order == 0 ? compareQuestions(k1, k2) : order;
+            order = order == 0 ? compareRecipientNames(k1, k2) : order;
+            order = order == 0 ? compareStrings(k1.giverTeam, k2.giverTeam) : order;
+            return order == 0 ? compareGiverNames(k1, k2) : order;
+        }
+    };
+
+    // Sorts by giverTeam > question > giverName > recipientTeam > recipientName
+    static final Comparator<FeedbackResponseSortKey> TEAM_QUESTION_GIVER_TEAM_RECIPIENT =
+            new Comparator<FeedbackResponseSortKey>() {
+        @Override
+        public int compare(FeedbackResponseSortKey k1, FeedbackResponseSortKey k2) {
+            int order = compareStrings(k1.giverTeam, k2.giverTeam);
+            order = order == 0 ? compareQuestions(k1, k2) : order;
+            order = order == 0 ? compareGiverNames(k1, k2) : order;
+            order = order == 0 ? compareStrings(k1.recipientTeam, k2.recipientTeam) : order;
+            return order == 0 ? compareRecipientNames(k1, k2) : order;
+        }
+    };
+
+    // Sorts by recipientName > recipientEmail > giverName > giverEmail
+    static final Comparator<FeedbackResponseSortKey> RECIPIENT_NAME_EMAIL_GIVER_NAME_EMAIL =
+            new Comparator<FeedbackResponseSortKey>() {
+        @Override
+        public int compare(FeedbackResponseSortKey k1, FeedbackResponseSortKey k2) {
+            int order = compareNames(k1.recipientDisplayName, k2.recipientDisplayName);
+            order = order == 0 ? compareNames(k1.response.recipientEmail, k2.response.recipientEmail) : order;
+            order = order == 0 ? compareNames(k1.giverDisplayName, k2.giverDisplayName) : order;
+            return order == 0 ? compareNames(k1.response.giverEmail, k2.response.giverEmail) : order;
+        }
+    };
+
+    /** Used by questions that are not in the bundle, which are not ordered with respect to any question. */
+    static final int UNKNOWN_QUESTION_RANK = -1;
+
+    final FeedbackResponseAttributes response;
+
+    private final String giverSection;
+    private final String recipientSection;
+
+    /** Names as in the email-name table of the bundle, which are sorted by {@link #compareNames}. */
+    private final String giverName;
+    private final String recipientName;
+    private final int giverNamePriority;
+    private final int recipientNamePriority;
+
+    /** Names as shown to users. */
+    private final String giverDisplayName;
+    private final String recipientDisplayName;
+
+    /** The team name, or the name if the participant is not in a team. */
+    private final String giverTeam;
+    private final String recipientTeam;
+
+    /** The position of the question in the natural order of the questions of the bundle. */
+    private final int questionRank;
+
+    private String answer;
+
+    FeedbackResponseSortKey(FeedbackResponseAttributes response, String giverName, String recipientName,
+                            String giverDisplayName, String recipientDisplayName,
+                            String giverTeam, String recipientTeam, int questionRank) {
+        this.response = response;
+        this.giverSection = response.giverSection;
+        this.recipientSection = response.recipientSection;
+        this.giverName = giverName;
+        this.recipientName = recipientName;
+        this.giverNamePriority = getNamePriority(giverName);
+        this.recipientNamePriority = getNamePriority(recipientName);
+        this.giverDisplayName = giverDisplayName;
+        this.recipientDisplayName = recipientDisplayName;
+        this.giverTeam = giverTeam;
+        this.recipientTeam = recipientTeam;
+        this.questionRank = questionRank;
+    }
+
+    /**
+     * The answer is only needed by one of the orders, so it is only resolved when it is first compared.
+     */
+    private String getAnswer() {
+        if (answer == null) {
+            answer = response.getResponseDetails().getAnswerString();
+        }
+        return answer;
+    }
+
+    private static int compareGiverNames(FeedbackResponseSortKey k1, FeedbackResponseSortKey k2) {
+        int order = Integer.compare(k1.giverNamePriority, k2.giverNamePriority);
+        return order == 0 ? compareStrings(k1.giverName, k2.giverName) : order;
+    }
+
+    private static int compareRecipientNames(FeedbackResponseSortKey k1, FeedbackResponseSortKey k2) {
+        int order = Integer.compare(k1.recipientNamePriority, k2.recipientNamePriority);
+        return order == 0 ? compareStrings(k1.recipientName, k2.recipientName) : order;
+    }
+
+    private static int compareQuestions(FeedbackResponseSortKey k1, FeedbackResponseSortKey k2) {
+        if (k1.questionRank == UNKNOWN_QUESTION_RANK || k2.questionRank == UNKNOWN_QUESTION_RANK) {
+            return 0;
+        }
+        return Integer.compare(k1.questionRank, k2.questionRank);
+    }
+
+    /**
+     * Makes class feedback always appear on top, and team responses at bottom.
+     */
+    private static int compareNames(String n1, String n2) {
+        int order = Integer.compare(getNamePriority(n1), getNamePriority(n2));
+        return order == 0 ? compareStrings(n1, n2) : order;
+    }
+
+    private static int getNamePriority(String name) {
+        if (name.equals(Const.USER_IS_NOBODY)) {
+            return -1;
+        } else if (name.equals(Const.USER_IS_TEAM)) {
+            return 1;
+        }
+        return 0;
+    }
+
+    /**
+     * Names and teams of the same participant are usually the same instance, so they are checked for that first.
+     */
+    private static int compareStrings(String s1, String s2) {
+        return s1 == s2 ? 0 : s1.compareTo(s2);
+    }
+}
@@ -643,10 +643,9 @@ public class FeedbackRubricQuestionDetails extends FeedbackQuestionDetails {
         }
         
         // Count frequencies
-        for (FeedbackResponseAttributes response : responses) {
-            FeedbackRubricResponseDetails frd = (FeedbackRubricResponseDetails) response.getResponseDetails();
+        for (int[] answer : FeedbackResponseDetailsDecoder.decodeRubricAnswers(responses)) {
             for (int i = 0; i < fqd.numOfRubricSubQuestions; i++) {
-                int chosenChoice = frd.getAnswer(i);
+                int chosenChoice = answer[i];
                 if (chosenChoice != -1) {
                     responseFrequency[i][chosenChoice] += 1;
                 }
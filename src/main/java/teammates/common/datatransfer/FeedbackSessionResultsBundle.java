@@ -1,6 +1,7 @@
 package teammates.common.datatransfer;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -41,6 +42,20 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
     public Map<String, List<FeedbackResponseCommentAttributes>> responseComments;
     public boolean isComplete;
 
+    private FeedbackParticipantIndex participantIndex;
+
+    /**
+     * Cursor at which the responses of this bundle start, if the responses were loaded by page.
+     * Null for the first page.
+     */
+    public String responsesCursor;
+
+    /**
+     * Cursor to load the page of responses following the responses of this bundle,
+     * or null if there are no more responses to load.
+     */
+    public String nextResponsesCursor;
+
     /**
      * Responses with identities of giver/recipients NOT hidden.
      * To be used for anonymous result calculation only, and identities hidden before showing to users.
@@ -66,472 +81,6 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
     */
     public Map<String, Set<String>> sectionTeamNameTable;
 
-    // Sorts by giverName > recipientName > qnNumber
-    // General questions and team questions at the bottom.
-    public Comparator<FeedbackResponseAttributes> compareByGiverRecipientQuestion =
-            new Comparator<FeedbackResponseAttributes>() {
-        @Override
-        public int compare(FeedbackResponseAttributes o1, FeedbackResponseAttributes o2) {
-            String giverSection1 = o1.giverSection;
-            String giverSection2 = o2.giverSection;
-            int order = giverSection1.compareTo(giverSection2);
-            if (order != 0) {
-                return order;
-            }
-
-            String giverName1 = emailNameTable.get(o1.giverEmail);
-            String giverName2 = emailNameTable.get(o2.giverEmail);
-            order = compareByNames(giverName1, giverName2);
-            if (order != 0) {
-                return order;
-            }
-
-            String recipientName1 = emailNameTable.get(o1.recipientEmail);
-            String recipientName2 = emailNameTable.get(o2.recipientEmail);
-            order = compareByNames(recipientName1, recipientName2);
-            if (order != 0) {
-                return order;
-            }
-
-            order = compareByQuestionNumber(o1, o2);
-            return order;
-        }
-    };
-
-    // Sorts by giverName > recipientName
-    private Comparator<FeedbackResponseAttributes> compareByGiverRecipient =
-            new Comparator<FeedbackResponseAttributes>() {
-        @Override
-        public int compare(FeedbackResponseAttributes o1, FeedbackResponseAttributes o2) {
-            String giverName1 = emailNameTable.get(o1.giverEmail);
-            String giverName2 = emailNameTable.get(o2.giverEmail);
-            int order = compareByNames(giverName1, giverName2);
-            if (order != 0) {
-                return order;
-            }
-
-            String recipientName1 = emailNameTable.get(o1.recipientEmail);
-            String recipientName2 = emailNameTable.get(o2.recipientEmail);
-            order = compareByNames(recipientName1, recipientName2);
-            if (order != 0) {
-                return order;
-            }
-
-            String resp1 = o1.getResponseDetails().getAnswerString();
-            String resp2 = o2.getResponseDetails().getAnswerString();
-            order = compareByNames(resp1, resp2);
-            return order;
-        }
-    };
-
-    // Sorts by teamName > giverName > recipientName > qnNumber
-    private Comparator<FeedbackResponseAttributes> compareByTeamGiverRecipientQuestion =
-            new Comparator<FeedbackResponseAttributes>() {
-        @Override
-        public int compare(FeedbackResponseAttributes o1, FeedbackResponseAttributes o2) {
-            String giverSection1 = o1.giverSection;
-            String giverSection2 = o2.giverSection;
-            int order = giverSection1.compareTo(giverSection2);
-            if (order != 0) {
-                return order;
-            }
-
-            String t1 = getTeamNameForEmail(o1.giverEmail).isEmpty() ? getNameForEmail(o1.giverEmail)
-                                                                     : getTeamNameForEmail(o1.giverEmail);
-            String t2 = getTeamNameForEmail(o2.giverEmail).isEmpty() ? getNameForEmail(o2.giverEmail)
-                                                                     : getTeamNameForEmail(o2.giverEmail);
-            order = t1.compareTo(t2);
-            if (order != 0) {
-                return order;
-            }
-
-            String giverName1 = emailNameTable.get(o1.giverEmail);
-            String giverName2 = emailNameTable.get(o2.giverEmail);
-            order = compareByNames(giverName1, giverName2);
-            if (order != 0) {
-                return order;
-            }
-
-            String recipientName1 = emailNameTable.get(o1.recipientEmail);
-            String recipientName2 = emailNameTable.get(o2.recipientEmail);
-            order = compareByNames(recipientName1, recipientName2);
-            if (order != 0) {
-                return order;
-            }
-
-            order = compareByQuestionNumber(o1, o2);
-            return order;
-        }
-    };
-
-    // Sorts by recipientName > giverName > qnNumber
-    private Comparator<FeedbackResponseAttributes> compareByRecipientGiverQuestion =
-            new Comparator<FeedbackResponseAttributes>() {
-        @Override
-        public int compare(FeedbackResponseAttributes o1, FeedbackResponseAttributes o2) {
-            String recipientSection1 = o1.recipientSection;
-            String recipientSection2 = o2.recipientSection;
-            int order = recipientSection1.compareTo(recipientSection2);
-            if (order != 0) {
-                return order;
-            }
-
-            String recipientName1 = emailNameTable.get(o1.recipientEmail);
-            String recipientName2 = emailNameTable.get(o2.recipientEmail);
-            order = compareByNames(recipientName1, recipientName2);
-            if (order != 0) {
-                return order;
-            }
-
-            String giverName1 = emailNameTable.get(o1.giverEmail);
-            String giverName2 = emailNameTable.get(o2.giverEmail);
-            order = compareByNames(giverName1, giverName2);
-            if (order != 0) {
-                return order;
-            }
-
-            order = compareByQuestionNumber(o1, o2);
-            return order;
-        }
-    };
-
-    // Sorts by teamName > recipientName > giverName > qnNumber
-    private Comparator<FeedbackResponseAttributes> compareByTeamRecipientGiverQuestion =
-            new Comparator<FeedbackResponseAttributes>() {
-        @Override
-        public int compare(FeedbackResponseAttributes o1, FeedbackResponseAttributes o2) {
-            String recipientSection1 = o1.recipientSection;
-            String recipientSection2 = o2.recipientSection;
-            int order = recipientSection1.compareTo(recipientSection2);
-            if (order != 0) {
-                return order;
-            }
-
-            String t1 = getTeamNameForEmail(o1.recipientEmail).isEmpty() ? getNameForEmail(o1.recipientEmail)
-                                                                         : getTeamNameForEmail(o1.recipientEmail);
-            String t2 = getTeamNameForEmail(o2.recipientEmail).isEmpty() ? getNameForEmail(o2.recipientEmail)
-                                                                         : getTeamNameForEmail(o2.recipientEmail);
-            order = t1.compareTo(t2);
-            if (order != 0) {
-                return order;
-            }
-
-            String recipientName1 = emailNameTable.get(o1.recipientEmail);
-            String recipientName2 = emailNameTable.get(o2.recipientEmail);
-            order = compareByNames(recipientName1, recipientName2);
-            if (order != 0) {
-                return order;
-            }
-
-            String giverName1 = emailNameTable.get(o1.giverEmail);
-            String giverName2 = emailNameTable.get(o2.giverEmail);
-            order = compareByNames(giverName1, giverName2);
-            if (order != 0) {
-                return order;
-            }
-
-            order = compareByQuestionNumber(o1, o2);
-            return order;
-        }
-    };
-
-    // Sorts by giverName > question > recipientTeam > recipientName
-    private Comparator<FeedbackResponseAttributes> compareByGiverQuestionTeamRecipient =
-            new Comparator<FeedbackResponseAttributes>() {
-        @Override
-        public int compare(FeedbackResponseAttributes o1, FeedbackResponseAttributes o2) {
-            String giverSection1 = o1.giverSection;
-            String giverSection2 = o2.giverSection;
-            int order = giverSection1.compareTo(giverSection2);
-            if (order != 0) {
-                return order;
-            }
-
-            String giverName1 = emailNameTable.get(o1.giverEmail);
-            String giverName2 = emailNameTable.get(o2.giverEmail);
-            order = compareByNames(giverName1, giverName2);
-            if (order != 0) {
-                return order;
-            }
-
-            order = compareByQuestionNumber(o1, o2);
-            if (order != 0) {
-                return order;
-            }
-
-            String t1 = getTeamNameForEmail(o1.recipientEmail).isEmpty() ? getNameForEmail(o1.recipientEmail)
-                                                                         : getTeamNameForEmail(o1.recipientEmail);
-            String t2 = getTeamNameForEmail(o2.recipientEmail).isEmpty() ? getNameForEmail(o2.recipientEmail)
-                                                                         : getTeamNameForEmail(o2.recipientEmail);
-            order = t1.compareTo(t2);
-            if (order != 0) {
-                return order;
-            }
-
-            String recipientName1 = emailNameTable.get(o1.recipientEmail);
-            String recipientName2 = emailNameTable.get(o2.recipientEmail);
-            order = compareByNames(recipientName1, recipientName2);
-            return order;
-        }
-    };
-
-    // Sorts by giverTeam > giverName > question > recipientTeam > recipientName
-    private Comparator<FeedbackResponseAttributes> compareByTeamGiverQuestionTeamRecipient =
-            new Comparator<FeedbackResponseAttributes>() {
-        @Override
-        public int compare(FeedbackResponseAttributes o1, FeedbackResponseAttributes o2) {
-            String giverSection1 = o1.giverSection;
-            String giverSection2 = o2.giverSection;
-            int order = giverSection1.compareTo(giverSection2);
-            if (order != 0) {
-                return order;
-            }
-
-            String giverTeam1 = getTeamNameForEmail(o1.giverEmail).isEmpty() ? getNameForEmail(o1.giverEmail)
-                                                                             : getTeamNameForEmail(o1.giverEmail);
-            String giverTeam2 = getTeamNameForEmail(o2.giverEmail).isEmpty() ? getNameForEmail(o2.giverEmail)
-                                                                             : getTeamNameForEmail(o2.giverEmail);
-            order = giverTeam1.compareTo(giverTeam2);
-            if (order != 0) {
-                return order;
-            }
-
-            String giverName1 = emailNameTable.get(o1.giverEmail);
-            String giverName2 = emailNameTable.get(o2.giverEmail);
-            order = compareByNames(giverName1, giverName2);
-            if (order != 0) {
-                return order;
-            }
-
-            order = compareByQuestionNumber(o1, o2);
-            if (order != 0) {
-                return order;
-            }
-
-            String receiverTeam1 = getTeamNameForEmail(o1.recipientEmail).isEmpty() ? getNameForEmail(o1.recipientEmail)
-                                                                                    : getTeamNameForEmail(o1.recipientEmail);
-            String receiverTeam2 = getTeamNameForEmail(o2.recipientEmail).isEmpty() ? getNameForEmail(o2.recipientEmail)
-                                                                                    : getTeamNameForEmail(o2.recipientEmail);
-            order = receiverTeam1.compareTo(receiverTeam2);
-            if (order != 0) {
-                return order;
-            }
-
-            String recipientName1 = emailNameTable.get(o1.recipientEmail);
-            String recipientName2 = emailNameTable.get(o2.recipientEmail);
-            order = compareByNames(recipientName1, recipientName2);
-            return order;
-        }
-    };
-
-    // Sorts by recipientName > question > giverTeam > giverName
-    private final Comparator<FeedbackResponseAttributes> compareByRecipientQuestionTeamGiver =
-            new Comparator<FeedbackResponseAttributes>() {
-        @Override
-        public int compare(FeedbackResponseAttributes o1, FeedbackResponseAttributes o2) {
-            String recipientSection1 = o1.recipientSection;
-            String recipientSection2 = o2.recipientSection;
-            int order = recipientSection1.compareTo(recipientSection2);
-            if (order != 0) {
-                return order;
-            }
-
-            String recipientName1 = emailNameTable.get(o1.recipientEmail);
-            String recipientName2 = emailNameTable.get(o2.recipientEmail);
-            order = compareByNames(recipientName1, recipientName2);
-            if (order != 0) {
-                return order;
-            }
-
-            order = compareByQuestionNumber(o1, o2);
-            if (order != 0) {
-                return order;
-            }
-
-            String t1 = getTeamNameForEmail(o1.giverEmail).isEmpty() ? getNameForEmail(o1.giverEmail)
-                                                                     : getTeamNameForEmail(o1.giverEmail);
-            String t2 = getTeamNameForEmail(o2.giverEmail).isEmpty() ? getNameForEmail(o2.giverEmail)
-                                                                     : getTeamNameForEmail(o2.giverEmail);
-            order = t1.compareTo(t2);
-            if (order != 0) {
-                return order;
-            }
-
-            String giverName1 = emailNameTable.get(o1.giverEmail);
-            String giverName2 = emailNameTable.get(o2.giverEmail);
-            order = compareByNames(giverName1, giverName2);
-            return order;
-        }
-    };
-
-    // Sorts by recipientTeam > recipientName > question > giverTeam > giverName
-    private Comparator<FeedbackResponseAttributes> compareByTeamRecipientQuestionTeamGiver =
-            new Comparator<FeedbackResponseAttributes>() {
-        @Override
-        public int compare(FeedbackResponseAttributes o1, FeedbackResponseAttributes o2) {
-            String recipientSection1 = o1.recipientSection;
-            String recipientSection2 = o2.recipientSection;
-            int order = recipientSection1.compareTo(recipientSection2);
-            if (order != 0) {
-                return order;
-            }
-
-            String recipientTeam1 = getTeamNameForEmail(o1.recipientEmail).isEmpty() ? getNameForEmail(o1.recipientEmail)
-                                                                                     : getTeamNameForEmail(o1.recipientEmail);
-            String recipientTeam2 = getTeamNameForEmail(o2.recipientEmail).isEmpty() ? getNameForEmail(o2.recipientEmail)
-                                                                                     : getTeamNameForEmail(o2.recipientEmail);
-            order = recipientTeam1.compareTo(recipientTeam2);
-            if (order != 0) {
-                return order;
-            }
-
-            String recipientName1 = emailNameTable.get(o1.recipientEmail);
-            String recipientName2 = emailNameTable.get(o2.recipientEmail);
-            order = compareByNames(recipientName1, recipientName2);
-            if (order != 0) {
-                return order;
-            }
-
-            order = compareByQuestionNumber(o1, o2);
-            if (order != 0) {
-                return order;
-            }
-
-            String giverTeam1 = getTeamNameForEmail(o1.giverEmail).isEmpty() ? getNameForEmail(o1.giverEmail)
-                                                                             : getTeamNameForEmail(o1.giverEmail);
-            String giverTeam2 = getTeamNameForEmail(o2.giverEmail).isEmpty() ? getNameForEmail(o2.giverEmail)
-                                                                             : getTeamNameForEmail(o2.giverEmail);
-            order = giverTeam1.compareTo(giverTeam2);
-            if (order != 0) {
-                return order;
-            }
-
-            String giverName1 = emailNameTable.get(o1.giverEmail);
-            String giverName2 = emailNameTable.get(o2.giverEmail);
-            order = compareByNames(giverName1, giverName2);
-            return order;
-        }
-    };
-
-    // Sorts by recipientTeam > question > recipientName > giverTeam > giverName
-    private Comparator<FeedbackResponseAttributes> compareByTeamQuestionRecipientTeamGiver =
-            new Comparator<FeedbackResponseAttributes>() {
-        @Override
-        public int compare(FeedbackResponseAttributes o1, FeedbackResponseAttributes o2) {
-            String recipientTeam1 = getTeamNameForEmail(o1.recipientEmail).isEmpty() ? getNameForEmail(o1.recipientEmail)
-                                                                                     : getTeamNameForEmail(o1.recipientEmail);
-            String recipientTeam2 = getTeamNameForEmail(o2.recipientEmail).isEmpty() ? getNameForEmail(o2.recipientEmail)
-                                                                                     : getTeamNameForEmail(o2.recipientEmail);
-            int order = recipientTeam1.compareTo(recipientTeam2);
-            if (order != 0) {
-                return order;
-            }
-
-            order = compareByQuestionNumber(o1, o2);
-            if (order != 0) {
-                return order;
-            }
-
-            String recipientName1 = emailNameTable.get(o1.recipientEmail);
-            String recipientName2 = emailNameTable.get(o2.recipientEmail);
-            order = compareByNames(recipientName1, recipientName2);
-            if (order != 0) {
-                return order;
-            }
-
-            String giverTeam1 = getTeamNameForEmail(o1.giverEmail).isEmpty() ? getNameForEmail(o1.giverEmail)
-                                                                             : getTeamNameForEmail(o1.giverEmail);
-            String giverTeam2 = getTeamNameForEmail(o2.giverEmail).isEmpty() ? getNameForEmail(o2.giverEmail)
-                                                                             : getTeamNameForEmail(o2.giverEmail);
-            order = giverTeam1.compareTo(giverTeam2);
-            if (order != 0) {
-                return order;
-            }
-
-            String giverName1 = emailNameTable.get(o1.giverEmail);
-            String giverName2 = emailNameTable.get(o2.giverEmail);
-            order = compareByNames(giverName1, giverName2);
-            return order;
-        }
-    };
-
-    // Sorts by giverTeam > question > giverName > recipientTeam > recipientName
-    private Comparator<FeedbackResponseAttributes> compareByTeamQuestionGiverTeamRecipient =
-            new Comparator<FeedbackResponseAttributes>() {
-        @Override
-        public int compare(FeedbackResponseAttributes o1, FeedbackResponseAttributes o2) {
-            String giverTeam1 = getTeamNameForEmail(o1.giverEmail).isEmpty() ? getNameForEmail(o1.giverEmail)
-                                                                             : getTeamNameForEmail(o1.giverEmail);
-            String giverTeam2 = getTeamNameForEmail(o2.giverEmail).isEmpty() ? getNameForEmail(o2.giverEmail)
-                                                                             : getTeamNameForEmail(o2.giverEmail);
-            int order = giverTeam1.compareTo(giverTeam2);
-            if (order != 0) {
-                return order;
-            }
-
-            order = compareByQuestionNumber(o1, o2);
-            if (order != 0) {
-                return order;
-            }
-
-            String giverName1 = emailNameTable.get(o1.giverEmail);
-            String giverName2 = emailNameTable.get(o2.giverEmail);
-            order = compareByNames(giverName1, giverName2);
-            if (order != 0) {
-                return order;
-            }
-
-            String receiverTeam1 = getTeamNameForEmail(o1.recipientEmail).isEmpty() ? getNameForEmail(o1.recipientEmail)
-                                                                                    : getTeamNameForEmail(o1.recipientEmail);
-            String receiverTeam2 = getTeamNameForEmail(o2.recipientEmail).isEmpty() ? getNameForEmail(o2.recipientEmail)
-                                                                                    : getTeamNameForEmail(o2.recipientEmail);
-            order = receiverTeam1.compareTo(receiverTeam2);
-            if (order != 0) {
-                return order;
-            }
-
-            String recipientName1 = emailNameTable.get(o1.recipientEmail);
-            String recipientName2 = emailNameTable.get(o2.recipientEmail);
-            order = compareByNames(recipientName1, recipientName2);
-            return order;
-        }
-    };
-
-    // Sorts by recipientName > recipientEmail > giverName > giverEmail
-    private Comparator<FeedbackResponseAttributes> compareByRecipientNameEmailGiverNameEmail =
-            new Comparator<FeedbackResponseAttributes>() {
-        @Override
-        public int compare(FeedbackResponseAttributes o1, FeedbackResponseAttributes o2) {
-            // Compare by Recipient Name
-            int recipientNameCompareResult = compareByNames(getNameForEmail(o1.recipientEmail),
-                                                            getNameForEmail(o2.recipientEmail));
-            if (recipientNameCompareResult != 0) {
-                return recipientNameCompareResult;
-            }
-            
-            // Compare by Recipient Email
-            int recipientEmailCompareResult = compareByNames(o1.recipientEmail, o2.recipientEmail);
-            if (recipientEmailCompareResult != 0) {
-                return recipientEmailCompareResult;
-            }
-            
-            // Compare by Giver Name
-            int giverNameCompareResult = compareByNames(getNameForEmail(o1.giverEmail),
-                                                        getNameForEmail(o2.giverEmail));
-            if (giverNameCompareResult != 0) {
-                return giverNameCompareResult;
-            }
-            
-            // Compare by Giver Email
-            int giverEmailCompareResult = compareByNames(o1.giverEmail, o2.giverEmail);
-            if (giverEmailCompareResult != 0) {
-                return giverEmailCompareResult;
-            }
-            
-            return 0;
-        }
-    };
-
     public FeedbackSessionResultsBundle(FeedbackSessionAttributes feedbackSession,
                                         List<FeedbackResponseAttributes> responses,
                                         Map<String, FeedbackQuestionAttributes> questions,
@@ -635,6 +184,13 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
         }
     }
 
+    /**
+     * @return true if the bundle holds only some of the responses, loaded by page
+     */
+    public boolean isPageOfResponses() {
+        return responsesCursor != null || nextResponsesCursor != null;
+    }
+
     /**
      * Checks if the giver/recipient for a response is visible/hidden from the current user.
      */
@@ -960,6 +516,25 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
         return possibleGivers;
     }
 
+    /**
+     * Keeps only the givers who are in the same team as the student, in the order of the givers.
+     * @param excludedEmail the email of a team member who is not a possible giver, or null if there is none
+     */
+    private List<String> retainTeamMembers(FeedbackParticipantType giverType, List<String> possibleGivers,
+                                           StudentAttributes student, String excludedEmail) {
+        if (giverType == FeedbackParticipantType.STUDENTS) {
+            // possibleGivers are all the students, so the team members can be taken from the index directly
+            return getParticipantIndex().getTeamMemberEmailsInStudentOrder(student.team, excludedEmail);
+        }
+        List<String> teamMembers = new ArrayList<String>();
+        for (String giver : possibleGivers) {
+            if (!giver.equals(excludedEmail) && getParticipantIndex().isTeamMember(student.team, giver)) {
+                teamMembers.add(giver);
+            }
+        }
+        return teamMembers;
+    }
+
     /**
      * Get the possible givers for a STUDENT recipient for the question specified
      * @param fqa
@@ -1000,10 +575,10 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
             possibleGivers.add(studentRecipient.email);
             break;
         case OWN_TEAM_MEMBERS:
-            possibleGivers.retainAll(getSortedListOfTeamMembersEmailsExcludingSelf(studentRecipient));
+            possibleGivers = retainTeamMembers(giverType, possibleGivers, studentRecipient, studentRecipient.email);
             break;
         case OWN_TEAM_MEMBERS_INCLUDING_SELF:
-            possibleGivers.retainAll(getSortedListOfTeamMembersEmails(studentRecipient));
+            possibleGivers = retainTeamMembers(giverType, possibleGivers, studentRecipient, null);
             break;
         default:
             break;
@@ -1244,11 +819,7 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
             possibleRecipients = getSortedListOfStudentEmails();
             break;
         case OWN_TEAM_MEMBERS_INCLUDING_SELF:
-            if (rosterTeamNameMembersTable.containsKey(givingTeam)) {
-                Set<String> studentEmailsToNames = rosterTeamNameMembersTable.get(givingTeam);
-                possibleRecipients = new ArrayList<String>(studentEmailsToNames);
-                Collections.sort(possibleRecipients);
-            }
+            possibleRecipients = getParticipantIndex().getTeamMemberEmails(givingTeam);
             break;
         case NONE:
             possibleRecipients.add(Const.GENERAL_QUESTION);
@@ -1262,10 +833,7 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
     }
 
     private List<String> getSortedListOfTeamsExcludingOwnTeam(StudentAttributes student) {
-        String studentTeam = student.team;
-        List<String> listOfTeams = getSortedListOfTeams();
-        listOfTeams.remove(studentTeam);
-        return listOfTeams;
+        return getParticipantIndex().getTeamsExcluding(student.team);
     }
 
     /**
@@ -1273,10 +841,7 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
      * Instructors are not present as a team.
      */
     private List<String> getSortedListOfTeams() {
-        List<String> teams = new ArrayList<String>(rosterTeamNameMembersTable.keySet());
-        teams.remove(Const.USER_TEAM_FOR_INSTRUCTOR);
-        Collections.sort(teams);
-        return teams;
+        return getParticipantIndex().getTeams();
     }
 
     /**
@@ -1288,11 +853,7 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
      * @return a list of team members, including the original student
      */
     public List<String> getSortedListOfTeamMembersEmails(StudentAttributes student) {
-        String teamName = student.team;
-        Set<String> teamMembersEmailsToNames = rosterTeamNameMembersTable.get(teamName);
-        List<String> teamMembers = new ArrayList<String>(teamMembersEmailsToNames);
-        Collections.sort(teamMembers);
-        return teamMembers;
+        return getParticipantIndex().getTeamMemberEmails(student.team);
     }
 
     /**
@@ -1315,13 +876,7 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
      * @return a list of student emails, sorted by section name
      */
     private List<String> getSortedListOfStudentEmails() {
-        List<String> emailList = new ArrayList<String>();
-        List<StudentAttributes> students = roster.getStudents();
-        StudentAttributes.sortBySectionName(students);
-        for (StudentAttributes student : students) {
-            emailList.add(student.email);
-        }
-        return emailList;
+        return getParticipantIndex().getStudentEmails();
     }
 
     /**
@@ -1329,13 +884,18 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
      * @return a list of instructor emails, sorted alphabetically
      */
     private List<String> getSortedListOfInstructorEmails() {
-        List<String> emailList = new ArrayList<String>();
-        List<InstructorAttributes> instructors = roster.getInstructors();
-        for (InstructorAttributes instructor : instructors) {
-            emailList.add(instructor.email);
+        return getParticipantIndex().getInstructorEmails();
+    }
+
+    /**
+     * The sorted lists of possible givers and recipients are built from the roster
+     * the first time they are needed, and reused for every giver and recipient after that.
+     */
+    private FeedbackParticipantIndex getParticipantIndex() {
+        if (participantIndex == null) {
+            participantIndex = new FeedbackParticipantIndex(roster, rosterTeamNameMembersTable);
         }
-        Collections.sort(emailList);
-        return emailList;
+        return participantIndex;
     }
 
     /**
@@ -1525,7 +1085,7 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
         }
 
         for (List<FeedbackResponseAttributes> responsesForQuestion : sortedMap.values()) {
-            Collections.sort(responsesForQuestion, compareByGiverRecipient);
+            sortResponses(responsesForQuestion, FeedbackResponseSortKey.GIVER_RECIPIENT_ANSWER);
         }
 
         return sortedMap;
@@ -1553,7 +1113,7 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
         }
 
         for (List<FeedbackResponseAttributes> responsesForQuestion : sortedMap.values()) {
-            Collections.sort(responsesForQuestion, compareByRecipientNameEmailGiverNameEmail);
+            sortResponses(responsesForQuestion, FeedbackResponseSortKey.RECIPIENT_NAME_EMAIL_GIVER_NAME_EMAIL);
         }
 
         return sortedMap;
@@ -1566,7 +1126,7 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
         Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>> responsesForOneRecipient = null;
         List<FeedbackResponseAttributes> responsesForOneRecipientOneQuestion = null;
 
-        Collections.sort(responses, compareByTeamQuestionRecipientTeamGiver);
+        sortResponses(responses, FeedbackResponseSortKey.TEAM_QUESTION_RECIPIENT_TEAM_GIVER);
 
         String recipientTeam = null;
         String questionId = null;
@@ -1620,7 +1180,7 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
         LinkedHashMap<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>> responsesFromOneGiver = null;
         List<FeedbackResponseAttributes> responsesFromOneGiverOneQuestion = null;
 
-        Collections.sort(responses, compareByTeamQuestionGiverTeamRecipient);
+        sortResponses(responses, FeedbackResponseSortKey.TEAM_QUESTION_GIVER_TEAM_RECIPIENT);
 
         String giverTeam = null;
         String questionId = null;
@@ -1681,10 +1241,9 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
         List<FeedbackResponseAttributes> responsesForOneRecipientOneQuestion = null;
 
         if (sortByTeam) {
-            Collections
-                    .sort(responses, compareByTeamRecipientQuestionTeamGiver);
+            sortResponses(responses, FeedbackResponseSortKey.TEAM_RECIPIENT_QUESTION_TEAM_GIVER);
         } else {
-            Collections.sort(responses, compareByRecipientQuestionTeamGiver);
+            sortResponses(responses, FeedbackResponseSortKey.RECIPIENT_QUESTION_TEAM_GIVER);
         }
 
         String recipient = null;
@@ -1747,9 +1306,9 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
                 new LinkedHashMap<String, Map<String, List<FeedbackResponseAttributes>>>();
         
         if (sortByTeam) {
-            Collections.sort(responses, compareByTeamRecipientGiverQuestion);
+            sortResponses(responses, FeedbackResponseSortKey.TEAM_RECIPIENT_GIVER_QUESTION);
         } else {
-            Collections.sort(responses, compareByRecipientGiverQuestion);
+            sortResponses(responses, FeedbackResponseSortKey.RECIPIENT_GIVER_QUESTION);
         }
         
         String prevGiver = null;
@@ -1823,7 +1382,7 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
         LinkedHashMap<String, Map<String, List<FeedbackResponseAttributes>>> sortedMap =
                 new LinkedHashMap<String, Map<String, List<FeedbackResponseAttributes>>>();
 
-        Collections.sort(responses, compareByTeamRecipientGiverQuestion);
+        sortResponses(responses, FeedbackResponseSortKey.TEAM_RECIPIENT_GIVER_QUESTION);
    
         
         String prevGiver = null;
@@ -1887,9 +1446,9 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
         List<FeedbackResponseAttributes> responsesFromOneGiverOneQuestion = null;
 
         if (sortByTeam) {
-            Collections.sort(responses, compareByTeamGiverQuestionTeamRecipient);
+            sortResponses(responses, FeedbackResponseSortKey.TEAM_GIVER_QUESTION_TEAM_RECIPIENT);
         } else {
-            Collections.sort(responses, compareByGiverQuestionTeamRecipient);
+            sortResponses(responses, FeedbackResponseSortKey.GIVER_QUESTION_TEAM_RECIPIENT);
         }
 
         String giver = null;
@@ -1952,9 +1511,9 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
                 new LinkedHashMap<String, Map<String, List<FeedbackResponseAttributes>>>();
         
         if (sortByTeam) {
-            Collections.sort(responses, compareByTeamGiverRecipientQuestion);
+            sortResponses(responses, FeedbackResponseSortKey.TEAM_GIVER_RECIPIENT_QUESTION);
         } else {
-            Collections.sort(responses, compareByGiverRecipientQuestion);
+            sortByGiverRecipientQuestion(responses);
         }
         
         String prevRecipient = null;
@@ -2024,7 +1583,7 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
                 getResponsesSortedByGiverRecipientQuestion() {
         Map<String, Map<String, List<FeedbackResponseAttributes>>> sortedMap =
                 new LinkedHashMap<String, Map<String, List<FeedbackResponseAttributes>>>();
-        Collections.sort(responses, compareByTeamGiverRecipientQuestion);
+        sortResponses(responses, FeedbackResponseSortKey.TEAM_GIVER_RECIPIENT_QUESTION);
         
         
         String prevRecipient = null;
@@ -2137,34 +1696,69 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
         return sectionToTeam;
     }
 
-    private int compareByQuestionNumber(FeedbackResponseAttributes r1,
-                                        FeedbackResponseAttributes r2) {
-        FeedbackQuestionAttributes q1 = questions.get(r1.feedbackQuestionId);
-        FeedbackQuestionAttributes q2 = questions.get(r2.feedbackQuestionId);
-        if (q1 == null || q2 == null) {
-            return 0;
-        }
-        return q1.compareTo(q2);
+    /**
+     * Sorts the responses by giverName > recipientName > qnNumber.
+     * General questions and team questions are at the bottom.
+     */
+    public void sortByGiverRecipientQuestion(List<FeedbackResponseAttributes> responsesToSort) {
+        sortResponses(responsesToSort, FeedbackResponseSortKey.GIVER_RECIPIENT_QUESTION);
     }
 
-    private int compareByNames(String n1, String n2) {
-        // Make class feedback always appear on top, and team responses at bottom.
-        int n1Priority = 0;
-        int n2Priority = 0;
-
-        if (n1.equals(Const.USER_IS_NOBODY)) {
-            n1Priority = -1;
-        } else if (n1.equals(Const.USER_IS_TEAM)) {
-            n1Priority = 1;
+    /**
+     * Sorts the responses by resolving the names, teams and question of each response once,
+     * instead of looking them up again in every comparison.
+     */
+    private void sortResponses(List<FeedbackResponseAttributes> responsesToSort,
+                               Comparator<FeedbackResponseSortKey> order) {
+        Map<String, Integer> questionRanks = getQuestionRanks();
+        FeedbackResponseSortKey[] sortKeys = new FeedbackResponseSortKey[responsesToSort.size()];
+        for (int i = 0; i < sortKeys.length; i++) {
+            sortKeys[i] = getSortKey(responsesToSort.get(i), questionRanks);
         }
-        if (n2.equals(Const.USER_IS_NOBODY)) {
-            n2Priority = -1;
-        } else if (n2.equals(Const.USER_IS_TEAM)) {
-            n2Priority = 1;
+        Arrays.sort(sortKeys, order);
+        for (int i = 0; i < sortKeys.length; i++) {
+            responsesToSort.set(i, sortKeys[i].response);
         }
+    }
+
+    private FeedbackResponseSortKey getSortKey(FeedbackResponseAttributes response, Map<String, Integer> questionRanks) {
+        Integer questionRank = questionRanks.get(response.feedbackQuestionId);
+        return new FeedbackResponseSortKey(response,
+                emailNameTable.get(response.giverEmail), emailNameTable.get(response.recipientEmail),
+                getNameForEmail(response.giverEmail), getNameForEmail(response.recipientEmail),
+                getTeamOrNameForEmail(response.giverEmail), getTeamOrNameForEmail(response.recipientEmail),
+                questionRank == null ? FeedbackResponseSortKey.UNKNOWN_QUESTION_RANK : questionRank);
+    }
 
-        int order = Integer.compare(n1Priority, n2Priority);
-        return order == 0 ? n1.compareTo(n2) : order;
+    private String getTeamOrNameForEmail(String email) {
+        String teamName = getTeamNameForEmail(email);
+        return teamName.isEmpty() ? getNameForEmail(email) : teamName;
+    }
+
+    /**
+     * @return the position of each question in the natural order of the questions, keyed by question id.
+     *         A null question is not given a position, as it is not ordered with respect to any question.
+     */
+    private Map<String, Integer> getQuestionRanks() {
+        List<Map.Entry<String, FeedbackQuestionAttributes>> sortedQuestions =
+                new ArrayList<Map.Entry<String, FeedbackQuestionAttributes>>();
+        for (Map.Entry<String, FeedbackQuestionAttributes> question : questions.entrySet()) {
+            if (question.getValue() != null) {
+                sortedQuestions.add(question);
+            }
+        }
+        Collections.sort(sortedQuestions, new Comparator<Map.Entry<String, FeedbackQuestionAttributes>>() {
+            @Override
+            public int compare(Map.Entry<String, FeedbackQuestionAttributes> q1,
+                               Map.Entry<String, FeedbackQuestionAttributes> q2) {
+                return q1.getValue().compareTo(q2.getValue());
+            }
+        });
+        Map<String, Integer> questionRanks = new HashMap<String, Integer>();
+        for (int i = 0; i < sortedQuestions.size(); i++) {
+            questionRanks.put(sortedQuestions.get(i).getKey(), i);
+        }
+        return questionRanks;
     }
 
     public FeedbackSessionAttributes getFeedbackSession() {
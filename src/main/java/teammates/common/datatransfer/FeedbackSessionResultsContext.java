@@ -0,0 +1,61 @@
+package teammates.common.datatransfer;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Contains the data that is shared by the results of every question of a feedback session
+ * shown to an instructor, i.e. the session, its questions, the course roster, the instructor
+ * (and thus the privileges of the instructor) and the teams of the sections the instructor can view. <br>
+ * Loading it once and reusing it for each question allows the results of the questions
+ * to be loaded separately without reading the same data from the database again.
+ */
+public class FeedbackSessionResultsContext {
+
+    public FeedbackSessionAttributes session;
+    public List<FeedbackQuestionAttributes> questions;
+    public CourseRoster roster;
+    public InstructorAttributes instructor;
+
+    /** The teams of each section that the instructor is allowed to view, for all sections. */
+    public Map<String, Set<String>> sectionTeamNameTable;
+
+    public FeedbackSessionResultsContext(FeedbackSessionAttributes session,
+                                         List<FeedbackQuestionAttributes> questions,
+                                         CourseRoster roster, InstructorAttributes instructor,
+                                         Map<String, Set<String>> sectionTeamNameTable) {
+        this.session = session;
+        this.questions = questions;
+        this.roster = roster;
+        this.instructor = instructor;
+        this.sectionTeamNameTable = sectionTeamNameTable;
+    }
+
+    /**
+     * @param section null for all sections
+     * @return the teams of the section, keyed by the section, if the instructor is allowed
+     *         to view it, or the teams of all the sections the instructor can view if section is null
+     */
+    public Map<String, Set<String>> getSectionTeamNameTable(String section) {
+        if (section == null) {
+            return new HashMap<String, Set<String>>(sectionTeamNameTable);
+        }
+
+        Map<String, Set<String>> sectionTeams = new HashMap<String, Set<String>>();
+        if (sectionTeamNameTable.containsKey(section)) {
+            sectionTeams.put(section, sectionTeamNameTable.get(section));
+        }
+        return sectionTeams;
+    }
+
+    public FeedbackQuestionAttributes getQuestion(String questionId) {
+        for (FeedbackQuestionAttributes question : questions) {
+            if (question.getId().equals(questionId)) {
+                return question;
+            }
+        }
+        return null;
+    }
+}
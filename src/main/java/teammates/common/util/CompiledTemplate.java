@@ -0,0 +1,158 @@
+package teammates.common.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A template that has been parsed once into its static text and its slots,
+ * i.e. placeholders of the form <code>${name}</code>, so that it can be populated
+ * in a single pass. <br>
+ * Values are given as key-value pairs, the key being the whole placeholder
+ * (e.g. <code>"${userName}"</code>), as in {@link Templates#populateTemplate}.
+ * Slots without a value are left in the output as they are. <br>
+ * Instances are immutable and can be shared between threads.
+ */
+public final class CompiledTemplate {
+
+    private static final String SLOT_START = "${";
+    private static final char SLOT_END = '}';
+
+    /** Static text around the slots; there is always one more segment than there are slots. */
+    private final String[] segments;
+    private final String[] slots;
+    private final int staticLength;
+
+    public CompiledTemplate(String template) {
+        List<String> segmentList = new ArrayList<String>();
+        List<String> slotList = new ArrayList<String>();
+
+        int segmentStart = 0;
+        int slotStart = template.indexOf(SLOT_START);
+        while (slotStart != -1) {
+            int slotEnd = findSlotEnd(template, slotStart);
+            if (slotEnd == -1) {
+                // not a slot, e.g. "${a${b}"; look for one in the rest of the template
+                slotStart = template.indexOf(SLOT_START, slotStart + 1);
+                continue;
+            }
+            segmentList.add(template.substring(segmentStart, slotStart));
+            slotList.add(template.substring(slotStart, slotEnd + 1));
+            segmentStart = slotEnd + 1;
+            slotStart = template.indexOf(SLOT_START, segmentStart);
+        }
+        segmentList.add(template.substring(segmentStart));
+
+        this.segments = segmentList.toArray(new String[segmentList.size()]);
+        this.slots = slotList.toArray(new String[slotList.size()]);
+        this.staticLength = getTotalLength(segments);
+    }
+
+    private CompiledTemplate(List<String> segments, List<String> slots) {
+        this.segments = segments.toArray(new String[segments.size()]);
+        this.slots = slots.toArray(new String[slots.size()]);
+        this.staticLength = getTotalLength(this.segments);
+    }
+
+    /**
+     * @return true if the key is a placeholder that can be a slot of a compiled template
+     */
+    public static boolean isSlot(String key) {
+        return key.length() > SLOT_START.length() + 1 && key.startsWith(SLOT_START)
+               && findSlotEnd(key, 0) == key.length() - 1;
+    }
+
+    /**
+     * Fills the slots of the given keys, leaving the other slots open. Used to fill the values
+     * shared by a batch of outputs (e.g. the course of a batch of emails) only once.
+     * @param values Array of a variable, even number of key-value pairs:
+     *                   { "key1", "val1", "key2", "val2", ... }
+     * @return a template in which the given slots are part of the static text
+     */
+    public CompiledTemplate bind(String... values) {
+        Assumption.assertTrue("The number of values passed in must be even", values.length % 2 == 0);
+
+        List<String> boundSegments = new ArrayList<String>();
+        List<String> boundSlots = new ArrayList<String>();
+        StringBuilder segment = new StringBuilder(segments[0]);
+        for (int i = 0; i < slots.length; i++) {
+            String value = getValue(slots[i], values);
+            if (value == null) {
+                boundSegments.add(segment.toString());
+                boundSlots.add(slots[i]);
+                segment.setLength(0);
+            } else {
+                segment.append(value);
+            }
+            segment.append(segments[i + 1]);
+        }
+        boundSegments.add(segment.toString());
+        return new CompiledTemplate(boundSegments, boundSlots);
+    }
+
+    /**
+     * @param values Array of a variable, even number of key-value pairs:
+     *                   { "key1", "val1", "key2", "val2", ... }
+     * @return The populated template
+     */
+    public String render(String... values) {
+        return render(new StringBuilder(staticLength + 32 * slots.length), values);
+    }
+
+    /**
+     * Populates the template in the given buffer, so that one buffer can be reused
+     * to populate the template many times.
+     * @param buffer cleared before use
+     * @param values Array of a variable, even number of key-value pairs:
+     *                   { "key1", "val1", "key2", "val2", ... }
+     * @return The populated template
+     */
+    public String render(StringBuilder buffer, String... values) {
+        Assumption.assertTrue("The number of values passed in must be even", values.length % 2 == 0);
+
+        buffer.setLength(0);
+        buffer.append(segments[0]);
+        for (int i = 0; i < slots.length; i++) {
+            String value = getValue(slots[i], values);
+            buffer.append(value == null ? slots[i] : value);
+            buffer.append(segments[i + 1]);
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * @return the value of the first pair with the slot as its key, or null if there is none
+     */
+    private static String getValue(String slot, String... values) {
+        for (int i = 0; i < values.length; i += 2) {
+            if (slot.equals(values[i])) {
+                return values[i + 1];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the index of the end of the slot starting at the given index,
+     *         or -1 if there is no such slot
+     */
+    private static int findSlotEnd(String template, int slotStart) {
+        for (int i = slotStart + SLOT_START.length(); i < template.length(); i++) {
+            char c = template.charAt(i);
+            if (c == SLOT_END) {
+                return i == slotStart + SLOT_START.length() ? -1 : i;
+            }
+            if (c == '$' || c == '{') {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static int getTotalLength(String[] strings) {
+        int length = 0;
+        for (String s : strings) {
+            length += s.length();
+        }
+        return length;
+    }
+}
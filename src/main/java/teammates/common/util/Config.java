@@ -37,6 +37,21 @@ public final class Config {
     
     /** The value of the "app.sendgrid.password" in build.properties file */
     public static final String SENDGRID_PASSWORD;
+    
+    /** The value of the "app.entitycache.enabled" in build.properties file */
+    public static final boolean ENTITY_CACHE_ENABLED;
+    
+    /** The value of the "app.feedbackresponses.involvedsections.enabled" in build.properties file */
+    public static final boolean FEEDBACK_RESPONSES_INVOLVED_SECTIONS_ENABLED;
+    
+    /** The value of the "app.resultscontext.cache.seconds" in build.properties file */
+    public static final int RESULTS_CONTEXT_CACHE_SECONDS;
+    
+    /** The value of the "app.search.backend" in build.properties file */
+    public static final String SEARCH_BACKEND;
+    
+    /** The value of the "app.search.embedded.directory" in build.properties file */
+    public static final String SEARCH_EMBEDDED_DIRECTORY;
 
     static {
         Properties properties = new Properties();
@@ -54,6 +69,12 @@ public final class Config {
         STUDENT_MOTD_URL = properties.getProperty("app.student.motd.url");
         SENDGRID_USERNAME = properties.getProperty("app.sendgrid.username");
         SENDGRID_PASSWORD = properties.getProperty("app.sendgrid.password");
+        ENTITY_CACHE_ENABLED = Boolean.parseBoolean(properties.getProperty("app.entitycache.enabled", "false").trim());
+        FEEDBACK_RESPONSES_INVOLVED_SECTIONS_ENABLED = Boolean.parseBoolean(
+                properties.getProperty("app.feedbackresponses.involvedsections.enabled", "false").trim());
+        RESULTS_CONTEXT_CACHE_SECONDS = Integer.parseInt(properties.getProperty("app.resultscontext.cache.seconds", "300").trim());
+        SEARCH_BACKEND = properties.getProperty("app.search.backend", "appengine").trim();
+        SEARCH_EMBEDDED_DIRECTORY = properties.getProperty("app.search.embedded.directory", "").trim();
     }
     
     private Config() {
@@ -139,6 +139,9 @@ public final class Const {
         /** Number to trim the Google ID when displaying to the user*/
         public static final int USER_ID_MAX_DISPLAY_LENGTH = 23;
         
+        /** The maximum number of students that can be enrolled with one enrollment */
+        public static final int MAX_STUDENTS_PER_ENROLLMENT = 5000;
+        
         /* Field sizes and error messages for invalid fields can be found
          * in the FieldValidator class.
          */
@@ -153,6 +156,12 @@ public final class Const {
         public static final String FEEDBACK_SUBMISSION_ADJUSTMENT_TASK_QUEUE =
                                 "feedback-submission-adjust-queue";
         
+        public static final String FEEDBACK_RESPONSES_SNAPSHOT_TASK_QUEUE = "feedback-responses-snapshot-queue";
+        
+        public static final String COURSE_STATS_REPAIR_TASK_QUEUE = "course-stats-repair-queue";
+        
+        public static final String SEARCH_DOCUMENT_TASK_QUEUE = "search-document";
+        
         public static final String FEEDBACK_REMIND_EMAIL_TASK_QUEUE = "feedback-remind-email-queue";
         public static final String FEEDBACK_REMIND_EMAIL_PARTICULAR_USERS_TASK_QUEUE = "feedback-remind-email-particular-users-queue";
         public static final String SEND_EMAIL_TASK_QUEUE = "send-email-queue";
@@ -577,8 +586,7 @@ public final class Const {
         public static final String ADMIN_EMAIL_EMPTY_TRASH_BIN = "emptytrashbin";
         public static final String ADMIN_EMAIL_TRASH_ACTION_REDIRECT = "redirect";
         
-        public static final String ADMIN_GROUP_RECEIVER_EMAIL_LIST_INDEX = "emaillistindex";
-        public static final String ADMIN_GROUP_RECEIVER_EMAIL_INDEX = "emailindex";
+        public static final String ADMIN_GROUP_RECEIVER_LIST_OFFSET = "receiverlistoffset";
     
         public static final String FEEDBACK_SESSION_NAME = "fsname";
         public static final String FEEDBACK_SESSION_INDEX = "fsindex";
@@ -672,6 +680,7 @@ public final class Const {
         public static final String FEEDBACK_RESULTS_SHOWSTATS = "frshowstats";
         public static final String FEEDBACK_RESULTS_NEED_AJAX = "frneedajax";
         public static final String FEEDBACK_RESULTS_MAIN_INDEX = "frmainindex";
+        public static final String FEEDBACK_RESULTS_CURSOR = "frcursor";
 
         public static final String PREVIEWAS = "previewas";
         
@@ -728,6 +737,8 @@ public final class Const {
         public static final String EMAIL_FEEDBACK = "feedback";
         public static final String EMAIL_TYPE = "type";
         public static final String EMAIL_IS_STUDENT = "isStudent";
+        public static final String EMAIL_TEMPLATE = "template";
+        public static final String EMAIL_RECIPIENT_TYPE = "recipienttype";
         
         public static final String EMAIL_CONTENT = "content";
         public static final String EMAIL_SENDER = "sender";
@@ -744,6 +755,7 @@ public final class Const {
         public static final String SUBMISSION_REMIND_USERLIST = "usersToRemind";
         
         public static final String ENROLLMENT_DETAILS = "enrollmentdetails";
+        public static final String ADJUSTMENT_CHECKPOINT = "adjustmentcheckpoint";
         
         public static final String SEARCH_KEY = "searchkey";
         public static final String DISPLAY_ARCHIVE = "displayarchive";
@@ -762,6 +774,9 @@ public final class Const {
         public static final String SEARCH_STUDENTS = "searchstudents";
         public static final String SEARCH_COMMENTS_FOR_STUDENTS = "searchcommentforstudents";
         public static final String SEARCH_COMMENTS_FOR_RESPONSES = "searchcommentforresponses";
+        
+        public static final String SEARCH_INDEX_NAME = "searchindexname";
+        public static final String SEARCH_DOCUMENT_ID = "searchdocumentid";
     }
     
     public class SearchIndex {
@@ -866,6 +881,7 @@ public final class Const {
         public static final String INSTRUCTOR_FEEDBACK_QUESTION_ADD = "/page/instructorFeedbackQuestionAdd";
         public static final String INSTRUCTOR_FEEDBACK_QUESTION_COPY = "/page/instructorFeedbackQuestionCopy";
         public static final String INSTRUCTOR_FEEDBACK_QUESTION_EDIT = "/page/instructorFeedbackQuestionEdit";
+        public static final String INSTRUCTOR_FEEDBACK_QUESTIONS_REORDER = "/page/instructorFeedbackQuestionsReorder";
         public static final String INSTRUCTOR_FEEDBACK_QUESTION_VISIBILITY_MESSAGE = "/page/instructorFeedbackQuestionvisibilityMessage";
         
         public static final String INSTRUCTOR_FEEDBACK_RESPONSE_COMMENT_ADD = "/page/instructorFeedbackResponseCommentAdd";
@@ -946,6 +962,9 @@ public final class Const {
         public static final String FEEDBACK_REMIND_EMAIL_PARTICULAR_USERS_WORKER =
                                     "/feedbackRemindEmailParticularUsersWorker";
         public static final String SEND_EMAIL_WORKER = "/sendEmailWorker";
+        public static final String FEEDBACK_RESPONSES_SNAPSHOT_WORKER = "/feedbackResponsesSnapshotWorker";
+        public static final String COURSE_STATS_REPAIR_WORKER = "/courseStatsRepairWorker";
+        public static final String SEARCH_DOCUMENT_WORKER = "/searchDocumentWorker";
     }
     
     public class AutomatedActionNames {
@@ -1126,8 +1145,9 @@ public final class Const {
                 "You are trying enroll more than 100 students in section \"%s\". "
                 + "To avoid performance problems, please do not enroll more than 100 students in a single section.<br>";
         public static final String QUOTA_PER_ENROLLMENT_EXCEED =
-                "You are trying to enroll more than 100 students. "
-                + "To avoid performance problems, please enroll no more than 100 students at a time.";
+                "You are trying to enroll more than " + SystemParams.MAX_STUDENTS_PER_ENROLLMENT + " students. "
+                + "To avoid performance problems, please enroll no more than "
+                + SystemParams.MAX_STUDENTS_PER_ENROLLMENT + " students at a time.";
         
         public static final String COURSE_INSTRUCTOR_ADDED = "The instructor %s has been added successfully. "
                 + "An email containing how to 'join' this course will be sent to %s in a few minutes.";
@@ -1190,6 +1210,7 @@ public final class Const {
         public static final String FEEDBACK_QUESTION_ADDED = "The question has been added to this feedback session.";
         public static final String FEEDBACK_QUESTION_EDITED = "The changes to the question has been updated.";
         public static final String FEEDBACK_QUESTION_DELETED = "The question has been deleted.";
+        public static final String FEEDBACK_QUESTIONS_REORDERED = "The questions have been reordered.";
         public static final String FEEDBACK_QUESTION_EXISTS = "The requested question has already been created.";
         public static final String FEEDBACK_QUESTION_EMPTY =
                 "You have not created any questions for this feedback session yet. "
@@ -1226,6 +1247,10 @@ public final class Const {
                 + "To view responses for a particular question, click on the question below. "
                 + "To view response for a particular section, choose the section from the drop-down box above.";
         
+        public static final String FILE_DOWNLOAD_INCOMPLETE =
+                "ERROR: The download failed before the end of the file, so the file is incomplete. "
+                + "Please download it again.";
+        
         public static final String ENROLL_LINE_EMPTY = "Please input at least one student detail.";
         public static final String ENROLL_LINES_PROBLEM_DETAIL_PREFIX = "&bull;";
         public static final String ENROLL_LINES_PROBLEM =
@@ -19,6 +19,21 @@ import com.google.appengine.api.datastore.Text;
  */
 public final class Sanitizer {
     
+    /*
+     * The escaping methods below scan the string once, and return the string itself
+     * (without copying it) when none of its characters have to be escaped,
+     * which is the case for most names, emails and answers.
+     */
+    
+    /** The entities that {@link #sanitizeForHtml} leaves as they are, so that it can be applied more than once. */
+    private static final String[] SAFE_HTML_ENTITIES = {"amp;", "lt;", "gt;", "quot;", "#x2f;", "#39;"};
+    
+    /**
+     * The entities that {@link #sanitizeForJs} leaves as they are. Entities starting with # are not
+     * left as they are, as the # is escaped for javascript before the string is sanitized for HTML.
+     */
+    private static final String[] SAFE_JS_HTML_ENTITIES = {"amp;", "lt;", "gt;", "quot;"};
+    
     private Sanitizer() {
         // utility class
     }
@@ -108,11 +123,7 @@ public final class Sanitizer {
         if (str == null) {
             return null;
         }
-        return Sanitizer.sanitizeForHtml(
-                str.replace("\\", "\\\\")
-                .replace("\"", "\\\"")
-                .replace("'", "\\'")
-                .replace("#", "\\#"));
+        return escapeForHtml(str, true);
     }
 
     /**
@@ -123,14 +134,7 @@ public final class Sanitizer {
         if (str == null) {
             return null;
         }
-        return str.replace("<", "&lt;")
-                .replace(">", "&gt;")
-                .replace("\"", "&quot;")
-                .replace("/", "&#x2f;")
-                .replace("'", "&#39;")
-                //To ensure when apply sanitizeForHtml for multiple times, the string's still fine
-                //Regex meaning: replace '&' with safe encoding, but not the one that is safe already
-                .replaceAll("&(?!(amp;)|(lt;)|(gt;)|(quot;)|(#x2f;)|(#39;))", "&amp;");
+        return escapeForHtml(str, false);
     }
 
     /**
@@ -140,7 +144,13 @@ public final class Sanitizer {
         if (str == null) {
             return null;
         }
-        return str.replace("<", "&lt;").replace(">", "&gt;");
+        StringBuilder sanitized = null;
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            String replacement = c == '<' ? "&lt;" : c == '>' ? "&gt;" : null;
+            sanitized = appendEscaped(sanitized, str, i, replacement);
+        }
+        return sanitized == null ? str : sanitized.toString();
     }
     
     /**
@@ -222,16 +232,29 @@ public final class Sanitizer {
         if (str == null) {
             return null;
         }
-        return str
-                //general case for punctuation
-                .replace("`", " ").replace("!", " ").replace("#", " ").replace("$", " ").replace("%", " ").replace("^", " ")
-                .replace("&", " ").replace("[", " ").replace("]", " ").replace("{", " ").replace("}", " ").replace("|", " ")
-                .replace(";", " ").replace("*", " ").replace(".", " ").replace("?", " ").replace("'", " ").replace("/", " ")
-                //to prevent injection
-                .replace("=", " ")
-                .replace(":", " ")
-                .replace("<", "&lt;")
-                .replace(">", "&gt;");
+        StringBuilder sanitized = null;
+        for (int i = 0; i < str.length(); i++) {
+            sanitized = appendEscaped(sanitized, str, i, getSearchReplacement(str.charAt(i)));
+        }
+        return sanitized == null ? str : sanitized.toString();
+    }
+    
+    private static String getSearchReplacement(char c) {
+        switch (c) {
+        // general case for punctuation
+        case '`': case '!': case '#': case '$': case '%': case '^':
+        case '&': case '[': case ']': case '{': case '}': case '|':
+        case ';': case '*': case '.': case '?': case '\'': case '/':
+        // to prevent injection
+        case '=': case ':':
+            return " ";
+        case '<':
+            return "&lt;";
+        case '>':
+            return "&gt;";
+        default:
+            return null;
+        }
     }
     
     /**
@@ -240,7 +263,15 @@ public final class Sanitizer {
      * {@link http://tools.ietf.org/html/rfc4180}
      */
     public static String sanitizeForCsv(String str) {
-        return "\"" + str.replace("\"", "\"\"") + "\"";
+        StringBuilder sanitized = new StringBuilder(str.length() + 2).append('"');
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            if (c == '"') {
+                sanitized.append('"');
+            }
+            sanitized.append(c);
+        }
+        return sanitized.append('"').toString();
     }
     
     /**
@@ -259,6 +290,78 @@ public final class Sanitizer {
         return sanitizedStrList;
     }
 
+    /**
+     * Escapes the characters of the string that are not safe in HTML (and in javascript strings,
+     * if {@code isForJs}), in a single pass. Gives the same result as escaping {@code \ " ' #} for javascript
+     * first (if {@code isForJs}), and then {@code < > " / '} and the {@code &}s that do not start
+     * a safe entity for HTML.
+     */
+    private static String escapeForHtml(String str, boolean isForJs) {
+        StringBuilder sanitized = null;
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            String replacement;
+            switch (c) {
+            case '<':
+                replacement = "&lt;";
+                break;
+            case '>':
+                replacement = "&gt;";
+                break;
+            case '"':
+                replacement = isForJs ? "\\&quot;" : "&quot;";
+                break;
+            case '\'':
+                replacement = isForJs ? "\\&#39;" : "&#39;";
+                break;
+            case '/':
+                replacement = "&#x2f;";
+                break;
+            case '\\':
+                replacement = isForJs ? "\\\\" : null;
+                break;
+            case '#':
+                replacement = isForJs ? "\\#" : null;
+                break;
+            case '&':
+                replacement = isSafeEntityAt(str, i + 1, isForJs ? SAFE_JS_HTML_ENTITIES : SAFE_HTML_ENTITIES)
+                              ? null
+                              : "&amp;";
+                break;
+            default:
+                replacement = null;
+            }
+            sanitized = appendEscaped(sanitized, str, i, replacement);
+        }
+        return sanitized == null ? str : sanitized.toString();
+    }
+    
+    private static boolean isSafeEntityAt(String str, int index, String[] safeEntities) {
+        for (String entity : safeEntities) {
+            if (str.startsWith(entity, index)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Appends the character of {@code str} at {@code index}, or its replacement if it is not null,
+     * to the escaped string built so far. The escaped string is only started (with the characters
+     * before {@code index}) when the first character is replaced.
+     * @return the escaped string built so far, or null if no character has been replaced yet
+     */
+    private static StringBuilder appendEscaped(StringBuilder escaped, String str, int index, String replacement) {
+        if (escaped == null) {
+            if (replacement == null) {
+                return null;
+            }
+            StringBuilder started = new StringBuilder(str.length() + 16);
+            return started.append(str, 0, index).append(replacement);
+        }
+        return replacement == null ? escaped.append(str.charAt(index)) : escaped.append(replacement);
+    }
+    
     /**
      * Trims the string if it is not null.
      * 
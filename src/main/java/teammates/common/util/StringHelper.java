@@ -6,6 +6,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Pattern;
 
 import javax.crypto.Cipher;
@@ -16,6 +18,28 @@ import javax.crypto.spec.SecretKeySpec;
  */
 public final class StringHelper {
     
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+    
+    private static final ConcurrentMap<String, Pattern> COMPILED_PATTERNS = new ConcurrentHashMap<String, Pattern>();
+
+    /**
+     * Ciphers are not thread-safe, so each thread keeps its own.
+     * A cipher returns to its initialized state after each doFinal call and can be reused.
+     */
+    private static final ThreadLocal<Cipher> ENCRYPTION_CIPHER = new ThreadLocal<Cipher>() {
+        @Override
+        protected Cipher initialValue() {
+            return createCipher(Cipher.ENCRYPT_MODE);
+        }
+    };
+
+    private static final ThreadLocal<Cipher> DECRYPTION_CIPHER = new ThreadLocal<Cipher>() {
+        @Override
+        protected Cipher initialValue() {
+            return createCipher(Cipher.DECRYPT_MODE);
+        }
+    };
+
     private StringHelper() {
         // utility class
     }
@@ -43,9 +67,22 @@ public final class StringHelper {
      * @param regex The regex repression used for the matching
      */
     public static boolean isMatching(String input, String regex) {
-        // Important to use the CANON_EQ flag to make sure that canonical characters
-        // such as é is correctly matched regardless of single/double code point encoding
-        return Pattern.compile(regex, Pattern.CANON_EQ).matcher(input).matches();
+        return getPattern(regex).matcher(input).matches();
+    }
+    
+    /**
+     * @return the compiled pattern of the regex, which is compiled only the first time it is used.
+     *         The regexes used are constants (e.g. those of {@link FieldValidator}), so the cache stays small.
+     */
+    private static Pattern getPattern(String regex) {
+        Pattern pattern = COMPILED_PATTERNS.get(regex);
+        if (pattern == null) {
+            // Important to use the CANON_EQ flag to make sure that canonical characters
+            // such as é is correctly matched regardless of single/double code point encoding
+            pattern = Pattern.compile(regex, Pattern.CANON_EQ);
+            COMPILED_PATTERNS.putIfAbsent(regex, pattern);
+        }
+        return pattern;
     }
     
     /**
@@ -56,8 +93,9 @@ public final class StringHelper {
      * @param regexArray The regex repression array used for the matching
      */
     public static boolean isAnyMatching(String input, String[] regexArray) {
+        String normalizedInput = input.trim().toLowerCase();
         for (String regex : regexArray) {
-            if (isMatching(input.trim().toLowerCase(), regex)) {
+            if (isMatching(normalizedInput, regex)) {
                 return true;
             }
         }
@@ -124,29 +162,66 @@ public final class StringHelper {
         return frontPart + ".." + endPart;
     }
 
+    /**
+     * Encrypts the value with the application key. <br>
+     * The cipher is created once per thread and reused, as creating and initializing
+     * a cipher costs much more than encrypting a short value.
+     */
     public static String encrypt(String value) {
+        return encrypt(ENCRYPTION_CIPHER.get(), value);
+    }
+
+    /**
+     * Encrypts the values with the application key, e.g. the registration keys of all the
+     * recipients of a batch of emails.
+     * @return the encrypted values, in the order of {@code values}
+     */
+    public static List<String> encryptAll(List<String> values) {
+        Cipher cipher = ENCRYPTION_CIPHER.get();
+        List<String> encryptedValues = new ArrayList<String>(values.size());
+        for (String value : values) {
+            encryptedValues.add(encrypt(cipher, value));
+        }
+        return encryptedValues;
+    }
+
+    public static String decrypt(String message) {
+        try {
+            byte[] decrypted = DECRYPTION_CIPHER.get().doFinal(hexStringToByteArray(message));
+            return new String(decrypted);
+        } catch (Exception e) {
+            // the state of a cipher that failed (e.g. on a tampered message) is not reliable
+            DECRYPTION_CIPHER.remove();
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static String encrypt(Cipher cipher, String value) {
         try {
-            SecretKeySpec sks = new SecretKeySpec(hexStringToByteArray(Config.ENCRYPTION_KEY), "AES");
-            Cipher cipher = Cipher.getInstance("AES");
-            cipher.init(Cipher.ENCRYPT_MODE, sks, cipher.getParameters());
             byte[] encrypted = cipher.doFinal(value.getBytes());
             return byteArrayToHexString(encrypted);
         } catch (Exception e) {
+            ENCRYPTION_CIPHER.remove();
             throw new RuntimeException(e);
         }
     }
 
-    public static String decrypt(String message) {
+    private static Cipher createCipher(int mode) {
         try {
-            SecretKeySpec sks = new SecretKeySpec(hexStringToByteArray(Config.ENCRYPTION_KEY), "AES");
             Cipher cipher = Cipher.getInstance("AES");
-            cipher.init(Cipher.DECRYPT_MODE, sks);
-            byte[] decrypted = cipher.doFinal(hexStringToByteArray(message));
-            return new String(decrypted);
+            cipher.init(mode, EncryptionKeyHolder.KEY);
+            return cipher;
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
     }
+
+    /**
+     * Parses {@link Config#ENCRYPTION_KEY} once, when it is first needed.
+     */
+    private static final class EncryptionKeyHolder {
+        static final SecretKeySpec KEY = new SecretKeySpec(hexStringToByteArray(Config.ENCRYPTION_KEY), "AES");
+    }
     
     /**
      * Concatenates a list of strings to a single string, separated by line breaks.
@@ -308,23 +383,25 @@ public final class StringHelper {
     }
     
     private static String byteArrayToHexString(byte[] b) {
-        StringBuilder sb = new StringBuilder(b.length * 2);
+        char[] hex = new char[b.length * 2];
         for (int i = 0; i < b.length; i++) {
             int v = b[i] & 0xff;
-            if (v < 16) {
-                sb.append('0');
-            }
-            sb.append(Integer.toHexString(v));
+            hex[i * 2] = HEX_DIGITS[v >>> 4];
+            hex[i * 2 + 1] = HEX_DIGITS[v & 0x0f];
         }
-        return sb.toString().toUpperCase();
+        return new String(hex);
     }
 
     private static byte[] hexStringToByteArray(String s) {
         byte[] b = new byte[s.length() / 2];
         for (int i = 0; i < b.length; i++) {
             int index = i * 2;
-            int v = Integer.parseInt(s.substring(index, index + 2), 16);
-            b[i] = (byte) v;
+            int high = Character.digit(s.charAt(index), 16);
+            int low = Character.digit(s.charAt(index + 1), 16);
+            if (high < 0 || low < 0) {
+                throw new NumberFormatException("Not a hexadecimal string: " + s);
+            }
+            b[i] = (byte) (high << 4 | low);
         }
         return b;
     }
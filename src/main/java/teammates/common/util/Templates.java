@@ -1,16 +1,30 @@
 package teammates.common.util;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
 public final class Templates {
     
     public static final String INSTRUCTOR_SAMPLE_DATA = FileHelper.readResourceFile("InstructorSampleData.json");
-    
+
+    /**
+     * The compiled forms of the templates read from resource files, keyed by the
+     * template strings themselves so that looking one up does not go through the template.
+     */
+    private static final Map<String, CompiledTemplate> COMPILED_TEMPLATES =
+            Collections.synchronizedMap(new IdentityHashMap<String, CompiledTemplate>());
+
     private Templates() {
         // utility class
     }
-    
+
     /**
      * Populates the HTML templates by replacing variables in the template string
-     * with the given value string.
+     * with the given value string. <br>
+     * If all the variables are of the form <code>${name}</code> and no value contains a '$'
+     * (so that no value can be mistaken for a variable), this is done in a single pass
+     * with the compiled form of the template.
      * @param template The template html to be populated
      * @param values Array of a variable, even number of key-value pairs:
      *                   { "key1", "val1", "key2", "val2", ... }
@@ -18,182 +32,210 @@ public final class Templates {
      */
     public static String populateTemplate(String template, String... values) {
         Assumption.assertTrue("The number of values passed in must be even", values.length % 2 == 0);
+        if (isCompilable(values)) {
+            return compile(template).render(values);
+        }
+
         String populatedTemplate = template;
         for (int i = 0; i < values.length; i += 2) {
             populatedTemplate = populatedTemplate.replace(values[i], values[i + 1]);
         }
         return populatedTemplate;
     }
-    
+
+    /**
+     * @return the compiled form of the template, which is only parsed once
+     *         if it is one of the templates in this class
+     */
+    public static CompiledTemplate compile(String template) {
+        CompiledTemplate compiledTemplate = COMPILED_TEMPLATES.get(template);
+        return compiledTemplate == null ? new CompiledTemplate(template) : compiledTemplate;
+    }
+
+    private static boolean isCompilable(String... values) {
+        for (int i = 0; i < values.length; i += 2) {
+            if (!CompiledTemplate.isSlot(values[i]) || values[i + 1].indexOf('$') != -1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String readTemplate(String fileName) {
+        String template = FileHelper.readResourceFile(fileName);
+        COMPILED_TEMPLATES.put(template, new CompiledTemplate(template));
+        return template;
+    }
+
     public static class EmailTemplates {
         public static final String USER_COURSE_JOIN =
-                FileHelper.readResourceFile("userEmailTemplate-courseJoin.html");
+                readTemplate("userEmailTemplate-courseJoin.html");
         public static final String FRAGMENT_STUDENT_COURSE_JOIN =
-                FileHelper.readResourceFile("studentEmailFragment-courseJoin.html");
+                readTemplate("studentEmailFragment-courseJoin.html");
         public static final String FRAGMENT_STUDENT_COURSE_REJOIN_AFTER_GOOGLE_ID_RESET =
-                FileHelper.readResourceFile("studentEmailFragment-googleIdReset.html");
+                readTemplate("studentEmailFragment-googleIdReset.html");
         public static final String FRAGMENT_INSTRUCTOR_COURSE_JOIN =
-                FileHelper.readResourceFile("instructorEmailFragment-courseJoin.html");
+                readTemplate("instructorEmailFragment-courseJoin.html");
         public static final String USER_FEEDBACK_SESSION =
-                FileHelper.readResourceFile("userEmailTemplate-feedbackSession.html");
+                readTemplate("userEmailTemplate-feedbackSession.html");
         public static final String USER_FEEDBACK_SESSION_CLOSING =
-                FileHelper.readResourceFile("userEmailTemplate-feedbackSessionClosing.html");
+                readTemplate("userEmailTemplate-feedbackSessionClosing.html");
         public static final String USER_FEEDBACK_SESSION_PUBLISHED =
-                FileHelper.readResourceFile("userEmailTemplate-feedbackSessionPublished.html");
+                readTemplate("userEmailTemplate-feedbackSessionPublished.html");
         public static final String USER_PENDING_COMMENTS_CLEARED =
-                FileHelper.readResourceFile("userEmailTemplate-pendingCommentsCleared.html");
+                readTemplate("userEmailTemplate-pendingCommentsCleared.html");
         public static final String SYSTEM_ERROR =
-                FileHelper.readResourceFile("systemErrorEmailTemplate.html");
+                readTemplate("systemErrorEmailTemplate.html");
         public static final String NEW_INSTRUCTOR_ACCOUNT_WELCOME =
-                FileHelper.readResourceFile("newInstructorAccountWelcome.html");
+                readTemplate("newInstructorAccountWelcome.html");
     }
     
     public static class FeedbackQuestionFormTemplates {
         public static final String FEEDBACK_QUESTION_ADDITIONAL_INFO =
-                FileHelper.readResourceFile("feedbackQuestionAdditionalInfoTemplate.html");
+                readTemplate("feedbackQuestionAdditionalInfoTemplate.html");
 
         public static final String TEXT_SUBMISSION_FORM =
-                FileHelper.readResourceFile("feedbackQuestionTextSubmissionFormTemplate.html");
+                readTemplate("feedbackQuestionTextSubmissionFormTemplate.html");
         public static final String TEXT_RESULT_STATS =
-                FileHelper.readResourceFile("feedbackQuestionTextResultStatsTemplate.html");
+                readTemplate("feedbackQuestionTextResultStatsTemplate.html");
         
         public static final String MCQ_SUBMISSION_FORM =
-                FileHelper.readResourceFile("feedbackQuestionMcqSubmissionFormTemplate.html");
+                readTemplate("feedbackQuestionMcqSubmissionFormTemplate.html");
         public static final String MCQ_SUBMISSION_FORM_OPTIONFRAGMENT =
-                FileHelper.readResourceFile("feedbackQuestionMcqSubmissionFormOptionFragment.html");
+                readTemplate("feedbackQuestionMcqSubmissionFormOptionFragment.html");
         public static final String MCQ_SUBMISSION_FORM_OTHEROPTIONFRAGMENT =
-                FileHelper.readResourceFile("feedbackQuestionMcqSubmissionFormOtherOptionFragment.html");
+                readTemplate("feedbackQuestionMcqSubmissionFormOtherOptionFragment.html");
         public static final String MCQ_EDIT_FORM =
-                FileHelper.readResourceFile("feedbackQuestionMcqEditFormTemplate.html");
+                readTemplate("feedbackQuestionMcqEditFormTemplate.html");
         public static final String MCQ_EDIT_FORM_OPTIONFRAGMENT =
-                FileHelper.readResourceFile("feedbackQuestionMcqEditFormOptionFragment.html");
+                readTemplate("feedbackQuestionMcqEditFormOptionFragment.html");
         public static final String MCQ_ADDITIONAL_INFO_FRAGMENT =
-                FileHelper.readResourceFile("feedbackQuestionMcqAdditionalInfoFragment.html");
+                readTemplate("feedbackQuestionMcqAdditionalInfoFragment.html");
         public static final String MCQ_ADDITIONAL_INFO =
-                FileHelper.readResourceFile("feedbackQuestionMcqAdditionalInfoTemplate.html");
+                readTemplate("feedbackQuestionMcqAdditionalInfoTemplate.html");
         public static final String MCQ_RESULT_STATS =
-                FileHelper.readResourceFile("feedbackQuestionMcqResultStatsTemplate.html");
+                readTemplate("feedbackQuestionMcqResultStatsTemplate.html");
         public static final String MCQ_RESULT_STATS_OPTIONFRAGMENT =
-                FileHelper.readResourceFile("feedbackQuestionMcqResultStatsOptionFragment.html");
+                readTemplate("feedbackQuestionMcqResultStatsOptionFragment.html");
         
         public static final String MSQ_SUBMISSION_FORM =
-                FileHelper.readResourceFile("feedbackQuestionMsqSubmissionFormTemplate.html");
+                readTemplate("feedbackQuestionMsqSubmissionFormTemplate.html");
         public static final String MSQ_SUBMISSION_FORM_OPTIONFRAGMENT =
-                FileHelper.readResourceFile("feedbackQuestionMsqSubmissionFormOptionFragment.html");
+                readTemplate("feedbackQuestionMsqSubmissionFormOptionFragment.html");
         public static final String MSQ_SUBMISSION_FORM_OTHEROPTIONFRAGMENT =
-                FileHelper.readResourceFile("feedbackQuestionMsqSubmissionFormOtherOptionFragment.html");
+                readTemplate("feedbackQuestionMsqSubmissionFormOtherOptionFragment.html");
         public static final String MSQ_EDIT_FORM =
-                FileHelper.readResourceFile("feedbackQuestionMsqEditFormTemplate.html");
+                readTemplate("feedbackQuestionMsqEditFormTemplate.html");
         public static final String MSQ_EDIT_FORM_OPTIONFRAGMENT =
-                FileHelper.readResourceFile("feedbackQuestionMsqEditFormOptionFragment.html");
+                readTemplate("feedbackQuestionMsqEditFormOptionFragment.html");
         public static final String MSQ_ADDITIONAL_INFO_FRAGMENT =
-                FileHelper.readResourceFile("feedbackQuestionMsqAdditionalInfoFragment.html");
+                readTemplate("feedbackQuestionMsqAdditionalInfoFragment.html");
         public static final String MSQ_ADDITIONAL_INFO =
-                FileHelper.readResourceFile("feedbackQuestionMsqAdditionalInfoTemplate.html");
+                readTemplate("feedbackQuestionMsqAdditionalInfoTemplate.html");
         
         public static final String NUMSCALE_EDIT_FORM =
-                FileHelper.readResourceFile("feedbackQuestionNumScaleEditFormTemplate.html");
+                readTemplate("feedbackQuestionNumScaleEditFormTemplate.html");
         public static final String NUMSCALE_SUBMISSION_FORM =
-                FileHelper.readResourceFile("feedbackQuestionNumScaleSubmissionFormTemplate.html");
+                readTemplate("feedbackQuestionNumScaleSubmissionFormTemplate.html");
         public static final String NUMSCALE_RESULT_STATS =
-                FileHelper.readResourceFile("feedbackQuestionNumScaleResultStatsTemplate.html");
+                readTemplate("feedbackQuestionNumScaleResultStatsTemplate.html");
         public static final String NUMSCALE_RESULTS_STATS_FRAGMENT =
-                FileHelper.readResourceFile("feedbackQuestionNumScaleResultsStatsFragment.html");
+                readTemplate("feedbackQuestionNumScaleResultsStatsFragment.html");
         public static final String NUMSCALE_RESULT_STATS_WITH_SELF_RESPONSE =
-                FileHelper.readResourceFile("feedbackQuestionNumScaleResultStatsTemplateWithSelfResponse.html");
+                readTemplate("feedbackQuestionNumScaleResultStatsTemplateWithSelfResponse.html");
         public static final String NUMSCALE_RESULTS_STATS_FRAGMENT_WITH_SELF_RESPONSE =
-                FileHelper.readResourceFile("feedbackQuestionNumScaleResultsStatsFragmentWithSelfResponse.html");
+                readTemplate("feedbackQuestionNumScaleResultsStatsFragmentWithSelfResponse.html");
         
         public static final String CONSTSUM_SUBMISSION_FORM =
-                FileHelper.readResourceFile("feedbackQuestionConstSumSubmissionFormTemplate.html");
+                readTemplate("feedbackQuestionConstSumSubmissionFormTemplate.html");
         public static final String CONSTSUM_SUBMISSION_FORM_OPTIONFRAGMENT =
-                FileHelper.readResourceFile("feedbackQuestionConstSumSubmissionFormOptionFragment.html");
+                readTemplate("feedbackQuestionConstSumSubmissionFormOptionFragment.html");
         public static final String CONSTSUM_EDIT_FORM =
-                FileHelper.readResourceFile("feedbackQuestionConstSumEditFormTemplate.html");
+                readTemplate("feedbackQuestionConstSumEditFormTemplate.html");
         public static final String CONSTSUM_EDIT_FORM_OPTIONFRAGMENT =
-                FileHelper.readResourceFile("feedbackQuestionConstSumEditFormOptionFragment.html");
+                readTemplate("feedbackQuestionConstSumEditFormOptionFragment.html");
         public static final String CONSTSUM_RESULT_OPTION_STATS =
-                FileHelper.readResourceFile("feedbackQuestionConstSumResultStatsTemplate.html");
+                readTemplate("feedbackQuestionConstSumResultStatsTemplate.html");
         public static final String CONSTSUM_RESULT_STATS_OPTIONFRAGMENT =
-                FileHelper.readResourceFile("feedbackQuestionConstSumResultStatsOptionFragment.html");
+                readTemplate("feedbackQuestionConstSumResultStatsOptionFragment.html");
         public static final String CONSTSUM_RESULT_RECIPIENT_STATS =
-                FileHelper.readResourceFile("feedbackQuestionConstSumResultStatsRecipientTemplate.html");
+                readTemplate("feedbackQuestionConstSumResultStatsRecipientTemplate.html");
         public static final String CONSTSUM_RESULT_STATS_RECIPIENTFRAGMENT =
-                FileHelper.readResourceFile("feedbackQuestionConstSumResultStatsRecipientFragment.html");
+                readTemplate("feedbackQuestionConstSumResultStatsRecipientFragment.html");
         
         public static final String CONTRIB_ADDITIONAL_INFO =
-                FileHelper.readResourceFile("feedbackQuestionContribAdditionalInfoTemplate.html");
+                readTemplate("feedbackQuestionContribAdditionalInfoTemplate.html");
         public static final String CONTRIB_EDIT_FORM =
-                FileHelper.readResourceFile("feedbackQuestionContribEditFormTemplate.html");
+                readTemplate("feedbackQuestionContribEditFormTemplate.html");
         public static final String CONTRIB_SUBMISSION_FORM =
-                FileHelper.readResourceFile("feedbackQuestionContribSubmissionFormTemplate.html");
+                readTemplate("feedbackQuestionContribSubmissionFormTemplate.html");
         public static final String CONTRIB_RESULT_STATS =
-                FileHelper.readResourceFile("feedbackQuestionContribResultStatsTemplate.html");
+                readTemplate("feedbackQuestionContribResultStatsTemplate.html");
         public static final String CONTRIB_RESULT_STATS_FRAGMENT =
-                FileHelper.readResourceFile("feedbackQuestionContribResultStatsFragment.html");
+                readTemplate("feedbackQuestionContribResultStatsFragment.html");
         public static final String CONTRIB_RESULT_STATS_STUDENT =
-                FileHelper.readResourceFile("feedbackQuestionContribResultStatsStudentViewTemplate.html");
+                readTemplate("feedbackQuestionContribResultStatsStudentViewTemplate.html");
         public static final String CONTRIB_RESULT_STATS_STUDENT_INFO =
-                FileHelper.readResourceFile("feedbackQuestionContribResultStatsStudentViewAdditionalInfo.html");
+                readTemplate("feedbackQuestionContribResultStatsStudentViewAdditionalInfo.html");
         
         public static final String RUBRIC_SUBMISSION_FORM =
-                FileHelper.readResourceFile("feedbackQuestionRubricSubmissionFormTemplate.html");
+                readTemplate("feedbackQuestionRubricSubmissionFormTemplate.html");
         public static final String RUBRIC_SUBMISSION_FORM_MOBILE_PANEL_FRAGMENT =
-                FileHelper.readResourceFile("feedbackQuestionRubricSubmissionFormMobilePanelFragment.html");
+                readTemplate("feedbackQuestionRubricSubmissionFormMobilePanelFragment.html");
         public static final String RUBRIC_SUBMISSION_FORM_MOBILE_PANEL =
-                FileHelper.readResourceFile("feedbackQuestionRubricSubmissionFormMobilePanel.html");
+                readTemplate("feedbackQuestionRubricSubmissionFormMobilePanel.html");
         public static final String RUBRIC_SUBMISSION_FORM_HEADER_FRAGMENT =
-                FileHelper.readResourceFile("feedbackQuestionRubricSubmissionFormHeaderFragment.html");
+                readTemplate("feedbackQuestionRubricSubmissionFormHeaderFragment.html");
         public static final String RUBRIC_SUBMISSION_FORM_BODY_FRAGMENT =
-                FileHelper.readResourceFile("feedbackQuestionRubricSubmissionFormBodyFragment.html");
+                readTemplate("feedbackQuestionRubricSubmissionFormBodyFragment.html");
         public static final String RUBRIC_SUBMISSION_FORM_BODY =
-                FileHelper.readResourceFile("feedbackQuestionRubricSubmissionFormBody.html");
+                readTemplate("feedbackQuestionRubricSubmissionFormBody.html");
         public static final String RUBRIC_EDIT_FORM =
-                FileHelper.readResourceFile("feedbackQuestionRubricEditFormTemplate.html");
+                readTemplate("feedbackQuestionRubricEditFormTemplate.html");
         public static final String RUBRIC_EDIT_FORM_HEADER_FRAGMENT =
-                FileHelper.readResourceFile("feedbackQuestionRubricEditFormHeaderFragment.html");
+                readTemplate("feedbackQuestionRubricEditFormHeaderFragment.html");
         public static final String RUBRIC_EDIT_FORM_WEIGHT_FRAGMENT =
-                FileHelper.readResourceFile("feedbackQuestionRubricEditFormWeightFragment.html");
+                readTemplate("feedbackQuestionRubricEditFormWeightFragment.html");
         public static final String RUBRIC_EDIT_FORM_BODY_FRAGMENT =
-                FileHelper.readResourceFile("feedbackQuestionRubricEditFormBodyFragment.html");
+                readTemplate("feedbackQuestionRubricEditFormBodyFragment.html");
         public static final String RUBRIC_EDIT_FORM_BODY =
-                FileHelper.readResourceFile("feedbackQuestionRubricEditFormBody.html");
+                readTemplate("feedbackQuestionRubricEditFormBody.html");
         public static final String RUBRIC_RESULT_STATS =
-                FileHelper.readResourceFile("feedbackQuestionRubricResultStatsTemplate.html");
+                readTemplate("feedbackQuestionRubricResultStatsTemplate.html");
         public static final String RUBRIC_RESULT_STATS_HEADER_FRAGMENT =
-                FileHelper.readResourceFile("feedbackQuestionRubricResultStatsHeaderFragment.html");
+                readTemplate("feedbackQuestionRubricResultStatsHeaderFragment.html");
         public static final String RUBRIC_RESULT_STATS_BODY_FRAGMENT =
-                FileHelper.readResourceFile("feedbackQuestionRubricResultStatsBodyFragment.html");
+                readTemplate("feedbackQuestionRubricResultStatsBodyFragment.html");
         public static final String RUBRIC_RESULT_STATS_BODY =
-                FileHelper.readResourceFile("feedbackQuestionRubricResultStatsBody.html");
+                readTemplate("feedbackQuestionRubricResultStatsBody.html");
         public static final String RUBRIC_ADDITIONAL_INFO =
-                FileHelper.readResourceFile("feedbackQuestionRubricAdditionalInfoTemplate.html");
+                readTemplate("feedbackQuestionRubricAdditionalInfoTemplate.html");
         
         public static final String RANK_SUBMISSION_FORM =
-                FileHelper.readResourceFile("feedbackQuestionRankSubmissionFormTemplate.html");
+                readTemplate("feedbackQuestionRankSubmissionFormTemplate.html");
         public static final String RANK_SUBMISSION_FORM_OPTIONFRAGMENT =
-                FileHelper.readResourceFile("feedbackQuestionRankSubmissionFormOptionFragment.html");
+                readTemplate("feedbackQuestionRankSubmissionFormOptionFragment.html");
         public static final String RANK_EDIT_RECIPIENTS_FORM =
-                FileHelper.readResourceFile("feedbackQuestionRankRecipientsEditFormTemplate.html");
+                readTemplate("feedbackQuestionRankRecipientsEditFormTemplate.html");
         public static final String RANK_EDIT_OPTIONS_FORM =
-                FileHelper.readResourceFile("feedbackQuestionRankOptionsEditFormTemplate.html");
+                readTemplate("feedbackQuestionRankOptionsEditFormTemplate.html");
         public static final String RANK_EDIT_FORM_OPTIONFRAGMENT =
-                FileHelper.readResourceFile("feedbackQuestionRankEditFormOptionFragment.html");
+                readTemplate("feedbackQuestionRankEditFormOptionFragment.html");
         public static final String RANK_RESULT_OPTION_STATS =
-                FileHelper.readResourceFile("feedbackQuestionRankResultStatsTemplate.html");
+                readTemplate("feedbackQuestionRankResultStatsTemplate.html");
         public static final String RANK_RESULT_STATS_OPTIONFRAGMENT =
-                FileHelper.readResourceFile("feedbackQuestionRankResultStatsOptionFragment.html");
+                readTemplate("feedbackQuestionRankResultStatsOptionFragment.html");
         public static final String RANK_RESULT_RECIPIENT_STATS =
-                FileHelper.readResourceFile("feedbackQuestionRankResultStatsRecipientTemplate.html");
+                readTemplate("feedbackQuestionRankResultStatsRecipientTemplate.html");
         public static final String RANK_RESULT_STATS_RECIPIENTFRAGMENT =
-                FileHelper.readResourceFile("feedbackQuestionRankResultStatsRecipientFragment.html");
+                readTemplate("feedbackQuestionRankResultStatsRecipientFragment.html");
     }
     
     // TODO: Consider adding instructions for the feedback session into template?
     // TODO: Or simply use static strings here?
     public static class FeedbackSessionTemplates {
         public static final String TEAM_EVALUATION =
-                FileHelper.readResourceFile("feedbackSessionTeamEvaluationTemplate.json");
+                readTemplate("feedbackSessionTeamEvaluationTemplate.json");
     }
     
 }
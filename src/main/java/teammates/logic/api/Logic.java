@@ -1,5 +1,8 @@
 package teammates.logic.api;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -361,6 +364,19 @@ public class Logic {
         
         return instructorsLogic.getInstructorForEmail(courseId, email);
     }
+
+    /**
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the instructors of the course with any of the emails, in no particular order.
+     */
+    public List<InstructorAttributes> getInstructorsForEmails(String courseId, Collection<String> emails) {
+        
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, courseId);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, emails);
+        
+        return instructorsLogic.getInstructorsForEmails(courseId, emails);
+    }
     
     /**
      * Preconditions: <br>
@@ -661,6 +677,16 @@ public class Logic {
         return coursesLogic.getCourseDetails(courseId);
     }
     
+    /**
+     * Returns a course data with its statistics, but without its sections and students. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     */
+    public CourseDetailsBundle getCourseSummaryWithoutSections(String courseId) throws EntityDoesNotExistException {
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, courseId);
+        return coursesLogic.getCourseSummaryWithoutSections(courseId);
+    }
+    
     /**
      * Returns a course data, including its feedback sessions, according to the instructor passed in.<br>
      * Preconditions: <br>
@@ -957,6 +983,19 @@ public class Logic {
         return studentsLogic.getStudentForEmail(courseId, email);
     }
 
+    /**
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * 
+     * @return the students of the course with any of the emails, in no particular order.
+     */
+    public List<StudentAttributes> getStudentsForEmails(String courseId, Collection<String> emails) {
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, courseId);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, emails);
+
+        return studentsLogic.getStudentsForEmails(courseId, emails);
+    }
+
     /**
      * Preconditions: <br>
      * * All parameters are non-null.
@@ -1575,6 +1614,29 @@ public class Logic {
                                                                                     instructorEmail,
                                                                                     section);
     }
+
+    /**
+     * Writes summary results (without comments) in CSV format to {@code writer}, loading
+     * the responses of one question at a time. Unlike {@link #getFeedbackSessionResultSummaryAsCsv},
+     * there is no limit on the number of responses. <br>
+     * Preconditions: <br>
+     * * {@code courseId}, {@code feedbackSessionName} and {@code writer} are non-null. <br>
+     * @param section null to write the results of all sections
+     */
+    public void writeFeedbackSessionResultSummaryInSectionAsCsv(String courseId,
+                                                                String feedbackSessionName,
+                                                                String instructorEmail,
+                                                                String section,
+                                                                Writer writer)
+            throws EntityDoesNotExistException, IOException {
+        
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, courseId);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, feedbackSessionName);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, writer);
+
+        feedbackSessionsLogic.writeFeedbackSessionResultsSummaryInSectionAsCsv(feedbackSessionName, courseId,
+                                                                               instructorEmail, section, writer);
+    }
     
     /**
      * Preconditions: <br>
@@ -1601,6 +1663,23 @@ public class Logic {
         return feedbackSessionsLogic.isFeedbackSessionCompletedByStudent(fsa, studentEmail);
     }
     
+    /**
+     * Same as {@link #hasStudentSubmittedFeedback} for all the given sessions of one course,
+     * but reads the statuses from the summary of the student for the course where possible. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the statuses keyed by session name
+     */
+    public Map<String, Boolean> getFeedbackSessionSubmissionStatusesForStudent(
+            String courseId, String studentEmail, List<FeedbackSessionAttributes> sessions) {
+        
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, courseId);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, studentEmail);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, sessions);
+        
+        return feedbackSessionsLogic.getFeedbackSessionCompletionStatusesForStudent(courseId, studentEmail, sessions);
+    }
+    
     /**
      * Updates the details of a feedback session <br>
      * Does not affect the questions and responses associated with it.
@@ -1614,6 +1693,17 @@ public class Logic {
         feedbackSessionsLogic.updateFeedbackSession(updatedSession);
     }
     
+    /**
+     * Fills {@code feedbackSession.respondingStudentList} and {@code feedbackSession.respondingInstructorList}
+     * with all the respondants of the session. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     */
+    public void loadRespondants(FeedbackSessionAttributes feedbackSession) {
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, feedbackSession);
+        feedbackSessionsLogic.loadRespondants(feedbackSession);
+    }
+    
     public void updateRespondants(String feedbackSessionName, String courseId) throws InvalidParametersException,
                                                                                       EntityDoesNotExistException {
         Assumption.assertNotNull(ERROR_NULL_PARAMETER, feedbackSessionName);
@@ -1765,6 +1855,22 @@ public class Logic {
         feedbackQuestionsLogic.updateFeedbackQuestionNumber(updatedQuestion);
     }
     
+    /**
+     * Renumbers the questions of a feedback session to follow the given order,
+     * writing all the changed question numbers in one batch.<br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @param questionIds the IDs of all the questions of the session, in their new order
+     */
+    public void reorderFeedbackQuestions(String feedbackSessionName, String courseId, List<String> questionIds)
+            throws InvalidParametersException, EntityDoesNotExistException {
+        
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, feedbackSessionName);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, courseId);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, questionIds);
+        feedbackQuestionsLogic.reorderQuestions(feedbackSessionName, courseId, questionIds);
+    }
+    
     /**
      * Updates the details of a Feedback Question.<br>
      * The FeedbackQuestionAttributes should have the updated attributes
@@ -1956,6 +2062,68 @@ public class Logic {
                                         feedbackSessionName, courseId, userEmail, section, range);
     }
 
+    /**
+     * Gets a question+response bundle for a page of at most {@code pageSize} responses
+     * that are given from a section and visible to the instructor for a feedback session. <br>
+     * {@link FeedbackSessionResultsBundle#nextResponsesCursor} is the cursor of the next page.
+     * Preconditions: <br>
+     * * All parameters except {@code cursor} are non-null.
+     */
+    public FeedbackSessionResultsBundle getFeedbackSessionResultsForInstructorFromSectionPage(
+            String feedbackSessionName, String courseId, String userEmail, String section,
+            String cursor, int pageSize)
+            throws EntityDoesNotExistException {
+        
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, feedbackSessionName);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, courseId);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, userEmail);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, section);
+
+        return feedbackSessionsLogic.getFeedbackSessionResultsForInstructorFromSectionPage(
+                                        feedbackSessionName, courseId, userEmail, section, cursor, pageSize);
+    }
+
+    /**
+     * Gets a question+response bundle for a page of at most {@code pageSize} responses
+     * that are given to a section and visible to the instructor for a feedback session. <br>
+     * {@link FeedbackSessionResultsBundle#nextResponsesCursor} is the cursor of the next page.
+     * Preconditions: <br>
+     * * All parameters except {@code cursor} are non-null.
+     */
+    public FeedbackSessionResultsBundle getFeedbackSessionResultsForInstructorToSectionPage(
+            String feedbackSessionName, String courseId, String userEmail, String section,
+            String cursor, int pageSize)
+            throws EntityDoesNotExistException {
+        
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, feedbackSessionName);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, courseId);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, userEmail);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, section);
+
+        return feedbackSessionsLogic.getFeedbackSessionResultsForInstructorToSectionPage(
+                                        feedbackSessionName, courseId, userEmail, section, cursor, pageSize);
+    }
+
+    /**
+     * Loads and caches the data shared by the results of all the questions of a feedback session
+     * shown to the instructor, e.g. the course roster and the privileges of the instructor, so that
+     * {@link #getFeedbackSessionResultsForInstructorFromQuestion} and
+     * {@link #getFeedbackSessionResultsForInstructorFromQuestionInSection} need not load it again.
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     */
+    public void refreshFeedbackSessionResultsContextForInstructor(
+            String feedbackSessionName, String courseId, String userEmail)
+            throws EntityDoesNotExistException {
+        
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, feedbackSessionName);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, courseId);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, userEmail);
+        
+        feedbackSessionsLogic.refreshFeedbackSessionResultsContextForInstructor(feedbackSessionName, courseId,
+                                                                                userEmail);
+    }
+
     /**
      * Gets a question+response bundle for questions with responses that
      * is visible to the instructor for a feedback session from a given question number
@@ -2228,6 +2396,15 @@ public class Logic {
         feedbackResponseCommentsLogic.putDocument(comment);
     }
     
+    /**
+     * Schedule the document for the given FeedbackResponseComment to be created or updated
+     * in the background, after the request
+     * @param comment to be put into documents
+     */
+    public void schedulePutDocument(FeedbackResponseCommentAttributes comment) {
+        feedbackResponseCommentsLogic.schedulePutDocument(comment);
+    }
+    
     /**
      * Remove document for the given FeedbackResponseComment
      * @param comment to be removed from documents
@@ -2325,6 +2502,15 @@ public class Logic {
         commentsLogic.putDocument(comment);
     }
     
+    /**
+     * Schedule the document for the given Comment to be created or updated
+     * in the background, after the request
+     * @param comment to be put into documents
+     */
+    public void schedulePutDocument(CommentAttributes comment) {
+        commentsLogic.schedulePutDocument(comment);
+    }
+    
     /**
      * Remove document for the given Comment
      * @param comment to be removed from the documents
@@ -1,11 +1,9 @@
 package teammates.logic.automated;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 
 import javax.servlet.http.HttpServletRequest;
@@ -20,8 +18,6 @@ import teammates.common.util.HttpRequestHelper;
 import teammates.logic.core.AdminEmailsLogic;
 import teammates.logic.core.TaskQueuesLogic;
 
-import com.google.appengine.api.blobstore.BlobInfo;
-import com.google.appengine.api.blobstore.BlobInfoFactory;
 import com.google.appengine.api.blobstore.BlobKey;
 import com.google.appengine.api.blobstore.BlobstoreInputStream;
 import com.google.apphosting.api.ApiProxy;
@@ -32,20 +28,16 @@ import com.google.apphosting.api.ApiProxy;
  * 
  * 1. Address Mode: receiver emails are retrieved from receiver list string
  * 2. Group Mode: receiver emails are retrieved from a txt file uploaded into Google Cloud Storage.
+ * The file is read as a stream, and a new task resumes from where the previous one stopped if needed.
  */
 @SuppressWarnings("serial")
 public class AdminEmailPrepareTaskQueueWorkerServlet extends WorkerServlet {
     
-    private static final int MAX_READING_LENGTH = 900000;
-    
-    private List<List<String>> processedReceiverEmails = new ArrayList<List<String>>();
-    
     //param needed for sending small number of emails
     private String addressReceiverListString;
     
     //params needed to move heavy jobs into a queue task
     private String groupReceiverListFileKey;
-    private int groupReceiverListFileSize;
     private String emailId;
 
     @Override
@@ -77,21 +69,13 @@ public class AdminEmailPrepareTaskQueueWorkerServlet extends WorkerServlet {
             groupReceiverListFileKey = HttpRequestHelper.getValueFromRequestParameterMap(req, ParamsNames.ADMIN_EMAIL_GROUP_RECEIVER_LIST_FILE_KEY);
             Assumption.assertNotNull(groupReceiverListFileKey);
             
-            groupReceiverListFileSize = (int) getFileSize(groupReceiverListFileKey);
-            
-            String indexOfEmailListToResumeAsString =
+            String offsetToResumeAsString =
                     HttpRequestHelper.getValueFromRequestParameterMap(
-                            req, ParamsNames.ADMIN_GROUP_RECEIVER_EMAIL_LIST_INDEX);
-            String indexOfEmailToResumeAsString =
-                    HttpRequestHelper.getValueFromRequestParameterMap(
-                            req, ParamsNames.ADMIN_GROUP_RECEIVER_EMAIL_INDEX);
-            
-            int indexOfEmailListToResume = indexOfEmailListToResumeAsString == null ? 0 : Integer.parseInt(indexOfEmailListToResumeAsString);
-            int indexOfEmailToResume = indexOfEmailToResumeAsString == null ? 0 : Integer.parseInt(indexOfEmailToResumeAsString);
+                            req, ParamsNames.ADMIN_GROUP_RECEIVER_LIST_OFFSET);
+            long offsetToResume = offsetToResumeAsString == null ? 0 : Long.parseLong(offsetToResumeAsString);
   
             try {
-                processedReceiverEmails = getReceiverList(groupReceiverListFileKey, groupReceiverListFileSize);
-                addAdminEmailToTaskQueue(emailId, indexOfEmailListToResume, indexOfEmailToResume);
+                addAdminEmailToTaskQueue(emailId, offsetToResume);
     
             } catch (IOException e) {
                 log.severe("Unexpected error while adding admin email tasks" + e.getMessage());
@@ -100,120 +84,19 @@ public class AdminEmailPrepareTaskQueueWorkerServlet extends WorkerServlet {
         }
     }
     
-    private long getFileSize(String blobkeyString) {
-        BlobInfoFactory blobInfoFactory = new BlobInfoFactory();
-        BlobInfo blobInfo = blobInfoFactory.loadBlobInfo(new BlobKey(blobkeyString));
-        return blobInfo.getSize();
-    }
-    
-    /**
-     * This method: <br>
-     * 1. retrieve the receiver txt file from the Google Cloud Storage
-     * 2. goes through the list file by splitting the content of the txt file(email addresses separated by comma)
-     * into separated email addresses. This is needed for creating admin email task for each receiver.
-     * @param listFileKey
-     * @param size
-     * @throws IOException
-     */
-    private List<List<String>> getReceiverList(String listFileKey, int sizeParam)
-            throws IOException {
-        
-        Assumption.assertNotNull(listFileKey);
-        BlobKey blobKey = new BlobKey(listFileKey);
-        
-        //it turns out that error will occur if we read more than around 900000 bytes of data per time
-        //from the blobstream, which also brings problems when this large number of emails are all stored in one
-        //list. As a result, to prevent unexpected errors, we read the txt file several times and each time
-        //at most 900000 bytes are read, after which a new list is created to store all the emails addresses that
-        //happen to be in the newly read bytes.
-        
-        //For email address which happens to be broken according to two consecutive reading, a check will be done
-        //before storing all emails separated from the second reading into a new list. Broken email will be fixed by
-        //deleting the first item of the email list from current reading  AND
-        //appending it to the last item of the email list from last reading
-        
-        //the email list from each reading is inserted into a upper list(list of list).
-        //the structure is as below:
-        
-        //ListOfList:
-        //      ListFromReading_1 :
-        //                     [example@email.com]
-        //                            ...
-        //      ListFromReading_2 :
-        //                     [example@email.com]
-        //                            ...
-        
-        //offset is needed for remembering where it stops from last reading
-        int offset = 0;
-        
-        //this is the list of list
-        List<List<String>> listOfList = new LinkedList<List<String>>();
-        
-        int size = sizeParam;
-        //file size is needed to track the number of unread bytes
-        while (size > 0) {
-            //makes sure not to over-read
-            int bytesToRead = size > MAX_READING_LENGTH ? MAX_READING_LENGTH : size;
-            InputStream blobStream = new BlobstoreInputStream(blobKey, offset);
-            byte[] array = new byte[bytesToRead];
-            
-            blobStream.read(array);
-            //remember where it stops reading
-            offset += MAX_READING_LENGTH;
-            //decrease unread bytes
-            size -= MAX_READING_LENGTH;
-            
-            //get the read bytes into string and split it by ","
-            String readString = new String(array);
-            List<String> newList = Arrays.asList(readString.split(","));
-            
-            if (listOfList.isEmpty()) {
-                //this is the first time reading
-                listOfList.add(newList);
-            } else {
-                //check if the last reading stopped in the middle of a email address string
-                List<String> lastAddedList = listOfList.get(listOfList.size() - 1);
-                //get the last item of the list from last reading
-                String lastStringOfLastAddedList = lastAddedList.get(lastAddedList.size() - 1);
-                //get the first item of the list from current reading
-                String firstStringOfNewList = newList.get(0);
-                
-                if (lastStringOfLastAddedList.contains("@") && firstStringOfNewList.contains("@")) {
-                    // no broken email from last reading found, simply add the list
-                    // from current reading into the upper list.
-                    listOfList.add(newList);
-                } else {
-                    // either the left part or the right part of the broken email string
-                    // does not contains a "@".
-                    // simply append the right part to the left part(last item of the list from last reading)
-                    listOfList.get(listOfList.size() - 1)
-                              .set(lastAddedList.size() - 1, lastStringOfLastAddedList + firstStringOfNewList);
-                    // and also needs to delete the right part which is the first item of the list from current reading
-                    listOfList.add(newList.subList(1, newList.size() - 1));
-                }
-            }
-            
-            blobStream.close();
-        }
-        
-        return listOfList;
-
-    }
-    
     private boolean isNearDeadline() {
         
         long timeLeftInMillis = ApiProxy.getCurrentEnvironment().getRemainingMillis();
         return timeLeftInMillis / 1000 < 100;
     }
     
-    private void pauseAndCreateAnNewTask(int indexOfEmailList, int indexOfEmail) {
+    private void pauseAndCreateAnNewTask(long offsetToResume) {
         TaskQueuesLogic taskQueueLogic = TaskQueuesLogic.inst();
         
         HashMap<String, String> paramMap = new HashMap<String, String>();
         paramMap.put(ParamsNames.ADMIN_EMAIL_ID, emailId);
         paramMap.put(ParamsNames.ADMIN_EMAIL_GROUP_RECEIVER_LIST_FILE_KEY, groupReceiverListFileKey);
-        paramMap.put(ParamsNames.ADMIN_GROUP_RECEIVER_EMAIL_LIST_INDEX, Integer.toString(indexOfEmailList));
-        paramMap.put(ParamsNames.ADMIN_GROUP_RECEIVER_EMAIL_INDEX, Integer.toString(indexOfEmail));
+        paramMap.put(ParamsNames.ADMIN_GROUP_RECEIVER_LIST_OFFSET, Long.toString(offsetToResume));
         paramMap.put(ParamsNames.ADMIN_EMAIL_TASK_QUEUE_MODE, Const.ADMIN_EMAIL_TASK_QUEUE_GROUP_MODE);
         
         taskQueueLogic.createAndAddTask(SystemParams.ADMIN_PREPARE_EMAIL_TASK_QUEUE,
@@ -258,25 +141,25 @@ public class AdminEmailPrepareTaskQueueWorkerServlet extends WorkerServlet {
 
     }
     
-    private void addAdminEmailToTaskQueue(String emailId, int indexOfEmailListToResume, int indexOfEmailToResume) {
+    /**
+     * Adds a task for each receiver in the receiver list file, starting from the given offset,
+     * until the end of the file is reached or the request is near its deadline.
+     * @param offsetToResume offset in bytes of the first receiver to add a task for
+     */
+    private void addAdminEmailToTaskQueue(String emailId, long offsetToResume) throws IOException {
         
         AdminEmailAttributes adminEmail = AdminEmailsLogic.inst().getAdminEmailById(emailId);
         Assumption.assertNotNull(adminEmail);
         TaskQueuesLogic taskQueueLogic = TaskQueuesLogic.inst();
         
-        log.info("Resume Adding group mail tasks for mail with id " + emailId + "from list index: "
-                + indexOfEmailListToResume + " email index: " + indexOfEmailToResume);
+        log.info("Resume Adding group mail tasks for mail with id " + emailId + " from offset: " + offsetToResume);
         
-        int indexOfLastEmailList = 0;
-        int indexOfLastEmail = 0;
-        
-        for (int i = indexOfEmailListToResume; i < processedReceiverEmails.size(); i++) {
-            
-            List<String> currentEmailList = processedReceiverEmails.get(i);
-            
-            for (int j = indexOfEmailToResume; j < currentEmailList.size(); j++) {
-                String receiverEmail = currentEmailList.get(j);
-                
+        BlobKey blobKey = new BlobKey(groupReceiverListFileKey);
+        ReceiverListReader receiverList =
+                new ReceiverListReader(new BlobstoreInputStream(blobKey, offsetToResume), offsetToResume);
+        try {
+            String receiverEmail = receiverList.readNext();
+            while (receiverEmail != null) {
                 HashMap<String, String> paramMap = new HashMap<String, String>();
                 paramMap.put(ParamsNames.ADMIN_EMAIL_ID, emailId);
                 paramMap.put(ParamsNames.ADMIN_EMAIL_RECEIVER, receiverEmail);
@@ -297,18 +180,19 @@ public class AdminEmailPrepareTaskQueueWorkerServlet extends WorkerServlet {
                 }
                 
                 if (isNearDeadline()) {
-                    pauseAndCreateAnNewTask(i, j);
-                    log.info("Adding group mail tasks for mail with id " + emailId + "have been paused with list index: " + i + " email index: " + j);
+                    pauseAndCreateAnNewTask(receiverList.getOffset());
+                    log.info("Adding group mail tasks for mail with id " + emailId
+                             + " have been paused at offset: " + receiverList.getOffset());
                     return;
                 }
                 
-                indexOfLastEmail = j;
+                receiverEmail = receiverList.readNext();
             }
-            indexOfLastEmailList = i;
+        } finally {
+            receiverList.close();
         }
         
         log.info("Adding Group mail tasks for mail with id " + emailId
-                + "was complete. List index : " + indexOfLastEmailList
-                + " Email index: " + indexOfLastEmail);
+                + " was complete. Offset: " + receiverList.getOffset());
     }
 }
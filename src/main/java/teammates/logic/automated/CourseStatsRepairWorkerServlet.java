@@ -0,0 +1,31 @@
+package teammates.logic.automated;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import teammates.common.util.Assumption;
+import teammates.common.util.Const.ParamsNames;
+import teammates.common.util.HttpRequestHelper;
+import teammates.logic.core.CoursesLogic;
+
+/**
+ * Recomputes the statistics recorded for a course from all its students,
+ * e.g. after they could not be updated along with a change to the students.
+ */
+@SuppressWarnings("serial")
+public class CourseStatsRepairWorkerServlet extends WorkerServlet {
+
+    @Override
+    public void doGet(HttpServletRequest req, HttpServletResponse resp) {
+        String courseId = HttpRequestHelper.getValueFromRequestParameterMap(req, ParamsNames.COURSE_ID);
+        Assumption.assertNotNull(courseId);
+
+        if (!CoursesLogic.inst().isCoursePresent(courseId)) {
+            log.info("Not repairing statistics of deleted course : " + courseId);
+            return;
+        }
+
+        log.info("Repairing statistics of course : " + courseId);
+        CoursesLogic.inst().recomputeCourseStats(courseId);
+    }
+}
@@ -0,0 +1,36 @@
+package teammates.logic.automated;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import teammates.common.util.Assumption;
+import teammates.common.util.Const.ParamsNames;
+import teammates.common.util.HttpRequestHelper;
+import teammates.logic.core.FeedbackResponsesLogic;
+
+/**
+ * Rebuilds the results snapshot of a feedback session (optionally restricted to a section),
+ * so that later visits to the results page can load all responses in one read.
+ */
+@SuppressWarnings("serial")
+public class FeedbackResponsesSnapshotWorkerServlet extends WorkerServlet {
+
+    @Override
+    public void doGet(HttpServletRequest req, HttpServletResponse resp) {
+        String courseId = HttpRequestHelper.getValueFromRequestParameterMap(req, ParamsNames.COURSE_ID);
+        Assumption.assertNotNull(courseId);
+
+        String feedbackSessionName = HttpRequestHelper
+                .getValueFromRequestParameterMap(req, ParamsNames.FEEDBACK_SESSION_NAME);
+        Assumption.assertNotNull(feedbackSessionName);
+
+        // null section means the snapshot of the whole session
+        String section = HttpRequestHelper.getValueFromRequestParameterMap(req, ParamsNames.SECTION_NAME);
+
+        log.info("Rebuilding responses snapshot for feedback session :" + feedbackSessionName
+                 + " in course : " + courseId + " in section : " + section);
+
+        FeedbackResponsesLogic.inst().getFeedbackResponsesForSessionInSectionUsingSnapshot(
+                feedbackSessionName, courseId, section);
+    }
+}
@@ -2,7 +2,9 @@ package teammates.logic.automated;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import javax.servlet.http.HttpServletRequest;
 
@@ -11,21 +13,36 @@ import teammates.common.datatransfer.FeedbackSessionAttributes;
 import teammates.common.datatransfer.StudentEnrollDetails;
 import teammates.common.util.ActivityLogEntry;
 import teammates.common.util.Assumption;
+import teammates.common.util.Const;
 import teammates.common.util.Const.ParamsNames;
+import teammates.common.util.Const.SystemParams;
 import teammates.common.util.HttpRequestHelper;
 import teammates.common.util.Utils;
 import teammates.logic.core.FeedbackResponsesLogic;
 import teammates.logic.core.FeedbackSessionsLogic;
 import teammates.logic.core.StudentsLogic;
+import teammates.logic.core.TaskQueuesLogic;
 
+import com.google.apphosting.api.ApiProxy;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 
+/**
+ * Adjusts the responses of a feedback session for the students whose team or section has changed.
+ * Only the responses given by or to those students are read, and they are adjusted in batches.
+ * If the task is about to run out of time, the remaining responses are left to a new task,
+ * which resumes after the last response adjusted.
+ */
 public class FeedbackSubmissionAdjustmentAction extends TaskQueueWorkerAction {
+    private static final int RESPONSES_PER_BATCH = 100;
+    
     private String courseId;
     private String sessionName;
     private String enrollmentDetails;
     
+    /** The id of the last response adjusted by a previous task, or null if no response has been adjusted. */
+    private String checkpoint;
+    
     public FeedbackSubmissionAdjustmentAction(
             HttpServletRequest request) {
         super(request);
@@ -41,6 +58,9 @@ public class FeedbackSubmissionAdjustmentAction extends TaskQueueWorkerAction {
         this.enrollmentDetails = HttpRequestHelper
                 .getValueFromRequestParameterMap(request, ParamsNames.ENROLLMENT_DETAILS);
         Assumption.assertNotNull(enrollmentDetails);
+        
+        this.checkpoint = HttpRequestHelper
+                .getValueFromRequestParameterMap(request, ParamsNames.ADJUSTMENT_CHECKPOINT);
     }
 
     public FeedbackSubmissionAdjustmentAction(HashMap<String, String> paramMap) {
@@ -54,6 +74,8 @@ public class FeedbackSubmissionAdjustmentAction extends TaskQueueWorkerAction {
         
         this.enrollmentDetails = paramMap.get(ParamsNames.ENROLLMENT_DETAILS);
         Assumption.assertNotNull(enrollmentDetails);
+        
+        this.checkpoint = paramMap.get(ParamsNames.ADJUSTMENT_CHECKPOINT);
     }
     
     @Override
@@ -74,25 +96,76 @@ public class FeedbackSubmissionAdjustmentAction extends TaskQueueWorkerAction {
             return false;
         }
         
-        List<FeedbackResponseAttributes> allResponses =
-                                        FeedbackResponsesLogic.inst().getFeedbackResponsesForSession(
-                                                                        feedbackSession.getFeedbackSessionName(),
-                                                                        feedbackSession.getCourseId());
         Gson gsonParser = Utils.getTeammatesGson();
         ArrayList<StudentEnrollDetails> enrollmentList = gsonParser
                                                             .fromJson(enrollmentDetails, new TypeToken<ArrayList<StudentEnrollDetails>>(){}
                                                             .getType());
-        for (FeedbackResponseAttributes response : allResponses) {
+        List<StudentEnrollDetails> enrollmentsToAdjustFor =
+                StudentsLogic.inst().getEnrollmentsRequiringResponseAdjustment(enrollmentList);
+        if (enrollmentsToAdjustFor.isEmpty()) {
+            return true;
+        }
+        
+        Set<String> emailsToAdjustFor = new HashSet<String>();
+        for (StudentEnrollDetails enrollment : enrollmentsToAdjustFor) {
+            emailsToAdjustFor.add(enrollment.email);
+        }
+        List<FeedbackResponseAttributes> responsesToAdjust = getResponsesAfterCheckpoint(
+                FeedbackResponsesLogic.inst().getFeedbackResponsesForSessionFromOrToUsers(
+                        feedbackSession.getFeedbackSessionName(), feedbackSession.getCourseId(), emailsToAdjustFor));
+        
+        for (int from = 0; from < responsesToAdjust.size(); from += RESPONSES_PER_BATCH) {
+            int to = Math.min(from + RESPONSES_PER_BATCH, responsesToAdjust.size());
             try {
-                StudentsLogic.inst().adjustFeedbackResponseForEnrollments(enrollmentList, response);
+                StudentsLogic.inst().adjustFeedbackResponsesForEnrollments(enrollmentsToAdjustFor,
+                                                                           responsesToAdjust.subList(from, to));
             } catch (Exception e) {
                 log.severe(String.format(errorString, sessionName, courseId, e.getMessage(),
                                                 ActivityLogEntry.generateServletActionFailureLogMessage(request, e)));
                 return false;
             }
+            
+            if (to < responsesToAdjust.size() && isNearDeadline()) {
+                String lastAdjustedResponseId = responsesToAdjust.get(to - 1).getId();
+                pauseAndCreateAnNewTask(lastAdjustedResponseId);
+                log.info("Adjusting submissions for feedback session : " + sessionName + " in course : " + courseId
+                         + " has been paused after response : " + lastAdjustedResponseId);
+                return true;
+            }
         }
         return true;
            
     }
+    
+    /**
+     * @param responses sorted by id
+     */
+    private List<FeedbackResponseAttributes> getResponsesAfterCheckpoint(List<FeedbackResponseAttributes> responses) {
+        if (checkpoint == null) {
+            return responses;
+        }
+        int firstResponseAfterCheckpoint = 0;
+        while (firstResponseAfterCheckpoint < responses.size()
+                && responses.get(firstResponseAfterCheckpoint).getId().compareTo(checkpoint) <= 0) {
+            firstResponseAfterCheckpoint++;
+        }
+        return responses.subList(firstResponseAfterCheckpoint, responses.size());
+    }
+    
+    private boolean isNearDeadline() {
+        long timeLeftInMillis = ApiProxy.getCurrentEnvironment().getRemainingMillis();
+        return timeLeftInMillis / 1000 < 100;
+    }
+    
+    private void pauseAndCreateAnNewTask(String lastAdjustedResponseId) {
+        HashMap<String, String> paramMap = new HashMap<String, String>();
+        paramMap.put(ParamsNames.COURSE_ID, courseId);
+        paramMap.put(ParamsNames.FEEDBACK_SESSION_NAME, sessionName);
+        paramMap.put(ParamsNames.ENROLLMENT_DETAILS, enrollmentDetails);
+        paramMap.put(ParamsNames.ADJUSTMENT_CHECKPOINT, lastAdjustedResponseId);
+        
+        TaskQueuesLogic.inst().createAndAddTask(SystemParams.FEEDBACK_SUBMISSION_ADJUSTMENT_TASK_QUEUE,
+                Const.ActionURIs.FEEDBACK_SUBMISSION_ADJUSTMENT_WORKER, paramMap);
+    }
 
 }
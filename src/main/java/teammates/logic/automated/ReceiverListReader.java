@@ -0,0 +1,69 @@
+package teammates.logic.automated;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads the email addresses of a comma-separated receiver list one by one from a stream,
+ * so that a list of any size can be read in one pass without keeping it in memory. <br>
+ * The reader keeps track of the offset (in bytes) of the address after the last one read,
+ * so that reading can be resumed there later, e.g. by a new task.
+ */
+public class ReceiverListReader implements Closeable {
+
+    private static final int SEPARATOR = ',';
+
+    private final InputStream stream;
+    private final ByteArrayOutputStream address = new ByteArrayOutputStream();
+    private long offset;
+
+    /**
+     * @param stream the receiver list, starting from the given offset
+     * @param offset the offset of the start of the stream in the whole receiver list
+     */
+    public ReceiverListReader(InputStream stream, long offset) {
+        this.stream = new BufferedInputStream(stream);
+        this.offset = offset;
+    }
+
+    /**
+     * Skips blank entries, and whitespace around the addresses.
+     * @return the next address in the list, or null if the end of the list is reached
+     */
+    public String readNext() throws IOException {
+        int b = 0;
+        while (b != -1) {
+            address.reset();
+            b = stream.read();
+            while (b != -1 && b != SEPARATOR) {
+                address.write(b);
+                offset++;
+                b = stream.read();
+            }
+            if (b == SEPARATOR) {
+                offset++;
+            }
+
+            String nextAddress = address.toString().trim();
+            if (!nextAddress.isEmpty()) {
+                return nextAddress;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the offset from which to resume reading after the last address read
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    @Override
+    public void close() throws IOException {
+        stream.close();
+    }
+}
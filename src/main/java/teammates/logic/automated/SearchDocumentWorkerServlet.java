@@ -0,0 +1,30 @@
+package teammates.logic.automated;
+
+import java.util.Arrays;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import teammates.common.util.Assumption;
+import teammates.common.util.Const.ParamsNames;
+import teammates.common.util.HttpRequestHelper;
+import teammates.logic.core.SearchDocumentsLogic;
+
+/**
+ * Puts the search documents scheduled by a request, together, into one index.
+ */
+@SuppressWarnings("serial")
+public class SearchDocumentWorkerServlet extends WorkerServlet {
+
+    @Override
+    public void doGet(HttpServletRequest req, HttpServletResponse resp) {
+        String indexName = HttpRequestHelper.getValueFromRequestParameterMap(req, ParamsNames.SEARCH_INDEX_NAME);
+        Assumption.assertNotNull(indexName);
+
+        String[] documentIds = HttpRequestHelper.getValuesFromRequestParameterMap(req, ParamsNames.SEARCH_DOCUMENT_ID);
+        Assumption.assertNotNull(documentIds);
+
+        log.info("Putting " + documentIds.length + " documents in search index : " + indexName);
+        SearchDocumentsLogic.inst().putDocuments(indexName, Arrays.asList(documentIds));
+    }
+}
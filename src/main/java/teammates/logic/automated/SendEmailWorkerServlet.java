@@ -27,35 +27,18 @@ public class SendEmailWorkerServlet extends WorkerServlet {
         //Sets an arbitrary retry code outside of the range 200-299 so GAE will automatically retry upon failure
         int responseCodeForRetry = 100;
         try {
-            String emailSubject = HttpRequestHelper
-                    .getValueFromRequestParameterMap(req, ParamsNames.EMAIL_SUBJECT);
-            Assumption.assertNotNull(emailSubject);
+            String emailTemplate = HttpRequestHelper
+                    .getValueFromRequestParameterMap(req, ParamsNames.EMAIL_TEMPLATE);
             
-            String emailContent = HttpRequestHelper
-                    .getValueFromRequestParameterMap(req, ParamsNames.EMAIL_CONTENT);
-            Assumption.assertNotNull(emailContent);
-            
-            String emailSender = HttpRequestHelper
-                    .getValueFromRequestParameterMap(req, ParamsNames.EMAIL_SENDER);
-            Assumption.assertNotNull(emailSender);
-            
-            String emailReceiver = HttpRequestHelper
-                    .getValueFromRequestParameterMap(req, ParamsNames.EMAIL_RECEIVER);
-            Assumption.assertNotNull(emailReceiver);
-            
-            String emailReply = HttpRequestHelper
-                    .getValueFromRequestParameterMap(req, ParamsNames.EMAIL_REPLY_TO_ADDRESS);
-            Assumption.assertNotNull(emailReply);
-            
-            Session session = Session.getDefaultInstance(new Properties(), null);
-            MimeMessage message = new MimeMessage(session);
-    
-            message.addRecipient(Message.RecipientType.TO, new InternetAddress(
-                    emailReceiver));
-            message.setFrom(new InternetAddress(emailSender));
-            message.setContent(emailContent, "text/html");
-            message.setSubject(emailSubject);
-            message.setReplyTo(new Address[] { new InternetAddress(emailReply) });
+            MimeMessage message = emailTemplate == null
+                                ? getEmailFromRequest(req)
+                                : getFeedbackSessionEmailFromRequest(req, emailTemplate);
+            if (message == null) {
+                // nothing to retry: the session or the recipient has been deleted since the email was queued
+                log.warning("Feedback session email not sent as it can no longer be generated: "
+                            + HttpRequestHelper.printRequestParameters(req));
+                return;
+            }
             
             Emails emailManager = new Emails();
             emailManager.sendEmailWithLogging(message);
@@ -64,4 +47,64 @@ public class SendEmailWorkerServlet extends WorkerServlet {
             resp.setStatus(responseCodeForRetry);
         }
     }
+    
+    private MimeMessage getEmailFromRequest(HttpServletRequest req) throws MessagingException {
+        String emailSubject = HttpRequestHelper
+                .getValueFromRequestParameterMap(req, ParamsNames.EMAIL_SUBJECT);
+        Assumption.assertNotNull(emailSubject);
+        
+        String emailContent = HttpRequestHelper
+                .getValueFromRequestParameterMap(req, ParamsNames.EMAIL_CONTENT);
+        Assumption.assertNotNull(emailContent);
+        
+        String emailSender = HttpRequestHelper
+                .getValueFromRequestParameterMap(req, ParamsNames.EMAIL_SENDER);
+        Assumption.assertNotNull(emailSender);
+        
+        String emailReceiver = HttpRequestHelper
+                .getValueFromRequestParameterMap(req, ParamsNames.EMAIL_RECEIVER);
+        Assumption.assertNotNull(emailReceiver);
+        
+        String emailReply = HttpRequestHelper
+                .getValueFromRequestParameterMap(req, ParamsNames.EMAIL_REPLY_TO_ADDRESS);
+        Assumption.assertNotNull(emailReply);
+        
+        Session session = Session.getDefaultInstance(new Properties(), null);
+        MimeMessage message = new MimeMessage(session);
+
+        message.addRecipient(Message.RecipientType.TO, new InternetAddress(
+                emailReceiver));
+        message.setFrom(new InternetAddress(emailSender));
+        message.setContent(emailContent, "text/html");
+        message.setSubject(emailSubject);
+        message.setReplyTo(new Address[] { new InternetAddress(emailReply) });
+        return message;
+    }
+    
+    /**
+     * Generates the email from the reference to it sent instead of the whole email.
+     */
+    private MimeMessage getFeedbackSessionEmailFromRequest(HttpServletRequest req, String emailTemplate)
+            throws MessagingException, IOException {
+        String recipientType = HttpRequestHelper
+                .getValueFromRequestParameterMap(req, ParamsNames.EMAIL_RECIPIENT_TYPE);
+        Assumption.assertNotNull(recipientType);
+        
+        String courseId = HttpRequestHelper
+                .getValueFromRequestParameterMap(req, ParamsNames.EMAIL_COURSE);
+        Assumption.assertNotNull(courseId);
+        
+        String feedbackSessionName = HttpRequestHelper
+                .getValueFromRequestParameterMap(req, ParamsNames.EMAIL_FEEDBACK);
+        Assumption.assertNotNull(feedbackSessionName);
+        
+        String emailReceiver = HttpRequestHelper
+                .getValueFromRequestParameterMap(req, ParamsNames.EMAIL_RECEIVER);
+        Assumption.assertNotNull(emailReceiver);
+        
+        return new Emails().generateFeedbackSessionEmail(
+                Emails.FeedbackSessionEmailTemplate.valueOf(emailTemplate),
+                Emails.FeedbackSessionEmailRecipient.valueOf(recipientType),
+                courseId, feedbackSessionName, emailReceiver);
+    }
 }
@@ -137,6 +137,14 @@ public class BackDoorLogic extends Logic {
         accountsDb.createAccounts(studentAccounts, false);
         studentsDb.createStudentsWithoutSearchability(students.values());
         
+        // the students are created without going through StudentsLogic, so the statistics of their
+        // courses are dropped to be computed again when next needed
+        Set<String> courseIdsOfStudents = new HashSet<String>();
+        for (StudentAttributes student : students.values()) {
+            courseIdsOfStudents.add(student.course);
+        }
+        coursesDb.deleteCourseStatsForCourses(courseIdsOfStudents);
+        
 
         HashMap<String, FeedbackSessionAttributes> sessions = dataBundle.feedbackSessions;
         for (FeedbackSessionAttributes session : sessions.values()) {
@@ -488,6 +496,7 @@ public class BackDoorLogic extends Logic {
             coursesDb.deleteEntities(courses);
             instructorsDb.deleteInstructorsForCourses(courseIds);
             studentsDb.deleteStudentsForCourses(courseIds);
+            coursesDb.deleteCourseStatsForCourses(courseIds);
             commentsDb.deleteCommentsForCourses(courseIds);
             fbDb.deleteFeedbackSessionsForCourses(courseIds);
             fqDb.deleteFeedbackQuestionsForCourses(courseIds);
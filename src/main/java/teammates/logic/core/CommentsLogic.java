@@ -185,6 +185,18 @@ public class CommentsLogic {
         commentsDb.putDocument(comment);
     }
     
+    public void putDocuments(List<CommentAttributes> comments) {
+        commentsDb.putDocuments(comments);
+    }
+    
+    /**
+     * Schedule the document for comment to be created or updated at the end of the request
+     * @param comment
+     */
+    public void schedulePutDocument(CommentAttributes comment) {
+        commentsDb.schedulePutDocument(comment);
+    }
+    
     public CommentSearchResultBundle searchComment(String queryString, List<InstructorAttributes> instructors,
                                                    String cursorString) {
         return commentsDb.search(queryString, instructors, cursorString);
@@ -12,6 +12,7 @@ import java.util.logging.Logger;
 import teammates.common.datatransfer.AccountAttributes;
 import teammates.common.datatransfer.CourseAttributes;
 import teammates.common.datatransfer.CourseDetailsBundle;
+import teammates.common.datatransfer.CourseStats;
 import teammates.common.datatransfer.CourseSummaryBundle;
 import teammates.common.datatransfer.FeedbackSessionAttributes;
 import teammates.common.datatransfer.FeedbackSessionDetailsBundle;
@@ -26,6 +27,8 @@ import teammates.common.exception.InvalidParametersException;
 import teammates.common.exception.TeammatesException;
 import teammates.common.util.Assumption;
 import teammates.common.util.Const;
+import teammates.common.util.Const.ParamsNames;
+import teammates.common.util.Const.SystemParams;
 import teammates.common.util.FieldValidator;
 import teammates.common.util.Sanitizer;
 import teammates.common.util.StringHelper;
@@ -47,6 +50,12 @@ public class CoursesLogic {
     
     private static final Logger log = Utils.getLogger();
     
+    /**
+     * How long after a student is changed the queries of the students are trusted to see the change
+     * (they are eventually consistent), and the statistics of the course can be computed from them.
+     */
+    private static final long COURSE_STATS_SETTLE_MILLIS = 10 * 1000;
+    
     /* Explanation: This class depends on CoursesDb class but no other *Db classes.
      * That is because reading/writing entities from/to the datastore is the
      * responsibility of the matching *Logic class.
@@ -75,6 +84,7 @@ public class CoursesLogic {
         
         CourseAttributes courseToAdd = new CourseAttributes(courseId, courseName);
         coursesDb.createEntity(courseToAdd);
+        coursesDb.createEmptyCourseStats(courseId);
     }
     
     /**
@@ -519,6 +529,84 @@ public class CoursesLogic {
         return getCourseSummary(cd);
     }
     
+    /**
+     * @return the {@link CourseDetailsBundle course details} for a course, with its statistics
+     *         but without its sections, so that the students of the course do not have to be read.
+     * @throws EntityDoesNotExistException
+     */
+    public CourseDetailsBundle getCourseSummaryWithoutSections(String courseId) throws EntityDoesNotExistException {
+        CourseAttributes cd = coursesDb.getCourse(courseId);
+
+        if (cd == null) {
+            throw new EntityDoesNotExistException("The course does not exist: " + courseId);
+        }
+        
+        return getCourseSummaryWithoutSections(cd);
+    }
+    
+    private CourseDetailsBundle getCourseSummaryWithoutSections(CourseAttributes cd) {
+        CourseDetailsBundle cdd = new CourseDetailsBundle(cd);
+        cdd.stats = getCourseStats(cd.getId());
+        return cdd;
+    }
+    
+    /**
+     * @return the statistics of the course. They are read from the statistics recorded for the course,
+     *         and are computed from all the students of the course only if none are up to date.
+     */
+    public CourseStats getCourseStats(String courseId) {
+        CourseStats stats = coursesDb.getCourseStats(courseId);
+        if (stats == null) {
+            stats = recomputeCourseStats(courseId);
+        }
+        return stats;
+    }
+    
+    /**
+     * Computes the statistics of the course from all its students, and records them
+     * in place of the statistics recorded before, e.g. to repair them. <br>
+     * They are not recorded if a student has changed too recently for the query of the students
+     * to be sure to see the change, or if a student changes while they are computed.
+     */
+    public CourseStats recomputeCourseStats(String courseId) {
+        long version = coursesDb.getCourseStatsVersion(courseId);
+        boolean isQuerySettled = System.currentTimeMillis() - version > COURSE_STATS_SETTLE_MILLIS;
+        List<StudentAttributes> students = studentsLogic.getStudentsForCourse(courseId);
+        return isQuerySettled ? coursesDb.putCourseStats(courseId, students, version)
+                              : coursesDb.computeCourseStats(students);
+    }
+    
+    /**
+     * Updates the statistics recorded for the course for the students removed from and added to it.
+     * A student whose section, team or registration has changed is removed as it was before the change,
+     * and added as it is after the change. If the statistics cannot be updated, they are computed again
+     * from all the students of the course in a task.
+     */
+    public void updateCourseStats(String courseId, List<StudentAttributes> studentsRemoved,
+                                  List<StudentAttributes> studentsAdded) {
+        if (!coursesDb.updateCourseStats(courseId, studentsRemoved, studentsAdded)) {
+            scheduleCourseStatsRepair(courseId);
+        }
+    }
+    
+    public void scheduleCourseStatsRepair(String courseId) {
+        HashMap<String, String> paramMap = new HashMap<String, String>();
+        paramMap.put(ParamsNames.COURSE_ID, courseId);
+        
+        // delayed for the query of the students to see the change that could not be recorded
+        TaskQueuesLogic.inst().createAndAddDeferredTask(SystemParams.COURSE_STATS_REPAIR_TASK_QUEUE,
+                                                        Const.ActionURIs.COURSE_STATS_REPAIR_WORKER, paramMap,
+                                                        2 * COURSE_STATS_SETTLE_MILLIS);
+    }
+    
+    /**
+     * Deletes the statistics recorded for the courses, e.g. when their students have been changed
+     * directly in the datastore. They are computed again when they are next needed.
+     */
+    public void deleteCourseStatsForCourses(List<String> courseIds) {
+        coursesDb.deleteCourseStatsForCourses(courseIds);
+    }
+    
     /**
      * @param instructor
      * @return the {@link CourseSummaryBundle course summary}, including
@@ -649,7 +737,7 @@ public class CoursesLogic {
      * 
      * @param instructorAttributesList
      * @return HashMap with courseId as key, and CourseDetailsBundle as value.
-     * Does not include details within the course, such as feedback sessions.
+     * Does not include details within the course, such as feedback sessions and sections.
      */
     public HashMap<String, CourseDetailsBundle> getCourseSummariesForInstructor(List<InstructorAttributes> instructorAttributesList) {
         
@@ -671,7 +759,7 @@ public class CoursesLogic {
         }
         
         for (CourseAttributes ca : courseList) {
-            courseSummaryList.put(ca.getId(), getCourseSummary(ca));
+            courseSummaryList.put(ca.getId(), getCourseSummaryWithoutSections(ca));
         }
         
         return courseSummaryList;
@@ -837,7 +925,8 @@ public class CoursesLogic {
 
         HashMap<String, CourseDetailsBundle> courses = getCourseSummariesForInstructor(googleId, false);
         CourseDetailsBundle course = courses.get(courseId);
-        boolean hasSection = hasIndicatedSections(courseId);
+        List<SectionDetailsBundle> sections = getSectionsForCourseWithoutStats(courseId);
+        boolean hasSection = hasIndicatedSections(sections);
         
         StringBuilder export = new StringBuilder(100);
         String courseInfo = "Course ID," + Sanitizer.sanitizeForCsv(courseId) + Const.EOL
@@ -848,7 +937,7 @@ public class CoursesLogic {
         String header = (hasSection ? "Section," : "") + "Team,Full Name,Last Name,Status,Email" + Const.EOL;
         export.append(header);
         
-        for (SectionDetailsBundle section : course.sections) {
+        for (SectionDetailsBundle section : sections) {
             for (TeamDetailsBundle team : section.teams) {
                 for (StudentAttributes student : team.students) {
                     String studentStatus = null;
@@ -885,6 +974,15 @@ public class CoursesLogic {
         return false;
     }
 
+    private static boolean hasIndicatedSections(List<SectionDetailsBundle> sections) {
+        for (SectionDetailsBundle section : sections) {
+            if (!section.name.equals(Const.DEFAULT_SECTION)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public boolean isCourseArchived(String courseId, String instructorGoogleId) {
         CourseAttributes course = getCourse(courseId);
         InstructorAttributes instructor = instructorsLogic.getInstructorForGoogleId(courseId, instructorGoogleId);
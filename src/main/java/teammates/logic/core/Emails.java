@@ -29,6 +29,7 @@ import teammates.common.datatransfer.StudentAttributes;
 import teammates.common.datatransfer.UserType;
 import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.TeammatesException;
+import teammates.common.util.CompiledTemplate;
 import teammates.common.util.Config;
 import teammates.common.util.Const;
 import teammates.common.util.Const.ParamsNames;
@@ -63,6 +64,16 @@ public class Emails {
     
     private static final Logger log = Utils.getLogger();
     
+    /*
+     * Headers holding the reference from which a feedback session email can be generated again.
+     * They are only read when the email is added to the task queue and are never sent,
+     * as the task sending the email generates a new message from the reference.
+     */
+    private static final String HEADER_FEEDBACK_SESSION_EMAIL_TEMPLATE = "X-TEAMMATES-Feedback-Session-Email-Template";
+    private static final String HEADER_FEEDBACK_SESSION_EMAIL_RECIPIENT = "X-TEAMMATES-Feedback-Session-Email-Recipient";
+    private static final String HEADER_COURSE_ID = "X-TEAMMATES-Course-Id";
+    private static final String HEADER_FEEDBACK_SESSION_NAME = "X-TEAMMATES-Feedback-Session-Name";
+    
     public enum EmailType {
         FEEDBACK_CLOSING,
         FEEDBACK_OPENING,
@@ -70,6 +81,44 @@ public class Emails {
         PENDING_COMMENT_CLEARED
     }
     
+    /**
+     * The templates of the emails about a feedback session sent to the whole course,
+     * with the status and the subject prefix filled in each.
+     */
+    public enum FeedbackSessionEmailTemplate {
+        OPENING(EmailTemplates.USER_FEEDBACK_SESSION, "is now open", SUBJECT_PREFIX_FEEDBACK_SESSION_OPENING),
+        REMINDER(EmailTemplates.USER_FEEDBACK_SESSION, "is still open for submissions",
+                 SUBJECT_PREFIX_FEEDBACK_SESSION_REMINDER),
+        CLOSING(EmailTemplates.USER_FEEDBACK_SESSION_CLOSING, "is closing soon", SUBJECT_PREFIX_FEEDBACK_SESSION_CLOSING),
+        PUBLISHED(EmailTemplates.USER_FEEDBACK_SESSION_PUBLISHED, null, SUBJECT_PREFIX_FEEDBACK_SESSION_PUBLISHED);
+        
+        private final String template;
+        private final String status;
+        private final String subjectPrefix;
+        
+        FeedbackSessionEmailTemplate(String template, String status, String subjectPrefix) {
+            this.template = template;
+            this.status = status;
+            this.subjectPrefix = subjectPrefix;
+        }
+        
+        private CompiledTemplate compile() {
+            CompiledTemplate compiledTemplate = Templates.compile(template);
+            return status == null ? compiledTemplate : compiledTemplate.bind("${status}", status);
+        }
+    }
+    
+    /**
+     * The kinds of recipients of a feedback session email.
+     */
+    public enum FeedbackSessionEmailRecipient {
+        STUDENT,
+        /** An instructor receiving a copy of the email sent to the students. */
+        INSTRUCTOR,
+        /** An instructor reminded to submit responses. */
+        INSTRUCTOR_TO_REMIND
+    }
+    
     private String senderEmail;
     private String senderName;
     private String replyTo;
@@ -126,7 +175,6 @@ public class Emails {
     public List<MimeMessage> generateFeedbackSessionOpeningEmails(FeedbackSessionAttributes session)
                     throws MessagingException, IOException {
         
-        String template = EmailTemplates.USER_FEEDBACK_SESSION;
         StudentsLogic studentsLogic = StudentsLogic.inst();
         CoursesLogic coursesLogic = CoursesLogic.inst();
         InstructorsLogic instructorsLogic = InstructorsLogic.inst();
@@ -144,18 +192,8 @@ public class Emails {
             students = new ArrayList<StudentAttributes>();
         }
         
-        List<MimeMessage> emails = generateFeedbackSessionEmailBases(course,
-                session, students, instructors, template);
-        
-        for (MimeMessage email : emails) {
-            email.setSubject(email.getSubject().replace("${subjectPrefix}",
-                    SUBJECT_PREFIX_FEEDBACK_SESSION_OPENING));
-            email.setContent(
-                    email.getContent().toString()
-                            .replace("${status}", "is now open"), "text/html");
-        }
-        
-        return emails;
+        return generateFeedbackSessionEmails(course, session, students, instructors,
+                FeedbackSessionEmailTemplate.OPENING);
     }
     
     public List<MimeMessage> generateFeedbackSessionReminderEmails(
@@ -166,22 +204,10 @@ public class Emails {
             List<InstructorAttributes> instructorsToNotify)
                     throws MessagingException, IOException {
 
-        String template = EmailTemplates.USER_FEEDBACK_SESSION;
-        List<MimeMessage> emails = generateFeedbackSessionEmailBasesForInstructorReminders(
-                course, session, instructorsToRemind, template);
-        emails.addAll(generateFeedbackSessionEmailBases(course,
-                session, students, instructorsToNotify, template));
-        
-        for (MimeMessage email : emails) {
-            email.setSubject(email.getSubject().replace("${subjectPrefix}",
-                    SUBJECT_PREFIX_FEEDBACK_SESSION_REMINDER));
-            email.setContent(
-                    email.getContent()
-                            .toString()
-                            .replace("${status}",
-                                    "is still open for submissions"),
-                    "text/html");
-        }
+        FeedbackSessionEmailTemplate emailTemplate = FeedbackSessionEmailTemplate.REMINDER;
+        List<MimeMessage> emails = generateFeedbackSessionEmailsForInstructorReminders(
+                course, session, instructorsToRemind, emailTemplate.compile(), emailTemplate.subjectPrefix, emailTemplate);
+        emails.addAll(generateFeedbackSessionEmails(course, session, students, instructorsToNotify, emailTemplate));
         return emails;
     }
     
@@ -189,13 +215,10 @@ public class Emails {
             FeedbackSessionAttributes session)
                     throws MessagingException, IOException, EntityDoesNotExistException {
         
-        StudentsLogic studentsLogic = StudentsLogic.inst();
         CoursesLogic coursesLogic = CoursesLogic.inst();
         InstructorsLogic instructorsLogic = InstructorsLogic.inst();
         FeedbackSessionsLogic fsLogic = FeedbackSessionsLogic.inst();
-        String template = EmailTemplates.USER_FEEDBACK_SESSION_CLOSING;
-        List<MimeMessage> emails = null;
-        
+
         CourseAttributes course = coursesLogic
                 .getCourse(session.getCourseId());
         List<InstructorAttributes> instructors = instructorsLogic
@@ -203,27 +226,10 @@ public class Emails {
         List<StudentAttributes> students = new ArrayList<StudentAttributes>();
 
         if (fsLogic.isFeedbackSessionForStudentsToAnswer(session)) {
-            List<StudentAttributes> allStudents = studentsLogic.getStudentsForCourse(session.getCourseId());
-
-            for (StudentAttributes student : allStudents) {
-                if (!fsLogic.isFeedbackSessionFullyCompletedByStudent(
-                        session.getFeedbackSessionName(), session.getCourseId(),
-                        student.email)) {
-                    students.add(student);
-                }
-            }
+            students = fsLogic.getStudentsYetToFullyCompleteFeedbackSession(session);
         }
-        emails = generateFeedbackSessionEmailBases(
-                course, session, students, instructors, template);
-        for (MimeMessage email : emails) {
-            email.setSubject(email.getSubject().replace("${subjectPrefix}",
-                    SUBJECT_PREFIX_FEEDBACK_SESSION_CLOSING));
-            email.setContent(
-                    email.getContent().toString()
-                            .replace("${status}", "is closing soon"),
-                    "text/html");
-        }
-        return emails;
+        return generateFeedbackSessionEmails(course, session, students, instructors,
+                FeedbackSessionEmailTemplate.CLOSING);
     }
     
     public List<MimeMessage> generatePendingCommentsClearedEmails(String courseId, Set<String> recipients)
@@ -243,11 +249,7 @@ public class Emails {
             if (s == null) {
                 continue;
             }
-            emails.add(generatePendingCommentsClearedEmailBaseForStudent(course, s,
-                    template));
-        }
-        for (MimeMessage email : emails) {
-            email.setSubject(email.getSubject().replace("${subjectPrefix}",
+            emails.add(generatePendingCommentsClearedEmailForStudent(course, s, template,
                     SUBJECT_PREFIX_PENDING_COMMENTS_CLEARED));
         }
         return emails;
@@ -256,11 +258,17 @@ public class Emails {
     public MimeMessage generatePendingCommentsClearedEmailBaseForStudent(CourseAttributes course,
             StudentAttributes student, String template)
                     throws MessagingException, UnsupportedEncodingException {
+        return generatePendingCommentsClearedEmailForStudent(course, student, template, "${subjectPrefix}");
+    }
+    
+    private MimeMessage generatePendingCommentsClearedEmailForStudent(CourseAttributes course,
+            StudentAttributes student, String template, String subjectPrefix)
+                    throws MessagingException, UnsupportedEncodingException {
         MimeMessage message = getEmptyEmailAddressedToEmail(student.email);
 
         message.setSubject(String
-                .format("${subjectPrefix} [Course: %s]",
-                        course.getId()));
+                .format("%s [Course: %s]",
+                        subjectPrefix, course.getId()));
 
         String commentsPageUrl = Config.getAppUrl(Const.ActionURIs.STUDENT_COMMENTS_PAGE)
                                         .withCourseId(course.getId())
@@ -286,8 +294,6 @@ public class Emails {
         CoursesLogic coursesLogic = CoursesLogic.inst();
         InstructorsLogic instructorsLogic = InstructorsLogic.inst();
         FeedbackSessionsLogic fsLogic = FeedbackSessionsLogic.inst();
-        String template = EmailTemplates.USER_FEEDBACK_SESSION_PUBLISHED;
-        List<MimeMessage> emails = null;
 
         CourseAttributes course = coursesLogic
                 .getCourse(session.getCourseId());
@@ -300,14 +306,8 @@ public class Emails {
         } else {
             students = new ArrayList<StudentAttributes>();
         }
-        emails = generateFeedbackSessionEmailBases(course,
-                session, students, instructors, template);
-        
-        for (MimeMessage email : emails) {
-            email.setSubject(email.getSubject().replace("${subjectPrefix}",
-                    SUBJECT_PREFIX_FEEDBACK_SESSION_PUBLISHED));
-        }
-        return emails;
+        return generateFeedbackSessionEmails(course, session, students, instructors,
+                FeedbackSessionEmailTemplate.PUBLISHED);
     }
     
     public List<MimeMessage> generateFeedbackSessionEmailBases(
@@ -317,30 +317,95 @@ public class Emails {
             List<InstructorAttributes> instructors,
             String template)
                     throws MessagingException, UnsupportedEncodingException {
-        
-        ArrayList<MimeMessage> emails = new ArrayList<MimeMessage>();
+
+        return generateFeedbackSessionEmails(course, session, students, instructors,
+                Templates.compile(template), "${subjectPrefix}", null);
+    }
+
+    private List<MimeMessage> generateFeedbackSessionEmails(
+            CourseAttributes course,
+            FeedbackSessionAttributes session,
+            List<StudentAttributes> students,
+            List<InstructorAttributes> instructors,
+            FeedbackSessionEmailTemplate emailTemplate)
+                    throws MessagingException, UnsupportedEncodingException {
+
+        return generateFeedbackSessionEmails(course, session, students, instructors,
+                emailTemplate.compile(), emailTemplate.subjectPrefix, emailTemplate);
+    }
+
+    /**
+     * Generates the emails of a feedback session, filling the values shared by all the emails
+     * in the template once and populating it for each recipient in a single pass.
+     * @param emailTemplate the template the emails can be generated again from when they are sent,
+     *                      or null if the emails have to be sent as they are
+     */
+    private List<MimeMessage> generateFeedbackSessionEmails(
+            CourseAttributes course,
+            FeedbackSessionAttributes session,
+            List<StudentAttributes> students,
+            List<InstructorAttributes> instructors,
+            CompiledTemplate template,
+            String subjectPrefix,
+            FeedbackSessionEmailTemplate emailTemplate)
+                    throws MessagingException, UnsupportedEncodingException {
+
+        CompiledTemplate sessionTemplate = bindFeedbackSessionValues(template, course, session);
+        String subject = getFeedbackSessionEmailSubject(subjectPrefix, course, session);
+        StringBuilder buffer = new StringBuilder();
+
+        List<String> studentKeys = new ArrayList<String>();
         for (StudentAttributes s : students) {
-            emails.add(generateFeedbackSessionEmailBaseForStudents(course, session, s,
-                    template));
+            studentKeys.add(s.key);
+        }
+        List<String> encryptedStudentKeys = StringHelper.encryptAll(studentKeys);
+
+        ArrayList<MimeMessage> emails = new ArrayList<MimeMessage>();
+        for (int i = 0; i < students.size(); i++) {
+            MimeMessage email = generateFeedbackSessionEmailForStudent(course, session, students.get(i),
+                    encryptedStudentKeys.get(i), sessionTemplate, subject, buffer);
+            setFeedbackSessionEmailReference(email, session, emailTemplate, FeedbackSessionEmailRecipient.STUDENT);
+            emails.add(email);
         }
         for (InstructorAttributes i : instructors) {
-            emails.add(generateFeedbackSessionEmailBaseForInstructors(course,
-                    session, i, template));
+            MimeMessage email = generateFeedbackSessionEmailForInstructor(course, i, sessionTemplate, subject, buffer);
+            setFeedbackSessionEmailReference(email, session, emailTemplate, FeedbackSessionEmailRecipient.INSTRUCTOR);
+            emails.add(email);
         }
         return emails;
     }
-    
+
     public List<MimeMessage> generateFeedbackSessionEmailBasesForInstructorReminders(
             CourseAttributes course,
             FeedbackSessionAttributes session,
             List<InstructorAttributes> instructors,
             String template)
                     throws MessagingException, UnsupportedEncodingException {
-        
+
+        return generateFeedbackSessionEmailsForInstructorReminders(course, session, instructors,
+                Templates.compile(template), "${subjectPrefix}", null);
+    }
+
+    private List<MimeMessage> generateFeedbackSessionEmailsForInstructorReminders(
+            CourseAttributes course,
+            FeedbackSessionAttributes session,
+            List<InstructorAttributes> instructors,
+            CompiledTemplate template,
+            String subjectPrefix,
+            FeedbackSessionEmailTemplate emailTemplate)
+                    throws MessagingException, UnsupportedEncodingException {
+
+        CompiledTemplate sessionTemplate = bindFeedbackSessionValues(template, course, session);
+        String subject = getFeedbackSessionEmailSubject(subjectPrefix, course, session);
+        StringBuilder buffer = new StringBuilder();
+
         ArrayList<MimeMessage> emails = new ArrayList<MimeMessage>();
         for (InstructorAttributes i : instructors) {
-            emails.add(generateFeedbackSessionEmailBaseForInstructorReminders(course, session, i,
-                    template));
+            MimeMessage email = generateFeedbackSessionEmailForInstructorReminder(course, session, i,
+                    sessionTemplate, subject, buffer);
+            setFeedbackSessionEmailReference(email, session, emailTemplate,
+                    FeedbackSessionEmailRecipient.INSTRUCTOR_TO_REMIND);
+            emails.add(email);
         }
         return emails;
     }
@@ -352,36 +417,50 @@ public class Emails {
             String template)
                     throws MessagingException, UnsupportedEncodingException {
 
+        return generateFeedbackSessionEmailForStudent(c, fs, s, StringHelper.encrypt(s.key),
+                bindFeedbackSessionValues(Templates.compile(template), c, fs),
+                getFeedbackSessionEmailSubject("${subjectPrefix}", c, fs), new StringBuilder());
+    }
+
+    /**
+     * @param encryptedKey the registration key of the student, already encrypted
+     * @param sessionTemplate template in which the values of the course and the session are already filled
+     * @param buffer buffer to populate the template in, reused across emails
+     */
+    private MimeMessage generateFeedbackSessionEmailForStudent(
+            CourseAttributes c,
+            FeedbackSessionAttributes fs,
+            StudentAttributes s,
+            String encryptedKey,
+            CompiledTemplate sessionTemplate,
+            String subject,
+            StringBuilder buffer)
+                    throws MessagingException, UnsupportedEncodingException {
+
         MimeMessage message = getEmptyEmailAddressedToEmail(s.email);
 
-        message.setSubject(String
-                .format("${subjectPrefix} [Course: %s][Feedback Session: %s]",
-                        c.getName(), fs.getFeedbackSessionName()));
+        message.setSubject(subject);
 
         String submitUrl = Config.getAppUrl(Const.ActionURIs.STUDENT_FEEDBACK_SUBMISSION_EDIT_PAGE)
                             .withCourseId(c.getId())
                             .withSessionName(fs.getFeedbackSessionName())
-                            .withRegistrationKey(StringHelper.encrypt(s.key))
+                            .withRegistrationKey(encryptedKey)
                             .withStudentEmail(s.email)
                             .toAbsoluteString();
 
         String reportUrl = Config.getAppUrl(Const.ActionURIs.STUDENT_FEEDBACK_RESULTS_PAGE)
                             .withCourseId(c.getId())
                             .withSessionName(fs.getFeedbackSessionName())
-                            .withRegistrationKey(StringHelper.encrypt(s.key))
+                            .withRegistrationKey(encryptedKey)
                             .withStudentEmail(s.email)
                             .toAbsoluteString();
 
-        String emailBody = Templates.populateTemplate(template,
+        String emailBody = sessionTemplate.render(buffer,
                 "${userName}", s.name,
-                "${courseName}", c.getName(),
-                "${courseId}", c.getId(),
-                "${feedbackSessionName}", fs.getFeedbackSessionName(),
-                "${deadline}", TimeHelper.formatTime12H(fs.getEndTime()),
                 "${instructorFragment}", "",
                 "${submitUrl}", submitUrl,
                 "${reportUrl}", reportUrl);
-        
+
         message.setContent(emailBody, "text/html");
 
         return message;
@@ -394,22 +473,29 @@ public class Emails {
             String template)
                     throws MessagingException, UnsupportedEncodingException {
 
+        return generateFeedbackSessionEmailForInstructor(c, i,
+                bindFeedbackSessionValues(Templates.compile(template), c, fs),
+                getFeedbackSessionEmailSubject("${subjectPrefix}", c, fs), new StringBuilder());
+    }
+
+    private MimeMessage generateFeedbackSessionEmailForInstructor(
+            CourseAttributes c,
+            InstructorAttributes i,
+            CompiledTemplate sessionTemplate,
+            String subject,
+            StringBuilder buffer)
+                    throws MessagingException, UnsupportedEncodingException {
+
         MimeMessage message = getEmptyEmailAddressedToEmail(i.email);
 
-        message.setSubject(String
-                .format("${subjectPrefix} [Course: %s][Feedback Session: %s]",
-                        c.getName(), fs.getFeedbackSessionName()));
+        message.setSubject(subject);
 
         String submitUrl = "{The student's unique submission url appears here}";
-        
+
         String reportUrl = "{The student's unique results url appears here}";
 
-        String emailBody = Templates.populateTemplate(template,
+        String emailBody = sessionTemplate.render(buffer,
                 "${userName}", i.name,
-                "${courseName}", c.getName(),
-                "${courseId}", c.getId(),
-                "${feedbackSessionName}", fs.getFeedbackSessionName(),
-                "${deadline}", TimeHelper.formatTime12H(fs.getEndTime()),
                 "${instructorFragment}",
                         "The email below has been sent to students of course: " + c.getId() + ".<p/><br/>",
                 "${submitUrl}", submitUrl,
@@ -419,7 +505,7 @@ public class Emails {
 
         return message;
     }
-    
+
     public MimeMessage generateFeedbackSessionEmailBaseForInstructorReminders(
             CourseAttributes c,
             FeedbackSessionAttributes fs,
@@ -427,11 +513,23 @@ public class Emails {
             String template)
                     throws MessagingException, UnsupportedEncodingException {
 
+        return generateFeedbackSessionEmailForInstructorReminder(c, fs, i,
+                bindFeedbackSessionValues(Templates.compile(template), c, fs),
+                getFeedbackSessionEmailSubject("${subjectPrefix}", c, fs), new StringBuilder());
+    }
+
+    private MimeMessage generateFeedbackSessionEmailForInstructorReminder(
+            CourseAttributes c,
+            FeedbackSessionAttributes fs,
+            InstructorAttributes i,
+            CompiledTemplate sessionTemplate,
+            String subject,
+            StringBuilder buffer)
+                    throws MessagingException, UnsupportedEncodingException {
+
         MimeMessage message = getEmptyEmailAddressedToEmail(i.email);
 
-        message.setSubject(String
-                .format("${subjectPrefix} [Course: %s][Feedback Session: %s]",
-                        c.getName(), fs.getFeedbackSessionName()));
+        message.setSubject(subject);
 
         String submitUrl = Config.getAppUrl(Const.ActionURIs.INSTRUCTOR_FEEDBACK_SUBMISSION_EDIT_PAGE)
                                         .withCourseId(c.getId())
@@ -442,13 +540,9 @@ public class Emails {
                                         .withCourseId(c.getId())
                                         .withSessionName(fs.getFeedbackSessionName())
                                         .toAbsoluteString();
-        
-        String emailBody = Templates.populateTemplate(template,
+
+        String emailBody = sessionTemplate.render(buffer,
                 "${userName}", i.name,
-                "${courseName}", c.getName(),
-                "${courseId}", c.getId(),
-                "${feedbackSessionName}", fs.getFeedbackSessionName(),
-                "${deadline}", TimeHelper.formatTime12H(fs.getEndTime()),
                 "${instructorFragment}", "",
                 "${submitUrl}", submitUrl,
                 "${reportUrl}", reportUrl);
@@ -457,6 +551,77 @@ public class Emails {
 
         return message;
     }
+
+    /**
+     * Generates again a feedback session email generated by one of the methods sending a
+     * feedback session email to the whole course, e.g. {@link #generateFeedbackSessionOpeningEmails}.
+     * @return the email, or null if the course, the session or the recipient no longer exists
+     */
+    public MimeMessage generateFeedbackSessionEmail(
+            FeedbackSessionEmailTemplate emailTemplate,
+            FeedbackSessionEmailRecipient recipientType,
+            String courseId,
+            String feedbackSessionName,
+            String recipientEmail)
+                    throws MessagingException, UnsupportedEncodingException {
+
+        CourseAttributes course = CoursesLogic.inst().getCourse(courseId);
+        FeedbackSessionAttributes session = FeedbackSessionsLogic.inst().getFeedbackSession(feedbackSessionName, courseId);
+        if (course == null || session == null) {
+            return null;
+        }
+
+        CompiledTemplate sessionTemplate = bindFeedbackSessionValues(emailTemplate.compile(), course, session);
+        String subject = getFeedbackSessionEmailSubject(emailTemplate.subjectPrefix, course, session);
+
+        if (recipientType == FeedbackSessionEmailRecipient.STUDENT) {
+            StudentAttributes student = StudentsLogic.inst().getStudentForEmail(courseId, recipientEmail);
+            return student == null
+                   ? null
+                   : generateFeedbackSessionEmailForStudent(course, session, student, StringHelper.encrypt(student.key),
+                                                            sessionTemplate, subject, new StringBuilder());
+        }
+
+        InstructorAttributes instructor = InstructorsLogic.inst().getInstructorForEmail(courseId, recipientEmail);
+        if (instructor == null) {
+            return null;
+        }
+        return recipientType == FeedbackSessionEmailRecipient.INSTRUCTOR
+               ? generateFeedbackSessionEmailForInstructor(course, instructor, sessionTemplate, subject,
+                                                           new StringBuilder())
+               : generateFeedbackSessionEmailForInstructorReminder(course, session, instructor, sessionTemplate,
+                                                                   subject, new StringBuilder());
+    }
+
+    /**
+     * Records in the email the reference from which it can be generated again, if any.
+     */
+    private void setFeedbackSessionEmailReference(MimeMessage email, FeedbackSessionAttributes session,
+            FeedbackSessionEmailTemplate emailTemplate, FeedbackSessionEmailRecipient recipientType)
+                    throws MessagingException {
+        if (emailTemplate == null) {
+            return;
+        }
+        email.setHeader(HEADER_FEEDBACK_SESSION_EMAIL_TEMPLATE, emailTemplate.name());
+        email.setHeader(HEADER_FEEDBACK_SESSION_EMAIL_RECIPIENT, recipientType.name());
+        email.setHeader(HEADER_COURSE_ID, session.getCourseId());
+        email.setHeader(HEADER_FEEDBACK_SESSION_NAME, session.getFeedbackSessionName());
+    }
+
+    private CompiledTemplate bindFeedbackSessionValues(CompiledTemplate template,
+            CourseAttributes c, FeedbackSessionAttributes fs) {
+        return template.bind(
+                "${courseName}", c.getName(),
+                "${courseId}", c.getId(),
+                "${feedbackSessionName}", fs.getFeedbackSessionName(),
+                "${deadline}", TimeHelper.formatTime12H(fs.getEndTime()));
+    }
+
+    private String getFeedbackSessionEmailSubject(String subjectPrefix,
+            CourseAttributes c, FeedbackSessionAttributes fs) {
+        return String.format("%s [Course: %s][Feedback Session: %s]",
+                             subjectPrefix, c.getName(), fs.getFeedbackSessionName());
+    }
     
     public MimeMessage generateStudentCourseJoinEmail(
             CourseAttributes course, StudentAttributes student)
@@ -628,23 +793,25 @@ public class Emails {
         }
         
         // Equally spread out the emails to be sent over 1 hour
-        int numberOfEmailsSent = 0;
         int emailIntervalMillis = (1000 * 60 * 60) / messages.size();
 
         // Sets interval to a maximum of 5 seconds if the interval is too large
         int maxIntervalMillis = 5000;
         emailIntervalMillis = emailIntervalMillis > maxIntervalMillis ? maxIntervalMillis : emailIntervalMillis;
 
+        List<HashMap<String, String>> paramMaps = new ArrayList<HashMap<String, String>>();
         for (MimeMessage m : messages) {
             try {
-                long emailDelayTimer = numberOfEmailsSent * emailIntervalMillis;
-                addEmailToTaskQueue(m, emailDelayTimer);
-                numberOfEmailsSent++;
-            } catch (MessagingException e) {
+                paramMaps.add(getSendEmailTaskParamMap(m));
+            } catch (Exception e) {
                 logSevereForErrorInSendingItem("message", m, e);
             }
         }
 
+        // a batch of emails that cannot be added is logged by the task queue logic, without dropping the others
+        TaskQueuesLogic taskQueueLogic = TaskQueuesLogic.inst();
+        taskQueueLogic.createAndAddDeferredTasks(SystemParams.SEND_EMAIL_TASK_QUEUE,
+                Const.ActionURIs.SEND_EMAIL_WORKER, paramMaps, emailIntervalMillis);
     }
 
     public void addEmailToTaskQueue(MimeMessage message, long emailDelayTimer) throws MessagingException {
@@ -653,12 +820,7 @@ public class Emails {
         String emailReceiver = message.getRecipients(Message.RecipientType.TO)[0].toString();
         String emailReplyToAddress = message.getReplyTo()[0].toString();
         try {
-            HashMap<String, String> paramMap = new HashMap<String, String>();
-            paramMap.put(ParamsNames.EMAIL_SUBJECT, emailSubject);
-            paramMap.put(ParamsNames.EMAIL_CONTENT, message.getContent().toString());
-            paramMap.put(ParamsNames.EMAIL_SENDER, emailSender);
-            paramMap.put(ParamsNames.EMAIL_RECEIVER, emailReceiver);
-            paramMap.put(ParamsNames.EMAIL_REPLY_TO_ADDRESS, emailReplyToAddress);
+            HashMap<String, String> paramMap = getSendEmailTaskParamMap(message);
             
             TaskQueuesLogic taskQueueLogic = TaskQueuesLogic.inst();
             taskQueueLogic.createAndAddDeferredTask(SystemParams.SEND_EMAIL_TASK_QUEUE,
@@ -673,6 +835,31 @@ public class Emails {
         
     }
     
+    /**
+     * @return the parameters of the task sending the email, which only refer to the email
+     *         if it can be generated again when it is sent, and contain the whole email otherwise
+     */
+    private HashMap<String, String> getSendEmailTaskParamMap(MimeMessage message)
+            throws MessagingException, IOException {
+        HashMap<String, String> paramMap = new HashMap<String, String>();
+        paramMap.put(ParamsNames.EMAIL_RECEIVER, message.getRecipients(Message.RecipientType.TO)[0].toString());
+        
+        String emailTemplate = message.getHeader(HEADER_FEEDBACK_SESSION_EMAIL_TEMPLATE, null);
+        if (emailTemplate != null) {
+            paramMap.put(ParamsNames.EMAIL_TEMPLATE, emailTemplate);
+            paramMap.put(ParamsNames.EMAIL_RECIPIENT_TYPE, message.getHeader(HEADER_FEEDBACK_SESSION_EMAIL_RECIPIENT, null));
+            paramMap.put(ParamsNames.EMAIL_COURSE, message.getHeader(HEADER_COURSE_ID, null));
+            paramMap.put(ParamsNames.EMAIL_FEEDBACK, message.getHeader(HEADER_FEEDBACK_SESSION_NAME, null));
+            return paramMap;
+        }
+        
+        paramMap.put(ParamsNames.EMAIL_SUBJECT, message.getSubject());
+        paramMap.put(ParamsNames.EMAIL_CONTENT, message.getContent().toString());
+        paramMap.put(ParamsNames.EMAIL_SENDER, message.getFrom()[0].toString());
+        paramMap.put(ParamsNames.EMAIL_REPLY_TO_ADDRESS, message.getReplyTo()[0].toString());
+        return paramMap;
+    }
+    
     public void sendEmailWithLogging(MimeMessage message) throws MessagingException, JSONException, IOException {
         sendEmail(message, true);
     }
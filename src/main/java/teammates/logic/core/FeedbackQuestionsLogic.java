@@ -77,7 +77,12 @@ public class FeedbackQuestionsLogic {
             FeedbackQuestionAttributes fqa, int questionNumber) throws InvalidParametersException {
         fqa.questionNumber = questionNumber;
         fqa.removeIrrelevantVisibilityOptions();
-        return fqDb.createFeedbackQuestionWithoutExistenceCheck(fqa);
+        FeedbackQuestionAttributes createdQuestion = fqDb.createFeedbackQuestionWithoutExistenceCheck(fqa);
+        if (isQuestionForStudents(fqa)) {
+            fsLogic.clearStudentSessionStatusesForCourse(fqa.courseId);
+        }
+        FeedbackSessionResultsContextCache.invalidate(fqa.courseId);
+        return createdQuestion;
     }
     
     public FeedbackQuestionAttributes copyFeedbackQuestion(String feedbackQuestionId,
@@ -328,8 +333,7 @@ public class FeedbackQuestionsLogic {
                 new ArrayList<FeedbackQuestionAttributes>();
         
         for (FeedbackQuestionAttributes question : allQuestions) {
-            if (question.giverType == FeedbackParticipantType.STUDENTS
-                    || question.giverType == FeedbackParticipantType.TEAMS) {
+            if (isQuestionForStudents(question)) {
                 questions.add(question);
             }
         }
@@ -438,13 +442,30 @@ public class FeedbackQuestionsLogic {
     public boolean isQuestionFullyAnsweredByUser(FeedbackQuestionAttributes question, String email)
             throws EntityDoesNotExistException {
         
+        InstructorAttributes instructorGiver = instructorsLogic.getInstructorForEmail(question.courseId, email);
+        StudentAttributes studentGiver = studentsLogic.getStudentForEmail(question.courseId, email);
+        
+        return isQuestionFullyAnsweredByUser(question, email, instructorGiver, studentGiver);
+    }
+    
+    /**
+     * Same as {@link #isQuestionFullyAnsweredByUser(FeedbackQuestionAttributes, String)}, for callers
+     * that have already looked up the user, e.g. to check many questions for the same user.
+     * @param instructorGiver the user as an instructor of the course, or null if the user is not one
+     * @param studentGiver the user as a student of the course, or null if the user is not one
+     */
+    public boolean isQuestionFullyAnsweredByUser(
+            FeedbackQuestionAttributes question, String email,
+            InstructorAttributes instructorGiver, StudentAttributes studentGiver)
+                    throws EntityDoesNotExistException {
+        
         int numberOfResponsesGiven =
                 frLogic.getFeedbackResponsesFromGiverForQuestion(question.getId(), email).size();
         int numberOfResponsesNeeded =
                 question.numberOfEntitiesToGiveFeedbackTo;
         
         if (numberOfResponsesNeeded == Const.MAX_POSSIBLE_RECIPIENTS) {
-            numberOfResponsesNeeded = getRecipientsForQuestion(question, email).size();
+            numberOfResponsesNeeded = getRecipientsForQuestion(question, email, instructorGiver, studentGiver).size();
         }
         
         return numberOfResponsesGiven >= numberOfResponsesNeeded ? true : false;
@@ -514,10 +535,51 @@ public class FeedbackQuestionsLogic {
     }
     
     
+    /**
+     * Changes the question numbers of the questions of a session to follow the given order,
+     * i.e. the first question in {@code questionIds} becomes question 1 and so on.
+     * The new numbers are worked out in memory and only the questions whose number changes
+     * are written, all in a single batch.<br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @param questionIds the IDs of all the questions of the session, in their new order
+     * @throws InvalidParametersException if {@code questionIds} does not contain each question
+     *         of the session exactly once
+     */
+    public void reorderQuestions(String feedbackSessionName, String courseId, List<String> questionIds)
+            throws InvalidParametersException, EntityDoesNotExistException {
+        
+        List<FeedbackQuestionAttributes> questions = getFeedbackQuestionsForSession(feedbackSessionName, courseId);
+        Map<String, FeedbackQuestionAttributes> questionsById = new HashMap<String, FeedbackQuestionAttributes>();
+        for (FeedbackQuestionAttributes question : questions) {
+            questionsById.put(question.getId(), question);
+        }
+        
+        Set<String> listedQuestionIds = new HashSet<String>(questionIds);
+        if (listedQuestionIds.size() != questionIds.size() || !listedQuestionIds.equals(questionsById.keySet())) {
+            throw new InvalidParametersException(
+                    "The new order does not list each question of the feedback session exactly once.");
+        }
+        
+        Map<String, Integer> changedQuestionNumbers = new HashMap<String, Integer>();
+        for (int i = 0; i < questionIds.size(); i++) {
+            FeedbackQuestionAttributes question = questionsById.get(questionIds.get(i));
+            int newQuestionNumber = i + 1;
+            if (question.questionNumber != newQuestionNumber) {
+                question.questionNumber = newQuestionNumber;
+                changedQuestionNumbers.put(question.getId(), newQuestionNumber);
+            }
+        }
+        
+        fqDb.updateFeedbackQuestionNumbers(changedQuestionNumbers);
+        FeedbackSessionResultsContextCache.invalidate(courseId);
+    }
+    
     /**
      * Adjust questions between the old and new number,
      * if the new number is smaller, then shift up (increase qn#) all questions in between.
      * if the new number is bigger, then shift down(decrease qn#) all questions in between.
+     * The adjusted questions are written in a single batch.
      * @param oldQuestionNumber
      * @param newQuestionNumber
      * @param questions
@@ -525,31 +587,29 @@ public class FeedbackQuestionsLogic {
     private void adjustQuestionNumbers(int oldQuestionNumber,
             int newQuestionNumber, List<FeedbackQuestionAttributes> questions) {
         
+        Map<String, Integer> changedQuestionNumbers = new HashMap<String, Integer>();
         if (oldQuestionNumber > newQuestionNumber && oldQuestionNumber >= 1) {
             for (int i = oldQuestionNumber - 1; i >= newQuestionNumber; i--) {
                 FeedbackQuestionAttributes question = questions.get(i - 1);
                 question.questionNumber += 1;
-                try {
-                    updateFeedbackQuestionWithoutResponseRateUpdate(question);
-                } catch (InvalidParametersException e) {
-                    Assumption.fail("Invalid question.");
-                } catch (EntityDoesNotExistException e) {
-                    Assumption.fail("Question disappeared.");
-                }
+                changedQuestionNumbers.put(question.getId(), question.questionNumber);
             }
         } else if (oldQuestionNumber < newQuestionNumber && oldQuestionNumber < questions.size()) {
             for (int i = oldQuestionNumber + 1; i <= newQuestionNumber; i++) {
                 FeedbackQuestionAttributes question = questions.get(i - 1);
                 question.questionNumber -= 1;
-                try {
-                    updateFeedbackQuestionWithoutResponseRateUpdate(question);
-                } catch (InvalidParametersException e) {
-                    Assumption.fail("Invalid question.");
-                } catch (EntityDoesNotExistException e) {
-                    Assumption.fail("Question disappeared.");
-                }
+                changedQuestionNumbers.put(question.getId(), question.questionNumber);
             }
         }
+        updateQuestionNumbers(changedQuestionNumbers);
+    }
+    
+    private void updateQuestionNumbers(Map<String, Integer> changedQuestionNumbers) {
+        try {
+            fqDb.updateFeedbackQuestionNumbers(changedQuestionNumbers);
+        } catch (EntityDoesNotExistException e) {
+            Assumption.fail("Question disappeared.");
+        }
     }
 
     /**
@@ -603,9 +663,16 @@ public class FeedbackQuestionsLogic {
             frLogic.deleteFeedbackResponsesForQuestionAndCascade(oldQuestion.getId(), hasResponseRateUpdate);
         }
         
+        boolean wasForStudents = isQuestionForStudents(oldQuestion);
+        
         oldQuestion.updateValues(newAttributes);
         newAttributes.removeIrrelevantVisibilityOptions();
         fqDb.updateFeedbackQuestion(newAttributes);
+        
+        if (wasForStudents != isQuestionForStudents(newAttributes)) {
+            fsLogic.clearStudentSessionStatusesForCourse(oldQuestion.courseId);
+        }
+        FeedbackSessionResultsContextCache.invalidate(oldQuestion.courseId);
     }
 
     public void deleteFeedbackQuestionsForSession(String feedbackSessionName, String courseId)
@@ -673,6 +740,7 @@ public class FeedbackQuestionsLogic {
      */
     public void deleteFeedbackQuestionsForCourse(String courseId) {
         fqDb.deleteFeedbackQuestionsForCourse(courseId);
+        FeedbackSessionResultsContextCache.invalidate(courseId);
     }
     
     /**
@@ -702,27 +770,27 @@ public class FeedbackQuestionsLogic {
         }
         
         fqDb.deleteEntity(questionToDelete);
+        if (isQuestionForStudents(questionToDelete)) {
+            fsLogic.clearStudentSessionStatusesForCourse(courseId);
+        }
         
         if (questionToDelete.questionNumber < questionsToShiftQnNumber.size()) {
             shiftQuestionNumbersDown(questionToDelete.questionNumber, questionsToShiftQnNumber);
         }
+        FeedbackSessionResultsContextCache.invalidate(courseId);
     }
     
     // Shifts all question numbers after questionNumberToShiftFrom down by one.
     private void shiftQuestionNumbersDown(int questionNumberToShiftFrom,
             List<FeedbackQuestionAttributes> questionsToShift) {
+        Map<String, Integer> changedQuestionNumbers = new HashMap<String, Integer>();
         for (FeedbackQuestionAttributes question : questionsToShift) {
             if (question.questionNumber > questionNumberToShiftFrom) {
                 question.questionNumber -= 1;
-                try {
-                    updateFeedbackQuestionWithoutResponseRateUpdate(question);
-                } catch (InvalidParametersException e) {
-                    Assumption.fail("Invalid question.");
-                } catch (EntityDoesNotExistException e) {
-                    Assumption.fail("Question disappeared.");
-                }
+                changedQuestionNumbers.put(question.getId(), question.questionNumber);
             }
         }
+        updateQuestionNumbers(changedQuestionNumbers);
     }
     
     /*
@@ -732,10 +800,19 @@ public class FeedbackQuestionsLogic {
             List<FeedbackQuestionAttributes> questions, String giver)
             throws EntityDoesNotExistException {
         List<FeedbackQuestionAttributes> questionsWithRecipients = new ArrayList<FeedbackQuestionAttributes>();
+        if (questions.isEmpty()) {
+            return questionsWithRecipients;
+        }
+        
+        // all the questions are in the same course, so the giver is looked up only once
+        String courseId = questions.get(0).courseId;
+        InstructorAttributes instructorGiver = instructorsLogic.getInstructorForEmail(courseId, giver);
+        StudentAttributes studentGiver = studentsLogic.getStudentForEmail(courseId, giver);
+        
         for (FeedbackQuestionAttributes question : questions) {
             int numRecipients = question.numberOfEntitiesToGiveFeedbackTo;
             if (numRecipients == Const.MAX_POSSIBLE_RECIPIENTS) {
-                numRecipients = this.getRecipientsForQuestion(question, giver)
+                numRecipients = this.getRecipientsForQuestion(question, giver, instructorGiver, studentGiver)
                         .size();
             }
             if (numRecipients > 0) {
@@ -744,5 +821,14 @@ public class FeedbackQuestionsLogic {
         }
         return questionsWithRecipients;
     }
+    
+    /**
+     * A session without such questions is completed by all its students,
+     * see {@link FeedbackSessionsLogic#isFeedbackSessionCompletedByStudent}.
+     */
+    private static boolean isQuestionForStudents(FeedbackQuestionAttributes question) {
+        return question.giverType == FeedbackParticipantType.STUDENTS
+               || question.giverType == FeedbackParticipantType.TEAMS;
+    }
 
 }
@@ -172,6 +172,18 @@ public class FeedbackResponseCommentsLogic {
         frcDb.putDocument(comment);
     }
     
+    public void putDocuments(List<FeedbackResponseCommentAttributes> comments) {
+        frcDb.putDocuments(comments);
+    }
+    
+    /**
+     * Schedule the document for the given comment to be created or updated at the end of the request
+     * @param comment
+     */
+    public void schedulePutDocument(FeedbackResponseCommentAttributes comment) {
+        frcDb.schedulePutDocument(comment);
+    }
+    
     public List<FeedbackResponseCommentAttributes> getFeedbackResponseCommentsForGiver(String courseId,
                                                                                        String giverEmail) {
         return frcDb.getFeedbackResponseCommentForGiver(courseId, giverEmail);
@@ -1,6 +1,7 @@
 package teammates.logic.core;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -12,6 +13,7 @@ import teammates.common.datatransfer.CourseRoster;
 import teammates.common.datatransfer.FeedbackParticipantType;
 import teammates.common.datatransfer.FeedbackQuestionAttributes;
 import teammates.common.datatransfer.FeedbackResponseAttributes;
+import teammates.common.datatransfer.FeedbackResponsePage;
 import teammates.common.datatransfer.StudentAttributes;
 import teammates.common.datatransfer.StudentEnrollDetails;
 import teammates.common.datatransfer.UserType;
@@ -19,6 +21,9 @@ import teammates.common.exception.EntityAlreadyExistsException;
 import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.InvalidParametersException;
 import teammates.common.util.Assumption;
+import teammates.common.util.Const;
+import teammates.common.util.Const.ParamsNames;
+import teammates.common.util.Const.SystemParams;
 import teammates.common.util.Utils;
 import teammates.storage.api.FeedbackResponsesDb;
 import teammates.storage.entity.FeedbackResponse;
@@ -26,6 +31,12 @@ import teammates.storage.entity.FeedbackResponse;
 public class FeedbackResponsesLogic {
 
     private static final Logger log = Utils.getLogger();
+    
+    /**
+     * How long after a response is written the queries are trusted to see it (they are eventually consistent),
+     * and a results snapshot can be built from them.
+     */
+    private static final long SNAPSHOT_SETTLE_MILLIS = 10 * 1000;
 
     private static FeedbackResponsesLogic instance;
     private static final StudentsLogic studentsLogic = StudentsLogic.inst();
@@ -72,6 +83,14 @@ public class FeedbackResponsesLogic {
         return frDb.getFeedbackResponsesForSession(feedbackSessionName, courseId);
     }
     
+    /**
+     * @return the responses in the session given by or to any of the users, sorted by id
+     */
+    public List<FeedbackResponseAttributes> getFeedbackResponsesForSessionFromOrToUsers(
+            String feedbackSessionName, String courseId, Collection<String> userEmails) {
+        return frDb.getFeedbackResponsesForSessionFromOrToUsers(feedbackSessionName, courseId, userEmails);
+    }
+    
     public List<FeedbackResponseAttributes> getFeedbackResponsesForSessionInSection(
             String feedbackSessionName, String courseId, String section) {
         if (section == null) {
@@ -80,6 +99,58 @@ public class FeedbackResponsesLogic {
         return frDb.getFeedbackResponsesForSessionInSection(feedbackSessionName, courseId, section);
     }
 
+    /**
+     * Gets all responses of the session involving the section (or the whole session if
+     * {@code section} is null), hydrated from the results snapshot if it is up to date.
+     * Otherwise the responses are queried and the snapshot is rebuilt from them, unless
+     * a response has been written too recently for the query to be sure to see it.
+     */
+    public List<FeedbackResponseAttributes> getFeedbackResponsesForSessionInSectionUsingSnapshot(
+            String feedbackSessionName, String courseId, String section) {
+        List<FeedbackResponseAttributes> responses =
+                frDb.getFeedbackResponsesSnapshotForSessionInSection(feedbackSessionName, courseId, section);
+        if (responses == null) {
+            // the version is read before the query, so that the snapshot is not read if a response is written after,
+            // and the time of the version after the version itself, so that it is not older than the version read
+            long responsesVersion = frDb.getFeedbackResponsesSnapshotVersion(feedbackSessionName, courseId, section);
+            long responsesVersionTime =
+                    frDb.getFeedbackResponsesSnapshotVersionTime(feedbackSessionName, courseId, section);
+            boolean isQuerySettled = System.currentTimeMillis() - responsesVersionTime > SNAPSHOT_SETTLE_MILLIS;
+            responses = getFeedbackResponsesForSessionInSection(feedbackSessionName, courseId, section);
+            if (isQuerySettled) {
+                frDb.putFeedbackResponsesSnapshotForSessionInSection(feedbackSessionName, courseId, section,
+                                                                     responses, responsesVersion);
+            }
+        }
+        return responses;
+    }
+    
+    /**
+     * @return the responses of the session involving the section (or the whole session if
+     *         {@code section} is null) from the results snapshot, or null if there is no up-to-date snapshot.
+     */
+    public List<FeedbackResponseAttributes> getFeedbackResponsesSnapshotForSessionInSection(
+            String feedbackSessionName, String courseId, String section) {
+        return frDb.getFeedbackResponsesSnapshotForSessionInSection(feedbackSessionName, courseId, section);
+    }
+    
+    /**
+     * Schedules a background rebuild of the results snapshot of the session in the section
+     * (or of the whole session if {@code section} is null).
+     */
+    public void scheduleFeedbackResponsesSnapshotRebuild(
+            String feedbackSessionName, String courseId, String section) {
+        HashMap<String, String> paramMap = new HashMap<String, String>();
+        paramMap.put(ParamsNames.COURSE_ID, courseId);
+        paramMap.put(ParamsNames.FEEDBACK_SESSION_NAME, feedbackSessionName);
+        if (section != null) {
+            paramMap.put(ParamsNames.SECTION_NAME, section);
+        }
+        
+        TaskQueuesLogic.inst().createAndAddTask(SystemParams.FEEDBACK_RESPONSES_SNAPSHOT_TASK_QUEUE,
+                                                Const.ActionURIs.FEEDBACK_RESPONSES_SNAPSHOT_WORKER, paramMap);
+    }
+
     public List<FeedbackResponseAttributes> getFeedbackResponsesForSessionFromSection(
             String feedbackSessionName, String courseId, String section) {
         if (section == null) {
@@ -128,6 +199,48 @@ public class FeedbackResponsesLogic {
         return frDb.getFeedbackResponsesForSessionToSectionWithinRange(feedbackSessionName, courseId, section, range);
     }
 
+    /**
+     * Gets a page of the responses of the session involving the section (or of the whole
+     * session if {@code section} is null).
+     * @param cursor the {@link FeedbackResponsePage#nextCursor} of the previous page, or null for the first page
+     */
+    public FeedbackResponsePage getFeedbackResponsesForSessionInSectionPage(
+            String feedbackSessionName, String courseId, String section, String cursor, int pageSize) {
+        if (section == null) {
+            return frDb.getFeedbackResponsesForSessionPage(feedbackSessionName, courseId, cursor, pageSize);
+        }
+        return frDb.getFeedbackResponsesForSessionInSectionPage(feedbackSessionName, courseId, section,
+                                                                cursor, pageSize);
+    }
+
+    /**
+     * Gets a page of the responses of the session given from the section (or of the whole
+     * session if {@code section} is null).
+     * @param cursor the {@link FeedbackResponsePage#nextCursor} of the previous page, or null for the first page
+     */
+    public FeedbackResponsePage getFeedbackResponsesForSessionFromSectionPage(
+            String feedbackSessionName, String courseId, String section, String cursor, int pageSize) {
+        if (section == null) {
+            return frDb.getFeedbackResponsesForSessionPage(feedbackSessionName, courseId, cursor, pageSize);
+        }
+        return frDb.getFeedbackResponsesForSessionFromSectionPage(feedbackSessionName, courseId, section,
+                                                                  cursor, pageSize);
+    }
+
+    /**
+     * Gets a page of the responses of the session given to the section (or of the whole
+     * session if {@code section} is null).
+     * @param cursor the {@link FeedbackResponsePage#nextCursor} of the previous page, or null for the first page
+     */
+    public FeedbackResponsePage getFeedbackResponsesForSessionToSectionPage(
+            String feedbackSessionName, String courseId, String section, String cursor, int pageSize) {
+        if (section == null) {
+            return frDb.getFeedbackResponsesForSessionPage(feedbackSessionName, courseId, cursor, pageSize);
+        }
+        return frDb.getFeedbackResponsesForSessionToSectionPage(feedbackSessionName, courseId, section,
+                                                                cursor, pageSize);
+    }
+
     public List<FeedbackResponseAttributes> getFeedbackResponsesForQuestion(String feedbackQuestionId) {
         return frDb.getFeedbackResponsesForQuestion(feedbackQuestionId);
     }
@@ -144,6 +257,18 @@ public class FeedbackResponsesLogic {
         return frDb.getFeedbackResponsesForQuestionInSection(feedbackQuestionId, section);
     }
 
+    /**
+     * @return the responses to the question given by or to someone in the section,
+     *         or all responses to the question if {@code section} is null
+     */
+    public List<FeedbackResponseAttributes> getFeedbackResponsesForQuestionFromOrToSection(
+            String feedbackQuestionId, String section) {
+        if (section == null) {
+            return getFeedbackResponsesForQuestion(feedbackQuestionId);
+        }
+        return frDb.getFeedbackResponsesForQuestionFromOrToSection(feedbackQuestionId, section);
+    }
+
     public List<FeedbackResponseAttributes> getFeedbackResponsesForReceiverForQuestion(
             String feedbackQuestionId, String userEmail) {
         return frDb.getFeedbackResponsesForReceiverForQuestion(feedbackQuestionId, userEmail);
@@ -580,6 +705,12 @@ public class FeedbackResponsesLogic {
             feedbackResponse.setRecipientSection(enrollment.newSection);
         }
         
+        if (isGiverSameForResponseAndEnrollment || isReceiverSameForResponseAndEnrollment) {
+            frDb.invalidateFeedbackResponsesSnapshots(response.courseId, response.feedbackSessionName,
+                                                      response.giverSection, response.recipientSection,
+                                                      enrollment.oldSection, enrollment.newSection);
+        }
+        
         frDb.commitOutstandingChanges();
         
         if (isGiverSameForResponseAndEnrollment || isReceiverSameForResponseAndEnrollment) {
@@ -587,6 +718,86 @@ public class FeedbackResponsesLogic {
         }
     }
 
+    /**
+     * Does the same as {@link #updateFeedbackResponseForChangingTeam} and
+     * {@link #updateFeedbackResponseForChangingSection} for a batch of responses, for the students
+     * whose team or section has changed. The responses are deleted and updated together,
+     * and each question and snapshot is read or invalidated only once for the batch.
+     * @param teamChangedEmails the emails of the students whose team has changed
+     * @param sectionChangedEnrollments the enrollments of the students whose section has changed,
+     *                                  keyed by email
+     * @param responses responses in a single session
+     */
+    public void updateFeedbackResponsesForChangingTeamsAndSections(
+            Set<String> teamChangedEmails, Map<String, StudentEnrollDetails> sectionChangedEnrollments,
+            List<FeedbackResponseAttributes> responses)
+            throws InvalidParametersException, EntityDoesNotExistException {
+        
+        if (responses.isEmpty()) {
+            return;
+        }
+        
+        Map<String, FeedbackQuestionAttributes> questions = new HashMap<String, FeedbackQuestionAttributes>();
+        List<FeedbackResponseAttributes> responsesToDelete = new ArrayList<FeedbackResponseAttributes>();
+        List<String> updatedResponseIds = new ArrayList<String>();
+        Set<String> sectionsToInvalidate = new HashSet<String>();
+        
+        for (FeedbackResponseAttributes response : responses) {
+            FeedbackQuestionAttributes question = questions.get(response.feedbackQuestionId);
+            if (question == null) {
+                question = fqLogic.getFeedbackQuestion(response.feedbackQuestionId);
+                questions.put(response.feedbackQuestionId, question);
+            }
+            
+            boolean shouldDeleteByChangeOfGiver = teamChangedEmails.contains(response.giverEmail)
+                                                  && (question.giverType == FeedbackParticipantType.TEAMS
+                                                      || isRecipientTypeTeamMembers(question));
+            boolean shouldDeleteByChangeOfRecipient = teamChangedEmails.contains(response.recipientEmail)
+                                                      && isRecipientTypeTeamMembers(question);
+            if (shouldDeleteByChangeOfGiver || shouldDeleteByChangeOfRecipient) {
+                responsesToDelete.add(response);
+                continue;
+            }
+            
+            StudentEnrollDetails giverEnrollment = sectionChangedEnrollments.get(response.giverEmail);
+            StudentEnrollDetails recipientEnrollment = sectionChangedEnrollments.get(response.recipientEmail);
+            if (giverEnrollment == null && recipientEnrollment == null) {
+                continue;
+            }
+            
+            FeedbackResponse feedbackResponse = frDb.getFeedbackResponseEntityOptimized(response);
+            if (feedbackResponse == null) {
+                continue;
+            }
+            sectionsToInvalidate.add(response.giverSection);
+            sectionsToInvalidate.add(response.recipientSection);
+            if (giverEnrollment != null) {
+                feedbackResponse.setGiverSection(giverEnrollment.newSection);
+                sectionsToInvalidate.add(giverEnrollment.oldSection);
+                sectionsToInvalidate.add(giverEnrollment.newSection);
+            }
+            if (recipientEnrollment != null) {
+                feedbackResponse.setRecipientSection(recipientEnrollment.newSection);
+                sectionsToInvalidate.add(recipientEnrollment.oldSection);
+                sectionsToInvalidate.add(recipientEnrollment.newSection);
+            }
+            updatedResponseIds.add(response.getId());
+        }
+        
+        frDb.deleteEntities(responsesToDelete);
+        
+        if (!updatedResponseIds.isEmpty()) {
+            FeedbackResponseAttributes firstResponse = responses.get(0);
+            frDb.invalidateFeedbackResponsesSnapshots(firstResponse.courseId, firstResponse.feedbackSessionName,
+                    sectionsToInvalidate.toArray(new String[sectionsToInvalidate.size()]));
+            frDb.commitOutstandingChanges();
+            
+            for (String responseId : updatedResponseIds) {
+                frcLogic.updateFeedbackResponseCommentsForResponse(responseId);
+            }
+        }
+    }
+    
     /**
      * Updates responses for a student when his email changes.
      */
@@ -0,0 +1,147 @@
+package teammates.logic.core;
+
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Logger;
+
+import teammates.common.datatransfer.FeedbackSessionResultsContext;
+import teammates.common.util.Config;
+import teammates.common.util.Utils;
+
+import com.google.appengine.api.memcache.Expiration;
+import com.google.appengine.api.memcache.MemcacheService;
+import com.google.appengine.api.memcache.MemcacheService.SetPolicy;
+import com.google.appengine.api.memcache.MemcacheServiceFactory;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Keeps the parts of {@link FeedbackSessionResultsContext}s that do not grow with the course,
+ * i.e. the session, its questions and the instructor, in memcache for
+ * {@link Config#RESULTS_CONTEXT_CACHE_SECONDS} seconds, so that the requests loading
+ * the results of the questions of a session one by one can share them. The course roster,
+ * and the sections the instructor can view, are not cached as they can exceed the size
+ * of a memcache value. <br>
+ * The entries of a course are invalidated by {@link #invalidate(String)}, which is to be called
+ * on every change to the sessions, questions or instructors of the course.
+ * The cache is disabled if the duration is not positive.
+ */
+final class FeedbackSessionResultsContextCache {
+
+    private static final Logger log = Utils.getLogger();
+
+    /** Uses a date format with milliseconds so that timestamps survive the round trip. */
+    private static final Gson GSON = new GsonBuilder().setDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ").create();
+
+    /** Leaves room for the key and the overheads of memcache within its limit of 1MB per value. */
+    private static final int MAX_CACHED_CONTEXT_BYTES = 1000 * 1000;
+
+    private static final MemcacheService MEMCACHE =
+            MemcacheServiceFactory.getMemcacheService(FeedbackSessionResultsContextCache.class.getSimpleName());
+
+    private FeedbackSessionResultsContextCache() {
+        // utility class
+    }
+
+    /**
+     * @return the context of the results of the session shown to the instructor, without its
+     *         roster and section team name table, or null if it is not cached
+     */
+    static FeedbackSessionResultsContext get(String feedbackSessionName, String courseId, String instructorEmail) {
+        if (Config.RESULTS_CONTEXT_CACHE_SECONDS <= 0) {
+            return null;
+        }
+
+        try {
+            Long courseVersion = getCourseVersion(courseId);
+            if (courseVersion == null) {
+                return null;
+            }
+            Object json = MEMCACHE.get(getKey(feedbackSessionName, courseId, courseVersion, instructorEmail));
+            return json == null ? null : GSON.fromJson((String) json, FeedbackSessionResultsContext.class);
+        } catch (Exception e) {
+            log.warning("Unable to read the results context of " + courseId + "/" + feedbackSessionName
+                        + " from the cache: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Caches the context without its roster and section team name table.
+     * @param courseVersion the version of the course (see {@link #getCourseVersion(String)}) read
+     *         before the context was loaded, so that a context loaded before a change to the course
+     *         is never cached for the course as changed
+     */
+    static void put(String feedbackSessionName, String courseId, long courseVersion, String instructorEmail,
+                    FeedbackSessionResultsContext context) {
+        if (Config.RESULTS_CONTEXT_CACHE_SECONDS <= 0) {
+            return;
+        }
+
+        FeedbackSessionResultsContext contextToCache =
+                new FeedbackSessionResultsContext(context.session, context.questions, null, context.instructor, null);
+        String json = GSON.toJson(contextToCache);
+        if (json.getBytes(StandardCharsets.UTF_8).length > MAX_CACHED_CONTEXT_BYTES) {
+            log.info("Not caching the results context of " + courseId + "/" + feedbackSessionName
+                     + " as it is too large");
+            return;
+        }
+
+        try {
+            MEMCACHE.put(getKey(feedbackSessionName, courseId, courseVersion, instructorEmail), json,
+                         Expiration.byDeltaSeconds(Config.RESULTS_CONTEXT_CACHE_SECONDS));
+        } catch (Exception e) {
+            log.warning("Unable to put the results context of " + courseId + "/" + feedbackSessionName
+                        + " in the cache: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return the current version of the cached contexts of the course,
+     *         or null if the cache is disabled or unavailable
+     */
+    static Long getCourseVersion(String courseId) {
+        if (Config.RESULTS_CONTEXT_CACHE_SECONDS <= 0) {
+            return null;
+        }
+
+        String versionKey = getCourseVersionKey(courseId);
+        try {
+            Object version = MEMCACHE.get(versionKey);
+            if (version == null) {
+                // starts from the time rather than from 0, so that the contexts cached before the version
+                // was evicted from memcache are not taken to be of the same version
+                MEMCACHE.put(versionKey, System.currentTimeMillis(), null, SetPolicy.ADD_ONLY_IF_NOT_PRESENT);
+                version = MEMCACHE.get(versionKey);
+            }
+            return (Long) version;
+        } catch (Exception e) {
+            log.warning("Unable to read the results context version of " + courseId + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Invalidates the cached contexts of all the sessions of the course.
+     */
+    static void invalidate(String courseId) {
+        if (Config.RESULTS_CONTEXT_CACHE_SECONDS <= 0) {
+            return;
+        }
+
+        try {
+            MEMCACHE.increment(getCourseVersionKey(courseId), 1, System.currentTimeMillis());
+        } catch (Exception e) {
+            log.severe("Unable to invalidate the results contexts of " + courseId + ": " + e.getMessage());
+        }
+    }
+
+    private static String getCourseVersionKey(String courseId) {
+        return "FeedbackSessionResultsContextVersion:" + courseId;
+    }
+
+    private static String getKey(String feedbackSessionName, String courseId, long courseVersion,
+                                 String instructorEmail) {
+        return "FeedbackSessionResultsContext:" + courseId + "/" + courseVersion + "/" + feedbackSessionName
+               + "/" + instructorEmail;
+    }
+}
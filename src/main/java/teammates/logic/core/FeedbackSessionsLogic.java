@@ -1,13 +1,18 @@
 package teammates.logic.core;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -22,11 +27,13 @@ import teammates.common.datatransfer.FeedbackQuestionAttributes;
 import teammates.common.datatransfer.FeedbackQuestionDetails;
 import teammates.common.datatransfer.FeedbackResponseAttributes;
 import teammates.common.datatransfer.FeedbackResponseCommentAttributes;
+import teammates.common.datatransfer.FeedbackResponsePage;
 import teammates.common.datatransfer.FeedbackSessionAttributes;
 import teammates.common.datatransfer.FeedbackSessionDetailsBundle;
 import teammates.common.datatransfer.FeedbackSessionQuestionsBundle;
 import teammates.common.datatransfer.FeedbackSessionResponseStatus;
 import teammates.common.datatransfer.FeedbackSessionResultsBundle;
+import teammates.common.datatransfer.FeedbackSessionResultsContext;
 import teammates.common.datatransfer.FeedbackSessionType;
 import teammates.common.datatransfer.InstructorAttributes;
 import teammates.common.datatransfer.StudentAttributes;
@@ -566,20 +573,10 @@ public class FeedbackSessionsLogic {
             String feedbackSessionName, String courseId, String userEmail, String questionId)
                     throws EntityDoesNotExistException {
 
-        // Load details of students and instructors once and pass it to callee
-        // methods
-        // (rather than loading them many times).
-        CourseRoster roster = new CourseRoster(
-                new StudentsDb().getStudentsForCourse(courseId),
-                new InstructorsDb().getInstructorsForCourse(courseId));
-        Map<String, String> params = new HashMap<String, String>();
-        params.put("isIncludeResponseStatus", "true");
-        params.put("inSection", "false");
-        params.put("fromSection", "fasle");
-        params.put("toSection", "false");
-        params.put("questionId", questionId);
+        FeedbackSessionResultsContext context =
+                getFeedbackSessionResultsContextForInstructor(feedbackSessionName, courseId, userEmail);
         
-        return getFeedbackSessionResultsForUserWithParams(feedbackSessionName, courseId, userEmail, UserType.Role.INSTRUCTOR, roster, params);
+        return getFeedbackSessionResultsForInstructorFromQuestion(context, userEmail, questionId, null);
     }
     
     /**
@@ -593,18 +590,30 @@ public class FeedbackSessionsLogic {
                                                 String questionId, String selectedSection)
                                         throws EntityDoesNotExistException {
 
-        CourseRoster roster = new CourseRoster(
-                new StudentsDb().getStudentsForCourse(courseId),
-                new InstructorsDb().getInstructorsForCourse(courseId));
-        Map<String, String> params = new HashMap<String, String>();
-        params.put("isIncludeResponseStatus", "true");
-        params.put("inSection", "true");
-        params.put("fromSection", "false");
-        params.put("toSection", "false");
-        params.put("questionId", questionId);
-        params.put("section", selectedSection);
+        FeedbackSessionResultsContext context =
+                getFeedbackSessionResultsContextForInstructor(feedbackSessionName, courseId, userEmail);
         
-        return getFeedbackSessionResultsForUserWithParams(feedbackSessionName, courseId, userEmail, UserType.Role.INSTRUCTOR, roster, params);
+        return getFeedbackSessionResultsForInstructorFromQuestion(context, userEmail, questionId, selectedSection);
+    }
+
+    /**
+     * Loads the data shared by the results of all the questions of a feedback session shown to an instructor,
+     * and caches it for the requests that load the results of the questions one by one
+     * (see {@link #getFeedbackSessionResultsForInstructorFromQuestion}). <br>
+     * To be called when the results page of the session is loaded, so that those requests
+     * do not use data cached by an earlier visit.
+     */
+    public FeedbackSessionResultsContext refreshFeedbackSessionResultsContextForInstructor(
+            String feedbackSessionName, String courseId, String userEmail)
+            throws EntityDoesNotExistException {
+        
+        Long courseVersion = FeedbackSessionResultsContextCache.getCourseVersion(courseId);
+        FeedbackSessionResultsContext context =
+                loadFeedbackSessionResultsContextForInstructor(feedbackSessionName, courseId, userEmail);
+        if (courseVersion != null) {
+            FeedbackSessionResultsContextCache.put(feedbackSessionName, courseId, courseVersion, userEmail, context);
+        }
+        return context;
     }
 
     /**
@@ -689,6 +698,58 @@ public class FeedbackSessionsLogic {
         return getFeedbackSessionResultsForUserWithParams(feedbackSessionName, courseId, userEmail, UserType.Role.INSTRUCTOR, roster, params);
     }
     
+    /**
+     * Gets a page of at most {@code pageSize} responses given from a section, with the results
+     * of the feedback session needed to show them to an instructor. <br>
+     * The {@link FeedbackSessionResultsBundle#nextResponsesCursor} of the returned bundle can be used
+     * to get the next page.
+     * @param cursor null for the first page
+     */
+    public FeedbackSessionResultsBundle getFeedbackSessionResultsForInstructorFromSectionPage(
+            String feedbackSessionName, String courseId, String userEmail, String section,
+            String cursor, int pageSize)
+            throws EntityDoesNotExistException {
+        
+        CourseRoster roster = new CourseRoster(
+                new StudentsDb().getStudentsForCourse(courseId),
+                new InstructorsDb().getInstructorsForCourse(courseId));
+        Map<String, String> params = new HashMap<String, String>();
+        params.put("isIncludeResponseStatus", "true");
+        params.put("inSection", "false");
+        params.put("fromSection", "true");
+        params.put("toSection", "false");
+        params.put("section", section);
+        params.put("cursor", cursor);
+        params.put("pageSize", String.valueOf(pageSize));
+        return getFeedbackSessionResultsForUserWithParams(feedbackSessionName, courseId, userEmail, UserType.Role.INSTRUCTOR, roster, params);
+    }
+
+    /**
+     * Gets a page of at most {@code pageSize} responses given to a section, with the results
+     * of the feedback session needed to show them to an instructor. <br>
+     * The {@link FeedbackSessionResultsBundle#nextResponsesCursor} of the returned bundle can be used
+     * to get the next page.
+     * @param cursor null for the first page
+     */
+    public FeedbackSessionResultsBundle getFeedbackSessionResultsForInstructorToSectionPage(
+            String feedbackSessionName, String courseId, String userEmail, String section,
+            String cursor, int pageSize)
+            throws EntityDoesNotExistException {
+        
+        CourseRoster roster = new CourseRoster(
+                new StudentsDb().getStudentsForCourse(courseId),
+                new InstructorsDb().getInstructorsForCourse(courseId));
+        Map<String, String> params = new HashMap<String, String>();
+        params.put("isIncludeResponseStatus", "true");
+        params.put("inSection", "false");
+        params.put("fromSection", "false");
+        params.put("toSection", "true");
+        params.put("section", section);
+        params.put("cursor", cursor);
+        params.put("pageSize", String.valueOf(pageSize));
+        return getFeedbackSessionResultsForUserWithParams(feedbackSessionName, courseId, userEmail, UserType.Role.INSTRUCTOR, roster, params);
+    }
+    
     /**
      * Gets results of a feedback session to show to an instructor.
      */
@@ -825,15 +886,218 @@ public class FeedbackSessionsLogic {
             throw new ExceedingRangeException("Number of responses exceeds the limited range");
         }
         // sort responses by giver > recipient > qnNumber
-        Collections.sort(results.responses,
-                results.compareByGiverRecipientQuestion);
+        results.sortByGiverRecipientQuestion(results.responses);
+        
+        StringBuilder exportBuilder = getFeedbackSessionResultsHeaderInCsvFormat(results.feedbackSession, section);
+
+        for (Map.Entry<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>> entry : results
+                .getQuestionResponseMap().entrySet()) {
+            exportBuilder.append(getFeedbackSessionResultsForQuestionInCsvFormat(results, entry));
+        }
+        return exportBuilder.toString();
+        
+    }
+
+    /**
+     * Writes the same summary as {@link #getFeedbackSessionResultsSummaryInSectionAsCsv} to {@code writer},
+     * one question at a time. Only the responses of the question being written are loaded,
+     * so there is no limit on the number of responses in the session.
+     * @param section null to write the results of all sections
+     */
+    public void writeFeedbackSessionResultsSummaryInSectionAsCsv(
+            String feedbackSessionName, String courseId, String userEmail, String section, Writer writer)
+            throws EntityDoesNotExistException, IOException {
+        
+        // Load details of students and instructors once and share them among the questions
+        FeedbackSessionResultsContext context =
+                loadFeedbackSessionResultsContextForInstructor(feedbackSessionName, courseId, userEmail);
+        
+        writer.append(getFeedbackSessionResultsHeaderInCsvFormat(context.session, section));
+        
+        for (FeedbackQuestionAttributes question : context.questions) {
+            FeedbackSessionResultsBundle results =
+                    getFeedbackSessionResultsForInstructorForQuestionInSection(context, question, userEmail, section);
+            
+            for (Map.Entry<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>> entry : results
+                    .getQuestionResponseMap().entrySet()) {
+                writer.append(getFeedbackSessionResultsForQuestionInCsvFormat(results, entry));
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * Gets the results of a single question that are visible to an instructor, in the same way as
+     * {@link #getFeedbackSessionResultsForInstructorInSection} does for all questions.
+     * Response comments and the response status are not retrieved.
+     */
+    private FeedbackSessionResultsBundle getFeedbackSessionResultsForInstructorForQuestionInSection(
+            FeedbackSessionResultsContext context, FeedbackQuestionAttributes question, String userEmail,
+            String section) {
+        
+        boolean isPrivateSessionNotCreatedByThisUser =
+                context.session.isPrivateSession() && !context.session.isCreator(userEmail);
+        List<FeedbackResponseAttributes> responsesForQuestion = isPrivateSessionNotCreatedByThisUser
+                ? new ArrayList<FeedbackResponseAttributes>()
+                : frLogic.getFeedbackResponsesForQuestionFromOrToSection(question.getId(), section);
+        
+        FeedbackSessionResultsBundle results = getFeedbackSessionResultsForInstructorFromResponses(
+                context, question, userEmail, section, responsesForQuestion, null);
+        results.sortByGiverRecipientQuestion(results.responses);
+        return results;
+    }
+
+    /**
+     * Gets the results of an indicated question (or the response status of the session, if the
+     * question id is {@link #QUESTION_ID_FOR_RESPONSE_RATE}) to show to an instructor,
+     * using the data shared by all the questions of the session.
+     * @param section null for all sections
+     */
+    private FeedbackSessionResultsBundle getFeedbackSessionResultsForInstructorFromQuestion(
+            FeedbackSessionResultsContext context, String userEmail, String questionId, String section) {
+        
+        FeedbackSessionAttributes session = context.session;
         
+        boolean isPrivateSessionNotCreatedByThisUser = session
+                .isPrivateSession() && !session.isCreator(userEmail);
+        if (isPrivateSessionNotCreatedByThisUser) {
+            // return empty result set
+            return new FeedbackSessionResultsBundle(
+                    session, new ArrayList<FeedbackResponseAttributes>(),
+                    new HashMap<String, FeedbackQuestionAttributes>(), new HashMap<String, String>(),
+                    new HashMap<String, String>(), new HashMap<String, String>(),
+                    new HashMap<String, Set<String>>(), new HashMap<String, boolean[]>(),
+                    new FeedbackSessionResponseStatus(), context.roster,
+                    new HashMap<String, List<FeedbackResponseCommentAttributes>>());
+        }
+        
+        if (questionId.equals(QUESTION_ID_FOR_RESPONSE_RATE)) {
+            FeedbackSessionResponseStatus responseStatus = section == null
+                    ? getFeedbackSessionResponseStatus(session, context.roster, context.questions)
+                    : null;
+            return getFeedbackSessionResultsForInstructorFromResponses(
+                    context, null, userEmail, section, new ArrayList<FeedbackResponseAttributes>(), responseStatus);
+        }
+        
+        FeedbackQuestionAttributes question = context.getQuestion(questionId);
+        if (question == null) {
+            // the question may have been added after the context was loaded
+            question = fqLogic.getFeedbackQuestion(questionId);
+        }
+        
+        List<FeedbackResponseAttributes> responsesForQuestion = new ArrayList<FeedbackResponseAttributes>();
+        if (question != null) {
+            boolean isPrivateSessionCreatedByThisUser = session
+                    .isCreator(userEmail) && session.isPrivateSession();
+            if (isPrivateSessionCreatedByThisUser) {
+                responsesForQuestion = frLogic.getFeedbackResponsesForQuestion(question.getId());
+            } else {
+                responsesForQuestion = frLogic.getViewableFeedbackResponsesForQuestionInSection(
+                        question, userEmail, Role.INSTRUCTOR, section);
+            }
+        }
+        
+        return getFeedbackSessionResultsForInstructorFromResponses(
+                context, question, userEmail, section, responsesForQuestion, new FeedbackSessionResponseStatus());
+    }
+
+    /**
+     * Gets the results of a question made up of those of {@code responsesForQuestion} that are visible
+     * to an instructor. Response comments are not retrieved.
+     * @param question null if there is no question to show
+     */
+    private FeedbackSessionResultsBundle getFeedbackSessionResultsForInstructorFromResponses(
+            FeedbackSessionResultsContext context, FeedbackQuestionAttributes question, String userEmail,
+            String section, List<FeedbackResponseAttributes> responsesForQuestion,
+            FeedbackSessionResponseStatus responseStatus) {
+        
+        List<FeedbackResponseAttributes> responses = new ArrayList<FeedbackResponseAttributes>();
+        Map<String, FeedbackQuestionAttributes> relevantQuestions = new HashMap<String, FeedbackQuestionAttributes>();
+        Map<String, String> emailNameTable = new HashMap<String, String>();
+        Map<String, String> emailLastNameTable = new HashMap<String, String>();
+        Map<String, String> emailTeamNameTable = new HashMap<String, String>();
+        Map<String, boolean[]> visibilityTable = new HashMap<String, boolean[]>();
+        Map<String, List<FeedbackResponseCommentAttributes>> responseComments =
+                new HashMap<String, List<FeedbackResponseCommentAttributes>>();
+        
+        if (question != null) {
+            relevantQuestions.put(question.getId(), question);
+        }
+        
+        CourseRoster roster = context.roster;
+        for (FeedbackResponseAttributes response : responsesForQuestion) {
+            boolean isVisibleResponse = isResponseVisibleForUser(userEmail, Role.INSTRUCTOR, null,
+                                                                 new HashSet<String>(), response, question,
+                                                                 context.instructor);
+            if (isVisibleResponse) {
+                responses.add(response);
+                addEmailNamePairsToTable(emailNameTable, response, question, roster);
+                addEmailLastNamePairsToTable(emailLastNameTable, response, question, roster);
+                addEmailTeamNamePairsToTable(emailTeamNameTable, response, question, roster);
+                addVisibilityToTable(visibilityTable, question, response, userEmail, Role.INSTRUCTOR, roster);
+            }
+        }
+        
+        return new FeedbackSessionResultsBundle(
+                context.session, responses, relevantQuestions, emailNameTable,
+                emailLastNameTable, emailTeamNameTable, context.getSectionTeamNameTable(section),
+                visibilityTable, responseStatus, roster, responseComments, true);
+    }
+
+    private FeedbackSessionResultsContext getFeedbackSessionResultsContextForInstructor(
+            String feedbackSessionName, String courseId, String userEmail)
+            throws EntityDoesNotExistException {
+        
+        FeedbackSessionResultsContext cachedContext =
+                FeedbackSessionResultsContextCache.get(feedbackSessionName, courseId, userEmail);
+        if (cachedContext == null) {
+            return refreshFeedbackSessionResultsContextForInstructor(feedbackSessionName, courseId, userEmail);
+        }
+        
+        // the roster, and thus the sections the instructor can view, are not cached
+        CourseRoster roster = new CourseRoster(
+                new StudentsDb().getStudentsForCourse(courseId),
+                new InstructorsDb().getInstructorsForCourse(courseId));
+        return new FeedbackSessionResultsContext(
+                cachedContext.session, cachedContext.questions, roster, cachedContext.instructor,
+                getSectionTeamNameTableForInstructor(roster, courseId, userEmail, feedbackSessionName));
+    }
+
+    private FeedbackSessionResultsContext loadFeedbackSessionResultsContextForInstructor(
+            String feedbackSessionName, String courseId, String userEmail)
+            throws EntityDoesNotExistException {
+        
+        FeedbackSessionAttributes session = fsDb.getFeedbackSession(courseId, feedbackSessionName);
+        if (session == null) {
+            throw new EntityDoesNotExistException("Trying to view non-existent feedback session.");
+        }
+        
+        CourseRoster roster = new CourseRoster(
+                new StudentsDb().getStudentsForCourse(courseId),
+                new InstructorsDb().getInstructorsForCourse(courseId));
+        InstructorAttributes instructor = instructorsLogic.getInstructorForEmail(courseId, userEmail);
+        List<FeedbackQuestionAttributes> questions = fqLogic.getFeedbackQuestionsForSession(feedbackSessionName, courseId);
+        
+        return new FeedbackSessionResultsContext(
+                session, questions, roster, instructor,
+                getSectionTeamNameTableForInstructor(roster, courseId, userEmail, feedbackSessionName));
+    }
+    
+    private Map<String, Set<String>> getSectionTeamNameTableForInstructor(
+            CourseRoster roster, String courseId, String userEmail, String feedbackSessionName) {
+        Map<String, Set<String>> sectionTeamNameTable = new HashMap<String, Set<String>>();
+        addSectionTeamNamesToTable(sectionTeamNameTable, roster, courseId, userEmail, Role.INSTRUCTOR,
+                                   feedbackSessionName, null);
+        return sectionTeamNameTable;
+    }
+
+    private StringBuilder getFeedbackSessionResultsHeaderInCsvFormat(FeedbackSessionAttributes session, String section) {
         StringBuilder exportBuilder = new StringBuilder(100);
 
-        exportBuilder.append(String.format("Course,%s", Sanitizer.sanitizeForCsv(results.feedbackSession.getCourseId())))
+        exportBuilder.append(String.format("Course,%s", Sanitizer.sanitizeForCsv(session.getCourseId())))
                      .append(Const.EOL)
                      .append(String.format("Session Name,%s",
-                             Sanitizer.sanitizeForCsv(results.feedbackSession.getFeedbackSessionName())))
+                             Sanitizer.sanitizeForCsv(session.getFeedbackSessionName())))
                      .append(Const.EOL);
         
         if (section != null) {
@@ -842,13 +1106,7 @@ public class FeedbackSessionsLogic {
         }
 
         exportBuilder.append(Const.EOL).append(Const.EOL);
-
-        for (Map.Entry<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>> entry : results
-                .getQuestionResponseMap().entrySet()) {
-            exportBuilder.append(getFeedbackSessionResultsForQuestionInCsvFormat(results, entry));
-        }
-        return exportBuilder.toString();
-        
+        return exportBuilder;
     }
 
     private StringBuilder getFeedbackSessionResultsForQuestionInCsvFormat(
@@ -874,8 +1132,9 @@ public class FeedbackSessionsLogic {
         
         exportBuilder.append(questionDetails.getCsvDetailedResponsesHeader());
 
-        List<String> possibleGiversWithoutResponses = fsrBundle.getPossibleGivers(question);
-        List<String> possibleRecipientsForGiver = new ArrayList<String>();
+        // sets that keep the order of the lists, so that each participant with a response is removed in constant time
+        Set<String> possibleGiversWithoutResponses = new LinkedHashSet<String>(fsrBundle.getPossibleGivers(question));
+        Set<String> possibleRecipientsForGiver = new LinkedHashSet<String>();
         String prevGiver = "";
         
         for (FeedbackResponseAttributes response : allResponses) {
@@ -900,7 +1159,8 @@ public class FeedbackSessionsLogic {
                                        ? fsrBundle.getFullNameFromRoster(response.giverEmail)
                                        : response.giverEmail;
                 
-                possibleRecipientsForGiver = fsrBundle.getPossibleRecipients(question, giverIdentifier);
+                possibleRecipientsForGiver =
+                        new LinkedHashSet<String>(fsrBundle.getPossibleRecipients(question, giverIdentifier));
             }
             
             removeParticipantIdentifierFromList(question.recipientType, possibleRecipientsForGiver, response.recipientEmail, fsrBundle);
@@ -931,7 +1191,7 @@ public class FeedbackSessionsLogic {
      */
     private void removeParticipantIdentifierFromList(
             FeedbackParticipantType participantIdentifierType,
-            List<String> participantIdentifierList, String participantIdentifier,
+            Collection<String> participantIdentifierList, String participantIdentifier,
             FeedbackSessionResultsBundle bundle) {
         if (participantIdentifierType == FeedbackParticipantType.TEAMS) {
             participantIdentifierList.remove(bundle.getFullNameFromRoster(participantIdentifier));
@@ -960,8 +1220,8 @@ public class FeedbackSessionsLogic {
             Map.Entry<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>> entry,
             FeedbackQuestionAttributes question,
             FeedbackQuestionDetails questionDetails,
-            List<String> remainingPossibleGivers,
-            List<String> possibleRecipientsForGiver, String prevGiver) {
+            Collection<String> remainingPossibleGivers,
+            Collection<String> possibleRecipientsForGiver, String prevGiver) {
         StringBuilder exportBuilder = new StringBuilder();
         
         if (possibleRecipientsForGiver != null) {
@@ -1000,7 +1260,7 @@ public class FeedbackSessionsLogic {
             FeedbackSessionResultsBundle results,
             FeedbackQuestionAttributes question,
             FeedbackQuestionDetails questionDetails,
-            List<String> possibleRecipientsForGiver, String giver) {
+            Collection<String> possibleRecipientsForGiver, String giver) {
         StringBuilder exportBuilder = new StringBuilder();
         for (String possibleRecipient : possibleRecipientsForGiver) {
             String giverName = results.getFullNameFromRoster(giver);
@@ -1090,7 +1350,7 @@ public class FeedbackSessionsLogic {
     public boolean isFeedbackSessionCompletedByStudent(FeedbackSessionAttributes fsa,
                                                        String userEmail) {
         Assumption.assertNotNull(fsa);
-        if (fsa.getRespondingStudentList().contains(userEmail)) {
+        if (fsDb.isStudentRespondant(userEmail, fsa)) {
             return true;
         }
         
@@ -1102,6 +1362,50 @@ public class FeedbackSessionsLogic {
         return allQuestions.isEmpty();
     }
 
+    /**
+     * Checks {@link #isFeedbackSessionCompletedByStudent} for all the given sessions of a course,
+     * using the statuses recorded in the summary of the student for the course where possible. <br>
+     * The statuses that are not recorded yet are checked session by session, and then recorded.
+     * @return the statuses keyed by session name
+     */
+    public Map<String, Boolean> getFeedbackSessionCompletionStatusesForStudent(
+            String courseId, String userEmail, List<FeedbackSessionAttributes> sessions) {
+        Assumption.assertNotNull(courseId);
+        Assumption.assertNotNull(userEmail);
+        
+        Map<String, Boolean> statuses = new HashMap<String, Boolean>();
+        if (sessions.isEmpty()) {
+            return statuses;
+        }
+        
+        Map<String, Boolean> recordedStatuses = fsDb.getStudentSessionStatuses(courseId, userEmail);
+        Map<String, Boolean> statusesToRecord = new HashMap<String, Boolean>();
+        for (FeedbackSessionAttributes session : sessions) {
+            Assumption.assertEquals(courseId, session.getCourseId());
+            String sessionName = session.getFeedbackSessionName();
+            Boolean status = recordedStatuses.get(sessionName);
+            if (status == null) {
+                status = isFeedbackSessionCompletedByStudent(session, userEmail);
+                statusesToRecord.put(sessionName, status);
+            }
+            statuses.put(sessionName, status);
+        }
+        
+        if (!statusesToRecord.isEmpty()) {
+            fsDb.addStudentSessionStatuses(courseId, userEmail, statusesToRecord);
+        }
+        return statuses;
+    }
+
+    /**
+     * Forgets the statuses recorded for the students of the course, e.g. when a question
+     * for students is added to or removed from one of its sessions, which can change
+     * whether the session is completed by students who have not responded.
+     */
+    public void clearStudentSessionStatusesForCourse(String courseId) {
+        fsDb.deleteStudentSessionSummariesForCourse(courseId);
+    }
+
     public boolean isFeedbackSessionCompletedByInstructor(
             String feedbackSessionName,
             String courseId, String userEmail)
@@ -1113,7 +1417,7 @@ public class FeedbackSessionsLogic {
                     "Trying to check a feedback session that does not exist.");
         }
         
-        if (fsa.getRespondingInstructorList().contains(userEmail)) {
+        if (fsDb.isInstructorRespondant(userEmail, fsa)) {
             return true;
         }
 
@@ -1166,6 +1470,7 @@ public class FeedbackSessionsLogic {
         makeEmailStateConsistent(oldSession, newSession);
 
         fsDb.updateFeedbackSession(newSession);
+        FeedbackSessionResultsContextCache.invalidate(newSession.getCourseId());
     }
     
     public void updateRespondantsForInstructor(String oldEmail, String newEmail, String courseId)
@@ -1184,8 +1489,18 @@ public class FeedbackSessionsLogic {
         for (FeedbackSessionAttributes session : feedbackSessions) {
             fsDb.updateStudentRespondant(oldEmail, newEmail, session);
         }
+        fsDb.deleteStudentSessionSummary(courseId, oldEmail);
+        fsDb.deleteStudentSessionSummary(courseId, newEmail);
     }
     
+    /**
+     * Fills the respondants of the given session with all its respondants, as the attributes
+     * only hold those recorded in the session entity by earlier versions.
+     */
+    public void loadRespondants(FeedbackSessionAttributes feedbackSession) {
+        fsDb.loadRespondants(feedbackSession);
+    }
+
     public void updateRespondantsForSession(String feedbackSessionName, String courseId)
             throws InvalidParametersException, EntityDoesNotExistException {
 
@@ -1258,6 +1573,7 @@ public class FeedbackSessionsLogic {
                 Assumption.fail("Fail to delete instructor respondant for " + session.getFeedbackSessionName());
             }
         }
+        fsDb.deleteStudentSessionSummary(student.course, student.email);
     }
 
     public void addInstructorRespondant(String email, String feedbackSessionName, String courseId)
@@ -1321,6 +1637,7 @@ public class FeedbackSessionsLogic {
         }
 
         fsDb.addStudentRespondant(email, sessionToUpdate);
+        fsDb.setStudentSessionStatusesSubmitted(Arrays.asList(email), sessionToUpdate);
     }
 
     public void addStudentRespondants(List<String> emails, String feedbackSessionName, String courseId)
@@ -1337,6 +1654,7 @@ public class FeedbackSessionsLogic {
         }
 
         fsDb.addStudentRespondants(emails, sessionToUpdate);
+        fsDb.setStudentSessionStatusesSubmitted(emails, sessionToUpdate);
     }
 
     public void clearStudentRespondants(String feedbackSessionName, String courseId) throws EntityDoesNotExistException, InvalidParametersException {
@@ -1351,6 +1669,7 @@ public class FeedbackSessionsLogic {
         }
 
         fsDb.clearStudentRespondants(sessionToUpdate);
+        fsDb.deleteStudentSessionSummariesForCourse(courseId);
     }
 
     public void deleteInstructorRespondant(String email, String feedbackSessionName, String courseId)
@@ -1383,6 +1702,7 @@ public class FeedbackSessionsLogic {
         }
 
         fsDb.deleteStudentRespondant(email, sessionToUpdate);
+        fsDb.removeStudentSessionStatus(email, sessionToUpdate);
     }
 
     /**
@@ -1640,6 +1960,7 @@ public class FeedbackSessionsLogic {
      */
     public void deleteFeedbackSessionsForCourse(String courseId) {
         fsDb.deleteFeedbackSessionsForCourse(courseId);
+        FeedbackSessionResultsContextCache.invalidate(courseId);
     }
 
     /**
@@ -1659,8 +1980,10 @@ public class FeedbackSessionsLogic {
         sessionToDelete.setFeedbackSessionName(feedbackSessionName);
         sessionToDelete.setCourseId(courseId);
 
+        fsDb.deleteRespondantsForSession(sessionToDelete);
         fsDb.deleteEntity(sessionToDelete);
-
+        fsDb.deleteStudentSessionSummariesForCourse(courseId);
+        FeedbackSessionResultsContextCache.invalidate(courseId);
     }
 
     public FeedbackSessionDetailsBundle getFeedbackSessionDetails(
@@ -1692,6 +2015,7 @@ public class FeedbackSessionsLogic {
                 }
             }
             
+            fsDb.loadRespondants(fsa);
             details.stats.submittedTotal += fsa.getRespondingStudentList().size() + fsa.getRespondingInstructorList().size();
 
             break;
@@ -1908,8 +2232,8 @@ public class FeedbackSessionsLogic {
         Map<String, List<FeedbackResponseCommentAttributes>> responseComments =
                 new HashMap<String, List<FeedbackResponseCommentAttributes>>();
         
-        //Show all questions even if no responses, unless is an ajax request for a specific question.
-        if (role == UserType.Role.INSTRUCTOR && !params.containsKey("questionId")) {
+        //Show all questions even if no responses
+        if (role == UserType.Role.INSTRUCTOR) {
             for (FeedbackQuestionAttributes question : allQuestions) {
                 relevantQuestions.put(question.getId(), question);
             }
@@ -1931,95 +2255,6 @@ public class FeedbackSessionsLogic {
         
         String section = params.get("section");
         
-        if (params.get("questionId") != null) {
-            String questionId = params.get("questionId");
-            boolean isQueryingResponseRateStatus = questionId.equals(QUESTION_ID_FOR_RESPONSE_RATE);
-            
-            if (isQueryingResponseRateStatus) {
-                responseStatus = section == null && isIncludeResponseStatus
-                               ? getFeedbackSessionResponseStatus(session, roster, allQuestions)
-                               : null;
-            } else {
-                FeedbackQuestionAttributes question = fqLogic.getFeedbackQuestion(questionId);
-                if (question != null) {
-                    relevantQuestions.put(question.getId(), question);
-                    
-                    List<FeedbackResponseAttributes> responsesForThisQn;
-    
-                    boolean isPrivateSessionCreatedByThisUser = session
-                            .isCreator(userEmail) && session.isPrivateSession();
-                    if (isPrivateSessionCreatedByThisUser) {
-                        responsesForThisQn = frLogic
-                                .getFeedbackResponsesForQuestion(question.getId());
-                    } else {
-                        responsesForThisQn = frLogic
-                                .getViewableFeedbackResponsesForQuestionInSection(
-                                        question, userEmail, Role.INSTRUCTOR, section);
-                    }
-    
-                    boolean thisQuestionHasResponses = !responsesForThisQn.isEmpty();
-                    if (thisQuestionHasResponses) {
-                        for (FeedbackResponseAttributes response : responsesForThisQn) {
-                            boolean isVisibleResponse = false;
-                            if (response.giverEmail.equals(userEmail)
-                                    || response.recipientEmail.equals(userEmail)
-                                            && question.isResponseVisibleTo(FeedbackParticipantType.RECEIVER)
-                                    || role == Role.INSTRUCTOR
-                                            && question.isResponseVisibleTo(FeedbackParticipantType.INSTRUCTORS)
-                                    || role == Role.STUDENT
-                                            && question.isResponseVisibleTo(FeedbackParticipantType.STUDENTS)) {
-                                isVisibleResponse = true;
-                            }
-                            InstructorAttributes instructor = null;
-                            if (role == Role.INSTRUCTOR) {
-                                instructor = instructorsLogic.getInstructorForEmail(courseId, userEmail);
-                            }
-                            if (isVisibleResponse && instructor != null) {
-                                boolean isGiverSectionRestricted =
-                                        !instructor.isAllowedForPrivilege(response.giverSection,
-                                                                          response.feedbackSessionName,
-                                                                          Const.ParamsNames.INSTRUCTOR_PERMISSION_VIEW_SESSION_IN_SECTIONS);
-                                // If instructors are not restricted to view the giver's section,
-                                // they are allowed to view responses to GENERAL, subject to visibility options
-                                boolean isRecipientSectionRestricted =
-                                        question.recipientType != FeedbackParticipantType.NONE
-                                        && !instructor.isAllowedForPrivilege(response.recipientSection,
-                                                                             response.feedbackSessionName,
-                                                                             Const.ParamsNames.INSTRUCTOR_PERMISSION_VIEW_SESSION_IN_SECTIONS);
-                                boolean isNotAllowedForInstructor = isGiverSectionRestricted || isRecipientSectionRestricted;
-                                if (isNotAllowedForInstructor) {
-                                    isVisibleResponse = false;
-                                }
-                            }
-                            if (isVisibleResponse) {
-                                responses.add(response);
-                                addEmailNamePairsToTable(emailNameTable, response,
-                                        question, roster);
-                                addEmailLastNamePairsToTable(emailLastNameTable, response,
-                                        question, roster);
-                                addEmailTeamNamePairsToTable(emailTeamNameTable,
-                                        response,
-                                        question, roster);
-                                addVisibilityToTable(visibilityTable, question,
-                                        response, userEmail, role, roster);
-                            }
-                            isVisibleResponse = false;
-                        }
-                    }
-                }
-            }
-
-            addSectionTeamNamesToTable(sectionTeamNameTable, roster, courseId, userEmail, role, feedbackSessionName, section);
-            
-            FeedbackSessionResultsBundle results =
-                    new FeedbackSessionResultsBundle(
-                            session, responses, relevantQuestions, emailNameTable,
-                            emailLastNameTable, emailTeamNameTable, sectionTeamNameTable,
-                            visibilityTable, responseStatus, roster, responseComments, true);
-
-            return results;
-        }
-        
         Map<String, FeedbackQuestionAttributes> allQuestionsMap = new HashMap<String, FeedbackQuestionAttributes>();
         for (FeedbackQuestionAttributes qn : allQuestions) {
             allQuestionsMap.put(qn.getId(), qn);
@@ -2030,20 +2265,45 @@ public class FeedbackSessionsLogic {
         boolean isFromSection = Boolean.parseBoolean(params.get("fromSection"));
         boolean isComplete = params.get("range") == null;
         
+        if (!isInSection && !isFromSection && !isToSection) {
+            Assumption.fail("Client did not indicate the origin of the response");
+        }
+        
+        // pages after the first one continue from the cursor, so the snapshot is not used for them
+        String responsesCursor = params.get("cursor");
+        String nextResponsesCursor = null;
+        
         List<FeedbackResponseAttributes> allResponses = new ArrayList<FeedbackResponseAttributes>();
-        if (params.get("range") == null) {
+        List<FeedbackResponseAttributes> snapshotResponses = responsesCursor == null
+                ? frLogic.getFeedbackResponsesSnapshotForSessionInSection(feedbackSessionName, courseId, section)
+                : null;
+        if (snapshotResponses != null) {
+            // the snapshot holds every response, so the range and page size limits do not apply
+            allResponses = filterResponsesBySectionOrigin(snapshotResponses, section, isFromSection, isToSection);
+            isComplete = true;
+        } else if (params.get("pageSize") != null) {
+            int pageSize = Integer.parseInt(params.get("pageSize"));
+            FeedbackResponsePage page;
             if (isInSection) {
-                allResponses = frLogic.getFeedbackResponsesForSessionInSection(feedbackSessionName,
-                                                                               courseId, section);
+                page = frLogic.getFeedbackResponsesForSessionInSectionPage(feedbackSessionName, courseId, section,
+                                                                           responsesCursor, pageSize);
             } else if (isFromSection) {
-                allResponses = frLogic.getFeedbackResponsesForSessionFromSection(feedbackSessionName,
-                                                                                 courseId, section);
-            } else if (isToSection) {
-                allResponses = frLogic.getFeedbackResponsesForSessionToSection(feedbackSessionName,
-                                                                               courseId, section);
+                page = frLogic.getFeedbackResponsesForSessionFromSectionPage(feedbackSessionName, courseId, section,
+                                                                             responsesCursor, pageSize);
             } else {
-                Assumption.fail("Client did not indicate the origin of the response");
+                page = frLogic.getFeedbackResponsesForSessionToSectionPage(feedbackSessionName, courseId, section,
+                                                                           responsesCursor, pageSize);
             }
+            allResponses = page.responses;
+            nextResponsesCursor = page.nextCursor;
+            if (responsesCursor == null && page.hasNextPage()) {
+                // build the snapshot in the background so that the next visit can show all responses at once
+                frLogic.scheduleFeedbackResponsesSnapshotRebuild(feedbackSessionName, courseId, section);
+            }
+        } else if (params.get("range") == null) {
+            allResponses = filterResponsesBySectionOrigin(
+                    frLogic.getFeedbackResponsesForSessionInSectionUsingSnapshot(feedbackSessionName, courseId, section),
+                    section, isFromSection, isToSection);
         } else {
             long range = Long.parseLong(params.get("range"));
             if (isInSection) {
@@ -2055,8 +2315,6 @@ public class FeedbackSessionsLogic {
             } else if (isToSection) {
                 allResponses = frLogic.getFeedbackResponsesForSessionToSectionWithinRange(feedbackSessionName,
                                                                                           courseId, section, range);
-            } else {
-                Assumption.fail("Client did not indicate the origin of the responses");
             }
             if (allResponses.size() <= range) {
                 isComplete = true;
@@ -2064,7 +2322,8 @@ public class FeedbackSessionsLogic {
                 for (FeedbackQuestionAttributes qn : allQuestions) {
                     relevantQuestions.put(qn.getId(), qn);
                 }
-                
+                // build the snapshot in the background so that the next visit can show all responses
+                frLogic.scheduleFeedbackResponsesSnapshotRebuild(feedbackSessionName, courseId, section);
             }
         }
         
@@ -2157,10 +2416,34 @@ public class FeedbackSessionsLogic {
                         session, responses, relevantQuestions, emailNameTable,
                         emailLastNameTable, emailTeamNameTable, sectionTeamNameTable,
                         visibilityTable, responseStatus, roster, responseComments, isComplete);
+        results.responsesCursor = responsesCursor;
+        results.nextResponsesCursor = nextResponsesCursor;
 
         return results;
     }
 
+    /**
+     * Narrows down responses involving {@code section} (as giver or recipient section) to those
+     * given from or to the section, as indicated. No filtering is done if {@code section} is null.
+     */
+    private List<FeedbackResponseAttributes> filterResponsesBySectionOrigin(
+            List<FeedbackResponseAttributes> responsesInSection, String section,
+            boolean isFromSection, boolean isToSection) {
+        if (section == null || !isFromSection && !isToSection) {
+            return responsesInSection;
+        }
+        
+        List<FeedbackResponseAttributes> filteredResponses = new ArrayList<FeedbackResponseAttributes>();
+        for (FeedbackResponseAttributes response : responsesInSection) {
+            boolean isFromThisSection = isFromSection && section.equals(response.giverSection);
+            boolean isToThisSection = isToSection && section.equals(response.recipientSection);
+            if (isFromThisSection || isToThisSection) {
+                filteredResponses.add(response);
+            }
+        }
+        return filteredResponses;
+    }
+
     private void addSectionTeamNamesToTable(Map<String, Set<String>> sectionTeamNameTable,
                                     CourseRoster roster, String courseId, String userEmail, Role role,
                                     String feedbackSessionName, String sectionToView) {
@@ -2369,6 +2652,7 @@ public class FeedbackSessionsLogic {
             List<FeedbackQuestionAttributes> questions) {
 
         FeedbackSessionResponseStatus responseStatus = new FeedbackSessionResponseStatus();
+        fsDb.loadRespondants(fsa);
         List<StudentAttributes> students = roster.getStudents();
         List<InstructorAttributes> instructors = roster.getInstructors();
         List<FeedbackQuestionAttributes> studentQns = fqLogic
@@ -2474,9 +2758,12 @@ public class FeedbackSessionsLogic {
         List<FeedbackQuestionAttributes> allQuestions =
                 fqLogic.getFeedbackQuestionsForStudents(feedbackSessionName,
                         courseId);
+        
+        InstructorAttributes instructorGiver = instructorsLogic.getInstructorForEmail(courseId, userEmail);
+        StudentAttributes studentGiver = studentsLogic.getStudentForEmail(courseId, userEmail);
 
         for (FeedbackQuestionAttributes question : allQuestions) {
-            if (!fqLogic.isQuestionFullyAnsweredByUser(question, userEmail)) {
+            if (!fqLogic.isQuestionFullyAnsweredByUser(question, userEmail, instructorGiver, studentGiver)) {
                 // If any question is not completely answered, session is not
                 // completed
                 return false;
@@ -2485,6 +2772,98 @@ public class FeedbackSessionsLogic {
         return true;
     }
 
+    /**
+     * Gets the students who have not fully completed the feedback session, i.e. the students
+     * for whom {@link #isFeedbackSessionFullyCompletedByStudent} is false. <br>
+     * Unlike checking the students one by one, the responses of the session and the course roster
+     * are read only once, so the number of reads does not grow with the number of students.
+     * @return the students in the order of {@link StudentsLogic#getStudentsForCourse}
+     */
+    public List<StudentAttributes> getStudentsYetToFullyCompleteFeedbackSession(
+            FeedbackSessionAttributes session) throws EntityDoesNotExistException {
+        
+        String feedbackSessionName = session.getFeedbackSessionName();
+        String courseId = session.getCourseId();
+        if (!isFeedbackSessionExists(feedbackSessionName, courseId)) {
+            throw new EntityDoesNotExistException(
+                    "Trying to check a feedback session that does not exist.");
+        }
+        
+        List<FeedbackQuestionAttributes> questions =
+                fqLogic.getFeedbackQuestionsForStudents(feedbackSessionName, courseId);
+        List<StudentAttributes> students = studentsLogic.getStudentsForCourse(courseId);
+        List<StudentAttributes> incompleteStudents = new ArrayList<StudentAttributes>();
+        if (questions.isEmpty()) {
+            return incompleteStudents;
+        }
+        
+        Set<String> instructorEmails = new HashSet<String>();
+        for (InstructorAttributes instructor : instructorsLogic.getInstructorsForCourse(courseId)) {
+            instructorEmails.add(instructor.email);
+        }
+        Map<String, Integer> teamSizes = new HashMap<String, Integer>();
+        for (StudentAttributes student : students) {
+            Integer teamSize = teamSizes.get(student.team);
+            teamSizes.put(student.team, teamSize == null ? 1 : teamSize + 1);
+        }
+        
+        // number of responses given to each question by each giver, keyed by "questionId%giverEmail"
+        Map<String, Integer> numberOfResponsesGiven = new HashMap<String, Integer>();
+        for (FeedbackResponseAttributes response : frLogic.getFeedbackResponsesForSession(feedbackSessionName, courseId)) {
+            String key = response.feedbackQuestionId + "%" + response.giverEmail;
+            Integer count = numberOfResponsesGiven.get(key);
+            numberOfResponsesGiven.put(key, count == null ? 1 : count + 1);
+        }
+        
+        for (StudentAttributes student : students) {
+            for (FeedbackQuestionAttributes question : questions) {
+                Integer responsesGiven = numberOfResponsesGiven.get(question.getId() + "%" + student.email);
+                int numberOfResponsesNeeded = question.numberOfEntitiesToGiveFeedbackTo;
+                if (numberOfResponsesNeeded == Const.MAX_POSSIBLE_RECIPIENTS) {
+                    numberOfResponsesNeeded = getNumberOfRecipientsForQuestion(question, student, students.size(),
+                                                                               instructorEmails, teamSizes);
+                }
+                
+                if ((responsesGiven == null ? 0 : responsesGiven) < numberOfResponsesNeeded) {
+                    incompleteStudents.add(student);
+                    break;
+                }
+            }
+        }
+        return incompleteStudents;
+    }
+
+    /**
+     * Counts the recipients of the question for a student giver from the course roster, giving the same
+     * count as {@link FeedbackQuestionsLogic#getRecipientsForQuestion} without reading the database.
+     * @param teamSizes the number of students in each team of the course
+     */
+    private int getNumberOfRecipientsForQuestion(FeedbackQuestionAttributes question, StudentAttributes studentGiver,
+                                                 int numberOfStudents, Set<String> instructorEmails,
+                                                 Map<String, Integer> teamSizes) {
+        switch (question.recipientType) {
+        case SELF:
+        case OWN_TEAM:
+        case NONE:
+            return 1;
+        case STUDENTS:
+            // the student does not give feedback to himself
+            return numberOfStudents - 1;
+        case INSTRUCTORS:
+            int numberOfInstructors = instructorEmails.size();
+            return instructorEmails.contains(studentGiver.email) ? numberOfInstructors - 1 : numberOfInstructors;
+        case TEAMS:
+            // the team of the student does not receive feedback from its own members
+            return teamSizes.size() - 1;
+        case OWN_TEAM_MEMBERS:
+            return teamSizes.get(studentGiver.team) - 1;
+        case OWN_TEAM_MEMBERS_INCLUDING_SELF:
+            return teamSizes.get(studentGiver.team);
+        default:
+            return 0;
+        }
+    }
+
     private boolean isFeedbackSessionFullyCompletedByInstructor(
             String feedbackSessionName,
             String courseId, String userEmail)
@@ -2499,9 +2878,12 @@ public class FeedbackSessionsLogic {
                 fqLogic.getFeedbackQuestionsForInstructor(feedbackSessionName,
                         courseId,
                         userEmail);
+        
+        InstructorAttributes instructorGiver = instructorsLogic.getInstructorForEmail(courseId, userEmail);
+        StudentAttributes studentGiver = studentsLogic.getStudentForEmail(courseId, userEmail);
 
         for (FeedbackQuestionAttributes question : allQuestions) {
-            if (!fqLogic.isQuestionFullyAnsweredByUser(question, userEmail)) {
+            if (!fqLogic.isQuestionFullyAnsweredByUser(question, userEmail, instructorGiver, studentGiver)) {
                 // If any question is not completely answered, session is not
                 // completed
                 return false;
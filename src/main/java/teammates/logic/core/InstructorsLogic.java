@@ -1,6 +1,7 @@
 package teammates.logic.core;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.logging.Logger;
 
@@ -52,6 +53,10 @@ public class InstructorsLogic {
         instructorsDb.putDocument(instructor);
     }
     
+    public void putDocuments(List<InstructorAttributes> instructors) {
+        instructorsDb.putDocuments(instructors);
+    }
+    
     public void deleteDocument(InstructorAttributes instructor) {
         instructorsDb.deleteDocument(instructor);
     }
@@ -88,6 +93,7 @@ public class InstructorsLogic {
         InstructorAttributes instructor = instructorsDb.getInstructorForGoogleId(courseId, googleId);
         instructor.isArchived = archiveStatus;
         instructorsDb.updateInstructorByGoogleId(instructor);
+        FeedbackSessionResultsContextCache.invalidate(instructor.courseId);
     }
     
     public InstructorAttributes getInstructorForEmail(String courseId, String email) {
@@ -95,6 +101,11 @@ public class InstructorsLogic {
         return instructorsDb.getInstructorForEmail(courseId, email);
     }
 
+    public List<InstructorAttributes> getInstructorsForEmails(String courseId, Collection<String> emails) {
+        
+        return instructorsDb.getInstructorsForEmails(courseId, emails);
+    }
+
     public InstructorAttributes getInstructorForGoogleId(String courseId, String googleId) {
         
         return instructorsDb.getInstructorForGoogleId(courseId, googleId);
@@ -196,6 +207,7 @@ public class InstructorsLogic {
         checkForUpdatingRespondants(instructor);
         
         instructorsDb.updateInstructorByGoogleId(instructor);
+        FeedbackSessionResultsContextCache.invalidate(instructor.courseId);
     }
     
     private void checkForUpdatingRespondants(InstructorAttributes instructor)
@@ -238,6 +250,7 @@ public class InstructorsLogic {
         verifyIsEmailOfInstructorOfCourse(email, instructor.courseId);
         
         instructorsDb.updateInstructorByEmail(instructor);
+        FeedbackSessionResultsContextCache.invalidate(instructor.courseId);
     }
     
     /**
@@ -352,6 +365,7 @@ public class InstructorsLogic {
         commentsLogic.deleteCommentsForInstructor(courseId, email);
         fsLogic.deleteInstructorFromRespondantsList(getInstructorForEmail(courseId, email));
         instructorsDb.deleteInstructor(courseId, email);
+        FeedbackSessionResultsContextCache.invalidate(courseId);
     }
 
     public void deleteInstructorsForGoogleIdAndCascade(String googleId) {
@@ -368,6 +382,7 @@ public class InstructorsLogic {
     public void deleteInstructorsForCourse(String courseId) {
         
         instructorsDb.deleteInstructorsForCourse(courseId);
+        FeedbackSessionResultsContextCache.invalidate(courseId);
     }
 
 }
@@ -0,0 +1,81 @@
+package teammates.logic.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import teammates.common.datatransfer.CommentAttributes;
+import teammates.common.datatransfer.FeedbackResponseCommentAttributes;
+import teammates.common.datatransfer.InstructorAttributes;
+import teammates.common.datatransfer.StudentAttributes;
+import teammates.common.util.Assumption;
+import teammates.common.util.Const;
+import teammates.common.util.StringHelper;
+import teammates.common.util.Utils;
+
+/**
+ * Handles the logic related to putting search documents in the background,
+ * for the documents scheduled by the requests (see {@link teammates.storage.search.PendingSearchDocuments}).
+ */
+public class SearchDocumentsLogic {
+
+    private static SearchDocumentsLogic instance;
+
+    private static final Logger log = Utils.getLogger();
+
+    private static final StudentsLogic studentsLogic = StudentsLogic.inst();
+    private static final InstructorsLogic instructorsLogic = InstructorsLogic.inst();
+    private static final CommentsLogic commentsLogic = CommentsLogic.inst();
+    private static final FeedbackResponseCommentsLogic frcLogic = FeedbackResponseCommentsLogic.inst();
+
+    public static SearchDocumentsLogic inst() {
+        if (instance == null) {
+            instance = new SearchDocumentsLogic();
+        }
+        return instance;
+    }
+
+    /**
+     * Puts the documents with the given IDs into the index, built from the current state
+     * of their entities. The documents of entities that no longer exist are skipped.
+     */
+    public void putDocuments(String indexName, List<String> documentIds) {
+        if (Const.SearchIndex.STUDENT.equals(indexName)) {
+            List<StudentAttributes> students = new ArrayList<StudentAttributes>();
+            for (String studentKey : documentIds) {
+                addIfPresent(students, studentsLogic.getStudentForRegistrationKey(StringHelper.encrypt(studentKey)),
+                             indexName, studentKey);
+            }
+            studentsLogic.putDocuments(students);
+        } else if (Const.SearchIndex.INSTRUCTOR.equals(indexName)) {
+            List<InstructorAttributes> instructors = new ArrayList<InstructorAttributes>();
+            for (String encryptedKey : documentIds) {
+                addIfPresent(instructors, instructorsLogic.getInstructorForRegistrationKey(encryptedKey),
+                             indexName, encryptedKey);
+            }
+            instructorsLogic.putDocuments(instructors);
+        } else if (Const.SearchIndex.COMMENT.equals(indexName)) {
+            List<CommentAttributes> comments = new ArrayList<CommentAttributes>();
+            for (String commentId : documentIds) {
+                addIfPresent(comments, commentsLogic.getComment(Long.valueOf(commentId)), indexName, commentId);
+            }
+            commentsLogic.putDocuments(comments);
+        } else if (Const.SearchIndex.FEEDBACK_RESPONSE_COMMENT.equals(indexName)) {
+            List<FeedbackResponseCommentAttributes> comments = new ArrayList<FeedbackResponseCommentAttributes>();
+            for (String commentId : documentIds) {
+                addIfPresent(comments, frcLogic.getFeedbackResponseComment(Long.valueOf(commentId)), indexName, commentId);
+            }
+            frcLogic.putDocuments(comments);
+        } else {
+            Assumption.fail("Unknown search index " + indexName);
+        }
+    }
+
+    private static <T> void addIfPresent(List<T> entities, T entity, String indexName, String documentId) {
+        if (entity == null) {
+            log.info("Not putting document " + documentId + " in " + indexName + " as its entity no longer exists");
+        } else {
+            entities.add(entity);
+        }
+    }
+}
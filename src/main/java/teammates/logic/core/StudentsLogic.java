@@ -1,8 +1,13 @@
 package teammates.logic.core;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.mail.internet.MimeMessage;
 
@@ -44,7 +49,7 @@ public class StudentsLogic {
     //  comments.
     
     private static final int SECTION_SIZE_LIMIT = 100;
-    private static final int SIZE_LIMIT_PER_ENROLLMENT = 150;
+    private static final int ENROLLMENT_DETAILS_PER_ADJUSTMENT_TASK = 200;
 
     private static StudentsLogic instance;
     private StudentsDb studentsDb = new StudentsDb();
@@ -83,6 +88,8 @@ public class StudentsLogic {
                     "Course does not exist [" + studentData.course + "]");
         }
         
+        coursesLogic.updateCourseStats(studentData.course, new ArrayList<StudentAttributes>(),
+                                       Arrays.asList(studentData));
     }
 
     @SuppressWarnings("deprecation")
@@ -94,6 +101,10 @@ public class StudentsLogic {
         return studentsDb.getStudentForEmail(courseId, email);
     }
 
+    public List<StudentAttributes> getStudentsForEmails(String courseId, Collection<String> emails) {
+        return studentsDb.getStudentsForEmails(courseId, emails);
+    }
+
     public StudentAttributes getStudentForCourseIdAndGoogleId(String courseId, String googleId) {
         return studentsDb.getStudentForGoogleId(courseId, googleId);
     }
@@ -274,6 +285,11 @@ public class StudentsLogic {
         studentsDb.updateStudent(student.course, originalEmail, student.name, student.team, student.section,
                                  student.email, student.googleId, student.comments, hasDocument, false);
         
+        // registration (setting the google ID) is also an update of the student
+        if (!hasSameCourseStats(originalStudent, student)) {
+            coursesLogic.updateCourseStats(student.course, Arrays.asList(originalStudent), Arrays.asList(student));
+        }
+        
         // cascade email change, if any
         if (!originalEmail.equals(student.email)) {
             frLogic.updateFeedbackResponsesForChangingEmail(student.course, originalEmail, student.email);
@@ -289,6 +305,7 @@ public class StudentsLogic {
         // the student should be valid
     
         studentsDb.verifyStudentExists(courseId, originalEmail);
+        StudentAttributes registeredStudent = getStudentForEmail(courseId, originalEmail);
         StudentAttributes originalStudent = getStudentForEmail(courseId, originalEmail);
         originalStudent.googleId = null;
         
@@ -298,6 +315,10 @@ public class StudentsLogic {
         studentsDb.updateStudent(originalStudent.course, originalEmail, originalStudent.name,
                                  originalStudent.team, originalStudent.section, originalStudent.email,
                                  originalStudent.googleId, originalStudent.comments, hasDocument, false);
+        
+        if (!hasSameCourseStats(registeredStudent, originalStudent)) {
+            coursesLogic.updateCourseStats(courseId, Arrays.asList(registeredStudent), Arrays.asList(originalStudent));
+        }
     }
 
     public List<StudentAttributes> enrollStudents(String enrollLines,
@@ -352,20 +373,47 @@ public class StudentsLogic {
         }
 
         verifyIsWithinSizeLimitPerEnrollment(studentList);
-        validateSectionsAndTeams(studentList, courseId);
+        
+        // the roster is read once, and used for validation, the diff and the students not in the enroll list
+        List<StudentAttributes> studentsInCourse = getStudentsForCourse(courseId);
+        validateSectionsAndTeams(studentList, studentsInCourse);
 
-        // TODO: can we use a batch persist operation here?
-        // enroll all students
+        Map<String, StudentAttributes> studentsInCourseByEmail = new HashMap<String, StudentAttributes>();
+        for (StudentAttributes student : studentsInCourse) {
+            studentsInCourseByEmail.put(student.email, student);
+        }
+        
+        List<StudentAttributes> studentsToCreate = new ArrayList<StudentAttributes>();
+        List<StudentAttributes> studentsToUpdate = new ArrayList<StudentAttributes>();
+        List<StudentAttributes> studentsRemovedFromStats = new ArrayList<StudentAttributes>();
+        List<StudentAttributes> studentsAddedToStats = new ArrayList<StudentAttributes>();
         for (StudentAttributes student : studentList) {
-            StudentEnrollDetails enrollmentDetails;
+            StudentAttributes originalStudent = studentsInCourseByEmail.get(student.email);
+            StudentEnrollDetails enrollmentDetails = getEnrollmentDetails(student, originalStudent);
             
-            enrollmentDetails = enrollStudent(student, hasDocument);
+            if (enrollmentDetails.updateStatus == UpdateStatus.NEW) {
+                studentsToCreate.add(student);
+                studentsAddedToStats.add(student);
+            } else if (enrollmentDetails.updateStatus == UpdateStatus.MODIFIED) {
+                student.updateWithExistingRecord(originalStudent);
+                studentsToUpdate.add(student);
+                if (!hasSameCourseStats(originalStudent, student)) {
+                    studentsRemovedFromStats.add(originalStudent);
+                    studentsAddedToStats.add(student);
+                }
+            }
             student.updateStatus = enrollmentDetails.updateStatus;
             
             enrollmentList.add(enrollmentDetails);
             returnList.add(student);
         }
         
+        studentsDb.updateStudentsEnrollmentDetails(courseId, studentsToUpdate, hasDocument);
+        studentsDb.createStudentsWithoutExistenceCheck(studentsToCreate, hasDocument);
+        
+        // the whole enrollment is a single update of the statistics
+        coursesLogic.updateCourseStats(courseId, studentsRemovedFromStats, studentsAddedToStats);
+        
         //Adjust submissions for all feedback responses within the course
         List<FeedbackSessionAttributes> feedbackSessions = FeedbackSessionsLogic.inst()
                 .getFeedbackSessionsForCourse(courseId);
@@ -377,9 +425,9 @@ public class StudentsLogic {
         }
 
         // add to return list students not included in the enroll list.
-        List<StudentAttributes> studentsInCourse = getStudentsForCourse(courseId);
+        Set<String> enrolledEmails = getLowerCaseEmails(returnList);
         for (StudentAttributes student : studentsInCourse) {
-            if (!isInEnrollList(student, returnList)) {
+            if (!enrolledEmails.contains(student.email.toLowerCase())) {
                 student.updateStatus = StudentAttributes.UpdateStatus.NOT_IN_ENROLL_LIST;
                 returnList.add(student);
             }
@@ -389,7 +437,7 @@ public class StudentsLogic {
     }
 
     private void verifyIsWithinSizeLimitPerEnrollment(List<StudentAttributes> students) throws EnrollException {
-        if (students.size() > SIZE_LIMIT_PER_ENROLLMENT) {
+        if (students.size() > SystemParams.MAX_STUDENTS_PER_ENROLLMENT) {
             throw new EnrollException(Const.StatusMessages.QUOTA_PER_ENROLLMENT_EXCEED);
         }
     }
@@ -401,8 +449,13 @@ public class StudentsLogic {
      * @throws EnrollException
      */
     public void validateSectionsAndTeams(List<StudentAttributes> studentList, String courseId) throws EnrollException {
+        validateSectionsAndTeams(studentList, getStudentsForCourse(courseId));
+    }
+    
+    private void validateSectionsAndTeams(List<StudentAttributes> studentList,
+                                          List<StudentAttributes> studentsInCourse) throws EnrollException {
 
-        List<StudentAttributes> mergedList = getMergedList(studentList, courseId);
+        List<StudentAttributes> mergedList = getMergedList(studentList, studentsInCourse);
 
         if (mergedList.size() < 2) { // no conflicts
             return;
@@ -424,7 +477,7 @@ public class StudentsLogic {
      */
     public void validateTeams(List<StudentAttributes> studentList, String courseId) throws EnrollException {
 
-        List<StudentAttributes> mergedList = getMergedList(studentList, courseId);
+        List<StudentAttributes> mergedList = getMergedList(studentList, getStudentsForCourse(courseId));
 
         if (mergedList.size() < 2) { // no conflicts
             return;
@@ -438,23 +491,28 @@ public class StudentsLogic {
 
     }
     
-    private List<StudentAttributes> getMergedList(List<StudentAttributes> studentList, String courseId) {
+    private List<StudentAttributes> getMergedList(List<StudentAttributes> studentList,
+                                                  List<StudentAttributes> studentsInCourse) {
 
-        List<StudentAttributes> mergedList = new ArrayList<StudentAttributes>();
-        List<StudentAttributes> studentsInCourse = getStudentsForCourse(courseId);
-
-        for (StudentAttributes student : studentList) {
-            mergedList.add(student);
-        }
+        List<StudentAttributes> mergedList = new ArrayList<StudentAttributes>(studentList);
+        Set<String> enrolledEmails = getLowerCaseEmails(studentList);
 
         for (StudentAttributes student : studentsInCourse) {
-            if (!isInEnrollList(student, mergedList)) {
+            if (!enrolledEmails.contains(student.email.toLowerCase())) {
                 mergedList.add(student);
             }
         }
         return mergedList;
     }
     
+    private Set<String> getLowerCaseEmails(List<StudentAttributes> students) {
+        Set<String> emails = new HashSet<String>();
+        for (StudentAttributes student : students) {
+            emails.add(student.email.toLowerCase());
+        }
+        return emails;
+    }
+    
     public String getSectionForTeam(String courseId, String teamName) {
 
         List<StudentAttributes> students = getStudentsForTeam(teamName, courseId);
@@ -525,19 +583,28 @@ public class StudentsLogic {
     private void scheduleSubmissionAdjustmentForFeedbackInCourse(
             ArrayList<StudentEnrollDetails> enrollmentList, String courseId, String sessionName) {
         // private methods -- should I test this?
-        HashMap<String, String> paramMap = new HashMap<String, String>();
-        
-        paramMap.put(ParamsNames.COURSE_ID, courseId);
-        paramMap.put(ParamsNames.FEEDBACK_SESSION_NAME, sessionName);
-        
         Gson gsonBuilder = Utils.getTeammatesGson();
-        String enrollmentDetails = gsonBuilder.toJson(enrollmentList);
-        paramMap.put(ParamsNames.ENROLLMENT_DETAILS, enrollmentDetails);
-        
         TaskQueuesLogic taskQueueLogic = TaskQueuesLogic.inst();
-        taskQueueLogic.createAndAddTask(SystemParams.FEEDBACK_SUBMISSION_ADJUSTMENT_TASK_QUEUE,
-                Const.ActionURIs.FEEDBACK_SUBMISSION_ADJUSTMENT_WORKER, paramMap);
         
+        // large enrollments are split over several tasks to keep each task within the task size limit,
+        // but there is always at least one task
+        int from = 0;
+        do {
+            int to = Math.min(from + ENROLLMENT_DETAILS_PER_ADJUSTMENT_TASK, enrollmentList.size());
+            
+            HashMap<String, String> paramMap = new HashMap<String, String>();
+            
+            paramMap.put(ParamsNames.COURSE_ID, courseId);
+            paramMap.put(ParamsNames.FEEDBACK_SESSION_NAME, sessionName);
+            
+            String enrollmentDetails = gsonBuilder.toJson(enrollmentList.subList(from, to));
+            paramMap.put(ParamsNames.ENROLLMENT_DETAILS, enrollmentDetails);
+            
+            taskQueueLogic.createAndAddTask(SystemParams.FEEDBACK_SUBMISSION_ADJUSTMENT_TASK_QUEUE,
+                    Const.ActionURIs.FEEDBACK_SUBMISSION_ADJUSTMENT_WORKER, paramMap);
+            
+            from = to;
+        } while (from < enrollmentList.size());
     }
 
     public MimeMessage sendRegistrationInviteToStudent(String courseId, String studentEmail)
@@ -623,8 +690,13 @@ public class StudentsLogic {
         // delete responses before deleting the student as we need to know the student's team.
         frLogic.deleteFeedbackResponsesForStudentAndCascade(courseId, studentEmail);
         commentsLogic.deleteCommentsForStudent(courseId, studentEmail);
-        fsLogic.deleteStudentFromRespondantsList(getStudentForEmail(courseId, studentEmail));
+        StudentAttributes student = getStudentForEmail(courseId, studentEmail);
+        fsLogic.deleteStudentFromRespondantsList(student);
         studentsDb.deleteStudent(courseId, studentEmail, hasDocument);
+        
+        if (student != null) {
+            coursesLogic.updateCourseStats(courseId, Arrays.asList(student), new ArrayList<StudentAttributes>());
+        }
     }
 
     public void deleteStudentsForGoogleId(String googleId) {
@@ -633,6 +705,7 @@ public class StudentsLogic {
             fsLogic.deleteStudentFromRespondantsList(student);
         }
         studentsDb.deleteStudentsForGoogleId(googleId);
+        removeFromCourseStats(students);
     }
 
     public void deleteStudentsForGoogleIdWithoutDocument(String googleId) {
@@ -641,6 +714,7 @@ public class StudentsLogic {
             fsLogic.deleteStudentFromRespondantsList(student);
         }
         studentsDb.deleteStudentsForGoogleIdWithoutDocument(googleId);
+        removeFromCourseStats(students);
     }
     
     public void deleteStudentsForGoogleIdAndCascade(String googleId) {
@@ -654,10 +728,12 @@ public class StudentsLogic {
 
     public void deleteStudentsForCourse(String courseId) {
         studentsDb.deleteStudentsForCourse(courseId);
+        coursesLogic.deleteCourseStatsForCourses(Arrays.asList(courseId));
     }
 
     public void deleteStudentsForCourseWithoutDocument(String courseId) {
         studentsDb.deleteStudentsForCourseWithoutDocument(courseId);
+        coursesLogic.deleteCourseStatsForCourses(Arrays.asList(courseId));
     }
     
     public void adjustFeedbackResponseForEnrollments(
@@ -677,15 +753,79 @@ public class StudentsLogic {
         }
     }
     
+    /**
+     * @return the enrollments that change the team or section of an existing student,
+     *         which are the only enrollments that feedback responses have to be adjusted for
+     */
+    public List<StudentEnrollDetails> getEnrollmentsRequiringResponseAdjustment(
+            List<StudentEnrollDetails> enrollmentList) {
+        List<StudentEnrollDetails> enrollmentsToAdjustFor = new ArrayList<StudentEnrollDetails>();
+        for (StudentEnrollDetails enrollment : enrollmentList) {
+            if (enrollment.updateStatus == UpdateStatus.MODIFIED
+                    && (isTeamChanged(enrollment.oldTeam, enrollment.newTeam)
+                        || isSectionChanged(enrollment.oldSection, enrollment.newSection))) {
+                enrollmentsToAdjustFor.add(enrollment);
+            }
+        }
+        return enrollmentsToAdjustFor;
+    }
+    
+    /**
+     * Does the same as {@link #adjustFeedbackResponseForEnrollments} for a batch of responses
+     * of a single session.
+     */
+    public void adjustFeedbackResponsesForEnrollments(
+            List<StudentEnrollDetails> enrollmentList, List<FeedbackResponseAttributes> responses)
+            throws InvalidParametersException, EntityDoesNotExistException {
+        Set<String> teamChangedEmails = new HashSet<String>();
+        Map<String, StudentEnrollDetails> sectionChangedEnrollments = new HashMap<String, StudentEnrollDetails>();
+        for (StudentEnrollDetails enrollment : getEnrollmentsRequiringResponseAdjustment(enrollmentList)) {
+            if (isTeamChanged(enrollment.oldTeam, enrollment.newTeam)) {
+                teamChangedEmails.add(enrollment.email);
+            }
+            if (isSectionChanged(enrollment.oldSection, enrollment.newSection)) {
+                sectionChangedEnrollments.put(enrollment.email, enrollment);
+            }
+        }
+        frLogic.updateFeedbackResponsesForChangingTeamsAndSections(teamChangedEmails, sectionChangedEnrollments,
+                                                                   responses);
+    }
+    
     public void putDocument(StudentAttributes student) {
         studentsDb.putDocument(student);
     }
     
-    private StudentEnrollDetails enrollStudent(StudentAttributes validStudentAttributes, Boolean hasDocument)
-            throws InvalidParametersException, EntityDoesNotExistException, EntityAlreadyExistsException {
-        StudentAttributes originalStudentAttributes = getStudentForEmail(
-                validStudentAttributes.course, validStudentAttributes.email);
-        
+    public void putDocuments(List<StudentAttributes> students) {
+        studentsDb.putDocuments(students);
+    }
+    
+    private void removeFromCourseStats(List<StudentAttributes> students) {
+        Map<String, List<StudentAttributes>> studentsByCourse = new HashMap<String, List<StudentAttributes>>();
+        for (StudentAttributes student : students) {
+            List<StudentAttributes> studentsInCourse = studentsByCourse.get(student.course);
+            if (studentsInCourse == null) {
+                studentsInCourse = new ArrayList<StudentAttributes>();
+                studentsByCourse.put(student.course, studentsInCourse);
+            }
+            studentsInCourse.add(student);
+        }
+        for (Map.Entry<String, List<StudentAttributes>> studentsInCourse : studentsByCourse.entrySet()) {
+            coursesLogic.updateCourseStats(studentsInCourse.getKey(), studentsInCourse.getValue(),
+                                           new ArrayList<StudentAttributes>());
+        }
+    }
+    
+    /**
+     * @return true if the student counts towards the same section, team and
+     *         registration statistics of the course before and after the change
+     */
+    private static boolean hasSameCourseStats(StudentAttributes originalStudent, StudentAttributes student) {
+        return originalStudent.section.equals(student.section) && originalStudent.team.equals(student.team)
+               && originalStudent.isRegistered() == student.isRegistered();
+    }
+    
+    private StudentEnrollDetails getEnrollmentDetails(StudentAttributes validStudentAttributes,
+                                                      StudentAttributes originalStudentAttributes) {
         StudentEnrollDetails enrollmentDetails = new StudentEnrollDetails();
         enrollmentDetails.course = validStudentAttributes.course;
         enrollmentDetails.email = validStudentAttributes.email;
@@ -696,7 +836,6 @@ public class StudentsLogic {
         if (validStudentAttributes.isEnrollInfoSameAs(originalStudentAttributes)) {
             enrollmentDetails.updateStatus = UpdateStatus.UNMODIFIED;
         } else if (isModifyingExistingStudent) {
-            updateStudentCascadeWithSubmissionAdjustmentScheduled(originalStudentAttributes.email, validStudentAttributes, true);
             enrollmentDetails.updateStatus = UpdateStatus.MODIFIED;
             
             if (!originalStudentAttributes.team.equals(validStudentAttributes.team)) {
@@ -706,7 +845,6 @@ public class StudentsLogic {
                 enrollmentDetails.oldSection = originalStudentAttributes.section;
             }
         } else {
-            createStudentCascade(validStudentAttributes, hasDocument);
             enrollmentDetails.updateStatus = UpdateStatus.NEW;
         }
 
@@ -719,7 +857,8 @@ public class StudentsLogic {
     private List<String> getInvalidityInfoInEnrollLines(String lines, String courseId) throws EnrollException {
         List<String> invalidityInfo = new ArrayList<String>();
         String[] linesArray = lines.split(Const.EOL);
-        ArrayList<String> studentEmailList = new ArrayList<String>();
+        // maps each email to the index of the first line it is used in
+        Map<String, Integer> studentEmailLineIndices = new HashMap<String, Integer>();
     
         StudentAttributesFactory saf = new StudentAttributesFactory(linesArray[0]);
         
@@ -738,13 +877,17 @@ public class StudentsLogic {
                     invalidityInfo.add(String.format(Const.StatusMessages.ENROLL_LINES_PROBLEM, sanitizedLine, info));
                 }
                 
-                if (isStudentEmailDuplicated(student.email, studentEmailList)) {
-                    String info = StringHelper.toString(getInvalidityInfoInDuplicatedEmail(student.email, studentEmailList, linesArray),
+                if (isStudentEmailDuplicated(student.email, studentEmailLineIndices)) {
+                    String info = StringHelper.toString(getInvalidityInfoInDuplicatedEmail(student.email,
+                                                                                           studentEmailLineIndices,
+                                                                                           linesArray),
                                                     "<br>" + Const.StatusMessages.ENROLL_LINES_PROBLEM_DETAIL_PREFIX + " ");
                     invalidityInfo.add(String.format(Const.StatusMessages.ENROLL_LINES_PROBLEM, sanitizedLine, info));
                 }
                 
-                studentEmailList.add(student.email);
+                if (!studentEmailLineIndices.containsKey(student.email)) {
+                    studentEmailLineIndices.put(student.email, i);
+                }
             } catch (EnrollException e) {
                 String info = String.format(Const.StatusMessages.ENROLL_LINES_PROBLEM, sanitizedLine, e.getMessage());
                 invalidityInfo.add(info);
@@ -755,25 +898,15 @@ public class StudentsLogic {
     }
     
     private List<String> getInvalidityInfoInDuplicatedEmail(String email,
-            ArrayList<String> studentEmailList, String[] linesArray) {
+            Map<String, Integer> studentEmailLineIndices, String[] linesArray) {
         List<String> info = new ArrayList<String>();
-        info.add("Same email address as the student in line \"" + linesArray[studentEmailList.indexOf(email) + 1] + "\"");
+        info.add("Same email address as the student in line \"" + linesArray[studentEmailLineIndices.get(email)] + "\"");
         return info;
     }
     
     private boolean isStudentEmailDuplicated(String email,
-            ArrayList<String> studentEmailList) {
-        return studentEmailList.contains(email);
-    }
-    
-    private boolean isInEnrollList(StudentAttributes student,
-            List<StudentAttributes> studentInfoList) {
-        for (StudentAttributes studentInfo : studentInfoList) {
-            if (studentInfo.email.equalsIgnoreCase(student.email)) {
-                return true;
-            }
-        }
-        return false;
+            Map<String, Integer> studentEmailLineIndices) {
+        return studentEmailLineIndices.containsKey(email);
     }
     
     private boolean isTeamChanged(String originalTeam, String newTeam) {
@@ -1,9 +1,16 @@
 package teammates.logic.core;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.logging.Logger;
+
+import teammates.common.exception.TeammatesException;
+import teammates.common.util.Utils;
 
 import com.google.appengine.api.taskqueue.Queue;
+import com.google.appengine.api.taskqueue.QueueConstants;
 import com.google.appengine.api.taskqueue.QueueFactory;
 import com.google.appengine.api.taskqueue.TaskOptions;
 
@@ -14,6 +21,8 @@ public class TaskQueuesLogic {
 
     private static TaskQueuesLogic instance;
     
+    private static final Logger log = Utils.getLogger();
+    
     public static TaskQueuesLogic inst() {
         if (instance == null) {
             instance = new TaskQueuesLogic();
@@ -69,4 +78,45 @@ public class TaskQueuesLogic {
         
         requiredQueue.add(taskToBeAdded);
     }
+    
+    /**
+     * Adds a task for each of the parameter maps, in as few calls to the queue as possible.
+     * The n-th task is delayed by n times the given interval. <br>
+     * A call to the queue that fails is logged and the remaining tasks are still added,
+     * so that one failure does not drop all the tasks after it.
+     */
+    public void createAndAddDeferredTasks(String queueName, String workerUrl,
+            List<HashMap<String, String>> paramMaps, long countdownIntervalMillis) {
+        Queue requiredQueue = QueueFactory.getQueue(queueName);
+        List<TaskOptions> tasksToBeAdded = new ArrayList<TaskOptions>();
+        
+        for (int i = 0; i < paramMaps.size(); i++) {
+            TaskOptions taskToBeAdded = TaskOptions.Builder.withUrl(workerUrl);
+            taskToBeAdded.countdownMillis(i * countdownIntervalMillis);
+            
+            for (Map.Entry<String, String> entry : paramMaps.get(i).entrySet()) {
+                taskToBeAdded = taskToBeAdded.param(entry.getKey(), entry.getValue());
+            }
+            tasksToBeAdded.add(taskToBeAdded);
+            
+            if (tasksToBeAdded.size() == QueueConstants.maxTasksPerAdd()) {
+                addTasks(requiredQueue, tasksToBeAdded);
+                tasksToBeAdded = new ArrayList<TaskOptions>();
+            }
+        }
+        
+        if (!tasksToBeAdded.isEmpty()) {
+            addTasks(requiredQueue, tasksToBeAdded);
+        }
+    }
+    
+    private void addTasks(Queue queue, List<TaskOptions> tasksToBeAdded) {
+        try {
+            queue.add(tasksToBeAdded);
+        } catch (RuntimeException e) {
+            // not retried, as the tasks added before the failure would be added again
+            log.severe("Error when adding " + tasksToBeAdded.size() + " tasks to task queue " + queue.getQueueName()
+                       + ": " + TeammatesException.toStringWithStackTrace(e));
+        }
+    }
 }
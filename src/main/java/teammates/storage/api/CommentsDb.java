@@ -482,6 +482,24 @@ public class CommentsDb extends EntitiesDb {
         putDocument(Const.SearchIndex.COMMENT, new CommentSearchDocument(comment));
     }
     
+    /**
+     * Puts the documents of the comments with as few calls to the search service as possible.
+     */
+    public void putDocuments(List<CommentAttributes> comments) {
+        List<CommentSearchDocument> documents = new ArrayList<CommentSearchDocument>();
+        for (CommentAttributes comment : comments) {
+            documents.add(new CommentSearchDocument(comment));
+        }
+        putDocuments(Const.SearchIndex.COMMENT, documents);
+    }
+    
+    /**
+     * Schedules the document of the comment to be put at the end of the request.
+     */
+    public void schedulePutDocument(CommentAttributes comment) {
+        schedulePutDocument(Const.SearchIndex.COMMENT, comment.getCommentId().toString());
+    }
+    
     /**
      * Search for comments
      * @return {@link CommentSearchResultBundle}
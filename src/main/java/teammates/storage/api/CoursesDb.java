@@ -2,18 +2,36 @@ package teammates.storage.api;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import javax.jdo.JDOException;
 import javax.jdo.JDOHelper;
+import javax.jdo.JDOObjectNotFoundException;
+import javax.jdo.PersistenceManager;
 import javax.jdo.Query;
+import javax.jdo.Transaction;
 
 import teammates.common.datatransfer.CourseAttributes;
+import teammates.common.datatransfer.CourseStats;
 import teammates.common.datatransfer.EntityAttributes;
+import teammates.common.datatransfer.StudentAttributes;
 import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.InvalidParametersException;
 import teammates.common.util.Assumption;
 import teammates.common.util.Const;
+import teammates.common.util.Utils;
+import teammates.storage.datastore.Datastore;
+import teammates.storage.datastore.EntityCache;
 import teammates.storage.entity.Course;
+import teammates.storage.entity.CourseStatistics;
+
+import com.google.appengine.api.datastore.DatastoreServiceFactory;
+import com.google.appengine.api.datastore.Key;
+import com.google.appengine.api.datastore.KeyFactory;
+import com.google.appengine.api.datastore.Text;
+import com.google.gson.reflect.TypeToken;
 
 /**
  * Handles CRUD Operations for course entities.
@@ -28,6 +46,8 @@ public class CoursesDb extends EntitiesDb {
 
     public static final String ERROR_UPDATE_NON_EXISTENT_COURSE = "Trying to update a Course that doesn't exist: ";
     
+    private static final int MAX_COURSE_STATS_UPDATE_ATTEMPTS = 3;
+    
     public void createCourses(Collection<CourseAttributes> coursesToAdd) throws InvalidParametersException {
         
         List<EntityAttributes> coursesToUpdate = createEntities(coursesToAdd);
@@ -52,13 +72,26 @@ public class CoursesDb extends EntitiesDb {
         
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
         
-        Course c = getCourseEntity(courseId);
+        String cacheKey = getCourseCacheKey(courseId);
+        Course c = (Course) EntityCache.getFromRequestCache(cacheKey);
+        if (c != null) {
+            return new CourseAttributes(c);
+        }
+        
+        CourseAttributes cachedCourse = EntityCache.getFromSharedCache(cacheKey, CourseAttributes.class);
+        if (cachedCourse != null) {
+            return cachedCourse;
+        }
+        
+        c = getCourseEntity(courseId);
 
         if (c == null) {
             return null;
         }
 
-        return new CourseAttributes(c);
+        CourseAttributes course = new CourseAttributes(c);
+        EntityCache.putInSharedCache(cacheKey, course);
+        return course;
     }
     
     public List<CourseAttributes> getCourses(List<String> courseIds) {
@@ -122,6 +155,7 @@ public class CoursesDb extends EntitiesDb {
         
         courseEntityToUpdate.setName(courseToUpdate.getName());
         courseEntityToUpdate.setArchiveStatus(Boolean.valueOf(courseToUpdate.isArchived));
+        EntityCache.remove(getCourseCacheKey(courseToUpdate.getId()));
         
         log.info(courseToUpdate.getBackupIdentifier());
         getPm().close();
@@ -143,11 +177,362 @@ public class CoursesDb extends EntitiesDb {
         deleteEntity(entityToDelete);
     }
     
+    /*
+     * The statistics of a course are read and written through a persistence manager of their own,
+     * so that they can be updated in a transaction, and so that an update made earlier in the request
+     * is never hidden by a copy cached by the persistence manager of the request.
+     * Every change to the students of the course changes the version of the statistics, so that
+     * statistics computed from a query of the students are not recorded over a change the query missed.
+     */
+    
+    /**
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the statistics recorded for the course, or null if none have been recorded
+     *         or they have to be computed again from the students of the course
+     */
+    public CourseStats getCourseStats(String courseId) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        
+        PersistenceManager pm = Datastore.getNewPersistenceManager();
+        try {
+            CourseStatistics statistics = getCourseStatisticsEntity(pm, courseId);
+            return statistics == null || statistics.isOutdated() ? null : toCourseStats(statistics);
+        } finally {
+            pm.close();
+        }
+    }
+    
+    /**
+     * Records empty statistics for a new course, which has no students yet,
+     * unless statistics have already been recorded for it. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     */
+    public void createEmptyCourseStats(String courseId) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        
+        PersistenceManager pm = Datastore.getNewPersistenceManager();
+        Transaction tx = pm.currentTransaction();
+        try {
+            tx.begin();
+            if (getCourseStatisticsEntity(pm, courseId) == null) {
+                CourseStatistics statistics = new CourseStatistics(courseId, System.currentTimeMillis());
+                statistics.setStatistics(0, 0, toText(new HashMap<String, Map<String, Integer>>()));
+                pm.makePersistent(statistics);
+            }
+            tx.commit();
+        } catch (JDOException e) {
+            log.warning("Unable to record statistics of new course " + courseId + ": " + e.getMessage());
+        } finally {
+            if (tx.isActive()) {
+                tx.rollback();
+            }
+            pm.close();
+        }
+    }
+    
+    /**
+     * Gets the version of the statistics of the course, to be read before querying the students
+     * to compute the statistics from (see {@link #putCourseStats}). The version is the time (in milliseconds)
+     * of the latest change to the students, or of the first time it was asked for if there has been none since.
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return 0 if the version could not be read because of concurrent changes
+     */
+    public long getCourseStatsVersion(String courseId) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        
+        for (int attempt = 1; attempt <= MAX_COURSE_STATS_UPDATE_ATTEMPTS; attempt++) {
+            PersistenceManager pm = Datastore.getNewPersistenceManager();
+            Transaction tx = pm.currentTransaction();
+            try {
+                tx.begin();
+                CourseStatistics statistics = getCourseStatisticsEntity(pm, courseId);
+                if (statistics == null) {
+                    // only created if still absent, so that a change recorded meanwhile is not overwritten
+                    statistics = new CourseStatistics(courseId, System.currentTimeMillis());
+                    pm.makePersistent(statistics);
+                }
+                long version = statistics.getVersion();
+                tx.commit();
+                return version;
+            } catch (JDOException e) {
+                log.warning("Attempt " + attempt + " to read the statistics version of course " + courseId
+                            + " failed: " + e.getMessage());
+            } finally {
+                if (tx.isActive()) {
+                    tx.rollback();
+                }
+                pm.close();
+            }
+        }
+        return 0;
+    }
+    
+    /**
+     * Records the statistics of the course computed from all its students, replacing the statistics
+     * recorded before, but only if no student has changed since {@code version} was read with
+     * {@link #getCourseStatsVersion}. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * * {@code students} were queried after {@code version} was read.
+     * @return the statistics computed from the students, whether recorded or not
+     */
+    public CourseStats putCourseStats(String courseId, List<StudentAttributes> students, long version) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, students);
+        
+        Map<String, Map<String, Integer>> teamSizes = toTeamSizes(students);
+        int unregisteredTotal = countUnregistered(students);
+        
+        PersistenceManager pm = Datastore.getNewPersistenceManager();
+        Transaction tx = pm.currentTransaction();
+        try {
+            tx.begin();
+            CourseStatistics statistics = getCourseStatisticsEntity(pm, courseId);
+            if (statistics != null && statistics.getVersion() == version) {
+                statistics.setStatistics(students.size(), unregisteredTotal, toText(teamSizes));
+                tx.commit();
+            } else {
+                log.info("Not recording statistics of course " + courseId + " as its students have changed");
+            }
+        } catch (JDOException e) {
+            log.info("Not recording statistics of course " + courseId + ": " + e.getMessage());
+        } finally {
+            if (tx.isActive()) {
+                tx.rollback();
+            }
+            pm.close();
+        }
+        return toCourseStats(students.size(), unregisteredTotal, teamSizes);
+    }
+    
+    /**
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the statistics computed from all the students of the course, without recording them
+     */
+    public CourseStats computeCourseStats(List<StudentAttributes> students) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, students);
+        
+        return toCourseStats(students.size(), countUnregistered(students), toTeamSizes(students));
+    }
+    
+    /**
+     * Updates the statistics recorded for the course, in a transaction, for the students removed
+     * from and added to the course. A student whose section, team or registration has changed
+     * is removed as it was before the change, and added as it is after the change. <br>
+     * Only the version is changed if the statistics have to be computed again from all the students
+     * of the course, and nothing is done if no statistics have been recorded for the course. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return false if the statistics could not be updated (e.g. because of concurrent updates,
+     *         or because they do not match the students removed). The statistics then have to be
+     *         computed again from all the students of the course.
+     */
+    public boolean updateCourseStats(String courseId, List<StudentAttributes> studentsRemoved,
+                                     List<StudentAttributes> studentsAdded) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, studentsRemoved);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, studentsAdded);
+        
+        if (studentsRemoved.isEmpty() && studentsAdded.isEmpty()) {
+            return true;
+        }
+        
+        for (int attempt = 1; attempt <= MAX_COURSE_STATS_UPDATE_ATTEMPTS; attempt++) {
+            PersistenceManager pm = Datastore.getNewPersistenceManager();
+            Transaction tx = pm.currentTransaction();
+            try {
+                tx.begin();
+                CourseStatistics statistics = getCourseStatisticsEntity(pm, courseId);
+                if (statistics == null) {
+                    return true;
+                }
+                if (statistics.isOutdated()) {
+                    statistics.setOutdated();
+                    tx.commit();
+                    return true;
+                }
+                
+                Map<String, Map<String, Integer>> teamSizes = fromText(statistics.getTeamSizes());
+                int studentsTotal = statistics.getStudentsTotal() - studentsRemoved.size() + studentsAdded.size();
+                int unregisteredTotal = statistics.getUnregisteredTotal();
+                boolean isConsistent = true;
+                for (StudentAttributes student : studentsRemoved) {
+                    isConsistent &= addToTeamSize(teamSizes, student, -1);
+                    if (!student.isRegistered()) {
+                        unregisteredTotal--;
+                    }
+                }
+                for (StudentAttributes student : studentsAdded) {
+                    addToTeamSize(teamSizes, student, 1);
+                    if (!student.isRegistered()) {
+                        unregisteredTotal++;
+                    }
+                }
+                if (!isConsistent || studentsTotal < 0 || unregisteredTotal < 0) {
+                    log.warning("Statistics of course " + courseId + " do not match its students");
+                    statistics.setOutdated();
+                    tx.commit();
+                    return false;
+                }
+                
+                statistics.updateStatistics(studentsTotal, unregisteredTotal, toText(teamSizes));
+                tx.commit();
+                return true;
+            } catch (JDOException e) {
+                log.warning("Attempt " + attempt + " to update the statistics of course " + courseId
+                            + " failed: " + e.getMessage());
+            } finally {
+                if (tx.isActive()) {
+                    tx.rollback();
+                }
+                pm.close();
+            }
+        }
+        
+        // the version could not be changed, so the statistics are deleted for them not to be recorded over
+        deleteCourseStats(courseId);
+        return false;
+    }
+    
+    /**
+     * Deletes the statistics recorded for the course, if any.
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     */
+    public void deleteCourseStats(String courseId) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        
+        List<String> courseIds = new ArrayList<String>();
+        courseIds.add(courseId);
+        deleteCourseStatsForCourses(courseIds);
+    }
+    
+    /**
+     * Deletes the statistics recorded for the courses, if any.
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     */
+    public void deleteCourseStatsForCourses(Collection<String> courseIds) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseIds);
+        
+        List<Key> keys = new ArrayList<Key>();
+        for (String courseId : courseIds) {
+            keys.add(KeyFactory.createKey(CourseStatistics.class.getSimpleName(), courseId));
+        }
+        // deleting by key needs no prior read and is done in a single batch call
+        DatastoreServiceFactory.getDatastoreService().delete(keys);
+    }
+    
+    @Override
+    public void deleteEntity(EntityAttributes entityToDelete) {
+        super.deleteEntity(entityToDelete);
+        EntityCache.remove(getCacheKey(entityToDelete));
+    }
+    
+    @Override
+    public void deleteEntities(Collection<? extends EntityAttributes> entitiesToDelete) {
+        super.deleteEntities(entitiesToDelete);
+        for (EntityAttributes entityToDelete : entitiesToDelete) {
+            EntityCache.remove(getCacheKey(entityToDelete));
+        }
+    }
+    
     @Override
     protected Object getEntity(EntityAttributes attributes) {
         return getCourseEntity(((CourseAttributes) attributes).getId());
     }
+    
+    private static String getCourseCacheKey(String courseId) {
+        return EntityCache.getKey("Course", courseId);
+    }
 
+    private CourseStatistics getCourseStatisticsEntity(PersistenceManager pm, String courseId) {
+        try {
+            CourseStatistics statistics = pm.getObjectById(CourseStatistics.class, courseId);
+            return JDOHelper.isDeleted(statistics) ? null : statistics;
+        } catch (JDOObjectNotFoundException e) {
+            return null;
+        }
+    }
+    
+    private static CourseStats toCourseStats(CourseStatistics statistics) {
+        return toCourseStats(statistics.getStudentsTotal(), statistics.getUnregisteredTotal(),
+                             fromText(statistics.getTeamSizes()));
+    }
+    
+    private static CourseStats toCourseStats(int studentsTotal, int unregisteredTotal,
+                                             Map<String, Map<String, Integer>> teamSizes) {
+        CourseStats stats = new CourseStats();
+        stats.studentsTotal = studentsTotal;
+        stats.unregisteredTotal = unregisteredTotal;
+        for (Map.Entry<String, Map<String, Integer>> section : teamSizes.entrySet()) {
+            if (!section.getKey().equals(Const.DEFAULT_SECTION)) {
+                stats.sectionsTotal++;
+            }
+            stats.teamsTotal += section.getValue().size();
+        }
+        return stats;
+    }
+    
+    private static Map<String, Map<String, Integer>> toTeamSizes(List<StudentAttributes> students) {
+        Map<String, Map<String, Integer>> teamSizes = new HashMap<String, Map<String, Integer>>();
+        for (StudentAttributes student : students) {
+            addToTeamSize(teamSizes, student, 1);
+        }
+        return teamSizes;
+    }
+    
+    private static int countUnregistered(List<StudentAttributes> students) {
+        int unregisteredTotal = 0;
+        for (StudentAttributes student : students) {
+            if (!student.isRegistered()) {
+                unregisteredTotal++;
+            }
+        }
+        return unregisteredTotal;
+    }
+    
+    /**
+     * Adds {@code change} to the size of the team of the student, leaving out teams
+     * and sections that no longer have students.
+     * @return false if the size of the team would become negative
+     */
+    private static boolean addToTeamSize(Map<String, Map<String, Integer>> teamSizes,
+                                         StudentAttributes student, int change) {
+        String section = student.section == null ? Const.DEFAULT_SECTION : student.section;
+        Map<String, Integer> teamsInSection = teamSizes.get(section);
+        if (teamsInSection == null) {
+            teamsInSection = new HashMap<String, Integer>();
+            teamSizes.put(section, teamsInSection);
+        }
+        Integer teamSize = teamsInSection.get(student.team);
+        int newTeamSize = (teamSize == null ? 0 : teamSize) + change;
+        
+        if (newTeamSize > 0) {
+            teamsInSection.put(student.team, newTeamSize);
+        } else {
+            teamsInSection.remove(student.team);
+        }
+        if (teamsInSection.isEmpty()) {
+            teamSizes.remove(section);
+        }
+        return newTeamSize >= 0;
+    }
+    
+    private static Text toText(Map<String, Map<String, Integer>> teamSizes) {
+        return new Text(Utils.getTeammatesGson().toJson(teamSizes));
+    }
+    
+    private static Map<String, Map<String, Integer>> fromText(Text teamSizes) {
+        Map<String, Map<String, Integer>> sizes = Utils.getTeammatesGson().fromJson(
+                teamSizes.getValue(), new TypeToken<HashMap<String, HashMap<String, Integer>>>(){}.getType());
+        return sizes == null ? new HashMap<String, Map<String, Integer>>() : sizes;
+    }
+    
     private Course getCourseEntity(String courseId) {
         Query q = getPm().newQuery(Course.class);
         q.declareParameters("String courseIdParam");
@@ -160,7 +545,9 @@ public class CoursesDb extends EntitiesDb {
             return null;
         }
     
-        return courseList.get(0);
+        Course course = courseList.get(0);
+        EntityCache.putInRequestCache(getCourseCacheKey(courseId), course);
+        return course;
     }
     
     private List<Course> getCourseEntities(List<String> courseIds) {
@@ -11,17 +11,19 @@ import teammates.common.datatransfer.EntityAttributes;
 import teammates.common.exception.EntityAlreadyExistsException;
 import teammates.common.exception.InvalidParametersException;
 import teammates.common.util.Assumption;
-import teammates.common.util.Config;
 import teammates.common.util.Const;
-import teammates.common.util.ThreadHelper;
 import teammates.common.util.Utils;
 import teammates.storage.datastore.Datastore;
+import teammates.storage.datastore.EntityCache;
+import teammates.storage.search.PendingSearchDocuments;
 import teammates.storage.search.SearchDocument;
+import teammates.storage.search.SearchDocumentContext;
 import teammates.storage.search.SearchManager;
 import teammates.storage.search.SearchQuery;
 
 import com.google.appengine.api.blobstore.BlobKey;
 import com.google.appengine.api.blobstore.BlobstoreServiceFactory;
+import com.google.appengine.api.search.Document;
 import com.google.appengine.api.search.Results;
 import com.google.appengine.api.search.ScoredDocument;
 import com.google.appengine.api.search.SearchQueryException;
@@ -42,6 +44,12 @@ public abstract class EntitiesDb {
 
     protected static final Logger log = Utils.getLogger();
     
+    /**
+     * Maximum number of values in the list of a single {@code contains} filter,
+     * which is run by the Datastore as one query per value.
+     */
+    protected static final int MAX_VALUES_PER_CONTAINS_FILTER = 30;
+    
     /**
      * Preconditions:
      * <br> * {@code entityToAdd} is not null and has valid data.
@@ -71,26 +79,6 @@ public abstract class EntitiesDb {
         Object entity = entityToAdd.toEntity();
         getPm().makePersistent(entity);
         getPm().flush();
-
-        // Wait for the operation to persist
-        int elapsedTime = 0;
-        Object createdEntity = getEntity(entityToAdd);
-        if (Config.PERSISTENCE_CHECK_DURATION > 0) {
-            while (createdEntity == null
-                   && elapsedTime < Config.PERSISTENCE_CHECK_DURATION) {
-                ThreadHelper.waitBriefly();
-                createdEntity = getEntity(entityToAdd);
-                //check before incrementing to avoid boundary case problem
-                if (createdEntity == null) {
-                    elapsedTime += ThreadHelper.WAIT_DURATION;
-                }
-            }
-            if (elapsedTime >= Config.PERSISTENCE_CHECK_DURATION) {
-                log.info("Operation did not persist in time: create"
-                        + entityToAdd.getEntityTypeAsString() + "->"
-                        + entityToAdd.getIdentificationString());
-            }
-        }
         
         log.info(entityToAdd.getBackupIdentifier());
         
@@ -180,26 +168,7 @@ public abstract class EntitiesDb {
         Object entity = entityToAdd.toEntity();
         getPm().makePersistent(entity);
         getPm().flush();
-
-        // Wait for the operation to persist
-        if (Config.PERSISTENCE_CHECK_DURATION > 0) {
-            int elapsedTime = 0;
-            Object entityCheck = getEntity(entityToAdd);
-            while (entityCheck == null
-                   && elapsedTime < Config.PERSISTENCE_CHECK_DURATION) {
-                ThreadHelper.waitBriefly();
-                entityCheck = getEntity(entityToAdd);
-                //check before incrementing to avoid boundary case problem
-                if (entityCheck == null) {
-                    elapsedTime += ThreadHelper.WAIT_DURATION;
-                }
-            }
-            if (elapsedTime >= Config.PERSISTENCE_CHECK_DURATION) {
-                log.info("Operation did not persist in time: create"
-                         + entityToAdd.getEntityTypeAsString() + "->"
-                         + entityToAdd.getIdentificationString());
-            }
-        }
+        
         log.info(entityToAdd.getBackupIdentifier());
         
         return entity;
@@ -224,25 +193,6 @@ public abstract class EntitiesDb {
         getPm().deletePersistent(entity);
         getPm().flush();
         
-        // wait for the operation to persist
-        if (Config.PERSISTENCE_CHECK_DURATION > 0) {
-            int elapsedTime = 0;
-            Object entityCheck = getEntity(entityToDelete);
-            while (entityCheck != null
-                    && elapsedTime < Config.PERSISTENCE_CHECK_DURATION) {
-                ThreadHelper.waitBriefly();
-                entityCheck = getEntity(entityToDelete);
-                //check before incrementing to avoid boundary case problem
-                if (entityCheck == null) {
-                    elapsedTime += ThreadHelper.WAIT_DURATION;
-                }
-            }
-            if (elapsedTime >= Config.PERSISTENCE_CHECK_DURATION) {
-                log.info("Operation did not persist in time: delete"
-                        + entityToDelete.getEntityTypeAsString() + "->"
-                        + entityToDelete.getIdentificationString());
-            }
-        }
         log.info(entityToDelete.getBackupIdentifier());
     }
     
@@ -301,6 +251,13 @@ public abstract class EntitiesDb {
         return Datastore.getPersistenceManager();
     }
     
+    /**
+     * @return the key under which the entity matching {@code attributes} is kept in the {@link EntityCache}
+     */
+    protected String getCacheKey(EntityAttributes attributes) {
+        return EntityCache.getKey(attributes.getEntityTypeAsString(), attributes.getIdentificationString());
+    }
+    
     //the followings APIs are used by Teammates' search engine
     protected void putDocument(String indexName, SearchDocument document) {
         try {
@@ -310,6 +267,38 @@ public abstract class EntitiesDb {
         }
     }
     
+    /**
+     * Builds the documents with one shared {@link SearchDocumentContext}, so that the course data
+     * they need is read once, and puts them with as few calls to the search service as possible.
+     */
+    protected void putDocuments(String indexName, List<? extends SearchDocument> documents) {
+        SearchDocumentContext context = new SearchDocumentContext();
+        List<Document> builtDocuments = new ArrayList<Document>();
+        for (SearchDocument document : documents) {
+            try {
+                builtDocuments.add(document.build(context));
+            } catch (Exception e) {
+                log.info("Failed to build searchable document in " + indexName + " for " + document.toString());
+            }
+        }
+        
+        try {
+            SearchManager.putDocuments(indexName, builtDocuments);
+        } catch (Exception e) {
+            log.info("Failed to put " + builtDocuments.size() + " searchable documents in " + indexName);
+        }
+    }
+    
+    /**
+     * Schedules the document with the given ID to be put at the end of the request, together with
+     * the other documents scheduled in the request (see {@link PendingSearchDocuments}).
+     * Only the requests to the app are ended by putting their documents; code writing entities
+     * outside of them (e.g. scripts using the remote API) has to call {@link PendingSearchDocuments#putNow()}.
+     */
+    protected void schedulePutDocument(String indexName, String documentId) {
+        PendingSearchDocuments.add(indexName, documentId);
+    }
+    
     protected void getDocument(String indexName, String documentId) {
         SearchManager.getDocument(indexName, documentId);
     }
@@ -2,7 +2,10 @@ package teammates.storage.api;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.jdo.JDOHelper;
 import javax.jdo.Query;
@@ -16,6 +19,12 @@ import teammates.common.util.Assumption;
 import teammates.common.util.Const;
 import teammates.storage.entity.FeedbackQuestion;
 
+import com.google.appengine.api.datastore.DatastoreService;
+import com.google.appengine.api.datastore.DatastoreServiceFactory;
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.Key;
+import com.google.appengine.api.datastore.KeyFactory;
+
 public class FeedbackQuestionsDb extends EntitiesDb {
     public static final String ERROR_UPDATE_NON_EXISTENT = "Trying to update non-existent Feedback Question : ";
     
@@ -209,7 +218,47 @@ public class FeedbackQuestionsDb extends EntitiesDb {
         log.info(newAttributes.getBackupIdentifier());
         getPm().close();
     }
-    
+
+    /**
+     * Changes the question numbers of the given feedback questions, leaving their other
+     * attributes untouched. All the questions are read in one batch and written in another,
+     * instead of going through a read-modify-write cycle per question.
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @param questionNumbers the new question number of each question, keyed by question ID
+     * @throws EntityDoesNotExistException if any of the questions does not exist, in which case
+     *         none of the question numbers are changed
+     */
+    public void updateFeedbackQuestionNumbers(Map<String, Integer> questionNumbers)
+            throws EntityDoesNotExistException {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, questionNumbers);
+
+        if (questionNumbers.isEmpty()) {
+            return;
+        }
+
+        Map<Key, Integer> numbersByKey = new HashMap<Key, Integer>();
+        for (Map.Entry<String, Integer> questionNumber : questionNumbers.entrySet()) {
+            numbersByKey.put(KeyFactory.stringToKey(questionNumber.getKey()), questionNumber.getValue());
+        }
+
+        DatastoreService datastore = DatastoreServiceFactory.getDatastoreService();
+        Map<Key, Entity> questions = datastore.get(numbersByKey.keySet());
+        if (questions.size() != numbersByKey.size()) {
+            throw new EntityDoesNotExistException(ERROR_UPDATE_NON_EXISTENT + questionNumbers.keySet());
+        }
+
+        Date updatedAt = new Date();
+        for (Entity question : questions.values()) {
+            question.setProperty("questionNumber", numbersByKey.get(question.getKey()));
+            question.setProperty("updatedAt", updatedAt);
+        }
+        datastore.put(questions.values());
+
+        // questions read earlier in this request would otherwise still show their old numbers
+        getPm().close();
+    }
+
     public void deleteFeedbackQuestionsForCourse(String courseId) {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
         
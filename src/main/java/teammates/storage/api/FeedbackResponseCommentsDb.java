@@ -411,6 +411,24 @@ public class FeedbackResponseCommentsDb extends EntitiesDb {
         putDocument(Const.SearchIndex.FEEDBACK_RESPONSE_COMMENT, new FeedbackResponseCommentSearchDocument(comment));
     }
     
+    /**
+     * Puts the documents of the comments with as few calls to the search service as possible.
+     */
+    public void putDocuments(List<FeedbackResponseCommentAttributes> comments) {
+        List<FeedbackResponseCommentSearchDocument> documents = new ArrayList<FeedbackResponseCommentSearchDocument>();
+        for (FeedbackResponseCommentAttributes comment : comments) {
+            documents.add(new FeedbackResponseCommentSearchDocument(comment));
+        }
+        putDocuments(Const.SearchIndex.FEEDBACK_RESPONSE_COMMENT, documents);
+    }
+    
+    /**
+     * Schedules the document of the comment to be put at the end of the request.
+     */
+    public void schedulePutDocument(FeedbackResponseCommentAttributes comment) {
+        schedulePutDocument(Const.SearchIndex.FEEDBACK_RESPONSE_COMMENT, comment.getId().toString());
+    }
+    
     /**
      * Search for response comments
      * @return {@link FeedbackResponseCommentSearchResultBundle}
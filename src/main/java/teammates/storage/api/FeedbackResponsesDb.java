@@ -1,24 +1,115 @@
 package teammates.storage.api;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 import javax.jdo.JDOHelper;
+import javax.jdo.JDOObjectNotFoundException;
 import javax.jdo.Query;
 
 import teammates.common.datatransfer.EntityAttributes;
 import teammates.common.datatransfer.FeedbackResponseAttributes;
+import teammates.common.datatransfer.FeedbackResponsePage;
+import teammates.common.exception.EntityAlreadyExistsException;
 import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.InvalidParametersException;
 import teammates.common.util.Assumption;
+import teammates.common.util.Config;
 import teammates.common.util.Const;
 import teammates.storage.entity.FeedbackResponse;
+import teammates.storage.entity.FeedbackResponsesSnapshot;
+
+import com.google.appengine.api.datastore.Cursor;
+import com.google.appengine.api.datastore.DatastoreService;
+import com.google.appengine.api.datastore.DatastoreServiceFactory;
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.EntityNotFoundException;
+import com.google.appengine.api.datastore.Key;
+import com.google.appengine.api.datastore.KeyFactory;
+import com.google.appengine.api.datastore.Query.FilterOperator;
+import com.google.appengine.api.datastore.Query.FilterPredicate;
+import com.google.appengine.api.datastore.Text;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import org.datanucleus.store.appengine.query.JDOCursorHelper;
 
 public class FeedbackResponsesDb extends EntitiesDb {
 
+    /**
+     * Maximum number of bytes of serialized responses (in UTF-8) stored in one snapshot chunk.
+     * Kept well below the 1MB limit of a single Datastore entity.
+     */
+    private static final int SNAPSHOT_CHUNK_SIZE_LIMIT = 800000;
+    
+    /**
+     * Kind of the entities recording the version of the responses of a session in a section,
+     * see {@link #getFeedbackResponsesSnapshotVersion}. They are only written with blind puts,
+     * so that writing a response does not need to read them first.
+     */
+    private static final String SNAPSHOT_VERSION_KIND = "FeedbackResponsesSnapshotVersion";
+    private static final String SNAPSHOT_VERSION_COURSE_ID = "courseId";
+    private static final String SNAPSHOT_VERSION_VALUE = "version";
+    private static final String SNAPSHOT_VERSION_WRITTEN_AT = "writtenAt";
+    
+    @Override
+    public Object createEntity(EntityAttributes entityToAdd)
+            throws InvalidParametersException, EntityAlreadyExistsException {
+        Object entity = super.createEntity(entityToAdd);
+        invalidateFeedbackResponsesSnapshots((FeedbackResponseAttributes) entityToAdd);
+        return entity;
+    }
+    
+    @Override
+    public Object createEntityWithoutExistenceCheck(EntityAttributes entityToAdd)
+            throws InvalidParametersException {
+        Object entity = super.createEntityWithoutExistenceCheck(entityToAdd);
+        invalidateFeedbackResponsesSnapshots((FeedbackResponseAttributes) entityToAdd);
+        return entity;
+    }
+    
+    @Override
+    public List<EntityAttributes> createEntities(Collection<? extends EntityAttributes> entitiesToAdd)
+            throws InvalidParametersException {
+        List<EntityAttributes> entitiesToUpdate = super.createEntities(entitiesToAdd);
+        for (EntityAttributes entity : entitiesToAdd) {
+            invalidateFeedbackResponsesSnapshots((FeedbackResponseAttributes) entity);
+        }
+        return entitiesToUpdate;
+    }
+    
+    @Override
+    public void deleteEntity(EntityAttributes entityToDelete) {
+        FeedbackResponseAttributes response = (FeedbackResponseAttributes) entityToDelete;
+        if (response.courseId != null && response.feedbackSessionName != null
+                && response.giverSection != null && response.recipientSection != null) {
+            invalidateFeedbackResponsesSnapshots(response);
+        } else {
+            FeedbackResponse fr = (FeedbackResponse) getEntity(entityToDelete);
+            if (fr != null) {
+                invalidateFeedbackResponsesSnapshots(fr.getCourseId(), fr.getFeedbackSessionName(),
+                                                     fr.getGiverSection(), fr.getRecipientSection());
+            }
+        }
+        super.deleteEntity(entityToDelete);
+    }
+    
+    @Override
+    public void deleteEntities(Collection<? extends EntityAttributes> entitiesToDelete) {
+        for (EntityAttributes entity : entitiesToDelete) {
+            invalidateFeedbackResponsesSnapshots((FeedbackResponseAttributes) entity);
+        }
+        super.deleteEntities(entitiesToDelete);
+    }
+
     public void createFeedbackResponses(Collection<FeedbackResponseAttributes> responsesToAdd) throws InvalidParametersException {
         List<EntityAttributes> responsesToUpdate = createEntities(responsesToAdd);
         for (EntityAttributes entity : responsesToUpdate) {
@@ -139,6 +230,31 @@ public class FeedbackResponsesDb extends EntitiesDb {
         return fraList;
     }
 
+    /**
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return The responses to the question whose giver or recipient is in the section.
+     *         An empty list if no such responses are found.
+     */
+    public List<FeedbackResponseAttributes> getFeedbackResponsesForQuestionFromOrToSection(
+            String feedbackQuestionId, String section) {
+        
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackQuestionId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, section);
+
+        Collection<FeedbackResponse> frList =
+                getFeedbackResponseEntitiesForQuestionFromOrToSection(feedbackQuestionId, section);
+        List<FeedbackResponseAttributes> fraList = new ArrayList<FeedbackResponseAttributes>();
+        
+        for (FeedbackResponse fr : frList) {
+            if (!JDOHelper.isDeleted(fr)) {
+                fraList.add(new FeedbackResponseAttributes(fr));
+            }
+        }
+        
+        return fraList;
+    }
+
     /**
      * Preconditions: <br>
      * * All parameters are non-null.
@@ -212,6 +328,43 @@ public class FeedbackResponsesDb extends EntitiesDb {
         return fraList;
     }
     
+    /**
+     * Gets the responses in the session that are given by or to any of the users,
+     * without reading the other responses in the session. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the responses sorted by id. An empty list if no such responses are found.
+     */
+    public List<FeedbackResponseAttributes> getFeedbackResponsesForSessionFromOrToUsers(
+            String feedbackSessionName, String courseId, Collection<String> userEmails) {
+        
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, userEmails);
+        
+        // a response given by one of the users to another is found by both queries, so they are keyed by id
+        Map<String, FeedbackResponseAttributes> responsesById = new TreeMap<String, FeedbackResponseAttributes>();
+        List<String> emails = new ArrayList<String>(userEmails);
+        for (int from = 0; from < emails.size(); from += MAX_VALUES_PER_CONTAINS_FILTER) {
+            List<String> emailsInQuery =
+                    new ArrayList<String>(emails.subList(from, Math.min(from + MAX_VALUES_PER_CONTAINS_FILTER, emails.size())));
+            
+            List<FeedbackResponse> frList = new ArrayList<FeedbackResponse>();
+            frList.addAll(getFeedbackResponseEntitiesForSessionFromOrToUsers(
+                    feedbackSessionName, courseId, "giverEmail", emailsInQuery));
+            frList.addAll(getFeedbackResponseEntitiesForSessionFromOrToUsers(
+                    feedbackSessionName, courseId, "receiver", emailsInQuery));
+            
+            for (FeedbackResponse fr : frList) {
+                if (!JDOHelper.isDeleted(fr)) {
+                    responsesById.put(fr.getId(), new FeedbackResponseAttributes(fr));
+                }
+            }
+        }
+        
+        return new ArrayList<FeedbackResponseAttributes>(responsesById.values());
+    }
+    
     /**
      * Preconditions: <br>
      * * All parameters are non-null.
@@ -386,6 +539,99 @@ public class FeedbackResponsesDb extends EntitiesDb {
         return fraList;
     }
     
+    /**
+     * Gets a page of at most {@code pageSize} responses of the session, starting after {@code cursor}.
+     * Preconditions: <br>
+     * * All parameters except {@code cursor} are non-null.
+     * @param cursor the {@link FeedbackResponsePage#nextCursor} of the previous page, or null for the first page
+     */
+    public FeedbackResponsePage getFeedbackResponsesForSessionPage(
+            String feedbackSessionName, String courseId, String cursor, int pageSize) {
+
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+
+        Query q = getPm().newQuery(FeedbackResponse.class);
+        q.declareParameters("String feedbackSessionNameParam, String courseIdParam");
+        q.setFilter("feedbackSessionName == feedbackSessionNameParam && courseId == courseIdParam");
+
+        return getFeedbackResponsePage(q, cursor, pageSize, feedbackSessionName, courseId);
+    }
+
+    /**
+     * Gets a page of at most {@code pageSize} responses given from or to {@code section},
+     * starting after {@code cursor}. Unless {@link Config#FEEDBACK_RESPONSES_INVOLVED_SECTIONS_ENABLED},
+     * all the responses are returned as a single page.
+     * Preconditions: <br>
+     * * All parameters except {@code cursor} are non-null.
+     * @param cursor the {@link FeedbackResponsePage#nextCursor} of the previous page, or null for the first page
+     */
+    public FeedbackResponsePage getFeedbackResponsesForSessionInSectionPage(
+            String feedbackSessionName, String courseId, String section, String cursor, int pageSize) {
+
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, section);
+
+        Query q = getPm().newQuery(FeedbackResponse.class);
+        q.declareParameters("String feedbackSessionNameParam, String courseIdParam, String sectionParam");
+        String filter = "feedbackSessionName == feedbackSessionNameParam && courseId == courseIdParam";
+        if (!Config.FEEDBACK_RESPONSES_INVOLVED_SECTIONS_ENABLED) {
+            // the responses given from and to the section cannot be paged together, so they form a single page
+            List<FeedbackResponseAttributes> fraList = new ArrayList<FeedbackResponseAttributes>();
+            for (FeedbackResponse fr : getFeedbackResponseEntitiesInvolvingSection(q, filter, feedbackSessionName,
+                                                                                   courseId, section)) {
+                fraList.add(new FeedbackResponseAttributes(fr));
+            }
+            return new FeedbackResponsePage(fraList, null);
+        }
+        q.setFilter(filter + " && involvedSections == sectionParam");
+
+        return getFeedbackResponsePage(q, cursor, pageSize, feedbackSessionName, courseId, section);
+    }
+
+    /**
+     * Gets a page of at most {@code pageSize} responses given from {@code section},
+     * starting after {@code cursor}.
+     * Preconditions: <br>
+     * * All parameters except {@code cursor} are non-null.
+     * @param cursor the {@link FeedbackResponsePage#nextCursor} of the previous page, or null for the first page
+     */
+    public FeedbackResponsePage getFeedbackResponsesForSessionFromSectionPage(
+            String feedbackSessionName, String courseId, String section, String cursor, int pageSize) {
+
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, section);
+
+        Query q = getPm().newQuery(FeedbackResponse.class);
+        q.declareParameters("String feedbackSessionNameParam, String courseIdParam, String sectionParam");
+        q.setFilter("feedbackSessionName == feedbackSessionNameParam && courseId == courseIdParam && giverSection == sectionParam");
+
+        return getFeedbackResponsePage(q, cursor, pageSize, feedbackSessionName, courseId, section);
+    }
+
+    /**
+     * Gets a page of at most {@code pageSize} responses given to {@code section},
+     * starting after {@code cursor}.
+     * Preconditions: <br>
+     * * All parameters except {@code cursor} are non-null.
+     * @param cursor the {@link FeedbackResponsePage#nextCursor} of the previous page, or null for the first page
+     */
+    public FeedbackResponsePage getFeedbackResponsesForSessionToSectionPage(
+            String feedbackSessionName, String courseId, String section, String cursor, int pageSize) {
+
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, section);
+
+        Query q = getPm().newQuery(FeedbackResponse.class);
+        q.declareParameters("String feedbackSessionNameParam, String courseIdParam, String sectionParam");
+        q.setFilter("feedbackSessionName == feedbackSessionNameParam && courseId == courseIdParam && receiverSection == sectionParam");
+
+        return getFeedbackResponsePage(q, cursor, pageSize, feedbackSessionName, courseId, section);
+    }
+
     /**
      * Preconditions: <br>
      * * All parameters are non-null.
@@ -632,6 +878,10 @@ public class FeedbackResponsesDb extends EntitiesDb {
                     ERROR_UPDATE_NON_EXISTENT + newAttributes.toString());
         }
         
+        invalidateFeedbackResponsesSnapshots(fr.getCourseId(), fr.getFeedbackSessionName(),
+                                             fr.getGiverSection(), fr.getRecipientSection(),
+                                             newAttributes.giverSection, newAttributes.recipientSection);
+        
         fr.keepUpdateTimestamp = keepUpdateTimestamp;
         fr.setAnswer(newAttributes.responseMetaData);
         fr.setRecipientEmail(newAttributes.recipientEmail);
@@ -663,6 +913,216 @@ public class FeedbackResponsesDb extends EntitiesDb {
         
         getPm().deletePersistentAll(feedbackResponses);
         getPm().flush();
+        
+        Query q = getPm().newQuery(FeedbackResponsesSnapshot.class);
+        q.setFilter(":p.contains(courseId)");
+        @SuppressWarnings("unchecked")
+        List<FeedbackResponsesSnapshot> snapshots = (List<FeedbackResponsesSnapshot>) q.execute(courseIds);
+        getPm().deletePersistentAll(snapshots);
+        getPm().flush();
+        
+        if (!courseIds.isEmpty()) {
+            com.google.appengine.api.datastore.Query versionQuery =
+                    new com.google.appengine.api.datastore.Query(SNAPSHOT_VERSION_KIND)
+                            .setFilter(new FilterPredicate(SNAPSHOT_VERSION_COURSE_ID, FilterOperator.IN, courseIds))
+                            .setKeysOnly();
+            List<Key> versionKeys = new ArrayList<Key>();
+            DatastoreService datastore = DatastoreServiceFactory.getDatastoreService();
+            for (Entity version : datastore.prepare(versionQuery).asIterable()) {
+                versionKeys.add(version.getKey());
+            }
+            datastore.delete(versionKeys);
+        }
+    }
+    
+    /**
+     * Gets the precomputed copy of all responses of the session that involve the given section
+     * (as giver or recipient section), or of all responses in the session if {@code section} is null.
+     * The snapshot is written by {@link #putFeedbackResponsesSnapshotForSessionInSection} and is
+     * invalidated whenever a response in the session involving that section is written, as the
+     * version of the responses it was built from is then no longer the current one.
+     * Preconditions: <br>
+     * * {@code feedbackSessionName} and {@code courseId} are non-null.
+     * @return Null if there is no up-to-date snapshot.
+     */
+    public List<FeedbackResponseAttributes> getFeedbackResponsesSnapshotForSessionInSection(
+            String feedbackSessionName, String courseId, String section) {
+        
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        
+        String snapshotSection = section == null ? FeedbackResponsesSnapshot.ALL_SECTIONS : section;
+        
+        FeedbackResponsesSnapshot firstChunk =
+                getFeedbackResponsesSnapshotChunk(courseId, feedbackSessionName, snapshotSection, 0);
+        if (firstChunk == null || firstChunk.getFormatVersion() != FeedbackResponsesSnapshot.CURRENT_FORMAT_VERSION
+                || firstChunk.getResponsesVersion()
+                   != getFeedbackResponsesSnapshotVersion(feedbackSessionName, courseId, section)) {
+            return null;
+        }
+        
+        List<FeedbackResponseAttributes> responses = new ArrayList<FeedbackResponseAttributes>();
+        responses.addAll(parseFeedbackResponsesSnapshotChunk(firstChunk));
+        for (int i = 1; i < firstChunk.getChunkCount(); i++) {
+            FeedbackResponsesSnapshot chunk =
+                    getFeedbackResponsesSnapshotChunk(courseId, feedbackSessionName, snapshotSection, i);
+            if (chunk == null || !chunk.getCreatedAt().equals(firstChunk.getCreatedAt())) {
+                // chunk belongs to a different (older or newer) build of the snapshot
+                return null;
+            }
+            responses.addAll(parseFeedbackResponsesSnapshotChunk(chunk));
+        }
+        return responses;
+    }
+    
+    /**
+     * Gets the version of the responses of the session that involve the given section, or of all
+     * responses in the session if {@code section} is null. The version is an id allocated by the
+     * datastore when such a response was last written, so that it is unique across instances,
+     * or 0 if none has been written since the app started recording versions.
+     */
+    public long getFeedbackResponsesSnapshotVersion(String feedbackSessionName, String courseId, String section) {
+        Entity version = getFeedbackResponsesSnapshotVersionEntity(feedbackSessionName, courseId, section);
+        return version == null ? 0 : (Long) version.getProperty(SNAPSHOT_VERSION_VALUE);
+    }
+    
+    /**
+     * Gets the time (in milliseconds) at which the current version of the responses of the session
+     * that involve the given section (see {@link #getFeedbackResponsesSnapshotVersion}) was recorded,
+     * or 0 if there is none. To tell how recent a version read before is, read the time after it,
+     * as the time can then only be that of the version or of a later one.
+     */
+    public long getFeedbackResponsesSnapshotVersionTime(String feedbackSessionName, String courseId, String section) {
+        Entity version = getFeedbackResponsesSnapshotVersionEntity(feedbackSessionName, courseId, section);
+        Object writtenAt = version == null ? null : version.getProperty(SNAPSHOT_VERSION_WRITTEN_AT);
+        // versions recorded before the time was stored were the time themselves
+        return writtenAt == null ? getFeedbackResponsesSnapshotVersion(feedbackSessionName, courseId, section)
+                                 : (Long) writtenAt;
+    }
+    
+    private Entity getFeedbackResponsesSnapshotVersionEntity(String feedbackSessionName, String courseId,
+                                                             String section) {
+        String snapshotSection = section == null ? FeedbackResponsesSnapshot.ALL_SECTIONS : section;
+        try {
+            return DatastoreServiceFactory.getDatastoreService().get(
+                    getFeedbackResponsesSnapshotVersionKey(courseId, feedbackSessionName, snapshotSection));
+        } catch (EntityNotFoundException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Stores {@code responses} as the snapshot of the responses of the session that involve
+     * the given section, or of the whole session if {@code section} is null.
+     * {@code responses} must be the complete, unfiltered list of such responses, queried after
+     * {@code responsesVersion} was read with {@link #getFeedbackResponsesSnapshotVersion}.
+     * If a response has been written since, the snapshot is stored but never read.
+     */
+    public void putFeedbackResponsesSnapshotForSessionInSection(
+            String feedbackSessionName, String courseId, String section,
+            List<FeedbackResponseAttributes> responses, long responsesVersion) {
+        
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, responses);
+        
+        String snapshotSection = section == null ? FeedbackResponsesSnapshot.ALL_SECTIONS : section;
+        
+        Gson gson = new Gson();
+        List<String> serializedChunks = new ArrayList<String>();
+        StringBuilder currentChunk = new StringBuilder("[");
+        // the brackets and commas are single bytes, and are counted as one byte per response
+        int currentChunkSize = 2;
+        for (FeedbackResponseAttributes response : responses) {
+            String serializedResponse = gson.toJson(response);
+            int serializedResponseSize = serializedResponse.getBytes(StandardCharsets.UTF_8).length + 1;
+            if (currentChunk.length() > 1 && currentChunkSize + serializedResponseSize > SNAPSHOT_CHUNK_SIZE_LIMIT) {
+                serializedChunks.add(currentChunk.append(']').toString());
+                currentChunk = new StringBuilder("[");
+                currentChunkSize = 2;
+            }
+            if (currentChunk.length() > 1) {
+                currentChunk.append(',');
+            }
+            currentChunk.append(serializedResponse);
+            currentChunkSize += serializedResponseSize;
+        }
+        serializedChunks.add(currentChunk.append(']').toString());
+        
+        List<FeedbackResponsesSnapshot> chunks = new ArrayList<FeedbackResponsesSnapshot>();
+        for (int i = 0; i < serializedChunks.size(); i++) {
+            chunks.add(new FeedbackResponsesSnapshot(courseId, feedbackSessionName, snapshotSection,
+                                                     i, serializedChunks.size(), responsesVersion,
+                                                     new Text(serializedChunks.get(i))));
+        }
+        // all chunks of one build share a timestamp, so that mixed builds can be detected on read
+        for (FeedbackResponsesSnapshot chunk : chunks) {
+            chunk.setCreatedAt(chunks.get(0).getCreatedAt());
+        }
+        
+        getPm().makePersistentAll(chunks);
+        getPm().flush();
+    }
+    
+    /**
+     * Invalidates the snapshots of the session that may contain the given response.
+     */
+    public void invalidateFeedbackResponsesSnapshots(FeedbackResponseAttributes response) {
+        invalidateFeedbackResponsesSnapshots(response.courseId, response.feedbackSessionName,
+                                             response.giverSection, response.recipientSection);
+    }
+    
+    /**
+     * Invalidates the snapshot of the whole session and of each of the given sections, by recording
+     * a new version of their responses. A snapshot being built from the responses read before
+     * is then never read, even if it is stored after this.
+     */
+    public void invalidateFeedbackResponsesSnapshots(String courseId, String feedbackSessionName,
+                                                     String... sections) {
+        Set<String> sectionsToInvalidate = new HashSet<String>();
+        sectionsToInvalidate.add(FeedbackResponsesSnapshot.ALL_SECTIONS);
+        for (String section : sections) {
+            sectionsToInvalidate.add(section == null ? Const.DEFAULT_SECTION : section);
+        }
+        
+        DatastoreService datastore = DatastoreServiceFactory.getDatastoreService();
+        long newVersion = datastore.allocateIds(SNAPSHOT_VERSION_KIND, 1).getStart().getId();
+        long writtenAt = System.currentTimeMillis();
+        List<Entity> versions = new ArrayList<Entity>();
+        for (String section : sectionsToInvalidate) {
+            Entity version = new Entity(getFeedbackResponsesSnapshotVersionKey(courseId, feedbackSessionName, section));
+            version.setProperty(SNAPSHOT_VERSION_COURSE_ID, courseId);
+            version.setUnindexedProperty(SNAPSHOT_VERSION_VALUE, newVersion);
+            version.setUnindexedProperty(SNAPSHOT_VERSION_WRITTEN_AT, writtenAt);
+            versions.add(version);
+        }
+        // putting by key needs no prior read and is done in a single batch call
+        datastore.put(versions);
+    }
+    
+    private static Key getFeedbackResponsesSnapshotVersionKey(String courseId, String feedbackSessionName,
+                                                              String section) {
+        return KeyFactory.createKey(SNAPSHOT_VERSION_KIND,
+                                    FeedbackResponsesSnapshot.generateId(courseId, feedbackSessionName, section, 0));
+    }
+    
+    private FeedbackResponsesSnapshot getFeedbackResponsesSnapshotChunk(
+            String courseId, String feedbackSessionName, String section, int chunkIndex) {
+        try {
+            FeedbackResponsesSnapshot chunk = getPm().getObjectById(FeedbackResponsesSnapshot.class,
+                    FeedbackResponsesSnapshot.generateId(courseId, feedbackSessionName, section, chunkIndex));
+            if (JDOHelper.isDeleted(chunk)) {
+                return null;
+            }
+            return chunk;
+        } catch (JDOObjectNotFoundException je) {
+            return null;
+        }
+    }
+    
+    private List<FeedbackResponseAttributes> parseFeedbackResponsesSnapshotChunk(FeedbackResponsesSnapshot chunk) {
+        return new Gson().fromJson(chunk.getResponses().getValue(),
+                                   new TypeToken<List<FeedbackResponseAttributes>>(){}.getType());
     }
     
     @SuppressWarnings("unchecked")
@@ -736,28 +1196,31 @@ public class FeedbackResponsesDb extends EntitiesDb {
         
         List<FeedbackResponse> feedbackResponses = new ArrayList<FeedbackResponse>();
        
-        Query q = getPm().newQuery(FeedbackResponse.class);
-        q.declareParameters("String feedbackQuestionIdParam, String giverSectionParam, String receiverSectionParam");
-        q.setFilter("feedbackQuestionId == feedbackQuestionIdParam && giverSection == giverSectionParam && receiverSection == receiverSectionParam");
-        
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponse> firstQueryResponses =
-                (List<FeedbackResponse>) q.execute(feedbackQuestionId, section, section);
-        feedbackResponses.addAll(firstQueryResponses);
-         
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponse> secondQueryResponses =
-                (List<FeedbackResponse>) q.execute(feedbackQuestionId, section, "None");
-        feedbackResponses.addAll(secondQueryResponses);
-
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponse> thirdQueryResponses =
-                (List<FeedbackResponse>) q.execute(feedbackQuestionId, "None", section);
-        feedbackResponses.addAll(thirdQueryResponses);
+        // responses between the section and the default section are included as well
+        for (FeedbackResponse response : getFeedbackResponseEntitiesForQuestionFromOrToSection(feedbackQuestionId, section)) {
+            if (isInSectionOrDefaultSection(response.getGiverSection(), section)
+                    && isInSectionOrDefaultSection(response.getRecipientSection(), section)) {
+                feedbackResponses.add(response);
+            }
+        }
        
         return feedbackResponses;
     }
 
+    private boolean isInSectionOrDefaultSection(String responseSection, String section) {
+        return section.equals(responseSection) || Const.DEFAULT_SECTION.equals(responseSection);
+    }
+
+    private List<FeedbackResponse> getFeedbackResponseEntitiesForQuestionFromOrToSection(
+                String feedbackQuestionId, String section) {
+        
+        Query q = getPm().newQuery(FeedbackResponse.class);
+        q.declareParameters("String feedbackQuestionIdParam, String sectionParam");
+        
+        return getFeedbackResponseEntitiesInvolvingSection(q, "feedbackQuestionId == feedbackQuestionIdParam",
+                                                           feedbackQuestionId, section);
+    }
+
     private List<FeedbackResponse> getFeedbackResponseEntitiesForQuestion(
                 String feedbackQuestionId) {
     
@@ -799,6 +1262,24 @@ public class FeedbackResponsesDb extends EntitiesDb {
         return feedbackResponses;
     }
     
+    /**
+     * @param emailField the field of the entity to match against the emails, i.e. giverEmail or receiver
+     */
+    private List<FeedbackResponse> getFeedbackResponseEntitiesForSessionFromOrToUsers(
+            String feedbackSessionName, String courseId, String emailField, List<String> emails) {
+        
+        Query q = getPm().newQuery(FeedbackResponse.class);
+        q.declareParameters("String feedbackSessionNameParam, String courseIdParam, java.util.List emailsParam");
+        q.setFilter("feedbackSessionName == feedbackSessionNameParam && courseId == courseIdParam"
+                    + " && emailsParam.contains(" + emailField + ")");
+        
+        @SuppressWarnings("unchecked")
+        List<FeedbackResponse> feedbackResponses =
+                (List<FeedbackResponse>) q.execute(feedbackSessionName, courseId, emails);
+        
+        return feedbackResponses;
+    }
+    
     private List<FeedbackResponse> getFeedbackResponseEntitiesForSessionWithinRange(
             String feedbackSessionName, String courseId, long range) {
         
@@ -814,35 +1295,15 @@ public class FeedbackResponsesDb extends EntitiesDb {
         return feedbackResponses;
     }
  
-    private Collection<FeedbackResponse> getFeedbackResponseEntitiesForSessionInSection(
+    private List<FeedbackResponse> getFeedbackResponseEntitiesForSessionInSection(
             String feedbackSessionName, String courseId, String section) {
 
-        Map<String, FeedbackResponse> feedbackResponses = new HashMap<String, FeedbackResponse>();
-
         Query q = getPm().newQuery(FeedbackResponse.class);
         q.declareParameters("String feedbackSessionNameParam, String courseIdParam, String sectionParam");
-        q.setFilter("feedbackSessionName == feedbackSessionNameParam && courseId == courseIdParam && giverSection == sectionParam");
         
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponse> firstQueryResponses =
-                (List<FeedbackResponse>) q.execute(feedbackSessionName, courseId, section);
-        for (FeedbackResponse response : firstQueryResponses) {
-            if (!JDOHelper.isDeleted(response)) {
-                feedbackResponses.put(response.getId(), response);
-            }
-        }
-        
-        q.setFilter("feedbackSessionName == feedbackSessionNameParam && courseId == courseIdParam && receiverSection == sectionParam");
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponse> secondQueryResponses =
-                (List<FeedbackResponse>) q.execute(feedbackSessionName, courseId, section);
-        for (FeedbackResponse response : secondQueryResponses) {
-            if (!JDOHelper.isDeleted(response)) {
-                feedbackResponses.put(response.getId(), response);
-            }
-        }
-        
-        return feedbackResponses.values();
+        return getFeedbackResponseEntitiesInvolvingSection(
+                q, "feedbackSessionName == feedbackSessionNameParam && courseId == courseIdParam",
+                feedbackSessionName, courseId, section);
     }
 
     private List<FeedbackResponse> getFeedbackResponseEntitiesForSessionFromSection(
@@ -873,37 +1334,16 @@ public class FeedbackResponsesDb extends EntitiesDb {
         return queryResponses;
     }
     
-    private Collection<FeedbackResponse> getFeedbackResponseEntitiesForSessionInSectionWithinRange(
+    private List<FeedbackResponse> getFeedbackResponseEntitiesForSessionInSectionWithinRange(
             String feedbackSessionName, String courseId, String section, long range) {
 
-        Map<String, FeedbackResponse> feedbackResponses = new HashMap<String, FeedbackResponse>();
-
         Query q = getPm().newQuery(FeedbackResponse.class);
         q.declareParameters("String feedbackSessionNameParam, String courseIdParam, String sectionParam");
-        q.setFilter("feedbackSessionName == feedbackSessionNameParam && courseId == courseIdParam && giverSection == sectionParam");
         q.setRange(0, range + 1);
-        
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponse> firstQueryResponses =
-                (List<FeedbackResponse>) q.execute(feedbackSessionName, courseId, section);
-        for (FeedbackResponse response : firstQueryResponses) {
-            if (!JDOHelper.isDeleted(response)) {
-                feedbackResponses.put(response.getId(), response);
-            }
-        }
-        
-        q.setFilter("feedbackSessionName == feedbackSessionNameParam && courseId == courseIdParam && receiverSection == sectionParam");
-        q.setRange(0, range + 1);
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponse> secondQueryResponses =
-                (List<FeedbackResponse>) q.execute(feedbackSessionName, courseId, section);
-        for (FeedbackResponse response : secondQueryResponses) {
-            if (!JDOHelper.isDeleted(response)) {
-                feedbackResponses.put(response.getId(), response);
-            }
-        }
-        
-        return feedbackResponses.values();
+
+        return getFeedbackResponseEntitiesInvolvingSection(
+                q, "feedbackSessionName == feedbackSessionNameParam && courseId == courseIdParam",
+                feedbackSessionName, courseId, section);
     }
 
     private List<FeedbackResponse> getFeedbackResponseEntitiesForSessionFromSectionWithinRange(
@@ -936,6 +1376,82 @@ public class FeedbackResponsesDb extends EntitiesDb {
         return queryResponses;
     }
     
+    /**
+     * Executes {@code q} for at most {@code pageSize} responses, resuming from {@code cursor} if it is not null.
+     * As the cursor comes from the request, one that is not valid for the query (e.g. edited by the user)
+     * is ignored and the first page is returned instead.
+     */
+    private FeedbackResponsePage getFeedbackResponsePage(Query q, String cursor, int pageSize, Object... parameters) {
+        Assumption.assertTrue(pageSize > 0);
+
+        q.setRange(0, pageSize);
+        List<FeedbackResponse> frList;
+        try {
+            if (cursor != null) {
+                Map<String, Object> extensions = new HashMap<String, Object>();
+                extensions.put(JDOCursorHelper.CURSOR_EXTENSION, Cursor.fromWebSafeString(cursor));
+                q.setExtensions(extensions);
+            }
+            frList = executeFeedbackResponsesQuery(q, parameters);
+        } catch (IllegalArgumentException e) {
+            if (cursor == null) {
+                throw e;
+            }
+            log.warning("Ignoring invalid feedback responses cursor " + cursor + " : " + e.getMessage());
+            q.setExtensions(new HashMap<String, Object>());
+            frList = executeFeedbackResponsesQuery(q, parameters);
+        }
+
+        List<FeedbackResponseAttributes> fraList = new ArrayList<FeedbackResponseAttributes>();
+        for (FeedbackResponse fr : frList) {
+            if (!JDOHelper.isDeleted(fr)) {
+                fraList.add(new FeedbackResponseAttributes(fr));
+            }
+        }
+
+        // a page that is not full is the last one
+        String nextCursor = frList.size() < pageSize ? null
+                                                      : JDOCursorHelper.getCursor(frList).toWebSafeString();
+        return new FeedbackResponsePage(fraList, nextCursor);
+    }
+
+    /**
+     * Executes {@code q} with {@code filter} for the responses given from or to the section, which is
+     * the last of {@code parameters} and is declared as sectionParam. The responses are queried by their
+     * involvedSections only if {@link Config#FEEDBACK_RESPONSES_INVOLVED_SECTIONS_ENABLED}, as responses
+     * written before the attribute was introduced do not have it until they are migrated.
+     */
+    private List<FeedbackResponse> getFeedbackResponseEntitiesInvolvingSection(Query q, String filter,
+                                                                             Object... parameters) {
+        if (Config.FEEDBACK_RESPONSES_INVOLVED_SECTIONS_ENABLED) {
+            q.setFilter(filter + " && involvedSections == sectionParam");
+            return executeFeedbackResponsesQuery(q, parameters);
+        }
+
+        Map<String, FeedbackResponse> feedbackResponses = new LinkedHashMap<String, FeedbackResponse>();
+
+        q.setFilter(filter + " && giverSection == sectionParam");
+        for (FeedbackResponse response : executeFeedbackResponsesQuery(q, parameters)) {
+            if (!JDOHelper.isDeleted(response)) {
+                feedbackResponses.put(response.getId(), response);
+            }
+        }
+
+        q.setFilter(filter + " && receiverSection == sectionParam");
+        for (FeedbackResponse response : executeFeedbackResponsesQuery(q, parameters)) {
+            if (!JDOHelper.isDeleted(response)) {
+                feedbackResponses.put(response.getId(), response);
+            }
+        }
+
+        return new ArrayList<FeedbackResponse>(feedbackResponses.values());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<FeedbackResponse> executeFeedbackResponsesQuery(Query q, Object... parameters) {
+        return (List<FeedbackResponse>) q.executeWithArray(parameters);
+    }
+
     private List<FeedbackResponse> getFeedbackResponseEntitiesForReceiverForQuestion(
             String feedbackQuestionId, String receiver) {
 
@@ -950,37 +1466,15 @@ public class FeedbackResponsesDb extends EntitiesDb {
         return feedbackResponses;
     }
 
-    private Collection<FeedbackResponse> getFeedbackResponseEntitiesForReceiverForQuestionInSection(
+    private List<FeedbackResponse> getFeedbackResponseEntitiesForReceiverForQuestionInSection(
             String feedbackQuestionId, String receiver, String section) {
         
-        Map<String, FeedbackResponse> feedbackResponses = new HashMap<String, FeedbackResponse>();
-        
         Query q = getPm().newQuery(FeedbackResponse.class);
         q.declareParameters("String feedbackQuestionIdParam, String receiverParam, String sectionParam");
-        q.setFilter("feedbackQuestionId == feedbackQuestionIdParam && receiver == receiverParam "
-                    + "&& giverSection == sectionParam");
-    
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponse> firstQueryResponses =
-                (List<FeedbackResponse>) q.execute(feedbackQuestionId, receiver, section);
-        for (FeedbackResponse response : firstQueryResponses) {
-            if (!JDOHelper.isDeleted(response)) {
-                feedbackResponses.put(response.getId(), response);
-            }
-        }
         
-        q.setFilter("feedbackQuestionId == feedbackQuestionIdParam && receiver == receiverParam "
-                + "&& receiverSection == sectionParam");
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponse> secondQueryResponses =
-                (List<FeedbackResponse>) q.execute(feedbackQuestionId, receiver, section);
-        for (FeedbackResponse response : secondQueryResponses) {
-            if (!JDOHelper.isDeleted(response)) {
-                feedbackResponses.put(response.getId(), response);
-            }
-        }
-        
-        return feedbackResponses.values();
+        return getFeedbackResponseEntitiesInvolvingSection(
+                q, "feedbackQuestionId == feedbackQuestionIdParam && receiver == receiverParam",
+                feedbackQuestionId, receiver, section);
     }
     
     private List<FeedbackResponse> getFeedbackResponseEntitiesFromGiverForQuestion(
@@ -997,37 +1491,15 @@ public class FeedbackResponsesDb extends EntitiesDb {
         return feedbackResponses;
     }
 
-    private Collection<FeedbackResponse> getFeedbackResponseEntitiesFromGiverForQuestionInSection(
+    private List<FeedbackResponse> getFeedbackResponseEntitiesFromGiverForQuestionInSection(
             String feedbackQuestionId, String giverEmail, String section) {
         
-        Map<String, FeedbackResponse> feedbackResponses = new HashMap<String, FeedbackResponse>();
-        
         Query q = getPm().newQuery(FeedbackResponse.class);
         q.declareParameters("String feedbackQuestionIdParam, String giverEmailParam, String sectionParam");
-        q.setFilter("feedbackQuestionId == feedbackQuestionIdParam && giverEmail == giverEmailParam "
-                    + "&& giverSection == sectionParam");
-    
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponse> firstQueryResponses =
-                (List<FeedbackResponse>) q.execute(feedbackQuestionId, giverEmail, section);
-        for (FeedbackResponse response : firstQueryResponses) {
-            if (!JDOHelper.isDeleted(response)) {
-                feedbackResponses.put(response.getId(), response);
-            }
-        }
-        
-        q.setFilter("feedbackQuestionId == feedbackQuestionIdParam && giverEmail == giverEmailParam "
-                + "&& receiverSection == sectionParam");
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponse> secondQueryResponses =
-                (List<FeedbackResponse>) q.execute(feedbackQuestionId, giverEmail, section);
-        for (FeedbackResponse response : secondQueryResponses) {
-            if (!JDOHelper.isDeleted(response)) {
-                feedbackResponses.put(response.getId(), response);
-            }
-        }
         
-        return feedbackResponses.values();
+        return getFeedbackResponseEntitiesInvolvingSection(
+                q, "feedbackQuestionId == feedbackQuestionIdParam && giverEmail == giverEmailParam",
+                feedbackQuestionId, giverEmail, section);
     }
     
     private List<FeedbackResponse> getFeedbackResponseEntitiesFromGiverForSessionWithinRange(
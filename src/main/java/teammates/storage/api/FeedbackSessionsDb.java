@@ -4,12 +4,21 @@ import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import javax.jdo.JDOException;
 import javax.jdo.JDOHelper;
+import javax.jdo.JDOObjectNotFoundException;
+import javax.jdo.PersistenceManager;
 import javax.jdo.Query;
+import javax.jdo.Transaction;
 
 import teammates.common.datatransfer.EntityAttributes;
 import teammates.common.datatransfer.FeedbackSessionAttributes;
@@ -19,11 +28,19 @@ import teammates.common.exception.InvalidParametersException;
 import teammates.common.util.Assumption;
 import teammates.common.util.Const;
 import teammates.common.util.TimeHelper;
+import teammates.storage.datastore.Datastore;
 import teammates.storage.entity.FeedbackSession;
+import teammates.storage.entity.FeedbackSessionRespondant;
+import teammates.storage.entity.StudentSessionSummary;
+
+import com.google.appengine.api.datastore.DatastoreServiceFactory;
+import com.google.appengine.api.datastore.KeyFactory;
 
 public class FeedbackSessionsDb extends EntitiesDb {
     
     public static final String ERROR_UPDATE_NON_EXISTENT = "Trying to update non-existent Feedback Session : ";
+    
+    private static final int MAX_STUDENT_SESSION_SUMMARY_UPDATE_ATTEMPTS = 3;
 
     public void createFeedbackSessions(Collection<FeedbackSessionAttributes> feedbackSessionsToAdd) throws InvalidParametersException {
         List<EntityAttributes> feedbackSessionsToUpdate = createEntities(feedbackSessionsToAdd);
@@ -279,76 +296,17 @@ public class FeedbackSessionsDb extends EntitiesDb {
 
     public void addInstructorRespondants(List<String> emails, FeedbackSessionAttributes feedbackSession)
             throws InvalidParametersException, EntityDoesNotExistException {
-
-        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, emails);
-        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSession);
-
-        feedbackSession.sanitizeForSaving();
-
-        if (!feedbackSession.isValid()) {
-            throw new InvalidParametersException(feedbackSession.getInvalidityInfo());
-        }
-
-        FeedbackSession fs = (FeedbackSession) getEntity(feedbackSession);
-        if (fs == null) {
-            throw new EntityDoesNotExistException(
-                    ERROR_UPDATE_NON_EXISTENT + feedbackSession.toString());
-        }
-
-        fs.getRespondingInstructorList().addAll(emails);
-        
-        log.info(feedbackSession.getBackupIdentifier());
-        getPm().close();
+        addRespondants(emails, feedbackSession, true);
     }
 
     public void updateInstructorRespondant(String oldEmail, String newEmail, FeedbackSessionAttributes feedbackSession)
             throws InvalidParametersException, EntityDoesNotExistException {
-
-        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, oldEmail);
-        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, newEmail);
-        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSession);
-
-        feedbackSession.sanitizeForSaving();
-
-        if (!feedbackSession.isValid()) {
-            throw new InvalidParametersException(feedbackSession.getInvalidityInfo());
-        }
-
-        FeedbackSession fs = (FeedbackSession) getEntity(feedbackSession);
-        if (fs == null) {
-            throw new EntityDoesNotExistException(
-                    ERROR_UPDATE_NON_EXISTENT + feedbackSession.toString());
-        }
-
-        if (fs.getRespondingInstructorList().contains(oldEmail)) {
-            fs.getRespondingInstructorList().remove(oldEmail);
-            fs.getRespondingInstructorList().add(newEmail);
-        }
-       
-        log.info(feedbackSession.getBackupIdentifier());
-        getPm().close();
+        updateRespondant(oldEmail, newEmail, feedbackSession, true);
     }
 
-    public void clearInstructorRespondants(FeedbackSessionAttributes feedbackSession) throws InvalidParametersException, EntityDoesNotExistException {
-
-        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSession);
-
-        feedbackSession.sanitizeForSaving();
-
-        if (!feedbackSession.isValid()) {
-            throw new InvalidParametersException(feedbackSession.getInvalidityInfo());
-        }
-
-        FeedbackSession fs = (FeedbackSession) getEntity(feedbackSession);
-        if (fs == null) {
-            throw new EntityDoesNotExistException(
-                    ERROR_UPDATE_NON_EXISTENT + feedbackSession.toString());
-        }
-
-        fs.getRespondingInstructorList().clear();
-
-        log.info(feedbackSession.getBackupIdentifier());
-        getPm().close();
+    public void clearInstructorRespondants(FeedbackSessionAttributes feedbackSession)
+            throws InvalidParametersException, EntityDoesNotExistException {
+        clearRespondants(feedbackSession, true);
     }
 
     public void addStudentRespondant(String email, FeedbackSessionAttributes feedbackSession)
@@ -361,124 +319,389 @@ public class FeedbackSessionsDb extends EntitiesDb {
 
     public void deleteInstructorRespondant(String email, FeedbackSessionAttributes feedbackSession)
             throws InvalidParametersException, EntityDoesNotExistException {
-
-        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, email);
-        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSession);
-
-        feedbackSession.sanitizeForSaving();
-
-        if (!feedbackSession.isValid()) {
-            throw new InvalidParametersException(feedbackSession.getInvalidityInfo());
-        }
-
-        FeedbackSession fs = (FeedbackSession) getEntity(feedbackSession);
-        if (fs == null) {
-            throw new EntityDoesNotExistException(
-                    ERROR_UPDATE_NON_EXISTENT + feedbackSession.toString());
-        }
-
-        fs.getRespondingInstructorList().remove(email);
-
-        log.info(feedbackSession.getBackupIdentifier());
-        getPm().close();
+        deleteRespondant(email, feedbackSession, true);
     }
 
     public void addStudentRespondants(List<String> emails, FeedbackSessionAttributes feedbackSession)
             throws InvalidParametersException, EntityDoesNotExistException {
+        addRespondants(emails, feedbackSession, false);
+    }
 
-        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, emails);
-        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSession);
+    public void updateStudentRespondant(String oldEmail, String newEmail, FeedbackSessionAttributes feedbackSession)
+            throws InvalidParametersException, EntityDoesNotExistException {
+        updateRespondant(oldEmail, newEmail, feedbackSession, false);
+    }
 
-        feedbackSession.sanitizeForSaving();
+    public void clearStudentRespondants(FeedbackSessionAttributes feedbackSession)
+            throws InvalidParametersException, EntityDoesNotExistException {
+        clearRespondants(feedbackSession, false);
+    }
 
-        if (!feedbackSession.isValid()) {
-            throw new InvalidParametersException(feedbackSession.getInvalidityInfo());
+    public void deleteStudentRespondant(String email, FeedbackSessionAttributes feedbackSession)
+            throws EntityDoesNotExistException, InvalidParametersException {
+        deleteRespondant(email, feedbackSession, false);
+    }
+    
+    /**
+     * Replaces the respondants in the given attributes, which are only those recorded in the
+     * session entity by earlier versions, with all the respondants of the session. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     */
+    public void loadRespondants(FeedbackSessionAttributes feedbackSession) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSession);
+        
+        Set<String> respondingInstructors = new HashSet<String>(getLegacyRespondants(feedbackSession, true));
+        Set<String> respondingStudents = new HashSet<String>(getLegacyRespondants(feedbackSession, false));
+        for (FeedbackSessionRespondant respondant
+                : getRespondantEntitiesForSession(feedbackSession.getCourseId(), feedbackSession.getFeedbackSessionName())) {
+            if (respondant.isInstructor()) {
+                respondingInstructors.add(respondant.getEmail());
+            } else {
+                respondingStudents.add(respondant.getEmail());
+            }
         }
-
-        FeedbackSession fs = (FeedbackSession) getEntity(feedbackSession);
-        if (fs == null) {
-            throw new EntityDoesNotExistException(
-                    ERROR_UPDATE_NON_EXISTENT + feedbackSession.toString());
+        feedbackSession.setRespondingInstructorList(respondingInstructors);
+        feedbackSession.setRespondingStudentList(respondingStudents);
+    }
+    
+    /**
+     * Checks one respondant by key, which is cheaper than getting all the respondants of the session.
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     */
+    public boolean isInstructorRespondant(String email, FeedbackSessionAttributes feedbackSession) {
+        return isRespondant(email, feedbackSession, true);
+    }
+    
+    /**
+     * Checks one respondant by key, which is cheaper than getting all the respondants of the session.
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     */
+    public boolean isStudentRespondant(String email, FeedbackSessionAttributes feedbackSession) {
+        return isRespondant(email, feedbackSession, false);
+    }
+    
+    /**
+     * Deletes all the respondants of the session. To be used when the session is deleted.
+     */
+    public void deleteRespondantsForSession(FeedbackSessionAttributes feedbackSession) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSession);
+        
+        getPm().deletePersistentAll(getRespondantEntitiesForSession(feedbackSession.getCourseId(),
+                                                                    feedbackSession.getFeedbackSessionName()));
+        getPm().flush();
+    }
+    
+    /*
+     * The summaries of the students are read and updated through a persistence manager of their own,
+     * so that each update is done in a transaction and is not lost to a concurrent update of the same
+     * summary, and so that an update made earlier in the request is never hidden by a copy cached
+     * by the persistence manager of the request.
+     */
+    
+    /**
+     * Gets the statuses recorded in the summary of the sessions of the course for the student. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return whether the student has submitted each session, keyed by session name.
+     *         Sessions whose status is not recorded are left out.
+     */
+    public Map<String, Boolean> getStudentSessionStatuses(String courseId, String studentEmail) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, studentEmail);
+        
+        Map<String, Boolean> statuses = new HashMap<String, Boolean>();
+        PersistenceManager pm = Datastore.getNewPersistenceManager();
+        try {
+            StudentSessionSummary summary = getStudentSessionSummaryEntity(pm, courseId, studentEmail);
+            if (summary == null) {
+                return statuses;
+            }
+            for (String sessionName : summary.getNotSubmittedSessionNames()) {
+                statuses.put(sessionName, false);
+            }
+            for (String sessionName : summary.getSubmittedSessionNames()) {
+                statuses.put(sessionName, true);
+            }
+            return statuses;
+        } finally {
+            pm.close();
         }
-
-        fs.getRespondingStudentList().addAll(emails);
-
+    }
+    
+    /**
+     * Records the statuses of the sessions that are not in the summary of the student yet.
+     * Statuses that are already recorded are kept, as they may have been updated
+     * after the given statuses were checked. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     */
+    public void addStudentSessionStatuses(final String courseId, final String studentEmail,
+                                          final Map<String, Boolean> statuses) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, studentEmail);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, statuses);
+        
+        updateStudentSessionSummary(courseId, studentEmail, new StudentSessionSummaryChange() {
+            @Override
+            public StudentSessionSummary apply(StudentSessionSummary existingSummary) {
+                StudentSessionSummary summary = existingSummary == null
+                                              ? new StudentSessionSummary(courseId, studentEmail)
+                                              : existingSummary;
+                Set<String> submitted = summary.getSubmittedSessionNames();
+                Set<String> notSubmitted = summary.getNotSubmittedSessionNames();
+                for (Map.Entry<String, Boolean> status : statuses.entrySet()) {
+                    String sessionName = status.getKey();
+                    if (!submitted.contains(sessionName) && !notSubmitted.contains(sessionName)) {
+                        (status.getValue() ? submitted : notSubmitted).add(sessionName);
+                    }
+                }
+                summary.setSessionNames(submitted, notSubmitted);
+                return summary;
+            }
+        });
+    }
+    
+    /**
+     * Records in the summaries of the students that they have submitted the session,
+     * creating the summaries that do not exist yet. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     */
+    public void setStudentSessionStatusesSubmitted(List<String> studentEmails, FeedbackSessionAttributes feedbackSession) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, studentEmails);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSession);
+        
+        final String courseId = feedbackSession.getCourseId();
+        final String sessionName = feedbackSession.getFeedbackSessionName();
+        for (final String studentEmail : new LinkedHashSet<String>(studentEmails)) {
+            updateStudentSessionSummary(courseId, studentEmail, new StudentSessionSummaryChange() {
+                @Override
+                public StudentSessionSummary apply(StudentSessionSummary existingSummary) {
+                    if (existingSummary != null && existingSummary.getSubmittedSessionNames().contains(sessionName)) {
+                        return null;
+                    }
+                    StudentSessionSummary summary = existingSummary == null
+                                                  ? new StudentSessionSummary(courseId, studentEmail)
+                                                  : existingSummary;
+                    Set<String> submitted = summary.getSubmittedSessionNames();
+                    Set<String> notSubmitted = summary.getNotSubmittedSessionNames();
+                    submitted.add(sessionName);
+                    notSubmitted.remove(sessionName);
+                    summary.setSessionNames(submitted, notSubmitted);
+                    return summary;
+                }
+            });
+        }
+    }
+    
+    /**
+     * Removes the status of the session from the summary of the student, so that it is checked again
+     * the next time it is needed. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     */
+    public void removeStudentSessionStatus(String studentEmail, FeedbackSessionAttributes feedbackSession) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, studentEmail);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSession);
+        
+        final String sessionName = feedbackSession.getFeedbackSessionName();
+        updateStudentSessionSummary(feedbackSession.getCourseId(), studentEmail, new StudentSessionSummaryChange() {
+            @Override
+            public StudentSessionSummary apply(StudentSessionSummary summary) {
+                if (summary == null) {
+                    return null;
+                }
+                Set<String> submitted = summary.getSubmittedSessionNames();
+                Set<String> notSubmitted = summary.getNotSubmittedSessionNames();
+                // a session is never in both sets
+                if (!submitted.remove(sessionName) && !notSubmitted.remove(sessionName)) {
+                    return null;
+                }
+                summary.setSessionNames(submitted, notSubmitted);
+                return summary;
+            }
+        });
+    }
+    
+    /**
+     * Deletes the summary of the sessions of the course for the student.
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     */
+    public void deleteStudentSessionSummary(String courseId, String studentEmail) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, studentEmail);
+        
+        StudentSessionSummary summary = getStudentSessionSummaryEntity(getPm(), courseId, studentEmail);
+        if (summary != null) {
+            getPm().deletePersistent(summary);
+            getPm().flush();
+        }
+    }
+    
+    /**
+     * Deletes the summaries of all the students of the course, e.g. when a change to the sessions
+     * of the course may have changed the statuses of any of the students.
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     */
+    public void deleteStudentSessionSummariesForCourse(String courseId) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        
+        List<String> courseIds = new ArrayList<String>();
+        courseIds.add(courseId);
+        getPm().deletePersistentAll(getStudentSessionSummaryEntitiesForCourses(courseIds));
+        getPm().flush();
+    }
+    
+    /*
+     * Respondants are stored as one FeedbackSessionRespondant entity per (session, user), so that
+     * responding to a session does not write to the session entity. Respondants recorded in the
+     * session entity by earlier versions (respondingStudentList/respondingInstructorList) are still
+     * read, and are removed from the session entity only when they stop being respondants.
+     */
+    
+    private void addRespondants(List<String> emails, FeedbackSessionAttributes feedbackSession, boolean isInstructor)
+            throws InvalidParametersException {
+        
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, emails);
+        validateSessionOfRespondants(feedbackSession);
+        
+        List<FeedbackSessionRespondant> respondantsToAdd = new ArrayList<FeedbackSessionRespondant>();
+        for (String email : new LinkedHashSet<String>(emails)) {
+            if (getRespondantEntity(email, feedbackSession, isInstructor) == null) {
+                respondantsToAdd.add(new FeedbackSessionRespondant(feedbackSession.getCourseId(),
+                                                                   feedbackSession.getFeedbackSessionName(),
+                                                                   email, isInstructor));
+            }
+        }
+        
+        getPm().makePersistentAll(respondantsToAdd);
         log.info(feedbackSession.getBackupIdentifier());
         getPm().close();
     }
-
-    public void updateStudentRespondant(String oldEmail, String newEmail, FeedbackSessionAttributes feedbackSession)
+    
+    private void updateRespondant(String oldEmail, String newEmail, FeedbackSessionAttributes feedbackSession,
+                                  boolean isInstructor)
             throws InvalidParametersException, EntityDoesNotExistException {
-
+        
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, oldEmail);
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, newEmail);
-        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSession);
-
-        feedbackSession.sanitizeForSaving();
-
-        if (!feedbackSession.isValid()) {
-            throw new InvalidParametersException(feedbackSession.getInvalidityInfo());
+        validateSessionOfRespondants(feedbackSession);
+        
+        FeedbackSessionRespondant oldRespondant = getRespondantEntity(oldEmail, feedbackSession, isInstructor);
+        if (oldRespondant != null) {
+            getPm().deletePersistent(oldRespondant);
+            if (getRespondantEntity(newEmail, feedbackSession, isInstructor) == null) {
+                getPm().makePersistent(new FeedbackSessionRespondant(feedbackSession.getCourseId(),
+                                                                     feedbackSession.getFeedbackSessionName(),
+                                                                     newEmail, isInstructor));
+            }
         }
-
-        FeedbackSession fs = (FeedbackSession) getEntity(feedbackSession);
-        if (fs == null) {
-            throw new EntityDoesNotExistException(
-                    ERROR_UPDATE_NON_EXISTENT + feedbackSession.toString());
+        
+        if (getLegacyRespondants(feedbackSession, isInstructor).contains(oldEmail)) {
+            Set<String> legacyRespondants = getLegacyRespondants(getSessionEntityOfRespondants(feedbackSession),
+                                                                 isInstructor);
+            legacyRespondants.remove(oldEmail);
+            legacyRespondants.add(newEmail);
         }
-
-        if (fs.getRespondingStudentList().contains(oldEmail)) {
-            fs.getRespondingStudentList().remove(oldEmail);
-            fs.getRespondingStudentList().add(newEmail);
+        
+        log.info(feedbackSession.getBackupIdentifier());
+        getPm().close();
+    }
+    
+    private void clearRespondants(FeedbackSessionAttributes feedbackSession, boolean isInstructor)
+            throws InvalidParametersException, EntityDoesNotExistException {
+        
+        validateSessionOfRespondants(feedbackSession);
+        
+        List<FeedbackSessionRespondant> respondantsToDelete = new ArrayList<FeedbackSessionRespondant>();
+        for (FeedbackSessionRespondant respondant
+                : getRespondantEntitiesForSession(feedbackSession.getCourseId(), feedbackSession.getFeedbackSessionName())) {
+            if (respondant.isInstructor() == isInstructor) {
+                respondantsToDelete.add(respondant);
+            }
+        }
+        getPm().deletePersistentAll(respondantsToDelete);
+        
+        if (!getLegacyRespondants(feedbackSession, isInstructor).isEmpty()) {
+            getLegacyRespondants(getSessionEntityOfRespondants(feedbackSession), isInstructor).clear();
         }
         
         log.info(feedbackSession.getBackupIdentifier());
         getPm().close();
     }
-
-    public void clearStudentRespondants(FeedbackSessionAttributes feedbackSession) throws InvalidParametersException, EntityDoesNotExistException {
-
-        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSession);
-
-        feedbackSession.sanitizeForSaving();
-
-        if (!feedbackSession.isValid()) {
-            throw new InvalidParametersException(feedbackSession.getInvalidityInfo());
+    
+    private void deleteRespondant(String email, FeedbackSessionAttributes feedbackSession, boolean isInstructor)
+            throws InvalidParametersException, EntityDoesNotExistException {
+        
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, email);
+        validateSessionOfRespondants(feedbackSession);
+        
+        FeedbackSessionRespondant respondant = getRespondantEntity(email, feedbackSession, isInstructor);
+        if (respondant != null) {
+            getPm().deletePersistent(respondant);
         }
-
-        FeedbackSession fs = (FeedbackSession) getEntity(feedbackSession);
-        if (fs == null) {
-            throw new EntityDoesNotExistException(
-                    ERROR_UPDATE_NON_EXISTENT + feedbackSession.toString());
+        
+        if (getLegacyRespondants(feedbackSession, isInstructor).contains(email)) {
+            getLegacyRespondants(getSessionEntityOfRespondants(feedbackSession), isInstructor).remove(email);
         }
-
-        fs.getRespondingStudentList().clear();
-
+        
         log.info(feedbackSession.getBackupIdentifier());
         getPm().close();
     }
-
-    public void deleteStudentRespondant(String email, FeedbackSessionAttributes feedbackSession)
-            throws EntityDoesNotExistException, InvalidParametersException {
-
+    
+    private boolean isRespondant(String email, FeedbackSessionAttributes feedbackSession, boolean isInstructor) {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, email);
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSession);
-
+        
+        return getLegacyRespondants(feedbackSession, isInstructor).contains(email)
+               || getRespondantEntity(email, feedbackSession, isInstructor) != null;
+    }
+    
+    private void validateSessionOfRespondants(FeedbackSessionAttributes feedbackSession)
+            throws InvalidParametersException {
+        
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSession);
+        
         feedbackSession.sanitizeForSaving();
-
+        
         if (!feedbackSession.isValid()) {
             throw new InvalidParametersException(feedbackSession.getInvalidityInfo());
         }
-
+    }
+    
+    private FeedbackSession getSessionEntityOfRespondants(FeedbackSessionAttributes feedbackSession)
+            throws EntityDoesNotExistException {
+        
         FeedbackSession fs = (FeedbackSession) getEntity(feedbackSession);
         if (fs == null) {
             throw new EntityDoesNotExistException(
                     ERROR_UPDATE_NON_EXISTENT + feedbackSession.toString());
         }
-        
-        fs.getRespondingStudentList().remove(email);
-
-        log.info(feedbackSession.getBackupIdentifier());
-        getPm().close();
+        return fs;
+    }
+    
+    private Set<String> getLegacyRespondants(FeedbackSessionAttributes feedbackSession, boolean isInstructor) {
+        Set<String> respondants = isInstructor ? feedbackSession.getRespondingInstructorList()
+                                               : feedbackSession.getRespondingStudentList();
+        return respondants == null ? new HashSet<String>() : respondants;
+    }
+    
+    private Set<String> getLegacyRespondants(FeedbackSession fs, boolean isInstructor) {
+        if (isInstructor) {
+            if (fs.getRespondingInstructorList() == null) {
+                fs.setRespondingInstructorList(new HashSet<String>());
+            }
+            return fs.getRespondingInstructorList();
+        }
+        if (fs.getRespondingStudentList() == null) {
+            fs.setRespodingStudentList(new HashSet<String>());
+        }
+        return fs.getRespondingStudentList();
     }
     
     public void deleteFeedbackSessionsForCourse(String courseId) {
@@ -495,9 +718,111 @@ public class FeedbackSessionsDb extends EntitiesDb {
         List<FeedbackSession> feedbackSessionList = getFeedbackSessionEntitiesForCourses(courseIds);
         
         getPm().deletePersistentAll(feedbackSessionList);
+        getPm().deletePersistentAll(getRespondantEntitiesForCourses(courseIds));
+        getPm().deletePersistentAll(getStudentSessionSummaryEntitiesForCourses(courseIds));
         getPm().flush();
     }
     
+    @SuppressWarnings("unchecked")
+    private List<StudentSessionSummary> getStudentSessionSummaryEntitiesForCourses(List<String> courseIds) {
+        Query q = getPm().newQuery(StudentSessionSummary.class);
+        q.setFilter(":p.contains(courseId)");
+        
+        return (List<StudentSessionSummary>) q.execute(courseIds);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private List<FeedbackSessionRespondant> getRespondantEntitiesForCourses(List<String> courseIds) {
+        Query q = getPm().newQuery(FeedbackSessionRespondant.class);
+        q.setFilter(":p.contains(courseId)");
+        
+        return (List<FeedbackSessionRespondant>) q.execute(courseIds);
+    }
+    
+    private List<FeedbackSessionRespondant> getRespondantEntitiesForSession(String courseId, String feedbackSessionName) {
+        Query q = getPm().newQuery(FeedbackSessionRespondant.class);
+        q.declareParameters("String courseIdParam, String feedbackSessionNameParam");
+        q.setFilter("courseId == courseIdParam && feedbackSessionName == feedbackSessionNameParam");
+        
+        @SuppressWarnings("unchecked")
+        List<FeedbackSessionRespondant> respondantList =
+                (List<FeedbackSessionRespondant>) q.execute(courseId, feedbackSessionName);
+        
+        List<FeedbackSessionRespondant> respondants = new ArrayList<FeedbackSessionRespondant>();
+        for (FeedbackSessionRespondant respondant : respondantList) {
+            if (!JDOHelper.isDeleted(respondant)) {
+                respondants.add(respondant);
+            }
+        }
+        return respondants;
+    }
+    
+    private FeedbackSessionRespondant getRespondantEntity(String email, FeedbackSessionAttributes feedbackSession,
+                                                          boolean isInstructor) {
+        try {
+            FeedbackSessionRespondant respondant = getPm().getObjectById(FeedbackSessionRespondant.class,
+                    FeedbackSessionRespondant.generateId(feedbackSession.getCourseId(),
+                                                         feedbackSession.getFeedbackSessionName(),
+                                                         email, isInstructor));
+            return JDOHelper.isDeleted(respondant) ? null : respondant;
+        } catch (JDOObjectNotFoundException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * A change to the summary of the sessions of a student, made in a transaction
+     * by {@link FeedbackSessionsDb#updateStudentSessionSummary}.
+     */
+    private interface StudentSessionSummaryChange {
+        
+        /**
+         * Changes the summary, which is null if the student has none yet. It may be called again
+         * with a summary read again if the transaction fails.
+         * @return the summary to save, or null if nothing has to be saved
+         */
+        StudentSessionSummary apply(StudentSessionSummary summary);
+    }
+    
+    private void updateStudentSessionSummary(String courseId, String studentEmail, StudentSessionSummaryChange change) {
+        for (int attempt = 1; attempt <= MAX_STUDENT_SESSION_SUMMARY_UPDATE_ATTEMPTS; attempt++) {
+            PersistenceManager pm = Datastore.getNewPersistenceManager();
+            Transaction tx = pm.currentTransaction();
+            try {
+                tx.begin();
+                StudentSessionSummary summary = change.apply(getStudentSessionSummaryEntity(pm, courseId, studentEmail));
+                if (summary != null) {
+                    pm.makePersistent(summary);
+                }
+                tx.commit();
+                return;
+            } catch (JDOException e) {
+                log.warning("Attempt " + attempt + " to update the session summary of student " + studentEmail
+                            + " in course " + courseId + " failed: " + e.getMessage());
+            } finally {
+                if (tx.isActive()) {
+                    tx.rollback();
+                }
+                pm.close();
+            }
+        }
+        
+        // the summary could not be updated, so it is deleted for all the statuses to be checked again
+        DatastoreServiceFactory.getDatastoreService().delete(KeyFactory.createKey(
+                StudentSessionSummary.class.getSimpleName(), StudentSessionSummary.generateId(courseId, studentEmail)));
+    }
+    
+    private StudentSessionSummary getStudentSessionSummaryEntity(PersistenceManager pm, String courseId,
+                                                                 String studentEmail) {
+        try {
+            StudentSessionSummary summary = pm.getObjectById(StudentSessionSummary.class,
+                    StudentSessionSummary.generateId(courseId, studentEmail));
+            return JDOHelper.isDeleted(summary) ? null : summary;
+        } catch (JDOObjectNotFoundException e) {
+            return null;
+        }
+    }
+    
     @SuppressWarnings("unchecked")
     private List<FeedbackSession> getFeedbackSessionEntitiesForCourses(List<String> courseIds) {
         Query q = getPm().newQuery(FeedbackSession.class);
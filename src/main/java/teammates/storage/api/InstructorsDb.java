@@ -2,9 +2,12 @@ package teammates.storage.api;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import javax.jdo.JDOHelper;
 import javax.jdo.Query;
@@ -20,6 +23,7 @@ import teammates.common.util.Config;
 import teammates.common.util.Const;
 import teammates.common.util.StringHelper;
 import teammates.common.util.ThreadHelper;
+import teammates.storage.datastore.EntityCache;
 import teammates.storage.entity.Instructor;
 import teammates.storage.search.InstructorSearchDocument;
 import teammates.storage.search.InstructorSearchQuery;
@@ -50,6 +54,31 @@ public class InstructorsDb extends EntitiesDb {
         }
     }
     
+    /**
+     * Puts the documents of the instructors with as few calls to the search service as possible.
+     */
+    public void putDocuments(List<InstructorAttributes> instructors) {
+        List<InstructorSearchDocument> documents = new ArrayList<InstructorSearchDocument>();
+        for (InstructorAttributes instructor : instructors) {
+            documents.add(new InstructorSearchDocument(instructor));
+        }
+        putDocuments(Const.SearchIndex.INSTRUCTOR, documents);
+    }
+    
+    /**
+     * Schedules the document of the instructor to be put at the end of the request.
+     */
+    public void schedulePutDocument(InstructorAttributes instructorParam) {
+        InstructorAttributes instructor = instructorParam;
+        if (instructor.key == null) {
+            instructor = this.getInstructorForEmail(instructor.courseId, instructor.email);
+        }
+        // defensive coding for legacy data
+        if (instructor.key != null) {
+            schedulePutDocument(Const.SearchIndex.INSTRUCTOR, StringHelper.encrypt(instructor.key));
+        }
+    }
+    
     public void deleteDocument(InstructorAttributes instructorToDelete) {
         if (instructorToDelete.key == null) {
             InstructorAttributes instructor = this.getInstructorForEmail(instructorToDelete.courseId, instructorToDelete.email);
@@ -132,7 +161,7 @@ public class InstructorsDb extends EntitiesDb {
             throw new InvalidParametersException("Created instructor is null.");
         }
         InstructorAttributes createdInstructor = new InstructorAttributes(instructor);
-        putDocument(createdInstructor);
+        schedulePutDocument(createdInstructor);
         return createdInstructor;
     }
 
@@ -144,14 +173,70 @@ public class InstructorsDb extends EntitiesDb {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, email);
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
     
-        Instructor i = getInstructorEntityForEmail(courseId, email);
+        String cacheKey = getInstructorCacheKey(courseId, email);
+        Instructor i = (Instructor) EntityCache.getFromRequestCache(cacheKey);
+        if (i != null) {
+            return new InstructorAttributes(i);
+        }
+        
+        InstructorAttributes cachedInstructor = EntityCache.getFromSharedCache(cacheKey, InstructorAttributes.class);
+        if (cachedInstructor != null) {
+            return cachedInstructor;
+        }
+        
+        i = getInstructorEntityForEmail(courseId, email);
     
         if (i == null) {
             log.info("Trying to get non-existent Instructor: " + courseId + "/" + email);
             return null;
         }
     
-        return new InstructorAttributes(i);
+        InstructorAttributes instructor = new InstructorAttributes(i);
+        EntityCache.putInSharedCache(cacheKey, instructor);
+        return instructor;
+    }
+
+    /**
+     * Gets the instructors of the course with any of the emails. Instructors not found in the caches
+     * are looked up in batches, instead of one query per instructor.
+     * @return the instructors found, in no particular order. Emails without a matching instructor are ignored.
+     */
+    public List<InstructorAttributes> getInstructorsForEmails(String courseId, Collection<String> emails) {
+        
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, emails);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        
+        List<InstructorAttributes> instructors = new ArrayList<InstructorAttributes>();
+        Map<String, String> uncachedEmails = new HashMap<String, String>();
+        for (String email : new HashSet<String>(emails)) {
+            String cacheKey = getInstructorCacheKey(courseId, email);
+            Instructor i = (Instructor) EntityCache.getFromRequestCache(cacheKey);
+            if (i == null) {
+                uncachedEmails.put(cacheKey, email);
+            } else {
+                instructors.add(new InstructorAttributes(i));
+            }
+        }
+        
+        Map<String, InstructorAttributes> cachedInstructors =
+                EntityCache.getAllFromSharedCache(uncachedEmails.keySet(), InstructorAttributes.class);
+        instructors.addAll(cachedInstructors.values());
+        uncachedEmails.keySet().removeAll(cachedInstructors.keySet());
+        
+        List<String> emailsToGet = new ArrayList<String>(uncachedEmails.values());
+        for (int from = 0; from < emailsToGet.size(); from += MAX_VALUES_PER_CONTAINS_FILTER) {
+            List<String> emailsInQuery = new ArrayList<String>(
+                    emailsToGet.subList(from, Math.min(from + MAX_VALUES_PER_CONTAINS_FILTER, emailsToGet.size())));
+            for (Instructor i : getInstructorEntitiesForEmails(courseId, emailsInQuery)) {
+                String cacheKey = getInstructorCacheKey(courseId, i.getEmail());
+                EntityCache.putInRequestCache(cacheKey, i);
+                InstructorAttributes instructor = new InstructorAttributes(i);
+                EntityCache.putInSharedCache(cacheKey, instructor);
+                instructors.add(instructor);
+            }
+        }
+        
+        return instructors;
     }
 
     /**
@@ -298,6 +383,9 @@ public class InstructorsDb extends EntitiesDb {
                         + ThreadHelper.getCurrentThreadStack());
         }
 
+        EntityCache.remove(getInstructorCacheKey(instructorToUpdate.getCourseId(), instructorToUpdate.getEmail()));
+        EntityCache.remove(getInstructorCacheKey(instructorAttributesToUpdate.courseId, instructorAttributesToUpdate.email));
+        
         instructorToUpdate.setName(instructorAttributesToUpdate.name);
         instructorToUpdate.setEmail(instructorAttributesToUpdate.email);
         instructorToUpdate.setIsArchived(instructorAttributesToUpdate.isArchived);
@@ -308,7 +396,7 @@ public class InstructorsDb extends EntitiesDb {
         
         //TODO: make courseId+email the non-modifiable values
         
-        putDocument(new InstructorAttributes(instructorToUpdate));
+        schedulePutDocument(new InstructorAttributes(instructorToUpdate));
         log.info(instructorAttributesToUpdate.getBackupIdentifier());
         getPm().close();
     }
@@ -337,6 +425,8 @@ public class InstructorsDb extends EntitiesDb {
                         + ThreadHelper.getCurrentThreadStack());
         }
         
+        EntityCache.remove(getInstructorCacheKey(instructorAttributesToUpdate.courseId, instructorAttributesToUpdate.email));
+        
         instructorToUpdate.setGoogleId(instructorAttributesToUpdate.googleId);
         instructorToUpdate.setName(instructorAttributesToUpdate.name);
         instructorToUpdate.setIsArchived(instructorAttributesToUpdate.isArchived);
@@ -345,7 +435,7 @@ public class InstructorsDb extends EntitiesDb {
         instructorToUpdate.setInstructorPrivilegeAsText(instructorAttributesToUpdate.getTextFromInstructorPrivileges());
         
         //TODO: make courseId+email the non-modifiable values
-        putDocument(new InstructorAttributes(instructorToUpdate));
+        schedulePutDocument(new InstructorAttributes(instructorToUpdate));
         log.info(instructorAttributesToUpdate.getBackupIdentifier());
         getPm().close();
     }
@@ -370,6 +460,7 @@ public class InstructorsDb extends EntitiesDb {
 
         getPm().deletePersistent(instructorToDelete);
         getPm().flush();
+        EntityCache.remove(getInstructorCacheKey(courseId, email));
   
         // Check delete operation persisted
         if (Config.PERSISTENCE_CHECK_DURATION > 0) {
@@ -390,7 +481,7 @@ public class InstructorsDb extends EntitiesDb {
         
         Instructor instructorCheck = getInstructorEntityForEmail(courseId, email);
         if (instructorCheck != null) {
-            putDocument(new InstructorAttributes(instructorCheck));
+            schedulePutDocument(new InstructorAttributes(instructorCheck));
         }
 
         //TODO: reuse the method in the parent class instead
@@ -404,6 +495,7 @@ public class InstructorsDb extends EntitiesDb {
         
         for (Instructor instructor : instructorsToDelete) {
             deleteDocument(new InstructorAttributes(instructor));
+            EntityCache.remove(getInstructorCacheKey(instructor.getCourseId(), instructor.getEmail()));
         }
         
         getPm().deletePersistentAll(instructorsToDelete);
@@ -422,6 +514,7 @@ public class InstructorsDb extends EntitiesDb {
         
         for (Instructor instructor : instructorList) {
             deleteDocument(new InstructorAttributes(instructor));
+            EntityCache.remove(getInstructorCacheKey(instructor.getCourseId(), instructor.getEmail()));
         }
         
         getPm().deletePersistentAll(instructorList);
@@ -441,6 +534,7 @@ public class InstructorsDb extends EntitiesDb {
         
         for (Instructor instructor : instructorList) {
             deleteDocument(new InstructorAttributes(instructor));
+            EntityCache.remove(getInstructorCacheKey(instructor.getCourseId(), instructor.getEmail()));
         }
         getPm().deletePersistentAll(instructorList);
         getPm().flush();
@@ -478,7 +572,27 @@ public class InstructorsDb extends EntitiesDb {
             return null;
         }
 
-        return instructorList.get(0);
+        Instructor instructor = instructorList.get(0);
+        EntityCache.putInRequestCache(getInstructorCacheKey(courseId, email), instructor);
+        return instructor;
+    }
+    
+    private List<Instructor> getInstructorEntitiesForEmails(String courseId, List<String> emails) {
+        
+        Query q = getPm().newQuery(Instructor.class);
+        q.declareParameters("String courseIdParam, java.util.List emailsParam");
+        q.setFilter("courseId == courseIdParam && emailsParam.contains(email)");
+        
+        @SuppressWarnings("unchecked")
+        List<Instructor> instructorList = (List<Instructor>) q.execute(courseId, emails);
+        
+        List<Instructor> instructors = new ArrayList<Instructor>();
+        for (Instructor instructor : instructorList) {
+            if (!JDOHelper.isDeleted(instructor)) {
+                instructors.add(instructor);
+            }
+        }
+        return instructors;
     }
     
     private List<Instructor> getInstructorEntitiesForCourses(List<String> courseIds) {
@@ -581,5 +695,9 @@ public class InstructorsDb extends EntitiesDb {
         return getInstructorEntityForEmail(instructorToGet.courseId, instructorToGet.email);
     }
 
+    private static String getInstructorCacheKey(String courseId, String email) {
+        return EntityCache.getKey("Instructor", courseId + "/" + email);
+    }
+
 }
 
@@ -2,9 +2,12 @@ package teammates.storage.api;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import javax.jdo.JDOHelper;
 import javax.jdo.Query;
@@ -21,6 +24,7 @@ import teammates.common.util.Config;
 import teammates.common.util.Const;
 import teammates.common.util.StringHelper;
 import teammates.common.util.ThreadHelper;
+import teammates.storage.datastore.EntityCache;
 import teammates.storage.entity.Student;
 import teammates.storage.search.StudentSearchDocument;
 import teammates.storage.search.StudentSearchQuery;
@@ -42,6 +46,24 @@ public class StudentsDb extends EntitiesDb {
         putDocument(Const.SearchIndex.STUDENT, new StudentSearchDocument(student));
     }
     
+    /**
+     * Puts the documents of the students with as few calls to the search service as possible.
+     */
+    public void putDocuments(List<StudentAttributes> students) {
+        List<StudentSearchDocument> documents = new ArrayList<StudentSearchDocument>();
+        for (StudentAttributes student : students) {
+            documents.add(new StudentSearchDocument(student));
+        }
+        putDocuments(Const.SearchIndex.STUDENT, documents);
+    }
+    
+    /**
+     * Schedules the document of the student to be put at the end of the request.
+     */
+    public void schedulePutDocument(StudentAttributes student) {
+        schedulePutDocument(Const.SearchIndex.STUDENT, student.key);
+    }
+    
     /**
      * Search for students
      * @return {@link StudentSearchResultBundle}
@@ -125,8 +147,92 @@ public class StudentsDb extends EntitiesDb {
             throws InvalidParametersException, EntityAlreadyExistsException {
         StudentAttributes createdStudent = new StudentAttributes((Student) createEntity(student));
         if (hasDocument) {
-            putDocument(createdStudent);
+            schedulePutDocument(createdStudent);
+        }
+    }
+
+    /**
+     * Creates the students with one batched persist, and schedules their search documents
+     * to be put together at the end of the request if {@code hasDocument} is true.
+     * <br> Preconditions: <br>
+     * * None of the students exist yet, e.g. as checked against the course roster by the caller.
+     * @throws InvalidParametersException if any of the students is invalid, in which case none is created
+     */
+    public void createStudentsWithoutExistenceCheck(Collection<StudentAttributes> studentsToAdd, boolean hasDocument)
+            throws InvalidParametersException {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, studentsToAdd);
+        
+        List<Student> students = new ArrayList<Student>();
+        for (StudentAttributes studentToAdd : studentsToAdd) {
+            studentToAdd.sanitizeForSaving();
+            if (!studentToAdd.isValid()) {
+                throw new InvalidParametersException(studentToAdd.getInvalidityInfo());
+            }
+            students.add(studentToAdd.toEntity());
+        }
+        
+        if (students.isEmpty()) {
+            return;
+        }
+        
+        getPm().makePersistentAll(students);
+        getPm().flush();
+        
+        for (Student student : students) {
+            if (hasDocument) {
+                schedulePutDocument(new StudentAttributes(student));
+            }
+        }
+        
+        log.info(Const.SystemParams.COURSE_BACKUP_LOG_MSG + students.get(0).getCourseId());
+    }
+    
+    /**
+     * Updates the name, comments, team and section of existing students of a course
+     * (i.e. the details given when enrolling), loading all of them with one query
+     * and saving them together when the changes are committed.
+     * Their search documents are scheduled to be put at the end of the request if {@code hasDocument} is true.
+     * <br> Preconditions: <br>
+     * * All students belong to the course and are valid.
+     */
+    public void updateStudentsEnrollmentDetails(String courseId, Collection<StudentAttributes> studentsToUpdate,
+                                                boolean hasDocument) throws EntityDoesNotExistException {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, studentsToUpdate);
+        
+        if (studentsToUpdate.isEmpty()) {
+            return;
+        }
+        
+        Map<String, Student> studentsByEmail = new HashMap<String, Student>();
+        for (Student student : getStudentEntitiesForCourse(courseId)) {
+            if (!JDOHelper.isDeleted(student)) {
+                studentsByEmail.put(student.getEmail(), student);
+            }
+        }
+        
+        for (StudentAttributes studentToUpdate : studentsToUpdate) {
+            Student student = studentsByEmail.get(studentToUpdate.email);
+            if (student == null) {
+                throw new EntityDoesNotExistException(
+                        ERROR_UPDATE_NON_EXISTENT_STUDENT + courseId + "/" + studentToUpdate.email);
+            }
+            
+            EntityCache.remove(getStudentCacheKey(courseId, studentToUpdate.email));
+            
+            student.setName(studentToUpdate.name);
+            student.setLastName(StringHelper.splitName(studentToUpdate.name)[1]);
+            student.setComments(studentToUpdate.comments);
+            student.setTeamName(studentToUpdate.team);
+            student.setSectionName(studentToUpdate.section);
+            
+            if (hasDocument) {
+                schedulePutDocument(new StudentAttributes(student));
+            }
         }
+        
+        log.info(Const.SystemParams.COURSE_BACKUP_LOG_MSG + courseId);
+        getPm().close();
     }
 
     /**
@@ -140,14 +246,73 @@ public class StudentsDb extends EntitiesDb {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, email);
     
-        Student s = getStudentEntityForEmail(courseId, email);
+        String cacheKey = getStudentCacheKey(courseId, email);
+        Student s = (Student) EntityCache.getFromRequestCache(cacheKey);
+        if (s != null) {
+            return new StudentAttributes(s);
+        }
+        
+        StudentAttributes cachedStudent = EntityCache.getFromSharedCache(cacheKey, StudentAttributes.class);
+        if (cachedStudent != null) {
+            return cachedStudent;
+        }
+        
+        s = getStudentEntityForEmail(courseId, email);
 
         if (s == null) {
             log.info("Trying to get non-existent Student: " + courseId + "/" + email);
             return null;
         }
     
-        return new StudentAttributes(s);
+        StudentAttributes student = new StudentAttributes(s);
+        EntityCache.putInSharedCache(cacheKey, student);
+        return student;
+    }
+
+    /**
+     * Gets the students of the course with any of the emails. Students not found in the caches
+     * are looked up in batches, instead of one query per student. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * 
+     * @return The data for the students found, in no particular order. Emails without
+     *         a matching student are ignored.
+     */
+    public List<StudentAttributes> getStudentsForEmails(String courseId, Collection<String> emails) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, emails);
+        
+        List<StudentAttributes> students = new ArrayList<StudentAttributes>();
+        Map<String, String> uncachedEmails = new HashMap<String, String>();
+        for (String email : new HashSet<String>(emails)) {
+            String cacheKey = getStudentCacheKey(courseId, email);
+            Student s = (Student) EntityCache.getFromRequestCache(cacheKey);
+            if (s == null) {
+                uncachedEmails.put(cacheKey, email);
+            } else {
+                students.add(new StudentAttributes(s));
+            }
+        }
+        
+        Map<String, StudentAttributes> cachedStudents =
+                EntityCache.getAllFromSharedCache(uncachedEmails.keySet(), StudentAttributes.class);
+        students.addAll(cachedStudents.values());
+        uncachedEmails.keySet().removeAll(cachedStudents.keySet());
+        
+        List<String> emailsToGet = new ArrayList<String>(uncachedEmails.values());
+        for (int from = 0; from < emailsToGet.size(); from += MAX_VALUES_PER_CONTAINS_FILTER) {
+            List<String> emailsInQuery = new ArrayList<String>(
+                    emailsToGet.subList(from, Math.min(from + MAX_VALUES_PER_CONTAINS_FILTER, emailsToGet.size())));
+            for (Student s : getStudentEntitiesForEmails(courseId, emailsInQuery)) {
+                String cacheKey = getStudentCacheKey(courseId, s.getEmail());
+                EntityCache.putInRequestCache(cacheKey, s);
+                StudentAttributes student = new StudentAttributes(s);
+                EntityCache.putInSharedCache(cacheKey, student);
+                students.add(student);
+            }
+        }
+        
+        return students;
     }
 
     /**
@@ -403,6 +568,9 @@ public class StudentsDb extends EntitiesDb {
             throw new InvalidParametersException(error);
         }
 
+        EntityCache.remove(getStudentCacheKey(courseId, email));
+        EntityCache.remove(getStudentCacheKey(courseId, newEmail));
+        
         student.setEmail(newEmail);
         student.setName(newName);
         student.setLastName(StringHelper.splitName(newName)[1]);
@@ -412,7 +580,7 @@ public class StudentsDb extends EntitiesDb {
         student.setSectionName(newSectionName);
         
         if (hasDocument) {
-            putDocument(new StudentAttributes(student));
+            schedulePutDocument(new StudentAttributes(student));
         }
     
         // Set true to prevent changes to last update timestamp
@@ -455,6 +623,7 @@ public class StudentsDb extends EntitiesDb {
        
         getPm().deletePersistent(studentToDelete);
         getPm().flush();
+        EntityCache.remove(getStudentCacheKey(courseId, email));
     
         // Check delete operation persisted
         if (Config.PERSISTENCE_CHECK_DURATION > 0) {
@@ -499,6 +668,7 @@ public class StudentsDb extends EntitiesDb {
                 deleteDocument(new StudentAttributes(student));
             }
         }
+        removeFromCache(studentList);
         getPm().deletePersistentAll(studentList);
         getPm().flush();
     }
@@ -527,6 +697,7 @@ public class StudentsDb extends EntitiesDb {
                 deleteDocument(new StudentAttributes(student));
             }
         }
+        removeFromCache(studentList);
         getPm().deletePersistentAll(studentList);
         getPm().flush();
     }
@@ -537,6 +708,7 @@ public class StudentsDb extends EntitiesDb {
         
         List<Student> studentsToDelete = getStudentEntitiesForCourses(courseIds);
         
+        removeFromCache(studentsToDelete);
         getPm().deletePersistentAll(studentsToDelete);
         getPm().flush();
     }
@@ -564,7 +736,26 @@ public class StudentsDb extends EntitiesDb {
             return null;
         }
     
-        return studentList.get(0);
+        Student student = studentList.get(0);
+        EntityCache.putInRequestCache(getStudentCacheKey(courseId, email), student);
+        return student;
+    }
+
+    private List<Student> getStudentEntitiesForEmails(String courseId, List<String> emails) {
+        Query q = getPm().newQuery(Student.class);
+        q.declareParameters("String courseIdParam, java.util.List emailsParam");
+        q.setFilter("courseID == courseIdParam && emailsParam.contains(email)");
+        
+        @SuppressWarnings("unchecked")
+        List<Student> studentList = (List<Student>) q.execute(courseId, emails);
+        
+        List<Student> students = new ArrayList<Student>();
+        for (Student student : studentList) {
+            if (!JDOHelper.isDeleted(student)) {
+                students.add(student);
+            }
+        }
+        return students;
     }
 
     @SuppressWarnings("unchecked")
@@ -639,5 +830,15 @@ public class StudentsDb extends EntitiesDb {
         return getStudentForEmail(studentToGet.course, studentToGet.email);
     }
 
+    private void removeFromCache(List<Student> students) {
+        for (Student student : students) {
+            EntityCache.remove(getStudentCacheKey(student.getCourseId(), student.getEmail()));
+        }
+    }
+    
+    private static String getStudentCacheKey(String courseId, String email) {
+        return EntityCache.getKey("Student", courseId + "/" + email);
+    }
+
 }
 
@@ -1,5 +1,7 @@
 package teammates.storage.datastore;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.logging.Logger;
 
 import javax.jdo.JDOHelper;
@@ -8,6 +10,7 @@ import javax.jdo.PersistenceManagerFactory;
 import javax.jdo.Transaction;
 
 import teammates.common.util.Utils;
+import teammates.storage.search.PendingSearchDocuments;
 
 //TODO: we might not really need this class. To be reconsidered.
 /**
@@ -20,12 +23,16 @@ public final class Datastore {
     private static PersistenceManagerFactory pmf;
     private static final Logger log = Utils.getLogger();
     private static final ThreadLocal<PersistenceManager> PER_THREAD_PM = new ThreadLocal<PersistenceManager>();
+    private static final ThreadLocal<Map<String, Object>> PER_THREAD_ENTITY_CACHE =
+            new ThreadLocal<Map<String, Object>>();
     
     private Datastore() {
         // utility class
     }
 
     public static void initialize() {
+        clearRequestEntityCache();
+        PendingSearchDocuments.clear();
         if (pmf == null) {
             pmf = JDOHelper
                     .getPersistenceManagerFactory("transactions-optional");
@@ -40,17 +47,48 @@ public final class Datastore {
         if (pm == null) {
             pm = pmf.getPersistenceManager();
             PER_THREAD_PM.set(pm);
+            clearRequestEntityCache();
 
         } else if (pm.isClosed()) {
 
             PER_THREAD_PM.remove();
             pm = pmf.getPersistenceManager();
             PER_THREAD_PM.set(pm);
+            clearRequestEntityCache();
 
         }
         return pm;
     }
 
+    /**
+     * @return a new {@link PersistenceManager} that is not shared with the rest of the request,
+     *         e.g. to read and update an entity in a transaction of its own.
+     *         It has to be closed by the caller.
+     */
+    public static PersistenceManager getNewPersistenceManager() {
+        return pmf.getPersistenceManager();
+    }
+
+    /**
+     * @return the entities cached for the current request, keyed by cache key.
+     *         Only holds entities managed by the current {@link PersistenceManager} of the thread.
+     */
+    public static Map<String, Object> getRequestEntityCache() {
+        // makes sure that a closed persistence manager (and its entities) is discarded first
+        getPersistenceManager();
+        
+        Map<String, Object> cache = PER_THREAD_ENTITY_CACHE.get();
+        if (cache == null) {
+            cache = new HashMap<String, Object>();
+            PER_THREAD_ENTITY_CACHE.set(cache);
+        }
+        return cache;
+    }
+
+    public static void clearRequestEntityCache() {
+        PER_THREAD_ENTITY_CACHE.remove();
+    }
+
     public static void finishRequest() {
 
         PersistenceManager pm = PER_THREAD_PM.get();
@@ -60,6 +98,7 @@ public final class Datastore {
         }
         
         PER_THREAD_PM.remove();
+        clearRequestEntityCache();
 
         if (!pm.isClosed()) {
             Transaction tx = pm.currentTransaction();
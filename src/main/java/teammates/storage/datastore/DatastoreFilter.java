@@ -8,6 +8,8 @@ import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 
+import teammates.storage.search.PendingSearchDocuments;
+
 //TODO: Do we really need this filter? To be reconsidered.
 /**
  * Servlet Filter to ensure that the datastore is initialized before a request
@@ -26,8 +28,14 @@ public final class DatastoreFilter implements javax.servlet.Filter {
         //There was a Datastore.finishRequest() here inside a finally clause.
         //  It was removed at 4.19 because some requests span multiple entity
         //  groups. We are not allowed to apply transactions to such requests.
-        chain.doFilter(request, response);
-
+        //  The entities cached for the request are still dropped at the end of it,
+        //  and the search documents scheduled by it are handed over to the task queue.
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            PendingSearchDocuments.flush();
+            Datastore.clearRequestEntityCache();
+        }
     }
 
     @Override
@@ -0,0 +1,209 @@
+package teammates.storage.datastore;
+
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import javax.jdo.JDOHelper;
+
+import teammates.common.util.Config;
+import teammates.common.util.Utils;
+
+import com.google.appengine.api.memcache.Expiration;
+import com.google.appengine.api.memcache.MemcacheService;
+import com.google.appengine.api.memcache.MemcacheService.SetPolicy;
+import com.google.appengine.api.memcache.MemcacheServiceFactory;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Two-level cache of entities, used by the *Db classes to avoid repeating the same Datastore lookups.
+ * <br> Level 1 holds the persistent entities looked up in the current request. It is tied to the
+ * {@link javax.jdo.PersistenceManager} of the thread and is emptied whenever that is replaced
+ * (see {@link Datastore#getRequestEntityCache()}) or the request ends.
+ * <br> Level 2 holds the attributes of entities in memcache and is shared by all requests.
+ * It is used only when {@link Config#ENTITY_CACHE_ENABLED} is set, and its entries must be removed
+ * whenever the entity is updated or deleted. An entry is only added if there is none, and not within
+ * {@link #SHARED_CACHE_NO_READD_MILLIS} of a removal, so that a request that read the entity before
+ * it was changed cannot put the old attributes back.
+ * <br> Entries are keyed by the entity type and the identification string of the entity,
+ * e.g. "Student:CS1101/alice@example.com".
+ */
+public final class EntityCache {
+
+    /** Upper bound on how long a level 2 entry is kept, in case an invalidation is missed. */
+    private static final int SHARED_CACHE_EXPIRATION_SECONDS = 60 * 60;
+
+    /** Longer than a request takes to read an entity and add its attributes to the level 2 cache. */
+    private static final long SHARED_CACHE_NO_READD_MILLIS = 10 * 1000;
+
+    private static final Logger log = Utils.getLogger();
+
+    /**
+     * Uses a date format with milliseconds so that timestamps survive the round trip, and keeps
+     * transient fields, e.g. the timestamps of {@link teammates.common.datatransfer.StudentAttributes}.
+     */
+    private static final Gson GSON = new GsonBuilder().setDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ")
+                                                      .excludeFieldsWithModifiers(Modifier.STATIC)
+                                                      .create();
+
+    private static final AtomicLong REQUEST_CACHE_HITS = new AtomicLong();
+    private static final AtomicLong REQUEST_CACHE_MISSES = new AtomicLong();
+    private static final AtomicLong SHARED_CACHE_HITS = new AtomicLong();
+    private static final AtomicLong SHARED_CACHE_MISSES = new AtomicLong();
+
+    private static final MemcacheService MEMCACHE =
+            MemcacheServiceFactory.getMemcacheService(EntityCache.class.getSimpleName());
+
+    private EntityCache() {
+        // utility class
+    }
+
+    public static String getKey(String entityType, String identificationString) {
+        return entityType + ":" + identificationString;
+    }
+
+    /**
+     * @return the entity cached for the current request, or null if there is none
+     *         or it is no longer persistent (e.g. it has been deleted).
+     */
+    public static Object getFromRequestCache(String key) {
+        Map<String, Object> cache = Datastore.getRequestEntityCache();
+        Object entity = cache.get(key);
+
+        if (entity == null || !JDOHelper.isPersistent(entity) || JDOHelper.isDeleted(entity)) {
+            if (entity != null) {
+                cache.remove(key);
+            }
+            REQUEST_CACHE_MISSES.incrementAndGet();
+            return null;
+        }
+
+        REQUEST_CACHE_HITS.incrementAndGet();
+        return entity;
+    }
+
+    public static void putInRequestCache(String key, Object entity) {
+        Datastore.getRequestEntityCache().put(key, entity);
+    }
+
+    /**
+     * @return the attributes cached across requests, or null if there is none
+     *         or the level 2 cache is disabled.
+     */
+    public static <T> T getFromSharedCache(String key, Class<T> attributesType) {
+        if (!Config.ENTITY_CACHE_ENABLED) {
+            return null;
+        }
+
+        try {
+            Object json = MEMCACHE.get(key);
+            if (json == null) {
+                SHARED_CACHE_MISSES.incrementAndGet();
+                return null;
+            }
+            SHARED_CACHE_HITS.incrementAndGet();
+            return GSON.fromJson((String) json, attributesType);
+        } catch (Exception e) {
+            log.warning("Unable to read " + key + " from entity cache: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Reads all the keys from the level 2 cache in one round trip.
+     * @return the attributes cached across requests, keyed by cache key. Keys without an entry are left out,
+     *         and the map is empty if the level 2 cache is disabled.
+     */
+    public static <T> Map<String, T> getAllFromSharedCache(Collection<String> keys, Class<T> attributesType) {
+        Map<String, T> cachedAttributes = new HashMap<String, T>();
+        if (!Config.ENTITY_CACHE_ENABLED || keys.isEmpty()) {
+            return cachedAttributes;
+        }
+
+        try {
+            Map<String, Object> jsons = MEMCACHE.getAll(keys);
+            for (Map.Entry<String, Object> json : jsons.entrySet()) {
+                if (json.getValue() != null) {
+                    cachedAttributes.put(json.getKey(), GSON.fromJson((String) json.getValue(), attributesType));
+                }
+            }
+        } catch (Exception e) {
+            log.warning("Unable to read " + keys.size() + " keys from entity cache: " + e.getMessage());
+            return new HashMap<String, T>();
+        }
+
+        SHARED_CACHE_HITS.addAndGet(cachedAttributes.size());
+        SHARED_CACHE_MISSES.addAndGet(keys.size() - cachedAttributes.size());
+        return cachedAttributes;
+    }
+
+    /**
+     * Adds the attributes read from the Datastore to the level 2 cache, unless there is an entry already
+     * or the entry has just been removed, in which case the attributes may be out of date.
+     */
+    public static void putInSharedCache(String key, Object attributes) {
+        if (!Config.ENTITY_CACHE_ENABLED) {
+            return;
+        }
+
+        try {
+            MEMCACHE.put(key, GSON.toJson(attributes), Expiration.byDeltaSeconds(SHARED_CACHE_EXPIRATION_SECONDS),
+                         SetPolicy.ADD_ONLY_IF_NOT_PRESENT);
+        } catch (Exception e) {
+            log.warning("Unable to put " + key + " in entity cache: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Removes the entity from both levels of the cache.
+     * Must be called whenever the entity is updated or deleted.
+     */
+    public static void remove(String key) {
+        Datastore.getRequestEntityCache().remove(key);
+
+        if (!Config.ENTITY_CACHE_ENABLED) {
+            return;
+        }
+
+        try {
+            MEMCACHE.delete(key, SHARED_CACHE_NO_READD_MILLIS);
+        } catch (Exception e) {
+            log.severe("Unable to remove " + key + " from entity cache: " + e.getMessage());
+        }
+    }
+
+    public static long getRequestCacheHits() {
+        return REQUEST_CACHE_HITS.get();
+    }
+
+    public static long getRequestCacheMisses() {
+        return REQUEST_CACHE_MISSES.get();
+    }
+
+    public static long getSharedCacheHits() {
+        return SHARED_CACHE_HITS.get();
+    }
+
+    public static long getSharedCacheMisses() {
+        return SHARED_CACHE_MISSES.get();
+    }
+
+    public static void resetStatistics() {
+        REQUEST_CACHE_HITS.set(0);
+        REQUEST_CACHE_MISSES.set(0);
+        SHARED_CACHE_HITS.set(0);
+        SHARED_CACHE_MISSES.set(0);
+    }
+
+    /**
+     * @return a summary of the hit and miss counters of this instance, e.g. for logging
+     */
+    public static String getStatistics() {
+        return "Entity cache: request cache " + REQUEST_CACHE_HITS.get() + " hits/" + REQUEST_CACHE_MISSES.get()
+               + " misses, shared cache " + SHARED_CACHE_HITS.get() + " hits/" + SHARED_CACHE_MISSES.get() + " misses";
+    }
+}
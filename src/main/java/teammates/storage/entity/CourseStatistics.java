@@ -0,0 +1,123 @@
+package teammates.storage.entity;
+
+import java.util.Date;
+
+import javax.jdo.annotations.PersistenceCapable;
+import javax.jdo.annotations.Persistent;
+import javax.jdo.annotations.PrimaryKey;
+
+import com.google.appengine.api.datastore.Text;
+
+/**
+ * Records the number of sections, teams, students and unregistered students of a course,
+ * so that they can be shown without reading all the students of the course.
+ * The record is kept up to date as students are added, changed and removed; if it is missing
+ * or outdated, it is computed again from the students of the course.
+ */
+@PersistenceCapable
+public class CourseStatistics {
+
+    @PrimaryKey
+    @Persistent
+    private String courseId;
+
+    @Persistent
+    private int studentsTotal;
+
+    @Persistent
+    private int unregisteredTotal;
+
+    /**
+     * The number of students in each team, as a JSON map of section name to team name to count.
+     * Sections and teams without students are left out.
+     */
+    @Persistent
+    private Text teamSizes;
+
+    /**
+     * The time (in milliseconds) of the latest change to the students of the course,
+     * made unique by adding to it if needed.
+     */
+    @Persistent
+    private Long version;
+
+    /** True if the counts do not include some changes, and have to be computed again. */
+    @Persistent
+    private Boolean isOutdated;
+
+    @Persistent
+    private Date updatedAt;
+
+    /**
+     * Creates the record of a course whose counts have yet to be computed.
+     */
+    public CourseStatistics(String courseId, long version) {
+        this.courseId = courseId;
+        this.studentsTotal = 0;
+        this.unregisteredTotal = 0;
+        this.teamSizes = new Text("{}");
+        this.version = version;
+        this.isOutdated = true;
+        this.updatedAt = new Date();
+    }
+
+    public String getCourseId() {
+        return courseId;
+    }
+
+    public int getStudentsTotal() {
+        return studentsTotal;
+    }
+
+    public int getUnregisteredTotal() {
+        return unregisteredTotal;
+    }
+
+    public Text getTeamSizes() {
+        return teamSizes;
+    }
+
+    public long getVersion() {
+        return version == null ? 0 : version;
+    }
+
+    public boolean isOutdated() {
+        return Boolean.TRUE.equals(isOutdated);
+    }
+
+    /**
+     * Sets the counts computed from all the students of the course, as they were at the current version.
+     */
+    public void setStatistics(int studentsTotal, int unregisteredTotal, Text teamSizes) {
+        this.studentsTotal = studentsTotal;
+        this.unregisteredTotal = unregisteredTotal;
+        this.teamSizes = teamSizes;
+        this.isOutdated = false;
+        this.updatedAt = new Date();
+    }
+
+    /**
+     * Sets the counts updated for a change to the students of the course, which is a new version.
+     */
+    public void updateStatistics(int studentsTotal, int unregisteredTotal, Text teamSizes) {
+        setStatistics(studentsTotal, unregisteredTotal, teamSizes);
+        changeVersion();
+    }
+
+    /**
+     * Records a change to the students of the course that the counts do not include.
+     */
+    public void setOutdated() {
+        this.isOutdated = true;
+        this.updatedAt = new Date();
+        changeVersion();
+    }
+
+    private void changeVersion() {
+        this.version = Math.max(System.currentTimeMillis(), getVersion() + 1);
+    }
+
+    public Date getUpdatedAt() {
+        return updatedAt;
+    }
+}
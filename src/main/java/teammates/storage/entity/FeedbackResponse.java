@@ -1,6 +1,8 @@
 package teammates.storage.entity;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 import javax.jdo.annotations.NotPersistent;
 import javax.jdo.annotations.PersistenceCapable;
@@ -55,6 +57,14 @@ public class FeedbackResponse implements StoreCallback {
     @Persistent
     private String receiverSection;
 
+    /**
+     * The distinct sections of the giver and the receiver, kept in sync with
+     * {@link #giverSection} and {@link #receiverSection} so that the responses
+     * from or to a section can be fetched with a single equality filter.
+     */
+    @Persistent
+    private List<String> involvedSections;
+
     @Persistent
     private Text answer; //TODO: rename to responseMetaData, will require database conversion
 
@@ -76,6 +86,7 @@ public class FeedbackResponse implements StoreCallback {
         this.receiver = recipient;
         this.receiverSection = recipientSection;
         this.answer = answer;
+        updateInvolvedSections();
                 
         this.feedbackResponseId = feedbackQuestionId + "%" + giverEmail + "%" + receiver;
         
@@ -137,6 +148,7 @@ public class FeedbackResponse implements StoreCallback {
 
     public void setGiverSection(String giverSection) {
         this.giverSection = giverSection;
+        updateInvolvedSections();
     }
 
     public String getRecipientEmail() {
@@ -153,6 +165,29 @@ public class FeedbackResponse implements StoreCallback {
 
     public void setRecipientSection(String recipientSection) {
         this.receiverSection = recipientSection;
+        updateInvolvedSections();
+    }
+
+    /**
+     * @return the sections of the giver and the receiver, without duplicates.
+     *         Null for responses stored before the sections were denormalized.
+     */
+    public List<String> getInvolvedSections() {
+        return involvedSections;
+    }
+
+    /**
+     * Recomputes the involved sections from the giver and receiver sections.
+     */
+    public void updateInvolvedSections() {
+        List<String> sections = new ArrayList<String>();
+        if (giverSection != null) {
+            sections.add(giverSection);
+        }
+        if (receiverSection != null && !receiverSection.equals(giverSection)) {
+            sections.add(receiverSection);
+        }
+        this.involvedSections = sections;
     }
 
     public Text getResponseMetaData() {
@@ -188,5 +223,8 @@ public class FeedbackResponse implements StoreCallback {
     @Override
     public void jdoPreStore() {
         this.setLastUpdate(new Date());
+        if (involvedSections == null) {
+            updateInvolvedSections();
+        }
     }
 }
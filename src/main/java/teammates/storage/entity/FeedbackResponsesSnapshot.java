@@ -0,0 +1,126 @@
+package teammates.storage.entity;
+
+import java.util.Date;
+
+import javax.jdo.annotations.PersistenceCapable;
+import javax.jdo.annotations.Persistent;
+import javax.jdo.annotations.PrimaryKey;
+
+import com.google.appengine.api.datastore.Text;
+
+/**
+ * Represents one chunk of a precomputed copy of all the responses of a feedback session
+ * in a section (or of the whole session), used to hydrate results pages in a single read.
+ * A snapshot is made up of {@code chunkCount} chunks; only the first chunk is looked up
+ * to decide whether the snapshot exists, so deleting it invalidates the whole snapshot.
+ * <br> A snapshot is also only up to date while its {@code responsesVersion} matches the version
+ * of the responses recorded by {@link teammates.storage.api.FeedbackResponsesDb}, which changes
+ * whenever a response of the session in the section is written.
+ */
+@PersistenceCapable
+public class FeedbackResponsesSnapshot {
+
+    /** Used in place of a section name for the snapshot of the whole session. */
+    public static final String ALL_SECTIONS = "%ALL%";
+
+    /**
+     * Bump this whenever the serialized form of the responses changes,
+     * so that snapshots written by older versions of the app are ignored.
+     */
+    public static final int CURRENT_FORMAT_VERSION = 2;
+
+    // Format is courseId%feedbackSessionName%section%chunkIndex
+    @PrimaryKey
+    @Persistent
+    private String snapshotChunkId;
+
+    @Persistent
+    private String courseId;
+
+    @Persistent
+    private String feedbackSessionName;
+
+    @Persistent
+    private String section;
+
+    @Persistent
+    private int chunkIndex;
+
+    @Persistent
+    private int chunkCount;
+
+    @Persistent
+    private int formatVersion;
+
+    @Persistent
+    private long responsesVersion;
+
+    @Persistent
+    private Text responses;
+
+    @Persistent
+    private Date createdAt;
+
+    public FeedbackResponsesSnapshot(String courseId, String feedbackSessionName, String section,
+                                     int chunkIndex, int chunkCount, long responsesVersion, Text responses) {
+        this.courseId = courseId;
+        this.feedbackSessionName = feedbackSessionName;
+        this.section = section;
+        this.chunkIndex = chunkIndex;
+        this.chunkCount = chunkCount;
+        this.formatVersion = CURRENT_FORMAT_VERSION;
+        this.responsesVersion = responsesVersion;
+        this.responses = responses;
+        this.createdAt = new Date();
+
+        this.snapshotChunkId = generateId(courseId, feedbackSessionName, section, chunkIndex);
+    }
+
+    public static String generateId(String courseId, String feedbackSessionName, String section, int chunkIndex) {
+        return courseId + "%" + feedbackSessionName + "%" + section + "%" + chunkIndex;
+    }
+
+    public String getId() {
+        return snapshotChunkId;
+    }
+
+    public String getCourseId() {
+        return courseId;
+    }
+
+    public String getFeedbackSessionName() {
+        return feedbackSessionName;
+    }
+
+    public String getSection() {
+        return section;
+    }
+
+    public int getChunkIndex() {
+        return chunkIndex;
+    }
+
+    public int getChunkCount() {
+        return chunkCount;
+    }
+
+    public int getFormatVersion() {
+        return formatVersion;
+    }
+
+    public long getResponsesVersion() {
+        return responsesVersion;
+    }
+
+    public Text getResponses() {
+        return responses;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+}
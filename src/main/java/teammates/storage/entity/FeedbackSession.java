@@ -37,6 +37,8 @@ public class FeedbackSession {
     @Persistent
     private String creatorEmail; //TODO: should this be googleId?
     
+    // Respondants are now stored as FeedbackSessionRespondant entities. These lists only hold
+    // the respondants recorded by earlier versions, and are no longer added to.
     @Persistent
     @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
     private Set<String> respondingInstructorList;
@@ -0,0 +1,74 @@
+package teammates.storage.entity;
+
+import java.util.Date;
+
+import javax.jdo.annotations.PersistenceCapable;
+import javax.jdo.annotations.Persistent;
+import javax.jdo.annotations.PrimaryKey;
+
+/**
+ * Records that a student or an instructor has responded to a feedback session.
+ * Each respondant is stored as a separate entity (in its own entity group), so that
+ * users submitting responses at the same time do not write to the same entity.
+ */
+@PersistenceCapable
+public class FeedbackSessionRespondant {
+
+    // Format is courseId%feedbackSessionName%role%email, where role is "instructor" or "student"
+    @PrimaryKey
+    @Persistent
+    private String respondantId;
+
+    @Persistent
+    private String courseId;
+
+    @Persistent
+    private String feedbackSessionName;
+
+    @Persistent
+    private String email;
+
+    @Persistent
+    private boolean isInstructor;
+
+    @Persistent
+    private Date createdAt;
+
+    public FeedbackSessionRespondant(String courseId, String feedbackSessionName, String email, boolean isInstructor) {
+        this.courseId = courseId;
+        this.feedbackSessionName = feedbackSessionName;
+        this.email = email;
+        this.isInstructor = isInstructor;
+        this.createdAt = new Date();
+
+        this.respondantId = generateId(courseId, feedbackSessionName, email, isInstructor);
+    }
+
+    public static String generateId(String courseId, String feedbackSessionName, String email, boolean isInstructor) {
+        return courseId + "%" + feedbackSessionName + "%" + (isInstructor ? "instructor" : "student") + "%" + email;
+    }
+
+    public String getId() {
+        return respondantId;
+    }
+
+    public String getCourseId() {
+        return courseId;
+    }
+
+    public String getFeedbackSessionName() {
+        return feedbackSessionName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public boolean isInstructor() {
+        return isInstructor;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+}
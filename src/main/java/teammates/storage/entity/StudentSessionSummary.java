@@ -0,0 +1,95 @@
+package teammates.storage.entity;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.jdo.annotations.Extension;
+import javax.jdo.annotations.PersistenceCapable;
+import javax.jdo.annotations.Persistent;
+import javax.jdo.annotations.PrimaryKey;
+
+/**
+ * Records, for one student of a course, whether the student has submitted each feedback session
+ * of the course, so that the student's home page can be shown without checking the sessions one by one.
+ * The summary is derived from the respondants and the questions of the sessions, so a session
+ * that is in neither set is simply not known yet, and has to be checked again.
+ */
+@PersistenceCapable
+public class StudentSessionSummary {
+
+    // Format is courseId%studentEmail
+    @PrimaryKey
+    @Persistent
+    private String summaryId;
+
+    @Persistent
+    private String courseId;
+
+    @Persistent
+    private String studentEmail;
+
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private Set<String> submittedSessionNames;
+
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private Set<String> notSubmittedSessionNames;
+
+    @Persistent
+    private Date updatedAt;
+
+    public StudentSessionSummary(String courseId, String studentEmail) {
+        this.courseId = courseId;
+        this.studentEmail = studentEmail;
+        this.submittedSessionNames = new HashSet<String>();
+        this.notSubmittedSessionNames = new HashSet<String>();
+        this.updatedAt = new Date();
+
+        this.summaryId = generateId(courseId, studentEmail);
+    }
+
+    public static String generateId(String courseId, String studentEmail) {
+        return courseId + "%" + studentEmail;
+    }
+
+    public String getId() {
+        return summaryId;
+    }
+
+    public String getCourseId() {
+        return courseId;
+    }
+
+    public String getStudentEmail() {
+        return studentEmail;
+    }
+
+    /**
+     * @return a copy of the names of the sessions submitted by the student
+     */
+    public Set<String> getSubmittedSessionNames() {
+        return submittedSessionNames == null ? new HashSet<String>() : new HashSet<String>(submittedSessionNames);
+    }
+
+    /**
+     * @return a copy of the names of the sessions not yet submitted by the student
+     */
+    public Set<String> getNotSubmittedSessionNames() {
+        return notSubmittedSessionNames == null ? new HashSet<String>() : new HashSet<String>(notSubmittedSessionNames);
+    }
+
+    /**
+     * The sets are replaced rather than modified in place, so that the change is always persisted.
+     */
+    public void setSessionNames(Set<String> submittedSessionNames, Set<String> notSubmittedSessionNames) {
+        this.submittedSessionNames = submittedSessionNames;
+        this.notSubmittedSessionNames = notSubmittedSessionNames;
+        this.updatedAt = new Date();
+    }
+
+    public Date getUpdatedAt() {
+        return updatedAt;
+    }
+}
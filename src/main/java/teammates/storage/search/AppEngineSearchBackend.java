@@ -0,0 +1,78 @@
+package teammates.storage.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.appengine.api.search.Document;
+import com.google.appengine.api.search.Index;
+import com.google.appengine.api.search.IndexSpec;
+import com.google.appengine.api.search.OperationResult;
+import com.google.appengine.api.search.PutException;
+import com.google.appengine.api.search.Query;
+import com.google.appengine.api.search.Results;
+import com.google.appengine.api.search.ScoredDocument;
+import com.google.appengine.api.search.SearchServiceFactory;
+
+/**
+ * The {@link SearchBackend} that keeps the indices in the App Engine Search API.
+ * Codes reference:
+ * https://developers.google.com/appengine/docs/java/search/
+ */
+public class AppEngineSearchBackend implements SearchBackend {
+
+    private static final ThreadLocal<Map<String, Index>> PER_THREAD_INDICES_TABLE = new ThreadLocal<Map<String, Index>>();
+
+    @Override
+    public List<OperationResult> putDocuments(String indexName, List<Document> documents) {
+        try {
+            return getIndex(indexName).put(documents).getResults();
+        } catch (PutException e) {
+            if (!e.getResults().isEmpty()) {
+                return e.getResults();
+            }
+            // the whole call failed, so every document failed in the same way
+            List<OperationResult> results = new ArrayList<OperationResult>();
+            for (int i = 0; i < documents.size(); i++) {
+                results.add(e.getOperationResult());
+            }
+            return results;
+        }
+    }
+
+    @Override
+    public Document getDocument(String indexName, String documentId) {
+        return getIndex(indexName).get(documentId);
+    }
+
+    @Override
+    public Results<ScoredDocument> searchDocuments(String indexName, Query query) {
+        return getIndex(indexName).search(query);
+    }
+
+    @Override
+    public void deleteDocuments(String indexName, String... documentIds) {
+        getIndex(indexName).deleteAsync(documentIds);
+    }
+
+    private static Index getIndex(String indexName) {
+        Map<String, Index> indicesTable = getIndicesTable();
+        Index index = indicesTable.get(indexName);
+        if (index == null) {
+            IndexSpec indexSpec = IndexSpec.newBuilder().setName(indexName).build();
+            index = SearchServiceFactory.getSearchService().getIndex(indexSpec);
+            indicesTable.put(indexName, index);
+        }
+        return index;
+    }
+
+    private static Map<String, Index> getIndicesTable() {
+        Map<String, Index> indicesTable = PER_THREAD_INDICES_TABLE.get();
+        if (indicesTable == null) {
+            indicesTable = new HashMap<String, Index>();
+            PER_THREAD_INDICES_TABLE.set(indicesTable);
+        }
+        return indicesTable;
+    }
+}
@@ -36,9 +36,9 @@ public class CommentSearchDocument extends SearchDocument {
             return;
         }
         
-        course = logic.getCourse(comment.courseId);
+        course = context.getCourse(comment.courseId);
         
-        giverAsInstructor = logic.getInstructorForEmail(comment.courseId, comment.giverEmail);
+        giverAsInstructor = context.getInstructorForEmail(comment.courseId, comment.giverEmail);
         
         String delim = "";
         relatedStudents = new ArrayList<StudentAttributes>();
@@ -47,7 +47,7 @@ public class CommentSearchDocument extends SearchDocument {
         switch (comment.recipientType) {
         case PERSON:
             for (String email : comment.recipients) {
-                StudentAttributes student = logic.getStudentForEmail(comment.courseId, email);
+                StudentAttributes student = context.getStudentForEmail(comment.courseId, email);
                 if (student == null) {
                     commentRecipientNameBuilder.append(delim).append(email);
                     delim = ", ";
@@ -60,20 +60,14 @@ public class CommentSearchDocument extends SearchDocument {
             break;
         case TEAM:
             for (String team : comment.recipients) {
-                List<StudentAttributes> students = logic.getStudentsForTeam(StringHelper.recoverFromSanitizedText(team), comment.courseId);
-                if (students != null) {
-                    relatedStudents.addAll(students);
-                }
+                relatedStudents.addAll(context.getStudentsForTeam(StringHelper.recoverFromSanitizedText(team), comment.courseId));
                 commentRecipientNameBuilder.append(delim).append(team);
                 delim = ", ";
             }
             break;
         case SECTION:
             for (String section : comment.recipients) {
-                List<StudentAttributes> students = logic.getStudentsForSection(section, comment.courseId);
-                if (students != null) {
-                    relatedStudents.addAll(students);
-                }
+                relatedStudents.addAll(context.getStudentsForSection(section, comment.courseId));
                 commentRecipientNameBuilder.append(delim).append(section);
                 delim = ", ";
             }
@@ -0,0 +1,91 @@
+package teammates.storage.search;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.appengine.api.search.Document;
+import com.google.appengine.api.search.OperationResult;
+import com.google.appengine.api.search.Query;
+import com.google.appengine.api.search.Results;
+import com.google.appengine.api.search.ScoredDocument;
+
+/**
+ * The {@link SearchBackend} that keeps the indices in the app itself, as {@link EmbeddedSearchIndex}es.
+ * It supports the queries built by the {@link SearchQuery} classes (see {@link EmbeddedSearchQueryParser})
+ * and cursors, so that searches can be tried out and benchmarked locally at realistic sizes.
+ * The indices are only seen by the instance that builds them.
+ */
+public class EmbeddedSearchBackend implements SearchBackend {
+
+    private final ConcurrentMap<String, EmbeddedSearchIndex> indices = new ConcurrentHashMap<String, EmbeddedSearchIndex>();
+
+    /** null if the indices are kept in memory only. */
+    private final File directory;
+
+    /**
+     * Creates a backend whose indices are kept in memory only.
+     */
+    public EmbeddedSearchBackend() {
+        this.directory = null;
+    }
+
+    /**
+     * Creates a backend whose indices are also saved in the given directory, one file per index,
+     * so that they survive restarts.
+     */
+    public EmbeddedSearchBackend(File directory) {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalArgumentException("Unable to create search index directory " + directory);
+        }
+        this.directory = directory;
+    }
+
+    @Override
+    public List<OperationResult> putDocuments(String indexName, List<Document> documents) {
+        return getIndex(indexName).put(documents);
+    }
+
+    @Override
+    public Document getDocument(String indexName, String documentId) {
+        return getIndex(indexName).get(documentId);
+    }
+
+    @Override
+    public Results<ScoredDocument> searchDocuments(String indexName, Query query) {
+        return getIndex(indexName).search(query);
+    }
+
+    @Override
+    public void deleteDocuments(String indexName, String... documentIds) {
+        getIndex(indexName).delete(Arrays.asList(documentIds));
+    }
+
+    private EmbeddedSearchIndex getIndex(String indexName) {
+        EmbeddedSearchIndex index = indices.get(indexName);
+        if (index != null) {
+            return index;
+        }
+
+        synchronized (indices) {
+            index = indices.get(indexName);
+            if (index == null) {
+                index = createIndex(indexName);
+                indices.put(indexName, index);
+            }
+            return index;
+        }
+    }
+
+    private EmbeddedSearchIndex createIndex(String indexName) {
+        try {
+            return new EmbeddedSearchIndex(
+                    directory == null ? null : new EmbeddedSearchJournal(new File(directory, indexName + ".json")));
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to load search index " + indexName, e);
+        }
+    }
+}
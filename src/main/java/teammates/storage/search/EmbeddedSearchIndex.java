@@ -0,0 +1,399 @@
+package teammates.storage.search;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Logger;
+
+import teammates.common.exception.TeammatesException;
+import teammates.common.util.Utils;
+
+import com.google.appengine.api.search.Cursor;
+import com.google.appengine.api.search.Document;
+import com.google.appengine.api.search.Field;
+import com.google.appengine.api.search.OperationResult;
+import com.google.appengine.api.search.Query;
+import com.google.appengine.api.search.QueryOptions;
+import com.google.appengine.api.search.Results;
+import com.google.appengine.api.search.ScoredDocument;
+import com.google.appengine.api.search.SearchQueryException;
+import com.google.appengine.api.search.StatusCode;
+
+/**
+ * An inverted index of search documents kept in memory, used by the {@link EmbeddedSearchBackend}.
+ * The text, HTML and atom fields of the documents are split into lower-cased words, and each word
+ * maps to the documents containing it in each field. Searches may run concurrently with each other,
+ * but not with changes to the index.
+ */
+class EmbeddedSearchIndex {
+
+    private static final Logger log = Utils.getLogger();
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    /**
+     * Cursors have to be in the "perResult:position" form accepted by {@link Cursor.Builder#build(String)};
+     * the position is the number of results already returned.
+     */
+    private static final String CURSOR_PREFIX = "false:";
+
+    private final Map<String, Document> documents = new HashMap<String, Document>();
+
+    /** The order in which the documents were last put, used to return newer documents first. */
+    private final Map<String, Long> putOrder = new HashMap<String, Long>();
+
+    /** The words of each searchable field of each document, keyed by document ID then field name. */
+    private final Map<String, Map<String, List<String>>> wordsByDocument = new HashMap<String, Map<String, List<String>>>();
+
+    /** The IDs of the documents containing each word, keyed by field name then word. */
+    private final Map<String, Map<String, Set<String>>> postings = new HashMap<String, Map<String, Set<String>>>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** null if the index is kept in memory only. */
+    private final EmbeddedSearchJournal journal;
+
+    private long nextPutOrder;
+
+    /**
+     * @param journal the file from which the index is loaded and to which its changes are recorded,
+     *        or null to keep the index in memory only
+     */
+    EmbeddedSearchIndex(EmbeddedSearchJournal journal) throws IOException {
+        this.journal = journal;
+        if (journal != null) {
+            List<Document> savedDocuments = journal.load();
+            for (Document document : savedDocuments) {
+                add(document);
+            }
+            journal.rewrite(savedDocuments);
+        }
+    }
+
+    List<OperationResult> put(List<Document> documentsToPut) {
+        List<OperationResult> results = new ArrayList<OperationResult>();
+        lock.writeLock().lock();
+        try {
+            if (journal != null) {
+                journal.append(documentsToPut, Collections.<String>emptyList());
+            }
+            for (Document document : documentsToPut) {
+                remove(document.getId());
+                add(document);
+                results.add(new OperationResult(StatusCode.OK, null));
+            }
+        } catch (IOException e) {
+            log.severe("Failed to record documents in the search index journal: "
+                       + TeammatesException.toStringWithStackTrace(e));
+            results.clear();
+            for (int i = 0; i < documentsToPut.size(); i++) {
+                results.add(new OperationResult(StatusCode.INTERNAL_ERROR, e.getMessage()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return results;
+    }
+
+    Document get(String documentId) {
+        lock.readLock().lock();
+        try {
+            return documents.get(documentId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void delete(Collection<String> documentIds) {
+        lock.writeLock().lock();
+        try {
+            if (journal != null) {
+                journal.append(Collections.<Document>emptyList(), documentIds);
+            }
+            for (String documentId : documentIds) {
+                remove(documentId);
+            }
+        } catch (IOException e) {
+            log.severe("Failed to record deleted documents in the search index journal: "
+                       + TeammatesException.toStringWithStackTrace(e));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the documents matching the query, the best matches first if the query asks for a
+     * {@link com.google.appengine.api.search.MatchScorer}, or else the most recently put first.
+     * @throws SearchQueryException if the query cannot be parsed
+     */
+    Results<ScoredDocument> search(Query query) {
+        EmbeddedSearchQueryParser.Condition condition = EmbeddedSearchQueryParser.parse(query.getQueryString());
+        QueryOptions options = query.getOptions();
+        int limit = options == null ? DEFAULT_LIMIT : options.getLimit();
+        int offset = getOffset(options);
+        boolean isScored = options != null && options.getSortOptions() != null
+                           && options.getSortOptions().getMatchScorer() != null;
+
+        lock.readLock().lock();
+        try {
+            List<String> matchingIds = new ArrayList<String>(condition.match(this));
+            final Map<String, Integer> scores = new HashMap<String, Integer>();
+            for (String documentId : matchingIds) {
+                scores.put(documentId, isScored ? condition.score(this, documentId) : 0);
+            }
+            Collections.sort(matchingIds, new Comparator<String>() {
+                @Override
+                public int compare(String id1, String id2) {
+                    int byScore = Integer.compare(scores.get(id2), scores.get(id1));
+                    return byScore == 0 ? Long.compare(putOrder.get(id2), putOrder.get(id1)) : byScore;
+                }
+            });
+
+            int end = Math.min(offset + limit, matchingIds.size());
+            List<ScoredDocument> page = new ArrayList<ScoredDocument>();
+            for (int i = offset; i < end; i++) {
+                page.add(toScoredDocument(documents.get(matchingIds.get(i)), scores.get(matchingIds.get(i)), isScored));
+            }
+            Cursor nextCursor = end < matchingIds.size() ? Cursor.newBuilder().build(CURSOR_PREFIX + end) : null;
+            return new EmbeddedResults(page, matchingIds.size(), nextCursor);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Splits text into lower-cased words, i.e. runs of letters and digits.
+     */
+    static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<String>();
+        if (text == null) {
+            return words;
+        }
+
+        String lowerCasedText = text.toLowerCase();
+        int start = -1;
+        for (int i = 0; i <= lowerCasedText.length(); i++) {
+            boolean isWordCharacter = i < lowerCasedText.length() && Character.isLetterOrDigit(lowerCasedText.charAt(i));
+            if (isWordCharacter && start == -1) {
+                start = i;
+            } else if (!isWordCharacter && start != -1) {
+                words.add(lowerCasedText.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    // The methods below are used by the conditions of EmbeddedSearchQueryParser while the read lock is held.
+
+    Set<String> getDocumentIds() {
+        return documents.keySet();
+    }
+
+    /**
+     * @param field the field to look in, or null to look in all fields
+     * @return the IDs of the documents containing the words in the given order, as a new set
+     */
+    Set<String> findPhrase(String field, List<String> words) {
+        Set<String> matches = new HashSet<String>();
+        if (words.isEmpty()) {
+            return matches;
+        }
+
+        Collection<String> fields = field == null ? postings.keySet() : Collections.singleton(field);
+        for (String fieldToSearch : fields) {
+            Set<String> candidates = findAllWords(fieldToSearch, words);
+            if (words.size() == 1) {
+                matches.addAll(candidates);
+                continue;
+            }
+            for (String documentId : candidates) {
+                if (!matches.contains(documentId)
+                        && countPhrase(wordsByDocument.get(documentId).get(fieldToSearch), words) > 0) {
+                    matches.add(documentId);
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * @param field the field to look in, or null to look in all fields
+     * @return the number of times the words occur in the given order in the document
+     */
+    int countPhrase(String documentId, String field, List<String> words) {
+        Map<String, List<String>> fieldWords = wordsByDocument.get(documentId);
+        if (fieldWords == null || words.isEmpty()) {
+            return 0;
+        }
+
+        if (field != null) {
+            return countPhrase(fieldWords.get(field), words);
+        }
+        int count = 0;
+        for (List<String> wordsOfField : fieldWords.values()) {
+            count += countPhrase(wordsOfField, words);
+        }
+        return count;
+    }
+
+    private static int countPhrase(List<String> text, List<String> words) {
+        if (text == null) {
+            return 0;
+        }
+
+        int count = 0;
+        for (int i = 0; i + words.size() <= text.size(); i++) {
+            if (text.subList(i, i + words.size()).equals(words)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private Set<String> findAllWords(String field, List<String> words) {
+        Map<String, Set<String>> fieldPostings = postings.get(field);
+        if (fieldPostings == null) {
+            return Collections.emptySet();
+        }
+
+        Set<String> smallest = null;
+        for (String word : words) {
+            Set<String> documentIds = fieldPostings.get(word);
+            if (documentIds == null) {
+                return Collections.emptySet();
+            }
+            if (smallest == null || documentIds.size() < smallest.size()) {
+                smallest = documentIds;
+            }
+        }
+
+        Set<String> candidates = new HashSet<String>(smallest);
+        for (String word : words) {
+            candidates.retainAll(fieldPostings.get(word));
+        }
+        return candidates;
+    }
+
+    private void add(Document document) {
+        String documentId = document.getId();
+        Map<String, List<String>> fieldWords = new HashMap<String, List<String>>();
+        for (Field field : document.getFields()) {
+            String text = getSearchableText(field);
+            if (text == null) {
+                continue;
+            }
+
+            List<String> words = fieldWords.get(field.getName());
+            if (words == null) {
+                words = new ArrayList<String>();
+                fieldWords.put(field.getName(), words);
+            }
+            words.addAll(tokenize(text));
+        }
+
+        for (Map.Entry<String, List<String>> entry : fieldWords.entrySet()) {
+            Map<String, Set<String>> fieldPostings = postings.get(entry.getKey());
+            if (fieldPostings == null) {
+                fieldPostings = new HashMap<String, Set<String>>();
+                postings.put(entry.getKey(), fieldPostings);
+            }
+            for (String word : entry.getValue()) {
+                Set<String> documentIds = fieldPostings.get(word);
+                if (documentIds == null) {
+                    documentIds = new HashSet<String>();
+                    fieldPostings.put(word, documentIds);
+                }
+                documentIds.add(documentId);
+            }
+        }
+
+        documents.put(documentId, document);
+        wordsByDocument.put(documentId, fieldWords);
+        putOrder.put(documentId, nextPutOrder++);
+    }
+
+    private void remove(String documentId) {
+        Map<String, List<String>> fieldWords = wordsByDocument.remove(documentId);
+        documents.remove(documentId);
+        putOrder.remove(documentId);
+        if (fieldWords == null) {
+            return;
+        }
+
+        for (Map.Entry<String, List<String>> entry : fieldWords.entrySet()) {
+            Map<String, Set<String>> fieldPostings = postings.get(entry.getKey());
+            for (String word : entry.getValue()) {
+                Set<String> documentIds = fieldPostings.get(word);
+                if (documentIds != null) {
+                    documentIds.remove(documentId);
+                    if (documentIds.isEmpty()) {
+                        fieldPostings.remove(word);
+                    }
+                }
+            }
+        }
+    }
+
+    private static String getSearchableText(Field field) {
+        switch (field.getType()) {
+        case TEXT:
+            return field.getText();
+        case HTML:
+            return field.getHTML();
+        case ATOM:
+            return field.getAtom();
+        default:
+            return null;
+        }
+    }
+
+    private static int getOffset(QueryOptions options) {
+        if (options == null) {
+            return 0;
+        }
+
+        Cursor cursor = options.getCursor();
+        if (cursor == null || cursor.toWebSafeString() == null) {
+            return options.getOffset();
+        }
+        String cursorString = cursor.toWebSafeString();
+        try {
+            if (cursorString.startsWith(CURSOR_PREFIX)) {
+                return Integer.parseInt(cursorString.substring(CURSOR_PREFIX.length()));
+            }
+        } catch (NumberFormatException e) {
+            // falls through to the error below
+        }
+        throw new SearchQueryException("Invalid cursor: " + cursorString);
+    }
+
+    private static ScoredDocument toScoredDocument(Document document, int score, boolean isScored) {
+        ScoredDocument.Builder builder = ScoredDocument.newBuilder();
+        builder.setId(document.getId());
+        for (Field field : document.getFields()) {
+            builder.addField(field);
+        }
+        if (isScored) {
+            builder.addScore(score);
+        }
+        return builder.build();
+    }
+
+    @SuppressWarnings("serial")
+    private static class EmbeddedResults extends Results<ScoredDocument> {
+
+        EmbeddedResults(List<ScoredDocument> results, int numberFound, Cursor cursor) {
+            super(new OperationResult(StatusCode.OK, null), results, numberFound, results.size(), cursor);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package teammates.storage.search;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import teammates.common.util.Const;
+
+import com.google.appengine.api.search.Document;
+import com.google.appengine.api.search.Field;
+import com.google.gson.Gson;
+
+/**
+ * The file in which the changes to an {@link EmbeddedSearchIndex} are recorded, one JSON line per
+ * put or deleted document, so that the index can be rebuilt after a restart.
+ */
+class EmbeddedSearchJournal {
+
+    private final File file;
+    private final Gson gson = new Gson();
+
+    EmbeddedSearchJournal(File file) {
+        this.file = file;
+    }
+
+    /**
+     * @return the documents in the index recorded in the file, in the order in which they were last put
+     */
+    List<Document> load() throws IOException {
+        Map<String, Document> documents = new LinkedHashMap<String, Document>();
+        if (!file.exists()) {
+            return new ArrayList<Document>();
+        }
+
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), Const.SystemParams.ENCODING));
+        try {
+            String line = reader.readLine();
+            while (line != null) {
+                JournalEntry entry = gson.fromJson(line, JournalEntry.class);
+                // a document that is put again moves to the end, as it would for a new document
+                documents.remove(entry.id);
+                if (!entry.isDeleted) {
+                    documents.put(entry.id, entry.toDocument());
+                }
+                line = reader.readLine();
+            }
+        } finally {
+            reader.close();
+        }
+        return new ArrayList<Document>(documents.values());
+    }
+
+    /**
+     * Replaces the content of the file with the given documents, leaving out the superseded entries.
+     */
+    void rewrite(Collection<Document> documents) throws IOException {
+        File newFile = new File(file.getPath() + ".new");
+        write(newFile, documents, new ArrayList<String>(), false);
+        if (file.exists() && !file.delete() || !newFile.renameTo(file)) {
+            throw new IOException("Unable to replace " + file);
+        }
+    }
+
+    void append(Collection<Document> putDocuments, Collection<String> deletedDocumentIds) throws IOException {
+        write(file, putDocuments, deletedDocumentIds, true);
+    }
+
+    private void write(File target, Collection<Document> putDocuments, Collection<String> deletedDocumentIds,
+                       boolean isAppending) throws IOException {
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(target, isAppending), Const.SystemParams.ENCODING));
+        try {
+            for (Document document : putDocuments) {
+                writer.write(gson.toJson(JournalEntry.forPut(document)));
+                writer.write('\n');
+            }
+            for (String documentId : deletedDocumentIds) {
+                writer.write(gson.toJson(JournalEntry.forDelete(documentId)));
+                writer.write('\n');
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    private static class JournalEntry {
+        String id;
+        boolean isDeleted;
+        List<JournalField> fields;
+
+        static JournalEntry forPut(Document document) {
+            JournalEntry entry = new JournalEntry();
+            entry.id = document.getId();
+            entry.fields = new ArrayList<JournalField>();
+            for (Field field : document.getFields()) {
+                entry.fields.add(JournalField.of(field));
+            }
+            return entry;
+        }
+
+        static JournalEntry forDelete(String documentId) {
+            JournalEntry entry = new JournalEntry();
+            entry.id = documentId;
+            entry.isDeleted = true;
+            return entry;
+        }
+
+        Document toDocument() {
+            Document.Builder builder = Document.newBuilder().setId(id);
+            for (JournalField field : fields) {
+                builder.addField(field.toField());
+            }
+            return builder.build();
+        }
+    }
+
+    private static class JournalField {
+        String name;
+        Field.FieldType type;
+        String value;
+
+        static JournalField of(Field field) {
+            JournalField journalField = new JournalField();
+            journalField.name = field.getName();
+            journalField.type = field.getType();
+            switch (field.getType()) {
+            case HTML:
+                journalField.value = field.getHTML();
+                break;
+            case ATOM:
+                journalField.value = field.getAtom();
+                break;
+            case DATE:
+                journalField.value = String.valueOf(field.getDate().getTime());
+                break;
+            case NUMBER:
+                journalField.value = String.valueOf(field.getNumber());
+                break;
+            case TEXT:
+                journalField.value = field.getText();
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported field type " + field.getType() + " of " + field.getName());
+            }
+            return journalField;
+        }
+
+        Field.Builder toField() {
+            Field.Builder builder = Field.newBuilder().setName(name);
+            switch (type) {
+            case HTML:
+                return builder.setHTML(value);
+            case ATOM:
+                return builder.setAtom(value);
+            case DATE:
+                return builder.setDate(new Date(Long.parseLong(value)));
+            case NUMBER:
+                return builder.setNumber(Double.parseDouble(value));
+            default:
+                return builder.setText(value);
+            }
+        }
+    }
+}
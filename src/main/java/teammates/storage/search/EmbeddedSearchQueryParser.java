@@ -0,0 +1,290 @@
+package teammates.storage.search;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.google.appengine.api.search.SearchQueryException;
+
+/**
+ * Parses search query strings for the {@link EmbeddedSearchIndex}.
+ * The subset of the App Engine query language built by the {@link SearchQuery} classes is supported:
+ * <ul>
+ * <li>keywords and quoted phrases, e.g. {@code "alice tan"}, matched against all the text fields,</li>
+ * <li>field restrictions, e.g. {@code courseId:(CS1101 OR CS2103)},</li>
+ * <li>{@code AND} (also implied between terms), {@code OR} and {@code NOT}, grouped by parentheses.</li>
+ * </ul>
+ * Comparisons such as {@code createdDate >= 2015-01-01} are not supported.
+ */
+final class EmbeddedSearchQueryParser {
+
+    private static final String AND = "AND";
+    private static final String OR = "OR";
+    private static final String NOT = "NOT";
+
+    private final List<QueryToken> tokens;
+    private int position;
+
+    private EmbeddedSearchQueryParser(String queryString) {
+        this.tokens = tokenizeQuery(queryString);
+    }
+
+    /**
+     * @throws SearchQueryException if the query string cannot be parsed
+     */
+    static Condition parse(String queryString) {
+        EmbeddedSearchQueryParser parser = new EmbeddedSearchQueryParser(queryString);
+        if (parser.tokens.isEmpty()) {
+            return new MatchAll();
+        }
+
+        Condition condition = parser.parseDisjunction(null);
+        if (parser.hasNext()) {
+            throw new SearchQueryException("Unexpected '" + parser.peek().text + "' in query: " + queryString);
+        }
+        return condition;
+    }
+
+    private Condition parseDisjunction(String field) {
+        List<Condition> operands = new ArrayList<Condition>();
+        operands.add(parseConjunction(field));
+        while (isNextKeyword(OR)) {
+            position++;
+            operands.add(parseConjunction(field));
+        }
+        return operands.size() == 1 ? operands.get(0) : new AnyOf(operands);
+    }
+
+    private Condition parseConjunction(String field) {
+        List<Condition> operands = new ArrayList<Condition>();
+        operands.add(parseUnary(field));
+        while (hasNext() && !isNextKeyword(OR) && peek().type != QueryTokenType.CLOSE) {
+            if (isNextKeyword(AND)) {
+                position++;
+            }
+            operands.add(parseUnary(field));
+        }
+        return operands.size() == 1 ? operands.get(0) : new AllOf(operands);
+    }
+
+    private Condition parseUnary(String field) {
+        if (!hasNext()) {
+            throw new SearchQueryException("Unexpected end of query");
+        }
+
+        QueryToken token = tokens.get(position++);
+        if (token.type == QueryTokenType.OPEN) {
+            Condition condition = parseDisjunction(field);
+            if (!hasNext() || peek().type != QueryTokenType.CLOSE) {
+                throw new SearchQueryException("Missing ')' in query");
+            }
+            position++;
+            return condition;
+        }
+        if (token.type == QueryTokenType.WORD && NOT.equals(token.text)) {
+            return new Not(parseUnary(field));
+        }
+        if (token.type == QueryTokenType.WORD && hasNext() && peek().type == QueryTokenType.COLON) {
+            if (field != null) {
+                throw new SearchQueryException("Nested field restriction on " + token.text);
+            }
+            position++;
+            return parseUnary(token.text);
+        }
+        if (token.type == QueryTokenType.WORD || token.type == QueryTokenType.PHRASE) {
+            if (token.type == QueryTokenType.WORD && isComparator(token.text)) {
+                throw new SearchQueryException("Comparisons are not supported: " + token.text);
+            }
+            return new Phrase(field, EmbeddedSearchIndex.tokenize(token.text));
+        }
+        throw new SearchQueryException("Unexpected '" + token.text + "' in query");
+    }
+
+    private boolean hasNext() {
+        return position < tokens.size();
+    }
+
+    private QueryToken peek() {
+        return tokens.get(position);
+    }
+
+    private boolean isNextKeyword(String keyword) {
+        return hasNext() && peek().type == QueryTokenType.WORD && keyword.equals(peek().text);
+    }
+
+    private static boolean isComparator(String word) {
+        return word.startsWith("<") || word.startsWith(">") || word.startsWith("=");
+    }
+
+    private static List<QueryToken> tokenizeQuery(String queryString) {
+        List<QueryToken> queryTokens = new ArrayList<QueryToken>();
+        int i = 0;
+        while (i < queryString.length()) {
+            char c = queryString.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '(') {
+                queryTokens.add(new QueryToken(QueryTokenType.OPEN, "("));
+                i++;
+            } else if (c == ')') {
+                queryTokens.add(new QueryToken(QueryTokenType.CLOSE, ")"));
+                i++;
+            } else if (c == ':') {
+                queryTokens.add(new QueryToken(QueryTokenType.COLON, ":"));
+                i++;
+            } else if (c == '"') {
+                int end = queryString.indexOf('"', i + 1);
+                if (end == -1) {
+                    throw new SearchQueryException("Unterminated phrase in query: " + queryString);
+                }
+                queryTokens.add(new QueryToken(QueryTokenType.PHRASE, queryString.substring(i + 1, end)));
+                i = end + 1;
+            } else {
+                int start = i;
+                while (i < queryString.length() && !Character.isWhitespace(queryString.charAt(i))
+                        && "():\"".indexOf(queryString.charAt(i)) == -1) {
+                    i++;
+                }
+                queryTokens.add(new QueryToken(QueryTokenType.WORD, queryString.substring(start, i)));
+            }
+        }
+        return queryTokens;
+    }
+
+    private enum QueryTokenType {
+        OPEN, CLOSE, COLON, PHRASE, WORD
+    }
+
+    private static class QueryToken {
+        final QueryTokenType type;
+        final String text;
+
+        QueryToken(QueryTokenType type, String text) {
+            this.type = type;
+            this.text = text;
+        }
+    }
+
+    /**
+     * A parsed query, which selects the documents of an index that match it.
+     */
+    abstract static class Condition {
+
+        /**
+         * @return the IDs of the documents of the index matching this condition
+         */
+        abstract Set<String> match(EmbeddedSearchIndex index);
+
+        /**
+         * @return how well the document matches this condition, as the number of times its terms occur
+         */
+        abstract int score(EmbeddedSearchIndex index, String documentId);
+    }
+
+    private static class MatchAll extends Condition {
+
+        @Override
+        Set<String> match(EmbeddedSearchIndex index) {
+            return new HashSet<String>(index.getDocumentIds());
+        }
+
+        @Override
+        int score(EmbeddedSearchIndex index, String documentId) {
+            return 0;
+        }
+    }
+
+    private static class Phrase extends Condition {
+        /** null if the phrase can be in any field. */
+        private final String field;
+        private final List<String> terms;
+
+        Phrase(String field, List<String> terms) {
+            this.field = field;
+            this.terms = terms;
+        }
+
+        @Override
+        Set<String> match(EmbeddedSearchIndex index) {
+            return index.findPhrase(field, terms);
+        }
+
+        @Override
+        int score(EmbeddedSearchIndex index, String documentId) {
+            return index.countPhrase(documentId, field, terms);
+        }
+    }
+
+    private static class AllOf extends Condition {
+        private final List<Condition> operands;
+
+        AllOf(List<Condition> operands) {
+            this.operands = operands;
+        }
+
+        @Override
+        Set<String> match(EmbeddedSearchIndex index) {
+            Set<String> matches = operands.get(0).match(index);
+            for (int i = 1; i < operands.size() && !matches.isEmpty(); i++) {
+                matches.retainAll(operands.get(i).match(index));
+            }
+            return matches;
+        }
+
+        @Override
+        int score(EmbeddedSearchIndex index, String documentId) {
+            int score = 0;
+            for (Condition operand : operands) {
+                score += operand.score(index, documentId);
+            }
+            return score;
+        }
+    }
+
+    private static class AnyOf extends Condition {
+        private final List<Condition> operands;
+
+        AnyOf(List<Condition> operands) {
+            this.operands = operands;
+        }
+
+        @Override
+        Set<String> match(EmbeddedSearchIndex index) {
+            Set<String> matches = new HashSet<String>();
+            for (Condition operand : operands) {
+                matches.addAll(operand.match(index));
+            }
+            return matches;
+        }
+
+        @Override
+        int score(EmbeddedSearchIndex index, String documentId) {
+            int score = 0;
+            for (Condition operand : operands) {
+                score += operand.score(index, documentId);
+            }
+            return score;
+        }
+    }
+
+    private static class Not extends Condition {
+        private final Condition operand;
+
+        Not(Condition operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        Set<String> match(EmbeddedSearchIndex index) {
+            Set<String> matches = new HashSet<String>(index.getDocumentIds());
+            matches.removeAll(operand.match(index));
+            return matches;
+        }
+
+        @Override
+        int score(EmbeddedSearchIndex index, String documentId) {
+            return 0;
+        }
+    }
+}
@@ -51,9 +51,9 @@ public class FeedbackResponseCommentSearchDocument extends SearchDocument {
         
         relatedResponse = logic.getFeedbackResponse(comment.feedbackResponseId);
         
-        course = logic.getCourse(comment.courseId);
+        course = context.getCourse(comment.courseId);
         
-        giverAsInstructor = logic.getInstructorForEmail(comment.courseId, comment.giverEmail);
+        giverAsInstructor = context.getInstructorForEmail(comment.courseId, comment.giverEmail);
         
         relatedInstructors = new ArrayList<InstructorAttributes>();
         relatedStudents = new ArrayList<StudentAttributes>();
@@ -62,7 +62,7 @@ public class FeedbackResponseCommentSearchDocument extends SearchDocument {
         Set<String> addedEmailSet = new HashSet<String>();
         if (relatedQuestion.giverType == FeedbackParticipantType.INSTRUCTORS
                 || relatedQuestion.giverType == FeedbackParticipantType.SELF) {
-            InstructorAttributes ins = logic.getInstructorForEmail(comment.courseId, relatedResponse.giverEmail);
+            InstructorAttributes ins = context.getInstructorForEmail(comment.courseId, relatedResponse.giverEmail);
             if (ins == null || addedEmailSet.contains(ins.email)) {
                 responseGiverName = Const.USER_UNKNOWN_TEXT;
             } else {
@@ -71,7 +71,7 @@ public class FeedbackResponseCommentSearchDocument extends SearchDocument {
                 responseGiverName = ins.name + " (" + ins.displayedName + ")";
             }
         } else {
-            StudentAttributes stu = logic.getStudentForEmail(comment.courseId, relatedResponse.giverEmail);
+            StudentAttributes stu = context.getStudentForEmail(comment.courseId, relatedResponse.giverEmail);
             if (stu == null || addedEmailSet.contains(stu.email)) {
                 responseGiverName = Const.USER_UNKNOWN_TEXT;
             } else {
@@ -82,7 +82,7 @@ public class FeedbackResponseCommentSearchDocument extends SearchDocument {
         }
         
         if (relatedQuestion.recipientType == FeedbackParticipantType.INSTRUCTORS) {
-            InstructorAttributes ins = logic.getInstructorForEmail(comment.courseId, relatedResponse.recipientEmail);
+            InstructorAttributes ins = context.getInstructorForEmail(comment.courseId, relatedResponse.recipientEmail);
             if (ins != null && !addedEmailSet.contains(ins.email)) {
                 relatedInstructors.add(ins);
                 addedEmailSet.add(ins.email);
@@ -93,13 +93,13 @@ public class FeedbackResponseCommentSearchDocument extends SearchDocument {
         } else if (relatedQuestion.recipientType == FeedbackParticipantType.NONE) {
             responseRecipientName = Const.USER_NOBODY_TEXT;
         } else {
-            StudentAttributes stu = logic.getStudentForEmail(comment.courseId, relatedResponse.recipientEmail);
+            StudentAttributes stu = context.getStudentForEmail(comment.courseId, relatedResponse.recipientEmail);
             if (stu != null && !addedEmailSet.contains(stu.email)) {
                 relatedStudents.add(stu);
                 addedEmailSet.add(stu.email);
                 responseRecipientName = stu.name + " (" + stu.team + ")";
             }
-            List<StudentAttributes> team = logic.getStudentsForTeam(relatedResponse.recipientEmail, comment.courseId);
+            List<StudentAttributes> team = context.getStudentsForTeam(relatedResponse.recipientEmail, comment.courseId);
             if (team != null) {
                 responseRecipientName = relatedResponse.recipientEmail; //it's actually a team name here
                 for (StudentAttributes studentInTeam : team) {
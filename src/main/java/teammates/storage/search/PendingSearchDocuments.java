@@ -0,0 +1,116 @@
+package teammates.storage.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import teammates.common.util.Const;
+import teammates.common.util.Const.ParamsNames;
+import teammates.common.util.Const.SystemParams;
+import teammates.common.util.Utils;
+import teammates.logic.core.SearchDocumentsLogic;
+import teammates.logic.core.TaskQueuesLogic;
+
+/**
+ * Keeps track of the search documents to be put for the entities written in the current request.
+ * <br> The documents are not built during the request. At the end of the request (see {@link #flush()}),
+ * their IDs are sent to the search document task queue, up to {@link SearchManager#MAX_DOCUMENTS_PER_PUT}
+ * IDs of one index per task, and the task builds and puts them together.
+ * <br> Writes that are not made in a request to the app, e.g. by scripts through the remote API,
+ * have to put their documents themselves (see {@link #putNow()}).
+ */
+public final class PendingSearchDocuments {
+
+    private static final Logger log = Utils.getLogger();
+
+    /** IDs of the pending documents of the thread, by index name. */
+    private static final ThreadLocal<Map<String, Set<String>>> PER_THREAD_PENDING_DOCUMENTS =
+            new ThreadLocal<Map<String, Set<String>>>();
+
+    private PendingSearchDocuments() {
+        // utility class
+    }
+
+    /**
+     * Records that the document with the given ID is to be put into the index.
+     * A document recorded more than once in a request is only put once.
+     */
+    public static void add(String indexName, String documentId) {
+        Map<String, Set<String>> pendingDocuments = PER_THREAD_PENDING_DOCUMENTS.get();
+        if (pendingDocuments == null) {
+            pendingDocuments = new LinkedHashMap<String, Set<String>>();
+            PER_THREAD_PENDING_DOCUMENTS.set(pendingDocuments);
+        }
+
+        Set<String> documentIds = pendingDocuments.get(indexName);
+        if (documentIds == null) {
+            documentIds = new LinkedHashSet<String>();
+            pendingDocuments.put(indexName, documentIds);
+        }
+        documentIds.add(documentId);
+    }
+
+    /**
+     * @return the IDs of the pending documents, by index name. They are no longer pending.
+     */
+    public static Map<String, List<String>> drain() {
+        Map<String, List<String>> drainedDocuments = new LinkedHashMap<String, List<String>>();
+        Map<String, Set<String>> pendingDocuments = PER_THREAD_PENDING_DOCUMENTS.get();
+        if (pendingDocuments != null) {
+            for (Map.Entry<String, Set<String>> entry : pendingDocuments.entrySet()) {
+                drainedDocuments.put(entry.getKey(), new ArrayList<String>(entry.getValue()));
+            }
+        }
+        clear();
+        return drainedDocuments;
+    }
+
+    /**
+     * Adds the tasks that put the pending documents. They are no longer pending.
+     */
+    public static void flush() {
+        for (Map.Entry<String, List<String>> entry : drain().entrySet()) {
+            List<String> documentIds = entry.getValue();
+            for (int from = 0; from < documentIds.size(); from += SearchManager.MAX_DOCUMENTS_PER_PUT) {
+                int to = Math.min(from + SearchManager.MAX_DOCUMENTS_PER_PUT, documentIds.size());
+                List<String> batch = documentIds.subList(from, to);
+
+                HashMap<String, String[]> paramMap = new HashMap<String, String[]>();
+                paramMap.put(ParamsNames.SEARCH_INDEX_NAME, new String[] { entry.getKey() });
+                paramMap.put(ParamsNames.SEARCH_DOCUMENT_ID, batch.toArray(new String[batch.size()]));
+
+                try {
+                    TaskQueuesLogic.inst().createAndAddTaskMultisetParam(SystemParams.SEARCH_DOCUMENT_TASK_QUEUE,
+                                                                         Const.ActionURIs.SEARCH_DOCUMENT_WORKER,
+                                                                         paramMap);
+                } catch (Exception e) {
+                    log.severe("Failed to schedule " + batch.size() + " searchable documents in " + entry.getKey()
+                               + " : " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds and puts the pending documents right away instead of by tasks, for the entities written
+     * outside of the requests to the app, whose documents are never flushed. They are no longer pending.
+     */
+    public static void putNow() {
+        for (Map.Entry<String, List<String>> entry : drain().entrySet()) {
+            List<String> documentIds = entry.getValue();
+            for (int from = 0; from < documentIds.size(); from += SearchManager.MAX_DOCUMENTS_PER_PUT) {
+                int to = Math.min(from + SearchManager.MAX_DOCUMENTS_PER_PUT, documentIds.size());
+                SearchDocumentsLogic.inst().putDocuments(entry.getKey(), documentIds.subList(from, to));
+            }
+        }
+    }
+
+    public static void clear() {
+        PER_THREAD_PENDING_DOCUMENTS.remove();
+    }
+}
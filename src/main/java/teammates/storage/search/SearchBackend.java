@@ -0,0 +1,38 @@
+package teammates.storage.search;
+
+import java.util.List;
+
+import com.google.appengine.api.search.Document;
+import com.google.appengine.api.search.OperationResult;
+import com.google.appengine.api.search.Query;
+import com.google.appengine.api.search.Results;
+import com.google.appengine.api.search.ScoredDocument;
+
+/**
+ * The search service that keeps the search indices used by {@link SearchManager}.
+ * Retrying failed operations is left to the {@link SearchManager}.
+ */
+public interface SearchBackend {
+
+    /**
+     * Creates or updates the given documents in the index.
+     * @return the result of putting each document, in the same order as {@code documents}
+     */
+    List<OperationResult> putDocuments(String indexName, List<Document> documents);
+
+    /**
+     * @return the document with the given ID, or null if there is no such document in the index
+     */
+    Document getDocument(String indexName, String documentId);
+
+    /**
+     * @throws com.google.appengine.api.search.SearchQueryException if the query cannot be parsed
+     */
+    Results<ScoredDocument> searchDocuments(String indexName, Query query);
+
+    /**
+     * Deletes the documents with the given IDs from the index, ignoring IDs that are not in the index.
+     * The deletion may complete after this method returns.
+     */
+    void deleteDocuments(String indexName, String... documentIds);
+}
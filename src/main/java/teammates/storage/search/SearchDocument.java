@@ -11,11 +11,19 @@ public abstract class SearchDocument {
     
     protected Logic logic;
     
+    /** The course data shared with the other documents built together with this one. */
+    protected SearchDocumentContext context;
+    
     public SearchDocument() {
         logic = new Logic();
     }
     
     public Document build() {
+        return build(new SearchDocumentContext());
+    }
+    
+    public Document build(SearchDocumentContext sharedContext) {
+        context = sharedContext;
         prepareData();
         return toDocument();
     }
@@ -0,0 +1,103 @@
+package teammates.storage.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import teammates.common.datatransfer.CourseAttributes;
+import teammates.common.datatransfer.InstructorAttributes;
+import teammates.common.datatransfer.StudentAttributes;
+import teammates.logic.api.Logic;
+
+/**
+ * The course data looked up while building {@link SearchDocument}s, shared by the documents
+ * built together so that each course, and its instructors and students, is read only once.
+ * <br> A context should only be used for one batch of documents, as it does not see later changes.
+ */
+public class SearchDocumentContext {
+
+    private final Logic logic = new Logic();
+
+    private final Map<String, CourseAttributes> courses = new HashMap<String, CourseAttributes>();
+    private final Map<String, Map<String, InstructorAttributes>> instructorsByCourse =
+            new HashMap<String, Map<String, InstructorAttributes>>();
+    private final Map<String, List<StudentAttributes>> studentsByCourse = new HashMap<String, List<StudentAttributes>>();
+    private final Map<String, Map<String, StudentAttributes>> studentsByEmailByCourse =
+            new HashMap<String, Map<String, StudentAttributes>>();
+
+    /**
+     * @return null if the course does not exist
+     */
+    public CourseAttributes getCourse(String courseId) {
+        if (!courses.containsKey(courseId)) {
+            courses.put(courseId, logic.getCourse(courseId));
+        }
+        return courses.get(courseId);
+    }
+
+    /**
+     * @return null if there is no such instructor in the course
+     */
+    public InstructorAttributes getInstructorForEmail(String courseId, String email) {
+        Map<String, InstructorAttributes> instructors = instructorsByCourse.get(courseId);
+        if (instructors == null) {
+            instructors = new HashMap<String, InstructorAttributes>();
+            for (InstructorAttributes instructor : logic.getInstructorsForCourse(courseId)) {
+                instructors.put(instructor.email, instructor);
+            }
+            instructorsByCourse.put(courseId, instructors);
+        }
+        return instructors.get(email);
+    }
+
+    /**
+     * @return null if there is no such student in the course
+     */
+    public StudentAttributes getStudentForEmail(String courseId, String email) {
+        Map<String, StudentAttributes> studentsByEmail = studentsByEmailByCourse.get(courseId);
+        if (studentsByEmail == null) {
+            studentsByEmail = new HashMap<String, StudentAttributes>();
+            for (StudentAttributes student : getStudentsForCourse(courseId)) {
+                studentsByEmail.put(student.email, student);
+            }
+            studentsByEmailByCourse.put(courseId, studentsByEmail);
+        }
+        return studentsByEmail.get(email);
+    }
+
+    /**
+     * @return an empty list if there are no students in the team
+     */
+    public List<StudentAttributes> getStudentsForTeam(String teamName, String courseId) {
+        List<StudentAttributes> studentsInTeam = new ArrayList<StudentAttributes>();
+        for (StudentAttributes student : getStudentsForCourse(courseId)) {
+            if (teamName.equals(student.team)) {
+                studentsInTeam.add(student);
+            }
+        }
+        return studentsInTeam;
+    }
+
+    /**
+     * @return an empty list if there are no students in the section
+     */
+    public List<StudentAttributes> getStudentsForSection(String section, String courseId) {
+        List<StudentAttributes> studentsInSection = new ArrayList<StudentAttributes>();
+        for (StudentAttributes student : getStudentsForCourse(courseId)) {
+            if (section.equals(student.section)) {
+                studentsInSection.add(student);
+            }
+        }
+        return studentsInSection;
+    }
+
+    private List<StudentAttributes> getStudentsForCourse(String courseId) {
+        List<StudentAttributes> students = studentsByCourse.get(courseId);
+        if (students == null) {
+            students = logic.getStudentsForCourse(courseId);
+            studentsByCourse.put(courseId, students);
+        }
+        return students;
+    }
+}
@@ -1,36 +1,38 @@
 package teammates.storage.search;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.logging.Logger;
 
-import teammates.common.exception.TeammatesException;
 import teammates.common.util.Config;
 import teammates.common.util.ThreadHelper;
 import teammates.common.util.Utils;
 
 import com.google.appengine.api.search.Document;
-import com.google.appengine.api.search.Index;
-import com.google.appengine.api.search.IndexSpec;
-import com.google.appengine.api.search.PutException;
-import com.google.appengine.api.search.PutResponse;
+import com.google.appengine.api.search.OperationResult;
 import com.google.appengine.api.search.Query;
 import com.google.appengine.api.search.Results;
 import com.google.appengine.api.search.ScoredDocument;
-import com.google.appengine.api.search.SearchServiceFactory;
 import com.google.appengine.api.search.StatusCode;
 
 /**
  * Represents the search manager for index.
- * Codes reference:
- * https://developers.google.com/appengine/docs/java/search/
+ * The indices are kept by the {@link SearchBackend} chosen by "app.search.backend" in build.properties.
  */
 public final class SearchManager {
+    /** The maximum number of documents that the search service accepts in one put. */
+    public static final int MAX_DOCUMENTS_PER_PUT = 200;
     private static final String ERROR_NON_TRANSIENT_BACKEND_ISSUE =
             "Failed to put document %s into search index %s due to non-transient backend issue.";
     private static final String ERROR_EXCEED_DURATION = "Operation did not succeed in time to put document %s into search index %s";
+    private static final String ERROR_EXCEED_DURATION_BATCH =
+            "Operation did not succeed in time to put %d documents into search index %s";
+    /** The value of "app.search.backend" that selects the {@link EmbeddedSearchBackend}. */
+    private static final String EMBEDDED_BACKEND = "embedded";
     private static final Logger log = Utils.getLogger();
-    private static final ThreadLocal<Map<String, Index>> PER_THREAD_INDICES_TABLE = new ThreadLocal<Map<String, Index>>();
+    private static final SearchBackend BACKEND = createBackend();
     
     private SearchManager() {
         // utility class
@@ -59,65 +61,94 @@ public final class SearchManager {
     }
     
     private static boolean tryPutDocument(String indexName, Document document) {
-        Index index = getIndex(indexName);
-        try {
-            PutResponse result = index.put(document);
-            return result.getResults().get(0).getCode() == StatusCode.OK;
-        } catch (PutException e) {
-            //if it's a transient error in the server, it can be re-tried
-            if (!StatusCode.TRANSIENT_ERROR.equals(e.getOperationResult().getCode())) {
-                log.severe(String.format(ERROR_NON_TRANSIENT_BACKEND_ISSUE, document, indexName)
-                        + " e:\n" + TeammatesException.toStringWithStackTrace(e));
+        OperationResult result = BACKEND.putDocuments(indexName, Collections.singletonList(document)).get(0);
+        //if it's a transient error in the server, it can be re-tried
+        if (result.getCode() != StatusCode.OK && result.getCode() != StatusCode.TRANSIENT_ERROR) {
+            log.severe(String.format(ERROR_NON_TRANSIENT_BACKEND_ISSUE, document, indexName)
+                    + " e:\n" + result);
+        }
+        return result.getCode() == StatusCode.OK;
+    }
+    
+    /*
+     * Create or update the search documents for the given documents and index,
+     * putting up to MAX_DOCUMENTS_PER_PUT documents with each call to the search service.
+     * Only the documents that failed to be put are retried.
+     */
+    public static void putDocuments(String indexName, List<Document> documents) {
+        for (int from = 0; from < documents.size(); from += MAX_DOCUMENTS_PER_PUT) {
+            int to = Math.min(from + MAX_DOCUMENTS_PER_PUT, documents.size());
+            List<Document> failedDocuments = tryPutDocuments(indexName, documents.subList(from, to));
+            
+            int elapsedTime = 0;
+            while (!failedDocuments.isEmpty()
+                    && elapsedTime < Config.PERSISTENCE_CHECK_DURATION) {
+                ThreadHelper.waitBriefly();
+                failedDocuments = tryPutDocuments(indexName, failedDocuments);
+                if (!failedDocuments.isEmpty()) {
+                    elapsedTime += ThreadHelper.WAIT_DURATION;
+                }
+            }
+            if (!failedDocuments.isEmpty()) {
+                log.severe(String.format(ERROR_EXCEED_DURATION_BATCH, failedDocuments.size(), indexName));
             }
-            return false;
         }
     }
     
+    /**
+     * @return the documents that were not put and can be retried
+     */
+    private static List<Document> tryPutDocuments(String indexName, List<Document> documents) {
+        List<OperationResult> results = BACKEND.putDocuments(indexName, documents);
+        
+        List<Document> failedDocuments = new ArrayList<Document>();
+        for (int i = 0; i < documents.size(); i++) {
+            StatusCode code = i < results.size() ? results.get(i).getCode() : StatusCode.TRANSIENT_ERROR;
+            if (code == StatusCode.TRANSIENT_ERROR) {
+                //if it's a transient error in the server, it can be re-tried
+                failedDocuments.add(documents.get(i));
+            } else if (code != StatusCode.OK) {
+                log.severe(String.format(ERROR_NON_TRANSIENT_BACKEND_ISSUE, documents.get(i), indexName));
+            }
+        }
+        return failedDocuments;
+    }
+    
     /*
      * Get document for index and the documentId
      */
     public static Document getDocument(String indexName, String documentId) {
-        return getIndex(indexName).get(documentId);
+        return BACKEND.getDocument(indexName, documentId);
     }
     
     /*
      * Search document by query
      */
     public static Results<ScoredDocument> searchDocuments(String indexName, Query query) {
-        return getIndex(indexName).search(query);
+        return BACKEND.searchDocuments(indexName, query);
     }
     
     /*
      * Delete document by documentId
      */
     public static void deleteDocument(String indexName, String documentId) {
-        getIndex(indexName).deleteAsync(documentId);
+        BACKEND.deleteDocuments(indexName, documentId);
     }
     
     /*
      * Delete documents by documentIds
      */
     public static void deleteDocuments(String indexName, String[] documentIds) {
-        getIndex(indexName).deleteAsync(documentIds);
+        BACKEND.deleteDocuments(indexName, documentIds);
     }
     
-    private static Index getIndex(String indexName) {
-        Map<String, Index> indicesTable = getIndicesTable();
-        Index index = indicesTable.get(indexName);
-        if (index == null) {
-            IndexSpec indexSpec = IndexSpec.newBuilder().setName(indexName).build();
-            index = SearchServiceFactory.getSearchService().getIndex(indexSpec);
-            indicesTable.put(indexName, index);
+    private static SearchBackend createBackend() {
+        if (!EMBEDDED_BACKEND.equals(Config.SEARCH_BACKEND)) {
+            return new AppEngineSearchBackend();
         }
-        return index;
-    }
-
-    private static Map<String, Index> getIndicesTable() {
-        Map<String, Index> indicesTable = PER_THREAD_INDICES_TABLE.get();
-        if (indicesTable == null) {
-            indicesTable = new HashMap<String, Index>();
-            PER_THREAD_INDICES_TABLE.set(indicesTable);
+        if (Config.SEARCH_EMBEDDED_DIRECTORY.isEmpty()) {
+            return new EmbeddedSearchBackend();
         }
-        return indicesTable;
+        return new EmbeddedSearchBackend(new File(Config.SEARCH_EMBEDDED_DIRECTORY));
     }
 }
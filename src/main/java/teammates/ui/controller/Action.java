@@ -494,6 +494,19 @@ public abstract class Action {
                                       fileContent);
     }
 
+    /**
+     * Generates a {@link FileDownloadResult} with the information in this object,
+     * with the content written by {@code fileContentWriter} as it is being sent.
+     */
+    public FileDownloadResult createFileDownloadResult(String fileName,
+                                                       FileDownloadResult.FileContentWriter fileContentWriter) {
+        return new FileDownloadResult("filedownload",
+                                      account,
+                                      statusToUser,
+                                      fileName,
+                                      fileContentWriter);
+    }
+
     protected ActionResult createPleaseJoinCourseResponse(String courseId) {
         String errorMessage = "You are not registered in the course " + Sanitizer.sanitizeForHtml(courseId);
         statusToUser.add(new StatusMessage(errorMessage, StatusMessageColor.DANGER));
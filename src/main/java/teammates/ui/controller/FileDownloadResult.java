@@ -2,18 +2,31 @@ package teammates.ui.controller;
 
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.util.List;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import teammates.common.datatransfer.AccountAttributes;
+import teammates.common.exception.TeammatesException;
+import teammates.common.util.Const;
 import teammates.common.util.StatusMessage;
 
 public class FileDownloadResult extends ActionResult {
     
+    /**
+     * Writes the content of a file as it is being sent, so that the whole content
+     * does not need to be held in memory.
+     */
+    public interface FileContentWriter {
+        void writeTo(Writer writer) throws IOException;
+    }
+    
     String fileContent = "";
     String fileName = "";
+    FileContentWriter fileContentWriter;
 
     public FileDownloadResult(String destination, AccountAttributes account,
             List<StatusMessage> status) {
@@ -28,6 +41,15 @@ public class FileDownloadResult extends ActionResult {
         this.fileName = fileName;
         this.fileContent = fileContent;
     }
+    
+    public FileDownloadResult(
+            String destination, AccountAttributes account,
+            List<StatusMessage> status,
+            String fileName, FileContentWriter fileContentWriter) {
+        super(destination, account, status);
+        this.fileName = fileName;
+        this.fileContentWriter = fileContentWriter;
+    }
 
     @Override
     public void send(HttpServletRequest req, HttpServletResponse resp) throws IOException {
@@ -39,15 +61,42 @@ public class FileDownloadResult extends ActionResult {
         resp.setHeader("Content-Disposition", "attachment; filename=\"" + fileName + ".csv\"");
         PrintWriter writer = resp.getWriter();
         writer.write("\uFEFF");
-        writer.append(fileContent);
+        if (fileContentWriter == null) {
+            writer.append(fileContent);
+            return;
+        }
+        
+        try {
+            fileContentWriter.writeTo(writer);
+        } catch (IOException | RuntimeException e) {
+            if (!resp.isCommitted()) {
+                // nothing has been sent yet, so the error can be shown in place of the file
+                throw e;
+            }
+            // the part of the file already sent cannot be taken back, so the file is marked as
+            // incomplete at its end rather than left to look complete
+            log.severe("Download of " + fileName + " failed after it was partly sent: "
+                       + TeammatesException.toStringWithStackTrace(e));
+            writer.write(Const.EOL + Const.StatusMessages.FILE_DOWNLOAD_INCOMPLETE + Const.EOL);
+            writer.flush();
+        }
     }
     
     public String getFileName() {
         return this.fileName;
     }
     
-    public String getFileContent() {
-        return this.fileContent;
+    /**
+     * @return the content of the file. If the content is written as it is being sent,
+     *         the whole content is generated for this call.
+     */
+    public String getFileContent() throws IOException {
+        if (fileContentWriter == null) {
+            return this.fileContent;
+        }
+        StringWriter writer = new StringWriter();
+        fileContentWriter.writeTo(writer);
+        return writer.toString();
     }
 
 }
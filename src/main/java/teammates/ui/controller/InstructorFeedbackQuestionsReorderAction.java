@@ -0,0 +1,54 @@
+package teammates.ui.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import teammates.common.exception.EntityDoesNotExistException;
+import teammates.common.exception.InvalidParametersException;
+import teammates.common.util.Assumption;
+import teammates.common.util.Const;
+import teammates.common.util.Const.StatusMessageColor;
+import teammates.common.util.StatusMessage;
+import teammates.logic.api.GateKeeper;
+
+/**
+ * Renumbers all the questions of a feedback session in one request, e.g. after they have been
+ * reordered by dragging on the edit page. The questions are given in their new order as
+ * {@code questionid-0}, {@code questionid-1}, and so on.
+ */
+public class InstructorFeedbackQuestionsReorderAction extends Action {
+
+    @Override
+    protected ActionResult execute() throws EntityDoesNotExistException {
+        String courseId = getRequestParamValue(Const.ParamsNames.COURSE_ID);
+        String feedbackSessionName = getRequestParamValue(Const.ParamsNames.FEEDBACK_SESSION_NAME);
+
+        Assumption.assertPostParamNotNull(Const.ParamsNames.COURSE_ID, courseId);
+        Assumption.assertPostParamNotNull(Const.ParamsNames.FEEDBACK_SESSION_NAME, feedbackSessionName);
+
+        new GateKeeper().verifyAccessible(logic.getInstructorForGoogleId(courseId, account.googleId),
+                                          logic.getFeedbackSession(feedbackSessionName, courseId),
+                                          false, Const.ParamsNames.INSTRUCTOR_PERMISSION_MODIFY_SESSION);
+
+        List<String> questionIds = new ArrayList<String>();
+        String questionId = getRequestParamValue(Const.ParamsNames.FEEDBACK_QUESTION_ID + "-" + questionIds.size());
+        while (questionId != null) {
+            questionIds.add(questionId);
+            questionId = getRequestParamValue(Const.ParamsNames.FEEDBACK_QUESTION_ID + "-" + questionIds.size());
+        }
+
+        try {
+            logic.reorderFeedbackQuestions(feedbackSessionName, courseId, questionIds);
+
+            statusToUser.add(new StatusMessage(Const.StatusMessages.FEEDBACK_QUESTIONS_REORDERED,
+                                               StatusMessageColor.SUCCESS));
+            statusToAdmin = "Feedback Questions for session:<span class=\"bold\">(" + feedbackSessionName
+                          + ")</span> for Course <span class=\"bold\">[" + courseId + "]</span> reordered.";
+        } catch (InvalidParametersException e) {
+            setStatusForException(e);
+        }
+
+        return createRedirectResult(new PageData(account)
+                                            .getInstructorFeedbackEditLink(courseId, feedbackSessionName));
+    }
+}
@@ -102,7 +102,7 @@ public class InstructorFeedbackResponseCommentAddAction extends Action {
         FeedbackResponseCommentAttributes createdComment = new FeedbackResponseCommentAttributes();
         try {
             createdComment = logic.createFeedbackResponseComment(feedbackResponseComment);
-            logic.putDocument(createdComment);
+            logic.schedulePutDocument(createdComment);
         } catch (InvalidParametersException e) {
             setStatusForException(e);
             data.errorMessage = e.getMessage();
@@ -82,8 +82,7 @@ public class InstructorFeedbackResponseCommentEditAction extends Action {
         try {
             FeedbackResponseCommentAttributes updatedComment =
                     logic.updateFeedbackResponseComment(feedbackResponseComment);
-            //TODO: move putDocument to task queue
-            logic.putDocument(updatedComment);
+            logic.schedulePutDocument(updatedComment);
         } catch (InvalidParametersException e) {
             setStatusForException(e);
             data.errorMessage = e.getMessage();
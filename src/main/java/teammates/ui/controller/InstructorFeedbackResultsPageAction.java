@@ -59,6 +59,7 @@ public class InstructorFeedbackResultsPageAction extends Action {
         String groupByTeam = getRequestParamValue(Const.ParamsNames.FEEDBACK_RESULTS_GROUPBYTEAM);
         String sortType = getRequestParamValue(Const.ParamsNames.FEEDBACK_RESULTS_SORTTYPE);
         String startIndex = getRequestParamValue(Const.ParamsNames.FEEDBACK_RESULTS_MAIN_INDEX);
+        String responsesCursor = getRequestParamValue(Const.ParamsNames.FEEDBACK_RESULTS_CURSOR);
         
         if (startIndex != null) {
             data.setStartIndex(Integer.parseInt(startIndex));
@@ -87,18 +88,19 @@ public class InstructorFeedbackResultsPageAction extends Action {
                                                     selectedSection, sortType, questionId));
         } else if (Const.FeedbackSessionResults.GQR_SORT_TYPE.equals(sortType)
                 || Const.FeedbackSessionResults.GRQ_SORT_TYPE.equals(sortType)) {
+            // responses of a section are shown page by page, starting after the cursor if given
             data.setBundle(logic
-                    .getFeedbackSessionResultsForInstructorFromSectionWithinRange(feedbackSessionName, courseId,
-                                                                                  instructor.email,
-                                                                                  selectedSection,
-                                                                                  DEFAULT_SECTION_QUERY_RANGE));
+                    .getFeedbackSessionResultsForInstructorFromSectionPage(feedbackSessionName, courseId,
+                                                                           instructor.email,
+                                                                           selectedSection, responsesCursor,
+                                                                           DEFAULT_SECTION_QUERY_RANGE));
         } else if (Const.FeedbackSessionResults.RQG_SORT_TYPE.equals(sortType)
                 || Const.FeedbackSessionResults.RGQ_SORT_TYPE.equals(sortType)) {
             data.setBundle(logic
-                    .getFeedbackSessionResultsForInstructorToSectionWithinRange(feedbackSessionName, courseId,
-                                                                                instructor.email,
-                                                                                selectedSection,
-                                                                                DEFAULT_SECTION_QUERY_RANGE));
+                    .getFeedbackSessionResultsForInstructorToSectionPage(feedbackSessionName, courseId,
+                                                                         instructor.email,
+                                                                         selectedSection, responsesCursor,
+                                                                         DEFAULT_SECTION_QUERY_RANGE));
         }
 
         if (data.getBundle() == null) {
@@ -106,6 +108,11 @@ public class InstructorFeedbackResultsPageAction extends Action {
                                                   + " does not exist in " + courseId + ".");
         }
 
+        if (Const.FeedbackSessionResults.QUESTION_SORT_TYPE.equals(sortType)) {
+            // the number of respondants decides whether the responses of the questions are loaded separately
+            logic.loadRespondants(data.getBundle().feedbackSession);
+        }
+
         // Warning for section wise viewing in case of many responses.
         boolean isShowSectionWarningForQuestionView = data.isLargeNumberOfRespondents()
                                                    && Const.FeedbackSessionResults.QUESTION_SORT_TYPE.equals(sortType);
@@ -172,6 +179,11 @@ public class InstructorFeedbackResultsPageAction extends Action {
                 // set isComplete to true to prevent behavior when there are too many responses,
                 // such as the display of warning messages
                 bundle.isComplete = true;
+                
+                // the responses of the questions are loaded by separate requests, which share
+                // the roster and privileges loaded here instead of loading them each time
+                logic.refreshFeedbackSessionResultsContextForInstructor(feedbackSessionName, courseId,
+                                                                        instructor.email);
             } else {
                 // bundle for all questions, with a selected section
                 bundle = logic.getFeedbackSessionResultsForInstructorInSection(feedbackSessionName, courseId,
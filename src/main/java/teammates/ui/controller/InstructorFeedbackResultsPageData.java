@@ -1,6 +1,7 @@
 package teammates.ui.controller;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -23,6 +24,7 @@ import teammates.common.util.Assumption;
 import teammates.common.util.Const;
 import teammates.common.util.FieldValidator;
 import teammates.common.util.StringHelper;
+import teammates.common.util.Url;
 import teammates.ui.template.ElementTag;
 import teammates.ui.template.FeedbackResponseCommentRow;
 import teammates.ui.template.FeedbackSessionPublishButton;
@@ -219,6 +221,7 @@ public class InstructorFeedbackResultsPageData extends PageData {
         // therefore the check for ajax to come before this
         if (bundle.responses.isEmpty()) {
             // no responses, nothing to initialize
+            buildLinkToNextResponsesPage();
             return;
         }
         
@@ -251,6 +254,43 @@ public class InstructorFeedbackResultsPageData extends PageData {
             break;
         }
         
+        buildLinkToNextResponsesPage();
+    }
+    
+    /**
+     * Adds a link to the next page of responses to the panel of the selected section,
+     * if the responses of the section are shown page by page and there are more responses.
+     */
+    private void buildLinkToNextResponsesPage() {
+        if (bundle.nextResponsesCursor == null || isAllSectionsSelected()) {
+            return;
+        }
+        
+        if (sectionPanels == null) {
+            sectionPanels = new LinkedHashMap<String, InstructorFeedbackResultsSectionPanel>();
+        }
+        InstructorFeedbackResultsSectionPanel sectionPanel = sectionPanels.get(selectedSection);
+        if (sectionPanel == null) {
+            // all responses of the page are hidden from the instructor
+            sectionPanel = new InstructorFeedbackResultsSectionPanel();
+            finalizeBuildingSectionPanelWithoutTeamStats(sectionPanel, selectedSection);
+            sectionPanels.put(selectedSection, sectionPanel);
+        }
+        sectionPanel.setNextResponsesPageUrl(getInstructorFeedbackResultsNextResponsesPageLink());
+    }
+    
+    private String getInstructorFeedbackResultsNextResponsesPageLink() {
+        String link = getInstructorFeedbackSessionResultsLink();
+        link = Url.addParamToUrl(link, Const.ParamsNames.FEEDBACK_RESULTS_GROUPBYSECTION, selectedSection);
+        link = Url.addParamToUrl(link, Const.ParamsNames.FEEDBACK_RESULTS_SORTTYPE, sortType);
+        if (groupByTeam != null) {
+            link = Url.addParamToUrl(link, Const.ParamsNames.FEEDBACK_RESULTS_GROUPBYTEAM, groupByTeam);
+        }
+        if (showStats != null) {
+            link = Url.addParamToUrl(link, Const.ParamsNames.FEEDBACK_RESULTS_SHOWSTATS, showStats);
+        }
+        link = Url.addParamToUrl(link, Const.ParamsNames.FEEDBACK_RESULTS_CURSOR, bundle.nextResponsesCursor);
+        return link;
     }
     
     private void buildSectionPanelsForViewByParticipantParticipantQuestion(
@@ -657,7 +697,9 @@ public class InstructorFeedbackResultsPageData extends PageData {
         case GIVER_QUESTION_RECIPIENT:
         case RECIPIENT_QUESTION_GIVER:
             prepareHeadersForTeamPanelsInSectionPanel(sectionPanel);
-            if (!responsesGroupedByTeam.isEmpty()) {
+            // the statistics of a team would only cover its responses in the page
+            boolean isShowingTeamStatistics = !bundle.isPageOfResponses();
+            if (isShowingTeamStatistics && !responsesGroupedByTeam.isEmpty()) {
                 buildTeamsStatisticsTableForSectionPanel(sectionPanel, responsesGroupedByTeam,
                                                          teamsWithResponses);
             }
@@ -666,7 +708,7 @@ public class InstructorFeedbackResultsPageData extends PageData {
             for (String team : teamsWithResponses) {
                 // teamsWithResponses can include teams of anonymous student ("Anonymous student #'s Team")
                 // and "-"
-                isTeamDisplayingStatistics.put(team, isTeamVisible(team));
+                isTeamDisplayingStatistics.put(team, isShowingTeamStatistics && isTeamVisible(team));
             }
             sectionPanel.setDisplayingTeamStatistics(isTeamDisplayingStatistics);
             sectionPanel.setSectionName(sectionName);
@@ -695,6 +737,10 @@ public class InstructorFeedbackResultsPageData extends PageData {
     private void buildMissingTeamAndParticipantPanelsForSection(
                                     InstructorFeedbackResultsSectionPanel sectionPanel, String sectionName,
                                     Set<String> teamWithResponses) {
+        if (bundle.isPageOfResponses()) {
+            // the teams may have responses in other pages
+            return;
+        }
 
         // update the teams for the previous section
         Set<String> teamsInSection = bundle.getTeamsInSectionFromRoster(sectionName);
@@ -759,6 +805,10 @@ public class InstructorFeedbackResultsPageData extends PageData {
     private void buildMissingParticipantPanelsForTeam(
                                     InstructorFeedbackResultsSectionPanel sectionPanel, String teamName,
                                     Set<String> teamMembersWithResponses) {
+        if (bundle.isPageOfResponses()) {
+            // the team members may have responses in other pages
+            return;
+        }
         
         Set<String> teamMembersEmail = new HashSet<String>();
         teamMembersEmail.addAll(bundle.getTeamMembersFromRoster(teamName));
@@ -1169,8 +1219,9 @@ public class InstructorFeedbackResultsPageData extends PageData {
                                                                                     List<FeedbackResponseAttributes> responses) {
         List<InstructorFeedbackResultsResponseRow> responseRows = new ArrayList<InstructorFeedbackResultsResponseRow>();
         
-        List<String> possibleGiversWithoutResponses = bundle.getPossibleGivers(question);
-        List<String> possibleReceiversWithoutResponsesForGiver = new ArrayList<String>();
+        // sets that keep the order of the lists, so that each participant with a response is removed in constant time
+        Set<String> possibleGiversWithoutResponses = new LinkedHashSet<String>(bundle.getPossibleGivers(question));
+        Set<String> possibleReceiversWithoutResponsesForGiver = new LinkedHashSet<String>();
 
         String prevGiver = "";
         
@@ -1191,7 +1242,8 @@ public class InstructorFeedbackResultsPageData extends PageData {
                 
                 String giverIdentifier = response.giverEmail;
                             
-                possibleReceiversWithoutResponsesForGiver = bundle.getPossibleRecipients(question, giverIdentifier);
+                possibleReceiversWithoutResponsesForGiver =
+                        new LinkedHashSet<String>(bundle.getPossibleRecipients(question, giverIdentifier));
             }
             
             // keep track of possible recipients without a response from the current giver
@@ -1238,9 +1290,9 @@ public class InstructorFeedbackResultsPageData extends PageData {
                                     String participantIdentifier, boolean isFirstGroupedByGiver) {
         List<InstructorFeedbackResultsResponseRow> responseRows = new ArrayList<InstructorFeedbackResultsResponseRow>();
         
-        List<String> possibleParticipantsWithoutResponses = isFirstGroupedByGiver
-                                                          ? bundle.getPossibleRecipients(question, participantIdentifier)
-                                                          : bundle.getPossibleGivers(question, participantIdentifier);
+        Set<String> possibleParticipantsWithoutResponses = new LinkedHashSet<String>(
+                isFirstGroupedByGiver ? bundle.getPossibleRecipients(question, participantIdentifier)
+                                      : bundle.getPossibleGivers(question, participantIdentifier));
         
         for (FeedbackResponseAttributes response : responses) {
             if (!bundle.isGiverVisible(response) || !bundle.isRecipientVisible(response)) {
@@ -1331,7 +1383,7 @@ public class InstructorFeedbackResultsPageData extends PageData {
      */
     private List<InstructorFeedbackResultsResponseRow> buildMissingResponseRowsBetweenGiverAndPossibleRecipients(
                                                                     FeedbackQuestionAttributes question,
-                                                                    List<String> possibleReceivers,
+                                                                    Collection<String> possibleReceivers,
                                                                     String giverIdentifier,
                                                                     String giverName, String giverTeam) {
         List<InstructorFeedbackResultsResponseRow> missingResponses = new ArrayList<InstructorFeedbackResultsResponseRow>();
@@ -1370,7 +1422,7 @@ public class InstructorFeedbackResultsPageData extends PageData {
      */
     private List<InstructorFeedbackResultsResponseRow> buildMissingResponseRowsBetweenRecipientAndPossibleGivers(
                                     FeedbackQuestionAttributes question,
-                                    List<String> possibleGivers, String recipientIdentifier,
+                                    Collection<String> possibleGivers, String recipientIdentifier,
                                     String recipientName, String recipientTeam) {
         List<InstructorFeedbackResultsResponseRow> missingResponses = new ArrayList<InstructorFeedbackResultsResponseRow>();
         FeedbackQuestionDetails questionDetails = questionToDetailsMap.get(question);
@@ -1408,13 +1460,14 @@ public class InstructorFeedbackResultsPageData extends PageData {
      * @param participantIdentifier
      */
     private void removeParticipantIdentifierFromList(
-                    List<String> participantIdentifierList, String participantIdentifier) {
+                    Collection<String> participantIdentifierList, String participantIdentifier) {
         participantIdentifierList.remove(participantIdentifier);
     }
     
     private List<InstructorFeedbackResultsResponseRow> getRemainingMissingResponseRows(
                                                 FeedbackQuestionAttributes question,
-                                                List<String> remainingPossibleGivers, List<String> possibleRecipientsForGiver,
+                                                Collection<String> remainingPossibleGivers,
+                                                Collection<String> possibleRecipientsForGiver,
                                                 String prevGiver) {
         List<InstructorFeedbackResultsResponseRow> responseRows = new ArrayList<InstructorFeedbackResultsResponseRow>();
         
@@ -1808,6 +1861,10 @@ public class InstructorFeedbackResultsPageData extends PageData {
              || !bundle.isComplete;
     }
     
+    /**
+     * The respondants of the session of the bundle must have been loaded
+     * (see {@link teammates.logic.api.Logic#loadRespondants}).
+     */
     public boolean isLargeNumberOfRespondents() {
         int numRespondents = bundle.feedbackSession.getRespondingInstructorList().size()
                            + bundle.feedbackSession.getRespondingStudentList().size();
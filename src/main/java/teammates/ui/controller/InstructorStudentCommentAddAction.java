@@ -59,8 +59,7 @@ public class InstructorStudentCommentAddAction extends Action {
         
         try {
             CommentAttributes createdComment = logic.createComment(comment);
-            //TODO: move putDocument to Task Queue
-            logic.putDocument(createdComment);
+            logic.schedulePutDocument(createdComment);
             
             statusToUser.add(new StatusMessage(Const.StatusMessages.COMMENT_ADDED, StatusMessageColor.SUCCESS));
             statusToAdmin = "Created Comment for Student:<span class=\"bold\">("
@@ -49,8 +49,7 @@ public class InstructorStudentCommentEditAction extends Action {
         try {
             if ("edit".equals(editType)) {
                 CommentAttributes updatedComment = logic.updateComment(comment);
-                //TODO: move putDocument to task queue
-                logic.putDocument(updatedComment);
+                logic.schedulePutDocument(updatedComment);
                 
                 statusToUser.add(new StatusMessage(Const.StatusMessages.COMMENT_EDITED, StatusMessageColor.SUCCESS));
                 statusToAdmin = "Edited Comment for Student:<span class=\"bold\">("
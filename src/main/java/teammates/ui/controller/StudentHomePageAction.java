@@ -64,23 +64,28 @@ public class StudentHomePageAction extends Action {
             List<CourseDetailsBundle> courses, String googleId) {
         Map<FeedbackSessionAttributes, Boolean> returnValue = new HashMap<>();
         
+        // the student is looked up once for all the courses, instead of once for every session
+        Map<String, String> studentEmailForCourse = new HashMap<>();
+        for (StudentAttributes student : logic.getStudentsForGoogleId(googleId)) {
+            studentEmailForCourse.put(student.course, student.email);
+        }
+        
         for (CourseDetailsBundle c : courses) {
+            String studentEmail = studentEmailForCourse.get(c.course.getId());
+            Assumption.assertNotNull(studentEmail);
+            
+            List<FeedbackSessionAttributes> sessions = new ArrayList<FeedbackSessionAttributes>();
             for (FeedbackSessionDetailsBundle fsb : c.feedbackSessions) {
-                FeedbackSessionAttributes f = fsb.feedbackSession;
-                returnValue.put(f, getStudentStatusForSession(f, googleId));
+                sessions.add(fsb.feedbackSession);
+            }
+            Map<String, Boolean> statuses =
+                    logic.getFeedbackSessionSubmissionStatusesForStudent(c.course.getId(), studentEmail, sessions);
+            for (FeedbackSessionAttributes f : sessions) {
+                returnValue.put(f, statuses.get(f.getFeedbackSessionName()));
             }
         }
         return returnValue;
     }
-
-    private boolean getStudentStatusForSession(FeedbackSessionAttributes fs, String googleId) {
-        StudentAttributes student = logic.getStudentForGoogleId(fs.getCourseId(), googleId);
-        Assumption.assertNotNull(student);
-
-        String studentEmail = student.email;
-        
-        return logic.hasStudentSubmittedFeedback(fs, studentEmail);
-    }
     
     private boolean isCourseIncluded(String recentlyJoinedCourseId, List<CourseDetailsBundle> courses) {
         boolean isCourseIncluded = false;
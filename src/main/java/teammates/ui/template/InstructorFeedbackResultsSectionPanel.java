@@ -18,6 +18,9 @@ public class InstructorFeedbackResultsSectionPanel {
     private String sectionName;
     private String sectionNameForDisplay;
     
+    // link to the next page of responses, if the responses of the section are shown page by page
+    private String nextResponsesPageUrl;
+    
     private String statisticsHeaderText;
     private String detailedResponsesHeaderText;
     
@@ -148,6 +151,14 @@ public class InstructorFeedbackResultsSectionPanel {
         this.isAbleToLoadResponses = isUnableToLoadResponses;
     }
 
+    public String getNextResponsesPageUrl() {
+        return nextResponsesPageUrl;
+    }
+
+    public void setNextResponsesPageUrl(String nextResponsesPageUrl) {
+        this.nextResponsesPageUrl = nextResponsesPageUrl;
+    }
+
     public List<InstructorFeedbackResultsParticipantPanel> getParticipantPanelsInSortedOrder() {
         List<InstructorFeedbackResultsParticipantPanel> sortedPanels = new ArrayList<InstructorFeedbackResultsParticipantPanel>();
         for (Collection<InstructorFeedbackResultsParticipantPanel> participantsPanels : participantPanels.values()) {
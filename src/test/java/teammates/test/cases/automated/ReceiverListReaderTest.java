@@ -0,0 +1,73 @@
+package teammates.test.cases.automated;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import teammates.logic.automated.ReceiverListReader;
+import teammates.test.cases.BaseTestCase;
+
+public class ReceiverListReaderTest extends BaseTestCase {
+
+    @Test
+    public void testReadNext() throws IOException {
+
+        ______TS("typical case");
+
+        String receiverList = "alice@gmail.tmt,bob@gmail.tmt,charlie@gmail.tmt";
+        assertEquals(Arrays.asList("alice@gmail.tmt", "bob@gmail.tmt", "charlie@gmail.tmt"),
+                     readAll(receiverList, 0));
+
+        ______TS("blank entries and whitespace are skipped");
+
+        receiverList = " alice@gmail.tmt,,\nbob@gmail.tmt ,\r\n";
+        assertEquals(Arrays.asList("alice@gmail.tmt", "bob@gmail.tmt"), readAll(receiverList, 0));
+
+        ______TS("empty list");
+
+        assertEquals(new ArrayList<String>(), readAll("", 0));
+        assertEquals(new ArrayList<String>(), readAll(" , ", 0));
+    }
+
+    @Test
+    public void testResume() throws IOException {
+        String receiverList = "alice@gmail.tmt,bob@gmail.tmt,charlie@gmail.tmt";
+        byte[] bytes = receiverList.getBytes();
+
+        ReceiverListReader reader = new ReceiverListReader(new ByteArrayInputStream(bytes), 0);
+        assertEquals("alice@gmail.tmt", reader.readNext());
+        long offset = reader.getOffset();
+        assertEquals("alice@gmail.tmt,".length(), offset);
+        reader.close();
+
+        ______TS("resuming from the offset reads the addresses after the last one read");
+
+        assertEquals(Arrays.asList("bob@gmail.tmt", "charlie@gmail.tmt"), readAll(receiverList, offset));
+
+        ______TS("offset at the end of the list");
+
+        reader = new ReceiverListReader(new ByteArrayInputStream(bytes), 0);
+        while (reader.readNext() != null) {
+            // read to the end
+        }
+        assertEquals(bytes.length, reader.getOffset());
+        assertEquals(new ArrayList<String>(), readAll(receiverList, reader.getOffset()));
+        reader.close();
+    }
+
+    private List<String> readAll(String receiverList, long offset) throws IOException {
+        byte[] bytes = receiverList.getBytes();
+        ReceiverListReader reader = new ReceiverListReader(
+                new ByteArrayInputStream(bytes, (int) offset, bytes.length - (int) offset), offset);
+        List<String> receivers = new ArrayList<String>();
+        for (String receiver = reader.readNext(); receiver != null; receiver = reader.readNext()) {
+            receivers.add(receiver);
+        }
+        reader.close();
+        return receivers;
+    }
+}
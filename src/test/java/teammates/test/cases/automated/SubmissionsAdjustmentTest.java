@@ -273,6 +273,61 @@ public class SubmissionsAdjustmentTest extends BaseComponentUsingTaskQueueTestCa
         int numberOfNewResponses =
                 getAllResponsesForStudentForSession(student, session.getFeedbackSessionName()).size();
         assertEquals(0, numberOfNewResponses);
+        
+        ______TS("typical case : existing student changes section only");
+        session = dataBundle.feedbackSessions.get("session1InCourse1");
+        student = dataBundle.students.get("student3InCourse1");
+        FeedbackQuestionAttributes question = FeedbackQuestionsLogic.inst().getFeedbackQuestion(
+                session.getFeedbackSessionName(), session.getCourseId(), 2);
+        FeedbackResponseAttributes responseBefore =
+                frLogic.getFeedbackResponse(question.getId(), student.email, "student2InCourse1@gmail.tmt");
+        assertEquals("Section 1", responseBefore.giverSection);
+        
+        enrollDetails = new StudentEnrollDetails(UpdateStatus.MODIFIED, student.course, student.email,
+                                                 student.team, student.team, "Section 1", "Section 2");
+        enrollList = new ArrayList<StudentEnrollDetails>();
+        enrollList.add(enrollDetails);
+        
+        paramMap = new HashMap<String, String>();
+        paramMap.put(ParamsNames.COURSE_ID, student.course);
+        paramMap.put(ParamsNames.FEEDBACK_SESSION_NAME, session.getFeedbackSessionName());
+        paramMap.put(ParamsNames.ENROLLMENT_DETAILS, gsonBuilder.toJson(enrollList));
+        
+        responseAdjustmentAction = new FeedbackSubmissionAdjustmentAction(paramMap);
+        assertTrue(responseAdjustmentAction.execute());
+        
+        // the response is moved to the new section instead of being deleted
+        FeedbackResponseAttributes responseAfter = frLogic.getFeedbackResponse(responseBefore.getId());
+        assertEquals("Section 2", responseAfter.giverSection);
+        assertEquals(responseBefore.recipientSection, responseAfter.recipientSection);
+        
+        ______TS("resuming from a checkpoint : responses up to the checkpoint are not adjusted again");
+        enrollDetails = new StudentEnrollDetails(UpdateStatus.MODIFIED, student.course, student.email,
+                                                 student.team, student.team, "Section 2", "Section 1");
+        enrollList = new ArrayList<StudentEnrollDetails>();
+        enrollList.add(enrollDetails);
+        paramMap.put(ParamsNames.ENROLLMENT_DETAILS, gsonBuilder.toJson(enrollList));
+        paramMap.put(ParamsNames.ADJUSTMENT_CHECKPOINT, responseBefore.getId());
+        
+        responseAdjustmentAction = new FeedbackSubmissionAdjustmentAction(paramMap);
+        assertTrue(responseAdjustmentAction.execute());
+        
+        responseAfter = frLogic.getFeedbackResponse(responseBefore.getId());
+        assertEquals("Section 2", responseAfter.giverSection);
+        
+        ______TS("enrollment that changes neither team nor section : nothing to adjust");
+        enrollDetails = new StudentEnrollDetails(UpdateStatus.UNMODIFIED, student.course, student.email,
+                                                 student.team, student.team, "Section 2", "Section 1");
+        enrollList = new ArrayList<StudentEnrollDetails>();
+        enrollList.add(enrollDetails);
+        paramMap.put(ParamsNames.ENROLLMENT_DETAILS, gsonBuilder.toJson(enrollList));
+        paramMap.remove(ParamsNames.ADJUSTMENT_CHECKPOINT);
+        
+        responseAdjustmentAction = new FeedbackSubmissionAdjustmentAction(paramMap);
+        assertTrue(responseAdjustmentAction.execute());
+        
+        responseAfter = frLogic.getFeedbackResponse(responseBefore.getId());
+        assertEquals("Section 2", responseAfter.giverSection);
     }
 
     private List<FeedbackResponseAttributes> getAllTeamResponsesForStudent(StudentAttributes student) {
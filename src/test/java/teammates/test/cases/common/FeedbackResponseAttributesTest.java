@@ -4,12 +4,17 @@ import java.util.Date;
 
 import org.testng.annotations.Test;
 
+import teammates.common.datatransfer.FeedbackMcqResponseDetails;
+import teammates.common.datatransfer.FeedbackQuestionType;
 import teammates.common.datatransfer.FeedbackResponseAttributes;
+import teammates.common.datatransfer.FeedbackResponseDetails;
 import teammates.common.exception.EntityAlreadyExistsException;
 import teammates.common.exception.InvalidParametersException;
 import teammates.common.util.Const;
 import teammates.test.cases.BaseTestCase;
 
+import com.google.appengine.api.datastore.Text;
+
 public class FeedbackResponseAttributesTest extends BaseTestCase {
 
     private class FeedbackResponseAttributesWithModifiableTimestamp extends FeedbackResponseAttributes {
@@ -43,4 +48,35 @@ public class FeedbackResponseAttributesTest extends BaseTestCase {
         assertEquals(defaultTimeStamp, fra.getUpdatedAt());
     }
     
+    @Test
+    public void testGetResponseDetails() {
+        FeedbackResponseAttributes fra = new FeedbackResponseAttributes();
+        fra.feedbackQuestionType = FeedbackQuestionType.MCQ;
+        
+        ______TS("missing response");
+        
+        assertNull(fra.getResponseDetails());
+        
+        ______TS("details are parsed once");
+        
+        fra.responseMetaData = new Text("{\"answer\":\"A\",\"isOther\":false,\"questionType\":\"MCQ\"}");
+        FeedbackResponseDetails details = fra.getResponseDetails();
+        
+        assertTrue(details instanceof FeedbackMcqResponseDetails);
+        assertEquals("A", details.getAnswerString());
+        assertTrue(details == fra.getResponseDetails());
+        
+        ______TS("details are parsed again after the response is changed");
+        
+        fra.responseMetaData = new Text("{\"answer\":\"B\",\"isOther\":false,\"questionType\":\"MCQ\"}");
+        assertEquals("B", fra.getResponseDetails().getAnswerString());
+        
+        fra.setResponseDetails(details);
+        assertEquals("A", fra.getResponseDetails().getAnswerString());
+        
+        fra.feedbackQuestionType = FeedbackQuestionType.TEXT;
+        fra.responseMetaData = new Text("text answer");
+        assertEquals("text answer", fra.getResponseDetails().getAnswerString());
+    }
+    
 }
@@ -0,0 +1,108 @@
+package teammates.test.cases.common;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import teammates.common.datatransfer.FeedbackQuestionType;
+import teammates.common.datatransfer.FeedbackResponseAttributes;
+import teammates.common.datatransfer.FeedbackResponseDetailsDecoder;
+import teammates.common.datatransfer.FeedbackResponseDetailsDecoder.ChoiceAnswers;
+import teammates.test.cases.BaseTestCase;
+
+import com.google.appengine.api.datastore.Text;
+
+/**
+ * SUT: {@link FeedbackResponseDetailsDecoder}
+ */
+public class FeedbackResponseDetailsDecoderTest extends BaseTestCase {
+
+    @Test
+    public void testDecodeMcqAnswers() {
+        List<FeedbackResponseAttributes> responses = createResponses(FeedbackQuestionType.MCQ,
+                "{\"answer\":\"B\",\"isOther\":false,\"questionType\":\"MCQ\"}",
+                "{\"answer\":\"my own answer\",\"isOther\":true,\"otherFieldContent\":\"my own answer\","
+                        + "\"questionType\":\"MCQ\"}",
+                "{\"answer\":\"C\",\"isOther\":false,\"questionType\":\"MCQ\"}",
+                "{\"answer\":\"B\",\"isOther\":false,\"questionType\":\"MCQ\"}");
+
+        ChoiceAnswers answers = FeedbackResponseDetailsDecoder.decodeMcqAnswers(responses, Arrays.asList("A", "B"));
+
+        assertEquals(Arrays.asList("A", "B", "Other", "C"), answers.options);
+        assertEquals(4, answers.chosenOptions.length);
+        assertTrue(Arrays.equals(new int[] { 1 }, answers.chosenOptions[0]));
+        assertTrue(Arrays.equals(new int[] { 2 }, answers.chosenOptions[1]));
+        assertTrue(Arrays.equals(new int[] { 3 }, answers.chosenOptions[2]));
+        assertTrue(Arrays.equals(new int[] { 1 }, answers.chosenOptions[3]));
+        assertTrue(Arrays.equals(new boolean[] { false, true, false, false }, answers.isOtherAnswer));
+        assertTrue(Arrays.equals(new int[] { 0, 2, 1, 1 }, answers.getOptionCounts()));
+    }
+
+    @Test
+    public void testDecodeMsqAnswers() {
+        List<FeedbackResponseAttributes> responses = createResponses(FeedbackQuestionType.MSQ,
+                "{\"answers\":[\"A\",\"B\"],\"isOther\":false,\"questionType\":\"MSQ\"}",
+                "{\"answers\":[\"\"],\"isOther\":false,\"questionType\":\"MSQ\"}",
+                "{\"answers\":[\"B\",\"A\"],\"isOther\":true,\"otherFieldContent\":\"A\",\"questionType\":\"MSQ\"}");
+
+        ChoiceAnswers answers = FeedbackResponseDetailsDecoder.decodeMsqAnswers(
+                responses, Arrays.asList("A", "B", "Other"));
+
+        assertEquals(Arrays.asList("A", "B", "Other"), answers.options);
+        assertTrue(Arrays.equals(new int[] { 0, 1 }, answers.chosenOptions[0]));
+        assertTrue(Arrays.equals(new int[] {}, answers.chosenOptions[1]));
+        assertTrue(Arrays.equals(new int[] { 2, 1 }, answers.chosenOptions[2]));
+        assertTrue(Arrays.equals(new boolean[] { false, false, true }, answers.isOtherAnswer));
+        assertTrue(Arrays.equals(new int[] { 1, 2, 1 }, answers.getOptionCounts()));
+    }
+
+    @Test
+    public void testDecodeNumericalScaleAnswers() {
+        List<FeedbackResponseAttributes> responses = createResponses(FeedbackQuestionType.NUMSCALE,
+                "{\"answer\":3.5,\"questionType\":\"NUMSCALE\"}",
+                "{\"answer\":-1,\"questionType\":\"NUMSCALE\"}");
+
+        assertTrue(Arrays.equals(new double[] { 3.5, -1 },
+                                 FeedbackResponseDetailsDecoder.decodeNumericalScaleAnswers(responses)));
+    }
+
+    @Test
+    public void testDecodeConstantSumAnswers() {
+        List<FeedbackResponseAttributes> responses = createResponses(FeedbackQuestionType.CONSTSUM,
+                "{\"answers\":[30,70],\"questionType\":\"CONSTSUM\"}",
+                "{\"answers\":[100],\"questionType\":\"CONSTSUM\"}");
+
+        int[][] answers = FeedbackResponseDetailsDecoder.decodeConstantSumAnswers(responses);
+
+        assertEquals(2, answers.length);
+        assertTrue(Arrays.equals(new int[] { 30, 70 }, answers[0]));
+        assertTrue(Arrays.equals(new int[] { 100 }, answers[1]));
+    }
+
+    @Test
+    public void testDecodeRubricAnswers() {
+        List<FeedbackResponseAttributes> responses = createResponses(FeedbackQuestionType.RUBRIC,
+                "{\"answer\":[0,2],\"questionType\":\"RUBRIC\"}",
+                "{\"answer\":[-1,1],\"questionType\":\"RUBRIC\"}");
+
+        int[][] answers = FeedbackResponseDetailsDecoder.decodeRubricAnswers(responses);
+
+        assertEquals(2, answers.length);
+        assertTrue(Arrays.equals(new int[] { 0, 2 }, answers[0]));
+        assertTrue(Arrays.equals(new int[] { -1, 1 }, answers[1]));
+    }
+
+    private List<FeedbackResponseAttributes> createResponses(FeedbackQuestionType type, String... responseMetaData) {
+        List<FeedbackResponseAttributes> responses = new ArrayList<FeedbackResponseAttributes>();
+        for (String metaData : responseMetaData) {
+            FeedbackResponseAttributes response = new FeedbackResponseAttributes();
+            response.feedbackQuestionType = type;
+            response.responseMetaData = new Text(metaData);
+            responses.add(response);
+        }
+        return responses;
+    }
+
+}
@@ -51,6 +51,7 @@ public class SanitizerTest extends BaseTestCase {
     public void testSanitizeForJs() {
         sanitizeJs_receivesNull_returnsNull();
         sanitizeJs_receivesUnsanitized_returnsSanitized();
+        sanitizeJs_receivesHtmlEntities_returnsSanitized();
     }
 
     private void sanitizeJs_receivesNull_returnsNull() {
@@ -63,12 +64,20 @@ public class SanitizerTest extends BaseTestCase {
         String sanitized = Sanitizer.sanitizeForJs(unsanitized);
         assertEquals(expected, sanitized);
     }
+
+    private void sanitizeJs_receivesHtmlEntities_returnsSanitized() {
+        // entities starting with # are escaped, as their # is escaped for javascript first
+        String unsanitized = "&amp; &lt; &quot; &#39; &#x2f; & <b>";
+        String expected = "&amp; &lt; &quot; &amp;\\#39; &amp;\\#x2f; &amp; &lt;b&gt;";
+        assertEquals(expected, Sanitizer.sanitizeForJs(unsanitized));
+    }
     
     @Test
     public void testSanitizeForHtml() {
         sanitizeHtml_receivesNull_returnsNull();
         sanitizeHtml_receivesCodeInjection_returnsSanitized();
         sanitizeHtml_receivesSanitized_returnsUnchanged();
+        sanitizeHtml_receivesSafeText_returnsSameString();
     }
     
     @Test
@@ -108,6 +117,25 @@ public class SanitizerTest extends BaseTestCase {
                          + "&lt;script&gt;alert(&#39;injected&#39;);&lt;&#x2f;script&gt;";
         assertEquals(sanitized, Sanitizer.sanitizeForHtml(sanitized));
     }
+
+    private void sanitizeHtml_receivesSafeText_returnsSameString() {
+        String safe = "Alice Betsy (Team 1.1) alice.b.tmms@gmail.tmt";
+        assertSame(safe, Sanitizer.sanitizeForHtml(safe));
+        assertSame(safe, Sanitizer.sanitizeForJs(safe));
+        assertSame(safe, Sanitizer.sanitizeForHtmlTag(safe));
+    }
+    
+    @Test
+    public void testSanitizeForSearch() {
+        assertEquals(null, Sanitizer.sanitizeForSearch(null));
+        
+        String unsanitized = "`!#$%^&[]{}|;*.?'/=: <b> \"x\"";
+        String expected = "                     &lt;b&gt; \"x\"";
+        assertEquals(expected, Sanitizer.sanitizeForSearch(unsanitized));
+        
+        String safe = "Alice Betsy alice@gmail";
+        assertSame(safe, Sanitizer.sanitizeForSearch(safe));
+    }
     
     @Test
     public void testSanitizeForRichText() {
@@ -1,6 +1,7 @@
 package teammates.test.cases.common;
 
 import java.util.ArrayList;
+import java.util.List;
 
 import org.testng.annotations.Test;
 
@@ -116,6 +117,34 @@ public class StringHelperTest extends BaseTestCase {
         
         decrptedMsg = StringHelper.decrypt(StringHelper.encrypt(msg));
         assertEquals(msg, decrptedMsg);
+        
+        ______TS("encrypting many values at once");
+        
+        List<String> msgs = new ArrayList<String>();
+        msgs.add(msg);
+        msgs.add("Another message");
+        msgs.add(msg);
+        List<String> encryptedMsgs = StringHelper.encryptAll(msgs);
+        assertEquals(3, encryptedMsgs.size());
+        assertEquals(StringHelper.encrypt(msg), encryptedMsgs.get(0));
+        assertEquals("Another message", StringHelper.decrypt(encryptedMsgs.get(1)));
+        assertEquals(encryptedMsgs.get(0), encryptedMsgs.get(2));
+        
+        ______TS("decrypting an invalid message does not affect later decryption");
+        
+        try {
+            StringHelper.decrypt(encryptedMsgs.get(0).substring(2));
+            signalFailureToDetectException();
+        } catch (RuntimeException e) {
+            // expected, as the message is not a whole number of blocks
+        }
+        try {
+            StringHelper.decrypt("not a hexadecimal string");
+            signalFailureToDetectException();
+        } catch (RuntimeException e) {
+            // expected
+        }
+        assertEquals(msg, StringHelper.decrypt(encryptedMsgs.get(0)));
     }
     
     @Test
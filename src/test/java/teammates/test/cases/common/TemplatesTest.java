@@ -0,0 +1,96 @@
+package teammates.test.cases.common;
+
+import org.testng.annotations.Test;
+
+import teammates.common.util.CompiledTemplate;
+import teammates.common.util.Templates;
+import teammates.common.util.Templates.EmailTemplates;
+import teammates.test.cases.BaseTestCase;
+
+public class TemplatesTest extends BaseTestCase {
+
+    @Test
+    public void testPopulateTemplate() {
+
+        ______TS("typical case: all slots filled");
+
+        String template = "<p>Hello ${userName},</p><p>${courseName} ${status}.</p>";
+        assertEquals("<p>Hello Alice,</p><p>CS1101 is now open.</p>",
+                     Templates.populateTemplate(template,
+                             "${userName}", "Alice",
+                             "${courseName}", "CS1101",
+                             "${status}", "is now open"));
+
+        ______TS("repeated slots, slots at the ends, slots without values");
+
+        template = "${a}-${b}-${a}${c}";
+        assertEquals("1-${b}-1", Templates.populateTemplate(template, "${a}", "1", "${c}", ""));
+
+        ______TS("text that is not a slot is left as it is");
+
+        template = "$ {a} ${} ${a ${a}} {a}$";
+        assertEquals("$ {a} ${} ${a 1} {a}$", Templates.populateTemplate(template, "${a}", "1"));
+
+        ______TS("values containing slots are replaced as before, in the order of the values");
+
+        template = "${a} ${b}";
+        assertEquals("2 2", Templates.populateTemplate(template, "${a}", "${b}", "${b}", "2"));
+        assertEquals("${b} 2", Templates.populateTemplate(template, "${b}", "2", "${a}", "${b}"));
+
+        ______TS("keys that are not slots are replaced as before");
+
+        template = "{\"name\": \"Demo_Instructor\", \"id\": \"${id}\"}";
+        assertEquals("{\"name\": \"Alice\", \"id\": \"alice\"}",
+                     Templates.populateTemplate(template, "Demo_Instructor", "Alice", "${id}", "alice"));
+    }
+
+    @Test
+    public void testCompiledTemplate() {
+
+        ______TS("templates read from resource files are compiled once");
+
+        assertTrue(Templates.compile(EmailTemplates.USER_FEEDBACK_SESSION)
+                   == Templates.compile(EmailTemplates.USER_FEEDBACK_SESSION));
+
+        ______TS("bound values are filled in every output");
+
+        CompiledTemplate template = new CompiledTemplate("${course}: ${name} ${status} (${course})");
+        CompiledTemplate sessionTemplate = template.bind("${course}", "CS1101", "${status}", "${name}");
+        assertEquals("CS1101: ${name} ${name} (CS1101)", sessionTemplate.render());
+
+        StringBuilder buffer = new StringBuilder();
+        assertEquals("CS1101: Alice ${name} (CS1101)", sessionTemplate.render(buffer, "${name}", "Alice"));
+        assertEquals("CS1101: Bob ${name} (CS1101)", sessionTemplate.render(buffer, "${name}", "Bob"));
+
+        ______TS("the same output as chained replacement for an email template");
+
+        String[] values = {
+                "${userName}", "Alice",
+                "${courseName}", "Software Engineering",
+                "${courseId}", "CS2103",
+                "${feedbackSessionName}", "First feedback session",
+                "${deadline}", "12:00 PM",
+                "${instructorFragment}", "",
+                "${submitUrl}", "http://localhost/submit",
+                "${reportUrl}", "http://localhost/report",
+                "${status}", "is now open"
+        };
+        String expected = EmailTemplates.USER_FEEDBACK_SESSION;
+        for (int i = 0; i < values.length; i += 2) {
+            expected = expected.replace(values[i], values[i + 1]);
+        }
+        assertEquals(expected, Templates.populateTemplate(EmailTemplates.USER_FEEDBACK_SESSION, values));
+        assertEquals(expected, Templates.compile(EmailTemplates.USER_FEEDBACK_SESSION)
+                                        .bind("${courseName}", "Software Engineering", "${status}", "is now open")
+                                        .render(values));
+    }
+
+    @Test
+    public void testIsSlot() {
+        assertTrue(CompiledTemplate.isSlot("${userName}"));
+        assertFalse(CompiledTemplate.isSlot("${}"));
+        assertFalse(CompiledTemplate.isSlot("${a}b"));
+        assertFalse(CompiledTemplate.isSlot("${a${b}"));
+        assertFalse(CompiledTemplate.isSlot("Demo_Instructor"));
+    }
+}
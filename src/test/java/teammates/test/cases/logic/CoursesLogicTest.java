@@ -1,6 +1,7 @@
 package teammates.test.cases.logic;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -12,6 +13,7 @@ import org.testng.annotations.Test;
 import teammates.common.datatransfer.AccountAttributes;
 import teammates.common.datatransfer.CourseAttributes;
 import teammates.common.datatransfer.CourseDetailsBundle;
+import teammates.common.datatransfer.CourseStats;
 import teammates.common.datatransfer.CourseSummaryBundle;
 import teammates.common.datatransfer.DataBundle;
 import teammates.common.datatransfer.InstructorAttributes;
@@ -73,6 +75,7 @@ public class CoursesLogicTest extends BaseComponentTestCase {
         testCreateCourse();
         testCreateCourseAndInstructor();
         testGetCourseIdToSectionNamesMap();
+        testCourseStats();
         testDeleteCourse();
     }
 
@@ -1183,6 +1186,102 @@ public class CoursesLogicTest extends BaseComponentTestCase {
         assertTrue(map.get("idOfTypicalCourse1").contains("Section 2"));
     }
 
+    public void testCourseStats() throws Exception {
+        String courseId = "CoursesLogicTest.stats";
+        StudentsLogic studentsLogic = StudentsLogic.inst();
+        
+        ______TS("empty statistics recorded for a new course");
+        
+        coursesLogic.createCourse(courseId, "Course for statistics");
+        assertEquals(0, coursesDb.getCourseStats(courseId).studentsTotal);
+        assertEquals(0, coursesLogic.getCourseStats(courseId).studentsTotal);
+        
+        ______TS("enrollment");
+        
+        String lines = "section | team | name | email" + Const.EOL
+                     + "Section 1 | Team 1 | n1 | e1@g" + Const.EOL
+                     + "Section 1 | Team 2 | n2 | e2@g" + Const.EOL
+                     + "Section 2 | Team 3 | n3 | e3@g";
+        studentsLogic.enrollStudentsWithoutDocument(lines, courseId);
+        CourseStats stats = verifyCourseStatsMatchStudents(courseId);
+        assertEquals(2, stats.sectionsTotal);
+        assertEquals(3, stats.teamsTotal);
+        assertEquals(3, stats.studentsTotal);
+        assertEquals(3, stats.unregisteredTotal);
+        
+        ______TS("student created");
+        
+        studentsLogic.createStudentCascadeWithoutDocument(
+                new StudentAttributes("Section 2", "Team 3", "n4", "e4@g", "", courseId));
+        verifyCourseStatsMatchStudents(courseId);
+        
+        ______TS("student registered");
+        
+        StudentAttributes student = studentsLogic.getStudentForEmail(courseId, "e1@g");
+        student.googleId = "CoursesLogicTest.stats.e1";
+        studentsLogic.updateStudentCascadeWithoutDocument(student.email, student);
+        assertEquals(3, verifyCourseStatsMatchStudents(courseId).unregisteredTotal);
+        
+        ______TS("student moved to another team and section");
+        
+        student = studentsLogic.getStudentForEmail(courseId, "e2@g");
+        student.section = "Section 2";
+        student.team = "Team 3";
+        studentsLogic.updateStudentCascadeWithoutDocument(student.email, student);
+        assertEquals(2, verifyCourseStatsMatchStudents(courseId).teamsTotal);
+        
+        ______TS("google ID reset");
+        
+        studentsLogic.resetStudentGoogleId("e1@g", courseId, false);
+        assertEquals(4, verifyCourseStatsMatchStudents(courseId).unregisteredTotal);
+        
+        ______TS("student deleted");
+        
+        studentsLogic.deleteStudentCascadeWithoutDocument(courseId, "e1@g");
+        stats = verifyCourseStatsMatchStudents(courseId);
+        assertEquals(1, stats.sectionsTotal);
+        assertEquals(1, stats.teamsTotal);
+        assertEquals(3, stats.studentsTotal);
+        
+        ______TS("statistics not recomputed from a query right after a change");
+        
+        coursesDb.updateCourseStats(courseId, new ArrayList<StudentAttributes>(),
+                                    Arrays.asList(new StudentAttributes("Section 9", "Team 9", "n9", "e9@g", "", courseId)));
+        assertEquals(4, coursesLogic.getCourseStats(courseId).studentsTotal);
+        assertEquals(3, coursesLogic.recomputeCourseStats(courseId).studentsTotal);
+        assertEquals(4, coursesLogic.getCourseStats(courseId).studentsTotal);
+        
+        ______TS("statistics repaired");
+        
+        long version = coursesDb.getCourseStatsVersion(courseId);
+        coursesDb.putCourseStats(courseId, studentsLogic.getStudentsForCourse(courseId), version);
+        verifyCourseStatsMatchStudents(courseId);
+        
+        ______TS("summaries use the recorded statistics");
+        
+        CourseDetailsBundle courseSummary = coursesLogic.getCourseSummaryWithoutSections(courseId);
+        assertEquals(3, courseSummary.stats.studentsTotal);
+        assertTrue(courseSummary.sections.isEmpty());
+        
+        ______TS("statistics deleted with the course");
+        
+        coursesLogic.deleteCourseCascade(courseId);
+        assertNull(coursesDb.getCourseStats(courseId));
+    }
+    
+    /**
+     * @return the statistics of the course, after checking that they match those computed from its students
+     */
+    private CourseStats verifyCourseStatsMatchStudents(String courseId) throws EntityDoesNotExistException {
+        CourseStats expected = coursesLogic.getCourseSummary(courseId).stats;
+        CourseStats actual = coursesLogic.getCourseStats(courseId);
+        assertEquals(expected.sectionsTotal, actual.sectionsTotal);
+        assertEquals(expected.teamsTotal, actual.teamsTotal);
+        assertEquals(expected.studentsTotal, actual.studentsTotal);
+        assertEquals(expected.unregisteredTotal, actual.unregisteredTotal);
+        return actual;
+    }
+
     public void testDeleteCourse() {
     
         ______TS("typical case");
@@ -367,6 +367,56 @@ public class EmailsTest extends BaseComponentTestCase {
         verifyEmail(s2, emails.get(1), prefix, status);
     }
     
+    @Test
+    public void testGenerateFeedbackSessionEmailAgain() throws Exception {
+
+        removeAndRestoreTypicalDataInDatastore();
+
+        FeedbackSessionAttributes fsa = FeedbackSessionsLogic.inst()
+                .getFeedbackSession("First feedback session", "idOfTypicalCourse1");
+        CourseAttributes c = CoursesLogic.inst().getCourse(fsa.getCourseId());
+        List<StudentAttributes> students = StudentsLogic.inst().getStudentsForCourse(fsa.getCourseId());
+        List<InstructorAttributes> instructors = InstructorsLogic.inst().getInstructorsForCourse(fsa.getCourseId());
+
+        ______TS("reminders generated again are the same as the ones generated for the course");
+
+        // instructors reminded first, then students, then instructors notified
+        List<MimeMessage> emails = new Emails().generateFeedbackSessionReminderEmails(
+                c, fsa, students, instructors, instructors);
+        MimeMessage instructorReminder = emails.get(0);
+        MimeMessage studentReminder = emails.get(instructors.size());
+        MimeMessage instructorCopy = emails.get(instructors.size() + students.size());
+
+        verifyEmailGeneratedAgain(instructorReminder, fsa,
+                Emails.FeedbackSessionEmailRecipient.INSTRUCTOR_TO_REMIND);
+        verifyEmailGeneratedAgain(studentReminder, fsa, Emails.FeedbackSessionEmailRecipient.STUDENT);
+        verifyEmailGeneratedAgain(instructorCopy, fsa, Emails.FeedbackSessionEmailRecipient.INSTRUCTOR);
+
+        ______TS("recipient no longer in the course");
+
+        assertNull(new Emails().generateFeedbackSessionEmail(
+                Emails.FeedbackSessionEmailTemplate.REMINDER, Emails.FeedbackSessionEmailRecipient.STUDENT,
+                fsa.getCourseId(), fsa.getFeedbackSessionName(), "nonExistentStudent@gmail.tmt"));
+
+        ______TS("session no longer exists");
+
+        assertNull(new Emails().generateFeedbackSessionEmail(
+                Emails.FeedbackSessionEmailTemplate.REMINDER, Emails.FeedbackSessionEmailRecipient.STUDENT,
+                fsa.getCourseId(), "Non-existent feedback session", students.get(0).email));
+    }
+
+    private void verifyEmailGeneratedAgain(MimeMessage email, FeedbackSessionAttributes fsa,
+            Emails.FeedbackSessionEmailRecipient recipientType) throws MessagingException, IOException {
+        String recipient = email.getAllRecipients()[0].toString();
+        MimeMessage emailGeneratedAgain = new Emails().generateFeedbackSessionEmail(
+                Emails.FeedbackSessionEmailTemplate.REMINDER, recipientType,
+                fsa.getCourseId(), fsa.getFeedbackSessionName(), recipient);
+
+        assertEquals(recipient, emailGeneratedAgain.getAllRecipients()[0].toString());
+        assertEquals(email.getSubject(), emailGeneratedAgain.getSubject());
+        assertEquals(email.getContent().toString(), emailGeneratedAgain.getContent().toString());
+    }
+
     @Test
     public void testSystemCrashReportEmailContent() throws IOException,
             MessagingException {
@@ -45,6 +45,7 @@ public class FeedbackQuestionsLogicTest extends BaseComponentTestCase {
         testIsQuestionHasResponses();
         testIsQuestionAnswered();
         testUpdateQuestionNumber();
+        testReorderQuestions();
         testAddQuestion();
         testCopyQuestion();
         testUpdateQuestion();
@@ -179,6 +180,80 @@ public class FeedbackQuestionsLogicTest extends BaseComponentTestCase {
         }
     }
     
+    public void testReorderQuestions() throws Exception {
+        FeedbackQuestionAttributes q1 = getQuestionFromDatastore("qn1InSession1InCourse1");
+        FeedbackQuestionAttributes q2 = getQuestionFromDatastore("qn2InSession1InCourse1");
+        FeedbackQuestionAttributes q3 = getQuestionFromDatastore("qn3InSession1InCourse1");
+        FeedbackQuestionAttributes q4 = getQuestionFromDatastore("qn4InSession1InCourse1");
+        String feedbackSessionName = q1.feedbackSessionName;
+        String courseId = q1.courseId;
+        
+        ______TS("move last question to the front");
+        
+        List<String> newOrder = new ArrayList<String>();
+        newOrder.add(q4.getId());
+        newOrder.add(q1.getId());
+        newOrder.add(q2.getId());
+        newOrder.add(q3.getId());
+        fqLogic.reorderQuestions(feedbackSessionName, courseId, newOrder);
+        verifyQuestionOrder(feedbackSessionName, courseId, newOrder);
+        
+        ______TS("questions not listed exactly once");
+        
+        List<String> invalidOrder = new ArrayList<String>(newOrder);
+        invalidOrder.remove(0);
+        verifyReorderQuestionsFails(feedbackSessionName, courseId, invalidOrder);
+        
+        invalidOrder.add(q1.getId());
+        verifyReorderQuestionsFails(feedbackSessionName, courseId, invalidOrder);
+        
+        invalidOrder.set(3, getQuestionFromDatastore("qn1InSession4InCourse1").getId());
+        verifyReorderQuestionsFails(feedbackSessionName, courseId, invalidOrder);
+        
+        // failed reorders leave the question numbers untouched
+        verifyQuestionOrder(feedbackSessionName, courseId, newOrder);
+        
+        ______TS("session does not exist");
+        
+        try {
+            fqLogic.reorderQuestions("non-existent session", courseId, newOrder);
+            signalFailureToDetectException();
+        } catch (EntityDoesNotExistException e) {
+            assertEquals("Trying to get questions for a feedback session that does not exist.", e.getMessage());
+        }
+        
+        ______TS("restore the original order");
+        
+        List<String> originalOrder = new ArrayList<String>();
+        originalOrder.add(q1.getId());
+        originalOrder.add(q2.getId());
+        originalOrder.add(q3.getId());
+        originalOrder.add(q4.getId());
+        fqLogic.reorderQuestions(feedbackSessionName, courseId, originalOrder);
+        verifyQuestionOrder(feedbackSessionName, courseId, originalOrder);
+    }
+    
+    private void verifyQuestionOrder(String feedbackSessionName, String courseId, List<String> expectedOrder)
+            throws EntityDoesNotExistException {
+        List<FeedbackQuestionAttributes> actualList = fqLogic.getFeedbackQuestionsForSession(feedbackSessionName, courseId);
+        assertEquals(expectedOrder.size(), actualList.size());
+        for (int i = 0; i < actualList.size(); i++) {
+            assertEquals(expectedOrder.get(i), actualList.get(i).getId());
+            assertEquals(i + 1, actualList.get(i).questionNumber);
+        }
+    }
+    
+    private void verifyReorderQuestionsFails(String feedbackSessionName, String courseId, List<String> questionIds)
+            throws EntityDoesNotExistException {
+        try {
+            fqLogic.reorderQuestions(feedbackSessionName, courseId, questionIds);
+            signalFailureToDetectException();
+        } catch (InvalidParametersException e) {
+            assertEquals("The new order does not list each question of the feedback session exactly once.",
+                         e.getMessage());
+        }
+    }
+    
     public void testAddQuestion() throws Exception {
         
         ______TS("Add question for feedback session that does not exist");
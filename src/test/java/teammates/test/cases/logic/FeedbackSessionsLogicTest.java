@@ -1,5 +1,6 @@
 package teammates.test.cases.logic;
 
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -88,6 +89,7 @@ public class FeedbackSessionsLogicTest extends BaseComponentTestCase {
         
         testIsFeedbackSessionHasQuestionForStudents();
         testIsFeedbackSessionCompletedByStudent();
+        testGetFeedbackSessionCompletionStatusesForStudent();
         testIsFeedbackSessionCompletedByInstructor();
         testIsFeedbackSessionFullyCompletedByStudent();
                 
@@ -1021,6 +1023,80 @@ public class FeedbackSessionsLogicTest extends BaseComponentTestCase {
                 getResponseId("qn2.resp1", responseBundle) + "={false,false}");
         AssertHelper.assertContains(expectedStrings, mapString);
         assertEquals(7, results.visibilityTable.size());
+
+        /*** Test result bundle for instructor1 for a single question, loaded with a shared context ***/
+
+        FeedbackQuestionAttributes question = responseBundle.feedbackQuestions.get("qn4.standard.session");
+        String questionId = fqLogic.getFeedbackQuestion(question.feedbackSessionName, question.courseId,
+                                                        question.questionNumber).getId();
+        fsLogic.refreshFeedbackSessionResultsContextForInstructor(session.getFeedbackSessionName(),
+                                                                  session.getCourseId(), instructor.email);
+        results = fsLogic.getFeedbackSessionResultsForInstructorFromQuestion(
+                session.getFeedbackSessionName(), session.getCourseId(), instructor.email, questionId);
+
+        assertEquals(1, results.questions.size());
+        assertEquals(3, results.responses.size());
+        mapString = tableToString(results.visibilityTable);
+        expectedStrings.clear();
+        Collections.addAll(expectedStrings,
+                getResponseId("qn4.resp1", responseBundle) + "={true,true}",
+                getResponseId("qn4.resp2", responseBundle) + "={true,true}",
+                getResponseId("qn4.resp3", responseBundle) + "={true,true}");
+        AssertHelper.assertContains(expectedStrings, mapString);
+        assertNotNull(results.responseStatus);
+
+        results = fsLogic.getFeedbackSessionResultsForInstructorFromQuestionInSection(
+                session.getFeedbackSessionName(), session.getCourseId(), instructor.email, questionId, "Section A");
+
+        assertEquals(1, results.responses.size());
+        assertEquals(getResponseId("qn4.resp3", responseBundle), results.responses.get(0).getId());
+        assertEquals(1, results.sectionTeamNameTable.size());
+        assertTrue(results.sectionTeamNameTable.containsKey("Section A"));
+
+        results = fsLogic.getFeedbackSessionResultsForInstructorFromQuestion(
+                session.getFeedbackSessionName(), session.getCourseId(), instructor.email, "-1");
+
+        assertEquals(0, results.questions.size());
+        assertEquals(0, results.responses.size());
+        assertFalse(results.responseStatus.noResponse.isEmpty()
+                    && results.responseStatus.hasResponse.isEmpty());
+
+        /*** Test result bundle for instructor1 for a single question, after the question is changed ***/
+
+        FeedbackQuestionAttributes questionToChange = fqLogic.getFeedbackQuestion(questionId);
+        Text originalQuestionText = questionToChange.questionMetaData;
+        questionToChange.questionMetaData = new Text("Changed question text");
+        fqLogic.updateFeedbackQuestion(questionToChange);
+
+        results = fsLogic.getFeedbackSessionResultsForInstructorFromQuestion(
+                session.getFeedbackSessionName(), session.getCourseId(), instructor.email, questionId);
+
+        assertEquals("Changed question text", results.questions.get(questionId).questionMetaData.getValue());
+        assertEquals(3, results.responses.size());
+
+        questionToChange.questionMetaData = originalQuestionText;
+        fqLogic.updateFeedbackQuestion(questionToChange);
+
+        /*** Test result bundle for instructor1 for responses from a section, loaded page by page ***/
+
+        // Section B has no responses snapshot yet, which would otherwise be used instead of the pages
+        int numberOfResponsesInPages = 0;
+        String cursor = null;
+        do {
+            results = fsLogic.getFeedbackSessionResultsForInstructorFromSectionPage(
+                    session.getFeedbackSessionName(), session.getCourseId(), instructor.email, "Section B", cursor, 1);
+            assertTrue(results.isComplete);
+            assertTrue(results.responses.size() <= 1);
+            numberOfResponsesInPages += results.responses.size();
+            cursor = results.nextResponsesCursor;
+        } while (cursor != null);
+        assertTrue(results.isPageOfResponses());
+        
+        int numberOfResponsesFromSection = fsLogic.getFeedbackSessionResultsForInstructorFromSectionWithinRange(
+                session.getFeedbackSessionName(), session.getCourseId(), instructor.email, "Section B", 0)
+                .responses.size();
+        assertTrue(numberOfResponsesFromSection > 1);
+        assertEquals(numberOfResponsesFromSection, numberOfResponsesInPages);
         // TODO: test student2 too.
         
         ______TS("private session");
@@ -1181,6 +1257,20 @@ public class FeedbackSessionsLogicTest extends BaseComponentTestCase {
         
         assertEquals(StringUtils.join(expected, Const.EOL), export);
 
+        ______TS("typical case: streamed one question at a time");
+        
+        StringWriter exportWriter = new StringWriter();
+        fsLogic.writeFeedbackSessionResultsSummaryInSectionAsCsv(
+                session.getFeedbackSessionName(), session.getCourseId(), instructor.email, null, exportWriter);
+        assertEquals(export, exportWriter.toString());
+        
+        exportWriter = new StringWriter();
+        fsLogic.writeFeedbackSessionResultsSummaryInSectionAsCsv(
+                session.getFeedbackSessionName(), session.getCourseId(), instructor.email, "Section 1", exportWriter);
+        assertEquals(fsLogic.getFeedbackSessionResultsSummaryInSectionAsCsv(
+                             session.getFeedbackSessionName(), session.getCourseId(), instructor.email, "Section 1"),
+                     exportWriter.toString());
+
         ______TS("MCQ results");
         
         removeAndRestoreDatastoreFromJson("/FeedbackSessionQuestionTypeTest.json");
@@ -1918,6 +2008,73 @@ public class FeedbackSessionsLogicTest extends BaseComponentTestCase {
         assertTrue(fsLogic.isFeedbackSessionCompletedByStudent(fs, student.email));
     }
     
+    public void testGetFeedbackSessionCompletionStatusesForStudent() throws Exception {
+        
+        StudentAttributes student = dataBundle.students.get("student1InCourse1");
+        List<FeedbackSessionAttributes> sessions = fsLogic.getFeedbackSessionsForCourse(student.course);
+        
+        ______TS("statuses are the same as when checked session by session, whether recorded or not");
+        
+        Map<String, Boolean> expectedStatuses = new HashMap<String, Boolean>();
+        FeedbackSessionAttributes notCompletedSession = null;
+        for (FeedbackSessionAttributes session : sessions) {
+            boolean isCompleted = fsLogic.isFeedbackSessionCompletedByStudent(session, student.email);
+            expectedStatuses.put(session.getFeedbackSessionName(), isCompleted);
+            if (!isCompleted) {
+                notCompletedSession = session;
+            }
+        }
+        assertNotNull(notCompletedSession);
+        
+        assertEquals(expectedStatuses,
+                     fsLogic.getFeedbackSessionCompletionStatusesForStudent(student.course, student.email, sessions));
+        assertEquals(expectedStatuses,
+                     fsLogic.getFeedbackSessionCompletionStatusesForStudent(student.course, student.email, sessions));
+        assertTrue(fsLogic.getFeedbackSessionCompletionStatusesForStudent(
+                student.course, student.email, new ArrayList<FeedbackSessionAttributes>()).isEmpty());
+        
+        ______TS("recorded statuses are updated when the student responds");
+        
+        String sessionName = notCompletedSession.getFeedbackSessionName();
+        fsLogic.addStudentRespondant(student.email, sessionName, student.course);
+        expectedStatuses.put(sessionName, true);
+        assertEquals(expectedStatuses,
+                     fsLogic.getFeedbackSessionCompletionStatusesForStudent(student.course, student.email, sessions));
+        
+        fsLogic.deleteStudentRespondant(student.email, sessionName, student.course);
+        expectedStatuses.put(sessionName, false);
+        assertEquals(expectedStatuses,
+                     fsLogic.getFeedbackSessionCompletionStatusesForStudent(student.course, student.email, sessions));
+        
+        ______TS("recorded statuses are forgotten when a question for students is added or deleted");
+        
+        FeedbackSessionAttributes sessionWithoutQuestions = null;
+        for (FeedbackSessionAttributes session : sessions) {
+            if (FeedbackQuestionsLogic.inst().getFeedbackQuestionsForStudents(
+                    session.getFeedbackSessionName(), session.getCourseId()).isEmpty()) {
+                sessionWithoutQuestions = session;
+            }
+        }
+        assertNotNull(sessionWithoutQuestions);
+        sessionName = sessionWithoutQuestions.getFeedbackSessionName();
+        assertTrue(expectedStatuses.get(sessionName));
+        
+        FeedbackQuestionAttributes question = getQuestionFromDatastore("qn1InSession1InCourse1");
+        question.setId(null);
+        question.feedbackSessionName = sessionName;
+        question.questionNumber = -1;
+        FeedbackQuestionsLogic.inst().createFeedbackQuestion(question);
+        expectedStatuses.put(sessionName, false);
+        assertEquals(expectedStatuses,
+                     fsLogic.getFeedbackSessionCompletionStatusesForStudent(student.course, student.email, sessions));
+        
+        question = FeedbackQuestionsLogic.inst().getFeedbackQuestion(sessionName, student.course, question.questionNumber);
+        FeedbackQuestionsLogic.inst().deleteFeedbackQuestionCascade(question.getId());
+        expectedStatuses.put(sessionName, true);
+        assertEquals(expectedStatuses,
+                     fsLogic.getFeedbackSessionCompletionStatusesForStudent(student.course, student.email, sessions));
+    }
+    
     public void testIsFeedbackSessionFullyCompletedByStudent() throws Exception {
 
         FeedbackSessionAttributes fs = dataBundle.feedbackSessions.get("session1InCourse1");
@@ -1939,6 +2096,39 @@ public class FeedbackSessionsLogicTest extends BaseComponentTestCase {
         
         ______TS("success case: partially done by student 3");
         assertFalse(fsLogic.isFeedbackSessionFullyCompletedByStudent(fs.getFeedbackSessionName(), fs.getCourseId(), student3OfCourse1.email));
+        
+        ______TS("success case: students yet to complete the session found at once");
+        
+        List<StudentAttributes> incompleteStudents = fsLogic.getStudentsYetToFullyCompleteFeedbackSession(fs);
+        List<String> incompleteStudentEmails = new ArrayList<String>();
+        for (StudentAttributes student : incompleteStudents) {
+            incompleteStudentEmails.add(student.email);
+        }
+        assertFalse(incompleteStudentEmails.contains(student1OfCourse1.email));
+        assertTrue(incompleteStudentEmails.contains(student3OfCourse1.email));
+        
+        // gives the same result as checking the students one by one
+        for (StudentAttributes student : dataBundle.students.values()) {
+            if (!student.course.equals(fs.getCourseId())) {
+                continue;
+            }
+            assertEquals(!fsLogic.isFeedbackSessionFullyCompletedByStudent(fs.getFeedbackSessionName(),
+                                                                           fs.getCourseId(), student.email),
+                         incompleteStudentEmails.contains(student.email));
+        }
+        
+        ______TS("failure: non-existent feedback session for students yet to complete");
+        
+        FeedbackSessionAttributes nonExistentSession = new FeedbackSessionAttributes();
+        nonExistentSession.setCourseId(fs.getCourseId());
+        nonExistentSession.setFeedbackSessionName("nonExistentFSName");
+        try {
+            fsLogic.getStudentsYetToFullyCompleteFeedbackSession(nonExistentSession);
+            signalFailureToDetectException();
+        } catch (EntityDoesNotExistException edne) {
+            assertEquals("Trying to check a feedback session that does not exist.",
+                         edne.getMessage());
+        }
     }
     
     public void testScheduleFeedbackSessionOpeningEmails() {
@@ -0,0 +1,149 @@
+package teammates.test.cases.logic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.datatransfer.CommentAttributes;
+import teammates.common.datatransfer.CommentParticipantType;
+import teammates.common.datatransfer.DataBundle;
+import teammates.common.datatransfer.StudentAttributes;
+import teammates.common.util.Const;
+import teammates.logic.core.CommentsLogic;
+import teammates.logic.core.SearchDocumentsLogic;
+import teammates.logic.core.StudentsLogic;
+import teammates.storage.api.StudentsDb;
+import teammates.storage.search.PendingSearchDocuments;
+import teammates.storage.search.SearchManager;
+import teammates.test.cases.BaseComponentTestCase;
+
+import com.google.appengine.api.search.Document;
+import com.google.appengine.api.taskqueue.dev.LocalTaskQueue;
+import com.google.appengine.tools.development.testing.LocalTaskQueueTestConfig;
+
+public class SearchDocumentsLogicTest extends BaseComponentTestCase {
+
+    private static final SearchDocumentsLogic searchDocumentsLogic = SearchDocumentsLogic.inst();
+    private static final CommentsLogic commentsLogic = CommentsLogic.inst();
+    private static final StudentsLogic studentsLogic = StudentsLogic.inst();
+    private static DataBundle dataBundle = getTypicalDataBundle();
+
+    @BeforeClass
+    public static void classSetUp() throws Exception {
+        printTestClassHeader();
+        removeAndRestoreTypicalDataInDatastore();
+    }
+
+    @Test
+    public void testPutScheduledDocuments() throws Exception {
+        PendingSearchDocuments.clear();
+
+        ______TS("documents of created students are scheduled, not put");
+
+        StudentAttributes student = new StudentAttributes("Section 1", "Team 1.1", "Scheduled Student",
+                                                          "scheduled.student@gmail.tmt", "", "idOfTypicalCourse1");
+        new StudentsDb().createStudent(student);
+        StudentAttributes createdStudent = studentsLogic.getStudentForEmail(student.course, student.email);
+
+        Map<String, List<String>> pendingDocuments = PendingSearchDocuments.drain();
+        assertEquals(Arrays.asList(createdStudent.key), pendingDocuments.get(Const.SearchIndex.STUDENT));
+        assertNull(SearchManager.getDocument(Const.SearchIndex.STUDENT, createdStudent.key));
+        assertTrue(PendingSearchDocuments.drain().isEmpty());
+
+        ______TS("scheduled documents are put by the background task");
+
+        searchDocumentsLogic.putDocuments(Const.SearchIndex.STUDENT, pendingDocuments.get(Const.SearchIndex.STUDENT));
+        Document document = SearchManager.getDocument(Const.SearchIndex.STUDENT, createdStudent.key);
+        assertTrue(getSearchableText(document).contains("Scheduled Student"));
+
+        ______TS("documents built together share the course roster");
+
+        List<String> commentIds = new ArrayList<String>();
+        for (CommentAttributes comment : commentsLogic.getCommentsForGiver("idOfTypicalCourse1", "instructor1@course1.tmt")) {
+            commentsLogic.schedulePutDocument(comment);
+            commentIds.add(comment.getCommentId().toString());
+        }
+        assertEquals(commentIds, PendingSearchDocuments.drain().get(Const.SearchIndex.COMMENT));
+
+        searchDocumentsLogic.putDocuments(Const.SearchIndex.COMMENT, commentIds);
+        for (CommentAttributes comment : commentsLogic.getCommentsForGiver("idOfTypicalCourse1", "instructor1@course1.tmt")) {
+            String searchableText = getSearchableText(
+                    SearchManager.getDocument(Const.SearchIndex.COMMENT, comment.getCommentId().toString()));
+            if (comment.recipientType == CommentParticipantType.TEAM) {
+                for (StudentAttributes studentInTeam : studentsLogic.getStudentsForTeam("Team 1.1</td></div>'\"",
+                                                                                        "idOfTypicalCourse1")) {
+                    assertTrue(searchableText.contains(studentInTeam.email));
+                }
+            } else if (comment.recipientType == CommentParticipantType.PERSON) {
+                String recipientEmail = dataBundle.students.get("student1InCourse1").email;
+                assertTrue(searchableText.contains(studentsLogic.getStudentForEmail("idOfTypicalCourse1", recipientEmail).name));
+            }
+        }
+
+        ______TS("documents of entities that no longer exist are skipped");
+
+        searchDocumentsLogic.putDocuments(Const.SearchIndex.COMMENT, Arrays.asList("123456789"));
+        assertNull(SearchManager.getDocument(Const.SearchIndex.COMMENT, "123456789"));
+    }
+
+    @Test
+    public void testFlush() {
+        LocalTaskQueue taskQueue = LocalTaskQueueTestConfig.getLocalTaskQueue();
+        taskQueue.flushQueue(Const.SystemParams.SEARCH_DOCUMENT_TASK_QUEUE);
+        PendingSearchDocuments.clear();
+
+        ______TS("nothing pending");
+
+        PendingSearchDocuments.flush();
+        assertEquals(0, getSearchDocumentTaskCount(taskQueue));
+
+        ______TS("one task per index, for up to the documents accepted in one put");
+
+        for (int i = 0; i <= SearchManager.MAX_DOCUMENTS_PER_PUT; i++) {
+            PendingSearchDocuments.add(Const.SearchIndex.STUDENT, "student" + i);
+        }
+        PendingSearchDocuments.add(Const.SearchIndex.COMMENT, "1");
+        PendingSearchDocuments.add(Const.SearchIndex.COMMENT, "1");
+
+        PendingSearchDocuments.flush();
+        assertEquals(3, getSearchDocumentTaskCount(taskQueue));
+        assertTrue(PendingSearchDocuments.drain().isEmpty());
+
+        taskQueue.flushQueue(Const.SystemParams.SEARCH_DOCUMENT_TASK_QUEUE);
+    }
+
+    @Test
+    public void testPutNow() throws Exception {
+        PendingSearchDocuments.clear();
+
+        ______TS("documents of students written outside of a request are put at once");
+
+        StudentAttributes student = new StudentAttributes("Section 1", "Team 1.1", "Script Student",
+                                                          "script.student@gmail.tmt", "", "idOfTypicalCourse1");
+        new StudentsDb().createStudent(student);
+        StudentAttributes createdStudent = studentsLogic.getStudentForEmail(student.course, student.email);
+
+        PendingSearchDocuments.putNow();
+        Document document = SearchManager.getDocument(Const.SearchIndex.STUDENT, createdStudent.key);
+        assertTrue(getSearchableText(document).contains("Script Student"));
+        assertTrue(PendingSearchDocuments.drain().isEmpty());
+    }
+
+    private static int getSearchDocumentTaskCount(LocalTaskQueue taskQueue) {
+        return taskQueue.getQueueStateInfo().get(Const.SystemParams.SEARCH_DOCUMENT_TASK_QUEUE).getCountTasks();
+    }
+
+    private static String getSearchableText(Document document) {
+        return document.getOnlyField(Const.SearchDocumentField.SEARCHABLE_TEXT).getText();
+    }
+
+    @AfterClass
+    public static void classTearDown() {
+        printTestClassFooter();
+    }
+}
@@ -151,30 +151,27 @@ public class StudentsLogicTest extends BaseComponentTestCase {
         assertEquals(0, studentsLogic.getStudentsForCourse(instructorCourse).size());
 
         // add a new student and verify it is added and treated as a new student
-        StudentEnrollDetails enrollmentResult = invokeEnrollStudent(student1);
+        StudentAttributes enrollmentResult = enrollStudent(student1);
         assertEquals(1, studentsLogic.getStudentsForCourse(instructorCourse).size());
-        verifyEnrollmentDetailsForStudent(student1, null, enrollmentResult,
-                StudentAttributes.UpdateStatus.NEW);
+        verifyEnrollmentResultForStudent(student1, enrollmentResult, StudentAttributes.UpdateStatus.NEW);
         verifyPresentInDatastore(student1);
 
         ______TS("add existing student");
 
         // Verify it was not added
-        enrollmentResult = invokeEnrollStudent(student1);
-        verifyEnrollmentDetailsForStudent(student1, null, enrollmentResult,
-                StudentAttributes.UpdateStatus.UNMODIFIED);
+        enrollmentResult = enrollStudent(student1);
+        verifyEnrollmentResultForStudent(student1, enrollmentResult, StudentAttributes.UpdateStatus.UNMODIFIED);
         assertEquals(1, studentsLogic.getStudentsForCourse(instructorCourse).size());
 
         ______TS("add student into non-empty course");
         StudentAttributes student2 = new StudentAttributes("sect 1", "t1", "n2", "e2@g", "c", instructorCourse);
-        enrollmentResult = invokeEnrollStudent(student2);
-        verifyEnrollmentDetailsForStudent(student2, null, enrollmentResult,
-                StudentAttributes.UpdateStatus.NEW);
+        enrollmentResult = enrollStudent(student2);
+        verifyEnrollmentResultForStudent(student2, enrollmentResult, StudentAttributes.UpdateStatus.NEW);
         
         //add some more students to the same course (we add more than one
         //  because we can use them for testing cascade logic later in this test case)
-        invokeEnrollStudent(new StudentAttributes("sect 2", "t2", "n3", "e3@g", "c", instructorCourse));
-        invokeEnrollStudent(new StudentAttributes("sect 2", "t2", "n4", "e4@g", "", instructorCourse));
+        enrollStudent(new StudentAttributes("sect 2", "t2", "n3", "e3@g", "c", instructorCourse));
+        enrollStudent(new StudentAttributes("sect 2", "t2", "n4", "e4@g", "", instructorCourse));
         assertEquals(4, studentsLogic.getStudentsForCourse(instructorCourse).size());
         
         ______TS("modify info of existing student");
@@ -1139,9 +1136,9 @@ public class StudentsLogicTest extends BaseComponentTestCase {
         StudentAttributes newsStudent0Info = new StudentAttributes("sect", "team", "n0", "e0@google.tmt", "", courseId);
         StudentAttributes newsStudent1Info = new StudentAttributes("sect", "team", "n1", "e1@google.tmt", "", courseId);
         StudentAttributes newsStudent2Info = new StudentAttributes("sect", "team", "n2", "e2@google.tmt", "", courseId);
-        invokeEnrollStudent(newsStudent0Info);
-        invokeEnrollStudent(newsStudent1Info);
-        invokeEnrollStudent(newsStudent2Info);
+        enrollStudent(newsStudent0Info);
+        enrollStudent(newsStudent1Info);
+        enrollStudent(newsStudent2Info);
 
         List<MimeMessage> msgsForCourse = studentsLogic.sendRegistrationInviteForCourse(courseId);
         assertEquals(3, msgsForCourse.size());
@@ -1199,13 +1196,21 @@ public class StudentsLogicTest extends BaseComponentTestCase {
         }
     }
 
-    private static StudentEnrollDetails invokeEnrollStudent(StudentAttributes student)
-            throws Exception {
-        Method privateMethod = StudentsLogic.class.getDeclaredMethod("enrollStudent",
-                new Class[] { StudentAttributes.class, Boolean.class });
-        privateMethod.setAccessible(true);
-        Object[] params = new Object[] { student, false };
-        return (StudentEnrollDetails) privateMethod.invoke(StudentsLogic.inst(), params);
+    /**
+     * Enrolls the student alone, through an enroll list of one line.
+     * @return the student as returned by the enrollment, with its update status
+     */
+    private static StudentAttributes enrollStudent(StudentAttributes student) throws Exception {
+        String enrollLines = "Section | Team | Name | Email | Comment" + Const.EOL
+                             + student.section + " | " + student.team + " | " + student.name + " | " + student.email
+                             + " | " + student.comments;
+        for (StudentAttributes enrolledStudent : StudentsLogic.inst().enrollStudentsWithoutDocument(enrollLines,
+                                                                                                    student.course)) {
+            if (enrolledStudent.email.equals(student.email)) {
+                return enrolledStudent;
+            }
+        }
+        return null;
     }
     
     @SuppressWarnings("unchecked")
@@ -1231,15 +1236,6 @@ public class StudentsLogicTest extends BaseComponentTestCase {
         AssertHelper.assertContains(student.course, email.getSubject());
     }
     
-    private void verifyEnrollmentDetailsForStudent(StudentAttributes expectedStudent, String oldTeam,
-                                                   StudentEnrollDetails enrollmentResult, UpdateStatus status) {
-        assertEquals(expectedStudent.email, enrollmentResult.email);
-        assertEquals(expectedStudent.team, enrollmentResult.newTeam);
-        assertEquals(expectedStudent.course, enrollmentResult.course);
-        assertEquals(oldTeam, enrollmentResult.oldTeam);
-        assertEquals(status, enrollmentResult.updateStatus);
-    }
-    
     private void verifyEnrollmentResultForStudent(StudentAttributes expectedStudent,
                                                   StudentAttributes enrollmentResult, UpdateStatus status) {
         String errorMessage = "mismatch! \n expected:\n"
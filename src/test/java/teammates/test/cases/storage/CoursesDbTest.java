@@ -1,9 +1,15 @@
 package teammates.test.cases.storage;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
 import teammates.common.datatransfer.CourseAttributes;
+import teammates.common.datatransfer.CourseStats;
+import teammates.common.datatransfer.StudentAttributes;
 import teammates.common.exception.EntityAlreadyExistsException;
 import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.InvalidParametersException;
@@ -12,6 +18,8 @@ import teammates.common.util.FieldValidator;
 import teammates.common.util.StringHelper;
 import teammates.storage.api.CoursesDb;
 import teammates.storage.api.EntitiesDb;
+import teammates.storage.datastore.Datastore;
+import teammates.storage.datastore.EntityCache;
 import teammates.test.cases.BaseComponentTestCase;
 import teammates.test.driver.AssertHelper;
 
@@ -104,6 +112,41 @@ public class CoursesDbTest extends BaseComponentTestCase {
         }
     }
     
+    @Test
+    public void testGetCourseFromRequestCache() throws Exception {
+        CourseAttributes c = createNewCourse();
+        Datastore.clearRequestEntityCache();
+        EntityCache.resetStatistics();
+        
+        ______TS("first read goes to the datastore, later reads in the same request are cached");
+        
+        assertEquals(c.getName(), coursesDb.getCourse(c.getId()).getName());
+        assertEquals(0, EntityCache.getRequestCacheHits());
+        assertEquals(1, EntityCache.getRequestCacheMisses());
+        
+        assertEquals(c.getName(), coursesDb.getCourse(c.getId()).getName());
+        assertEquals(c.getName(), coursesDb.getCourse(c.getId()).getName());
+        assertEquals(2, EntityCache.getRequestCacheHits());
+        
+        ______TS("updates are visible to later reads");
+        
+        coursesDb.updateCourse(new CourseAttributes(c.getId(), "Advanced Computing"));
+        assertEquals("Advanced Computing", coursesDb.getCourse(c.getId()).getName());
+        
+        ______TS("cache is dropped at the end of the request");
+        
+        coursesDb.getCourse(c.getId());
+        Datastore.clearRequestEntityCache();
+        long missesBefore = EntityCache.getRequestCacheMisses();
+        coursesDb.getCourse(c.getId());
+        assertEquals(missesBefore + 1, EntityCache.getRequestCacheMisses());
+        
+        ______TS("deleted course is not served from the cache");
+        
+        coursesDb.deleteCourse(c.getId());
+        assertNull(coursesDb.getCourse(c.getId()));
+    }
+    
     @Test
     public void testUpdateCourse() throws Exception {
         
@@ -179,6 +222,103 @@ public class CoursesDbTest extends BaseComponentTestCase {
         }
     }
 
+    @Test
+    public void testCourseStats() {
+        String courseId = "CoursesDbTest.stats";
+        StudentAttributes student1 = new StudentAttributes("Section 1", "Team 1.1", "Student 1", "s1@email.tmt", "",
+                                                           courseId);
+        StudentAttributes student2 = new StudentAttributes("Section 1", "Team 1.2", "Student 2", "s2@email.tmt", "",
+                                                           courseId);
+        StudentAttributes student3 = new StudentAttributes(Const.DEFAULT_SECTION, "Team 0", "Student 3",
+                                                           "s3@email.tmt", "", courseId);
+        student3.googleId = "student3.id";
+        List<StudentAttributes> noStudents = new ArrayList<StudentAttributes>();
+        
+        ______TS("no statistics recorded");
+        
+        assertNull(coursesDb.getCourseStats(courseId));
+        assertTrue(coursesDb.updateCourseStats(courseId, noStudents, Arrays.asList(student1)));
+        assertNull(coursesDb.getCourseStats(courseId));
+        
+        ______TS("statistics computed from all the students");
+        
+        long version = coursesDb.getCourseStatsVersion(courseId);
+        assertNull(coursesDb.getCourseStats(courseId));
+        verifyCourseStats(1, 3, 3, 2, coursesDb.putCourseStats(courseId, Arrays.asList(student1, student2, student3),
+                                                               version));
+        verifyCourseStats(1, 3, 3, 2, coursesDb.getCourseStats(courseId));
+        
+        ______TS("students added and removed");
+        
+        StudentAttributes student4 = new StudentAttributes("Section 2", "Team 2.1", "Student 4", "s4@email.tmt", "",
+                                                           courseId);
+        assertTrue(coursesDb.updateCourseStats(courseId, Arrays.asList(student2), Arrays.asList(student4)));
+        verifyCourseStats(2, 3, 3, 2, coursesDb.getCourseStats(courseId));
+        
+        ______TS("statistics computed from students queried before a change: not recorded");
+        
+        verifyCourseStats(1, 2, 2, 2, coursesDb.putCourseStats(courseId, Arrays.asList(student1, student2), version));
+        verifyCourseStats(2, 3, 3, 2, coursesDb.getCourseStats(courseId));
+        
+        ______TS("student changing team and registering");
+        
+        StudentAttributes changedStudent1 = new StudentAttributes("Section 2", "Team 2.1", "Student 1",
+                                                                  "s1@email.tmt", "", courseId);
+        changedStudent1.googleId = "student1.id";
+        assertTrue(coursesDb.updateCourseStats(courseId, Arrays.asList(student1), Arrays.asList(changedStudent1)));
+        verifyCourseStats(1, 2, 3, 1, coursesDb.getCourseStats(courseId));
+        
+        ______TS("removing a student not counted: statistics are outdated");
+        
+        assertFalse(coursesDb.updateCourseStats(courseId, Arrays.asList(student2), noStudents));
+        assertNull(coursesDb.getCourseStats(courseId));
+        assertTrue(coursesDb.updateCourseStats(courseId, noStudents, Arrays.asList(student2)));
+        assertNull(coursesDb.getCourseStats(courseId));
+        
+        ______TS("statistics deleted");
+        
+        coursesDb.putCourseStats(courseId, Arrays.asList(student1), coursesDb.getCourseStatsVersion(courseId));
+        verifyCourseStats(1, 1, 1, 1, coursesDb.getCourseStats(courseId));
+        coursesDb.deleteCourseStats(courseId);
+        assertNull(coursesDb.getCourseStats(courseId));
+        
+        // should fail silently
+        coursesDb.deleteCourseStats(courseId);
+        
+        ______TS("empty statistics of a new course");
+        
+        coursesDb.createEmptyCourseStats(courseId);
+        verifyCourseStats(0, 0, 0, 0, coursesDb.getCourseStats(courseId));
+        assertTrue(coursesDb.updateCourseStats(courseId, noStudents, Arrays.asList(student1)));
+        coursesDb.createEmptyCourseStats(courseId);
+        verifyCourseStats(1, 1, 1, 1, coursesDb.getCourseStats(courseId));
+        coursesDb.deleteCourseStats(courseId);
+        
+        ______TS("null parameters");
+        
+        try {
+            coursesDb.getCourseStats(null);
+            signalFailureToDetectException();
+        } catch (AssertionError e) {
+            assertEquals(Const.StatusCodes.DBLEVEL_NULL_INPUT, e.getMessage());
+        }
+        
+        try {
+            coursesDb.updateCourseStats(courseId, null, noStudents);
+            signalFailureToDetectException();
+        } catch (AssertionError e) {
+            assertEquals(Const.StatusCodes.DBLEVEL_NULL_INPUT, e.getMessage());
+        }
+    }
+    
+    private void verifyCourseStats(int sectionsTotal, int teamsTotal, int studentsTotal, int unregisteredTotal,
+                                   CourseStats stats) {
+        assertEquals(sectionsTotal, stats.sectionsTotal);
+        assertEquals(teamsTotal, stats.teamsTotal);
+        assertEquals(studentsTotal, stats.studentsTotal);
+        assertEquals(unregisteredTotal, stats.unregisteredTotal);
+    }
+
     private CourseAttributes createNewCourse() throws InvalidParametersException {
         
         CourseAttributes c = new CourseAttributes("Computing101", "Basic Computing");
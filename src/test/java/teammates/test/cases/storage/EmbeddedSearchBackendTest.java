@@ -0,0 +1,224 @@
+package teammates.test.cases.storage;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.datatransfer.InstructorAttributes;
+import teammates.common.util.Const;
+import teammates.storage.search.CommentSearchQuery;
+import teammates.storage.search.EmbeddedSearchBackend;
+import teammates.storage.search.StudentSearchQuery;
+import teammates.test.cases.BaseTestCase;
+
+import com.google.appengine.api.search.Document;
+import com.google.appengine.api.search.Field;
+import com.google.appengine.api.search.OperationResult;
+import com.google.appengine.api.search.Query;
+import com.google.appengine.api.search.Results;
+import com.google.appengine.api.search.ScoredDocument;
+import com.google.appengine.api.search.SearchQueryException;
+import com.google.appengine.api.search.StatusCode;
+
+public class EmbeddedSearchBackendTest extends BaseTestCase {
+
+    private static final String INDEX = Const.SearchIndex.STUDENT;
+
+    @BeforeClass
+    public static void classSetUp() {
+        printTestClassHeader();
+    }
+
+    @Test
+    public void testPutGetDelete() {
+        EmbeddedSearchBackend backend = new EmbeddedSearchBackend();
+
+        ______TS("put and get documents");
+
+        List<OperationResult> results = backend.putDocuments(INDEX, Arrays.asList(
+                createStudentDocument("s1", "CS1101", "Alice Tan", "alice@gmail.tmt", "Team A"),
+                createStudentDocument("s2", "CS1101", "Benny Ng", "benny@gmail.tmt", "Team A")));
+        assertEquals(2, results.size());
+        assertEquals(StatusCode.OK, results.get(0).getCode());
+        assertEquals(StatusCode.OK, results.get(1).getCode());
+        assertEquals("Alice Tan", getName(backend.getDocument(INDEX, "s1")));
+        assertNull(backend.getDocument(INDEX, "non-existent"));
+        assertNull(backend.getDocument(Const.SearchIndex.INSTRUCTOR, "s1"));
+
+        ______TS("updating a document replaces its indexed words");
+
+        backend.putDocuments(INDEX, Arrays.asList(
+                createStudentDocument("s1", "CS1101", "Alice Lim", "alice@gmail.tmt", "Team A")));
+        assertEquals("Alice Lim", getName(backend.getDocument(INDEX, "s1")));
+        assertEquals(0, search(backend, "tan").getNumberFound());
+        assertEquals(1, search(backend, "lim").getNumberFound());
+
+        ______TS("delete documents");
+
+        backend.deleteDocuments(INDEX, "s1", "non-existent");
+        assertNull(backend.getDocument(INDEX, "s1"));
+        assertEquals(0, search(backend, "alice").getNumberFound());
+        assertEquals(1, search(backend, "benny").getNumberFound());
+    }
+
+    @Test
+    public void testSearch() {
+        EmbeddedSearchBackend backend = new EmbeddedSearchBackend();
+        backend.putDocuments(INDEX, Arrays.asList(
+                createStudentDocument("s1", "CS1101", "Alice Tan", "alice@gmail.tmt", "Team A"),
+                createStudentDocument("s2", "CS1101", "Benny Tan", "benny@gmail.tmt", "Team B"),
+                createStudentDocument("s3", "CS2103", "Charlie Tan", "charlie@gmail.tmt", "Team A"),
+                createStudentDocument("s4", "CS2103", "Alice Ng", "alice.ng@gmail.tmt", "Team C")));
+
+        ______TS("keywords are ORed, and are case-insensitive");
+
+        verifySearchResults(search(backend, "BENNY charlie"), "s3", "s2");
+
+        ______TS("quoted keywords match as a phrase");
+
+        verifySearchResults(search(backend, "\"alice tan\""), "s1");
+        verifySearchResults(search(backend, "\"tan alice\""));
+
+        ______TS("emails match as a whole");
+
+        verifySearchResults(search(backend, "alice@gmail.tmt"), "s1");
+
+        ______TS("results are limited to the courses of the instructors, best matches first");
+
+        List<InstructorAttributes> instructors = new ArrayList<InstructorAttributes>();
+        instructors.add(new InstructorAttributes("instr", "CS1101", "Instructor", "instr@gmail.tmt"));
+        Query query = new StudentSearchQuery(instructors, "alice tan", "").toQuery();
+        verifySearchResults(backend.searchDocuments(INDEX, query), "s1", "s2");
+
+        ______TS("visibility conditions on other fields");
+
+        backend.putDocuments(Const.SearchIndex.COMMENT, Arrays.asList(
+                createCommentDocument("c1", "CS1101", "instr@gmail.tmt", false, "good work"),
+                createCommentDocument("c2", "CS1101", "other@gmail.tmt", true, "good effort"),
+                createCommentDocument("c3", "CS1101", "other@gmail.tmt", false, "good job"),
+                createCommentDocument("c4", "CS2103", "instr@gmail.tmt", true, "good attempt")));
+        query = new CommentSearchQuery(instructors, "good", "").toQuery();
+        verifySearchResults(backend.searchDocuments(Const.SearchIndex.COMMENT, query), "c2", "c1");
+
+        ______TS("unsupported query");
+
+        try {
+            backend.searchDocuments(INDEX, Query.newBuilder().build("2015-01-01 <= createdDate"));
+            signalFailureToDetectException();
+        } catch (SearchQueryException e) {
+            assertEquals("Comparisons are not supported: <=", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testCursor() {
+        EmbeddedSearchBackend backend = new EmbeddedSearchBackend();
+        List<Document> documents = new ArrayList<Document>();
+        for (int i = 0; i < 45; i++) {
+            documents.add(createStudentDocument("s" + i, "CS1101", "Student " + i, "s" + i + "@gmail.tmt", "Team A"));
+        }
+        backend.putDocuments(INDEX, documents);
+
+        List<String> foundIds = new ArrayList<String>();
+        String cursor = "";
+        int pages = 0;
+        do {
+            Results<ScoredDocument> results = search(backend, "student", cursor);
+            assertEquals(45, results.getNumberFound());
+            for (ScoredDocument document : results) {
+                foundIds.add(document.getId());
+            }
+            cursor = results.getCursor() == null ? null : results.getCursor().toWebSafeString();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(45, foundIds.size());
+        // the most recently put documents are returned first
+        assertEquals("s44", foundIds.get(0));
+        assertEquals("s0", foundIds.get(44));
+    }
+
+    @Test
+    public void testSavedIndex() throws Exception {
+        File directory = File.createTempFile("searchIndex", "");
+        assertTrue(directory.delete());
+
+        try {
+            EmbeddedSearchBackend backend = new EmbeddedSearchBackend(directory);
+            backend.putDocuments(INDEX, Arrays.asList(
+                    createStudentDocument("s1", "CS1101", "Alice Tan", "alice@gmail.tmt", "Team A"),
+                    createStudentDocument("s2", "CS1101", "Benny Ng", "benny@gmail.tmt", "Team B")));
+            backend.putDocuments(INDEX, Arrays.asList(
+                    createStudentDocument("s1", "CS1101", "Alice Lim", "alice@gmail.tmt", "Team A")));
+            backend.deleteDocuments(INDEX, "s2");
+
+            ______TS("index is restored from the saved file");
+
+            EmbeddedSearchBackend restoredBackend = new EmbeddedSearchBackend(directory);
+            assertEquals("Alice Lim", getName(restoredBackend.getDocument(INDEX, "s1")));
+            assertNull(restoredBackend.getDocument(INDEX, "s2"));
+            verifySearchResults(search(restoredBackend, "alice"), "s1");
+            verifySearchResults(search(restoredBackend, "benny"));
+        } finally {
+            for (File file : directory.listFiles()) {
+                assertTrue(file.delete());
+            }
+            assertTrue(directory.delete());
+        }
+    }
+
+    private static Results<ScoredDocument> search(EmbeddedSearchBackend backend, String queryString) {
+        return search(backend, queryString, "");
+    }
+
+    private static Results<ScoredDocument> search(EmbeddedSearchBackend backend, String queryString, String cursor) {
+        return backend.searchDocuments(INDEX, new StudentSearchQuery(queryString, cursor).toQuery());
+    }
+
+    private static void verifySearchResults(Results<ScoredDocument> results, String... expectedIds) {
+        List<String> actualIds = new ArrayList<String>();
+        for (ScoredDocument document : results) {
+            actualIds.add(document.getId());
+        }
+        assertEquals(Arrays.asList(expectedIds), actualIds);
+    }
+
+    private static String getName(Document document) {
+        return document.getOnlyField(Const.SearchDocumentField.STUDENT_ATTRIBUTE).getText();
+    }
+
+    private static Document createStudentDocument(String id, String courseId, String name, String email, String team) {
+        return Document.newBuilder()
+                .addField(Field.newBuilder().setName(Const.SearchDocumentField.COURSE_ID).setText(courseId))
+                .addField(Field.newBuilder().setName(Const.SearchDocumentField.SEARCHABLE_TEXT)
+                                            .setText(courseId + "," + email + "," + name + "," + team))
+                .addField(Field.newBuilder().setName(Const.SearchDocumentField.STUDENT_ATTRIBUTE).setText(name))
+                .setId(id)
+                .build();
+    }
+
+    private static Document createCommentDocument(String id, String courseId, String giverEmail,
+                                                  boolean isVisibleToInstructor, String commentText) {
+        return Document.newBuilder()
+                .addField(Field.newBuilder().setName(Const.SearchDocumentField.COURSE_ID).setText(courseId))
+                .addField(Field.newBuilder().setName(Const.SearchDocumentField.GIVER_EMAIL).setText(giverEmail))
+                .addField(Field.newBuilder().setName(Const.SearchDocumentField.IS_VISIBLE_TO_INSTRUCTOR)
+                                            .setText(String.valueOf(isVisibleToInstructor)))
+                .addField(Field.newBuilder().setName(Const.SearchDocumentField.SEARCHABLE_TEXT).setText(commentText))
+                .addField(Field.newBuilder().setName(Const.SearchDocumentField.CREATED_DATE).setDate(new Date()))
+                .setId(id)
+                .build();
+    }
+
+    @AfterClass
+    public static void classTearDown() {
+        printTestClassFooter();
+    }
+}
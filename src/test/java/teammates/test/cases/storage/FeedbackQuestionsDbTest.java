@@ -1,7 +1,9 @@
 package teammates.test.cases.storage;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
@@ -347,6 +349,60 @@ public class FeedbackQuestionsDbTest extends BaseComponentTestCase {
         fqDb.deleteEntity(modifiedQuestion);
     }
 
+    @Test
+    public void testUpdateFeedbackQuestionNumbers() throws Exception {
+
+        ______TS("null params");
+
+        try {
+            fqDb.updateFeedbackQuestionNumbers(null);
+            signalFailureToDetectException();
+        } catch (AssertionError e) {
+            AssertHelper.assertContains(Const.StatusCodes.DBLEVEL_NULL_INPUT, e.getLocalizedMessage());
+        }
+
+        ______TS("standard success case");
+
+        createFeedbackQuestions(3);
+        FeedbackQuestionAttributes fqa = getNewFeedbackQuestionAttributes();
+        String q1Id = fqDb.getFeedbackQuestion(fqa.feedbackSessionName, fqa.courseId, 1).getId();
+        String q2Id = fqDb.getFeedbackQuestion(fqa.feedbackSessionName, fqa.courseId, 2).getId();
+        String q3Id = fqDb.getFeedbackQuestion(fqa.feedbackSessionName, fqa.courseId, 3).getId();
+
+        Map<String, Integer> questionNumbers = new HashMap<String, Integer>();
+        questionNumbers.put(q1Id, 3);
+        questionNumbers.put(q3Id, 1);
+        fqDb.updateFeedbackQuestionNumbers(questionNumbers);
+
+        assertEquals(3, fqDb.getFeedbackQuestion(q1Id).questionNumber);
+        assertEquals(2, fqDb.getFeedbackQuestion(q2Id).questionNumber);
+        assertEquals(1, fqDb.getFeedbackQuestion(q3Id).questionNumber);
+        assertEquals("Question text.", fqDb.getFeedbackQuestion(q1Id).getQuestionDetails().questionText);
+        assertEquals(q3Id, fqDb.getFeedbackQuestion(fqa.feedbackSessionName, fqa.courseId, 1).getId());
+
+        ______TS("no questions to update");
+
+        fqDb.updateFeedbackQuestionNumbers(new HashMap<String, Integer>());
+        assertEquals(3, fqDb.getFeedbackQuestion(q1Id).questionNumber);
+
+        ______TS("question does not exist: no question numbers are changed");
+
+        fqDb.deleteEntity(fqDb.getFeedbackQuestion(q2Id));
+        questionNumbers = new HashMap<String, Integer>();
+        questionNumbers.put(q1Id, 1);
+        questionNumbers.put(q2Id, 2);
+
+        try {
+            fqDb.updateFeedbackQuestionNumbers(questionNumbers);
+            signalFailureToDetectException();
+        } catch (EntityDoesNotExistException e) {
+            AssertHelper.assertContains(FeedbackQuestionsDb.ERROR_UPDATE_NON_EXISTENT, e.getLocalizedMessage());
+        }
+        assertEquals(3, fqDb.getFeedbackQuestion(q1Id).questionNumber);
+
+        deleteFeedbackQuestions(3);
+    }
+
     private FeedbackQuestionAttributes getNewFeedbackQuestionAttributes() {
         FeedbackQuestionAttributes fqa = new FeedbackQuestionAttributes();
 
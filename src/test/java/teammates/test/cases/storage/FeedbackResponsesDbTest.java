@@ -1,8 +1,11 @@
 package teammates.test.cases.storage;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
 
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
@@ -12,10 +15,12 @@ import teammates.common.datatransfer.DataBundle;
 import teammates.common.datatransfer.FeedbackQuestionType;
 import teammates.common.datatransfer.FeedbackResponseAttributes;
 import teammates.common.datatransfer.FeedbackResponseDetails;
+import teammates.common.datatransfer.FeedbackResponsePage;
 import teammates.common.datatransfer.FeedbackTextResponseDetails;
 import teammates.common.exception.EntityAlreadyExistsException;
 import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.InvalidParametersException;
+import teammates.common.util.Config;
 import teammates.common.util.Const;
 import teammates.common.util.FieldValidator;
 import teammates.storage.api.FeedbackResponsesDb;
@@ -299,6 +304,49 @@ public class FeedbackResponsesDbTest extends BaseComponentTestCase {
         
     }
     
+    @Test
+    public void testGetFeedbackResponsesForSessionFromOrToUsers() {
+        
+        ______TS("standard success case");
+        
+        String feedbackSessionName = fras.get("response1ForQ1S1C1").feedbackSessionName;
+        String courseId = fras.get("response1ForQ1S1C1").courseId;
+        List<String> userEmails = Arrays.asList("student2InCourse1@gmail.tmt", "student3InCourse1@gmail.tmt");
+        
+        List<FeedbackResponseAttributes> responses =
+                frDb.getFeedbackResponsesForSessionFromOrToUsers(feedbackSessionName, courseId, userEmails);
+        
+        Set<String> expectedIds = new TreeSet<String>();
+        for (FeedbackResponseAttributes response : frDb.getFeedbackResponsesForSession(feedbackSessionName, courseId)) {
+            if (userEmails.contains(response.giverEmail) || userEmails.contains(response.recipientEmail)) {
+                expectedIds.add(response.getId());
+            }
+        }
+        assertTrue(expectedIds.size() >= 4);
+        
+        ______TS("responses between the users are returned once, sorted by id");
+        
+        List<String> actualIds = new ArrayList<String>();
+        for (FeedbackResponseAttributes response : responses) {
+            actualIds.add(response.getId());
+        }
+        assertEquals(new ArrayList<String>(expectedIds), actualIds);
+        
+        ______TS("no users");
+        
+        assertTrue(frDb.getFeedbackResponsesForSessionFromOrToUsers(
+                feedbackSessionName, courseId, new ArrayList<String>()).isEmpty());
+        
+        ______TS("null params");
+        
+        try {
+            frDb.getFeedbackResponsesForSessionFromOrToUsers(feedbackSessionName, courseId, null);
+            signalFailureToDetectException();
+        } catch (AssertionError e) {
+            AssertHelper.assertContains(Const.StatusCodes.DBLEVEL_NULL_INPUT, e.getLocalizedMessage());
+        }
+    }
+    
     @Test
     public void testGetFeedbackResponsesForReceiverForQuestion() {
         
@@ -641,6 +689,187 @@ public class FeedbackResponsesDbTest extends BaseComponentTestCase {
         assertTrue(frDb.getFeedbackResponsesForSessionInSection(feedbackSessionName, "non-existent courseId", "Section 1").isEmpty());
     }
 
+    @Test
+    public void testGetFeedbackResponsesForSessionPage() {
+
+        ______TS("standard success case: pages cover all responses of the session once");
+        
+        String courseId = fras.get("response1ForQ1S1C1").courseId;
+        String feedbackSessionName = fras.get("response1ForQ1S1C1").feedbackSessionName;
+        
+        List<FeedbackResponseAttributes> allResponses = frDb.getFeedbackResponsesForSession(feedbackSessionName, courseId);
+        List<String> idsInPages = new ArrayList<String>();
+        String cursor = null;
+        do {
+            FeedbackResponsePage page = frDb.getFeedbackResponsesForSessionPage(feedbackSessionName, courseId, cursor, 2);
+            assertTrue(page.responses.size() <= 2);
+            for (FeedbackResponseAttributes response : page.responses) {
+                idsInPages.add(response.getId());
+            }
+            cursor = page.nextCursor;
+        } while (cursor != null);
+        
+        assertEquals(allResponses.size(), idsInPages.size());
+        for (FeedbackResponseAttributes response : allResponses) {
+            assertTrue(idsInPages.contains(response.getId()));
+        }
+        
+        ______TS("pages of responses in section");
+        
+        int numberOfResponsesInSection =
+                frDb.getFeedbackResponsesForSessionInSection(feedbackSessionName, courseId, "Section 1").size();
+        assertTrue(numberOfResponsesInSection > 2);
+        int pageSize = numberOfResponsesInSection - 1;
+        
+        FeedbackResponsePage firstPage = frDb.getFeedbackResponsesForSessionInSectionPage(
+                feedbackSessionName, courseId, "Section 1", null, pageSize);
+        if (Config.FEEDBACK_RESPONSES_INVOLVED_SECTIONS_ENABLED) {
+            assertEquals(pageSize, firstPage.responses.size());
+            assertTrue(firstPage.hasNextPage());
+            
+            FeedbackResponsePage lastPage = frDb.getFeedbackResponsesForSessionInSectionPage(
+                    feedbackSessionName, courseId, "Section 1", firstPage.nextCursor, pageSize);
+            assertEquals(1, lastPage.responses.size());
+            assertFalse(lastPage.hasNextPage());
+            List<String> idsInFirstPage = new ArrayList<String>();
+            for (FeedbackResponseAttributes response : firstPage.responses) {
+                idsInFirstPage.add(response.getId());
+            }
+            for (FeedbackResponseAttributes response : lastPage.responses) {
+                assertFalse(idsInFirstPage.contains(response.getId()));
+            }
+        } else {
+            // responses of a section are only paged once they are queried by their involvedSections
+            assertEquals(numberOfResponsesInSection, firstPage.responses.size());
+            assertFalse(firstPage.hasNextPage());
+        }
+        
+        ______TS("pages of responses from and to section");
+        
+        assertEquals(frDb.getFeedbackResponsesForSessionFromSection(feedbackSessionName, courseId, "Section 1").size(),
+                     frDb.getFeedbackResponsesForSessionFromSectionPage(feedbackSessionName, courseId, "Section 1", null, 100)
+                         .responses.size());
+        assertEquals(frDb.getFeedbackResponsesForSessionToSection(feedbackSessionName, courseId, "Section 1").size(),
+                     frDb.getFeedbackResponsesForSessionToSectionPage(feedbackSessionName, courseId, "Section 1", null, 100)
+                         .responses.size());
+        
+        ______TS("invalid cursor gives the first page");
+        
+        FeedbackResponsePage firstSessionPage =
+                frDb.getFeedbackResponsesForSessionPage(feedbackSessionName, courseId, null, 2);
+        FeedbackResponsePage pageFromInvalidCursor =
+                frDb.getFeedbackResponsesForSessionPage(feedbackSessionName, courseId, "not a cursor!", 2);
+        assertEquals(firstSessionPage.responses.size(), pageFromInvalidCursor.responses.size());
+        for (int i = 0; i < firstSessionPage.responses.size(); i++) {
+            assertEquals(firstSessionPage.responses.get(i).getId(), pageFromInvalidCursor.responses.get(i).getId());
+        }
+        
+        ______TS("null params");
+        
+        try {
+            frDb.getFeedbackResponsesForSessionInSectionPage(feedbackSessionName, courseId, null, null, 3);
+            signalFailureToDetectException();
+        } catch (AssertionError e) {
+            AssertHelper.assertContains(Const.StatusCodes.DBLEVEL_NULL_INPUT, e.getLocalizedMessage());
+        }
+        
+        ______TS("non-existent feedback session");
+        
+        FeedbackResponsePage emptyPage =
+                frDb.getFeedbackResponsesForSessionPage("non-existent feedback session", courseId, null, 3);
+        assertTrue(emptyPage.responses.isEmpty());
+        assertFalse(emptyPage.hasNextPage());
+    }
+
+    @Test
+    public void testInvolvedSectionsFollowSectionChanges() throws Exception {
+
+        FeedbackResponseAttributes fra = getNewFeedbackResponseAttributes();
+        fra.feedbackQuestionId = "testInvolvedSectionsQuestionId";
+        fra.giverSection = "Section A";
+        fra.recipientSection = "Section B";
+        frDb.createEntity(fra);
+        fra = frDb.getFeedbackResponse(fra.feedbackQuestionId, fra.giverEmail, fra.recipientEmail);
+
+        ______TS("response is found from both the giver and the recipient sections");
+
+        assertEquals(1, frDb.getFeedbackResponsesForSessionInSection(fra.feedbackSessionName, fra.courseId, "Section A").size());
+        assertEquals(1, frDb.getFeedbackResponsesForSessionInSection(fra.feedbackSessionName, fra.courseId, "Section B").size());
+        assertEquals(1, frDb.getFeedbackResponsesForQuestionFromOrToSection(fra.feedbackQuestionId, "Section B").size());
+        assertTrue(frDb.getFeedbackResponsesForQuestionInSection(fra.feedbackQuestionId, "Section A").isEmpty());
+
+        ______TS("response follows the giver to a new section");
+
+        fra.giverSection = "Section C";
+        frDb.updateFeedbackResponse(fra);
+
+        assertTrue(frDb.getFeedbackResponsesForSessionInSection(fra.feedbackSessionName, fra.courseId, "Section A").isEmpty());
+        assertEquals(1, frDb.getFeedbackResponsesForSessionInSection(fra.feedbackSessionName, fra.courseId, "Section C").size());
+        assertEquals(1, frDb.getFeedbackResponsesFromGiverForQuestionInSection(fra.feedbackQuestionId, fra.giverEmail,
+                                                                                "Section C").size());
+
+        ______TS("response between a section and the default section is in the section only");
+
+        fra.recipientSection = Const.DEFAULT_SECTION;
+        frDb.updateFeedbackResponse(fra);
+
+        assertEquals(1, frDb.getFeedbackResponsesForQuestionInSection(fra.feedbackQuestionId, "Section C").size());
+        assertTrue(frDb.getFeedbackResponsesForQuestionInSection(fra.feedbackQuestionId, Const.DEFAULT_SECTION).isEmpty());
+
+        frDb.deleteEntity(fra);
+    }
+
+    @Test
+    public void testFeedbackResponsesSnapshotForSessionInSection() throws Exception {
+        
+        String courseId = fras.get("response1ForQ1S1C1").courseId;
+        String feedbackSessionName = fras.get("response1ForQ1S1C1").feedbackSessionName;
+        
+        ______TS("no snapshot yet");
+        
+        frDb.invalidateFeedbackResponsesSnapshots(courseId, feedbackSessionName, "Section 1");
+        assertNull(frDb.getFeedbackResponsesSnapshotForSessionInSection(feedbackSessionName, courseId, "Section 1"));
+        
+        ______TS("snapshot is read back as written");
+        
+        long responsesVersion = frDb.getFeedbackResponsesSnapshotVersion(feedbackSessionName, courseId, "Section 1");
+        List<FeedbackResponseAttributes> responses =
+                frDb.getFeedbackResponsesForSessionInSection(feedbackSessionName, courseId, "Section 1");
+        frDb.putFeedbackResponsesSnapshotForSessionInSection(feedbackSessionName, courseId, "Section 1",
+                                                             responses, responsesVersion);
+        
+        List<FeedbackResponseAttributes> snapshot =
+                frDb.getFeedbackResponsesSnapshotForSessionInSection(feedbackSessionName, courseId, "Section 1");
+        assertEquals(responses.size(), snapshot.size());
+        for (int i = 0; i < responses.size(); i++) {
+            assertEquals(responses.get(i).getId(), snapshot.get(i).getId());
+            assertEquals(responses.get(i).getResponseDetails().getAnswerString(),
+                         snapshot.get(i).getResponseDetails().getAnswerString());
+        }
+        
+        ______TS("snapshot of whole session is separate from section snapshot");
+        
+        assertNull(frDb.getFeedbackResponsesSnapshotForSessionInSection(feedbackSessionName, courseId, null));
+        
+        ______TS("writing a response in the section invalidates the snapshot");
+        
+        FeedbackResponseAttributes response = frDb.getFeedbackResponse(fras.get("response1ForQ1S1C1").feedbackQuestionId,
+                fras.get("response1ForQ1S1C1").giverEmail, fras.get("response1ForQ1S1C1").recipientEmail);
+        long timeBeforeWrite = System.currentTimeMillis();
+        frDb.updateFeedbackResponse(response);
+        assertNull(frDb.getFeedbackResponsesSnapshotForSessionInSection(feedbackSessionName, courseId, "Section 1"));
+        assertFalse(responsesVersion
+                    == frDb.getFeedbackResponsesSnapshotVersion(feedbackSessionName, courseId, "Section 1"));
+        assertTrue(frDb.getFeedbackResponsesSnapshotVersionTime(feedbackSessionName, courseId, "Section 1")
+                   >= timeBeforeWrite);
+        
+        ______TS("snapshot built from responses read before a write is not read");
+        
+        frDb.putFeedbackResponsesSnapshotForSessionInSection(feedbackSessionName, courseId, "Section 1",
+                                                             responses, responsesVersion);
+        assertNull(frDb.getFeedbackResponsesSnapshotForSessionInSection(feedbackSessionName, courseId, "Section 1"));
+    }
+
     @Test
     public void testGetFeedbackResponsesForSessionFromSection() {
         
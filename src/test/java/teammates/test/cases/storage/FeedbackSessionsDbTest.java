@@ -5,9 +5,13 @@ import static teammates.common.util.FieldValidator.FEEDBACK_SESSION_NAME;
 import static teammates.common.util.FieldValidator.START_TIME_FIELD_NAME;
 import static teammates.common.util.FieldValidator.TIME_FRAME_ERROR_MESSAGE;
 
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.testng.annotations.AfterClass;
@@ -266,6 +270,141 @@ public class FeedbackSessionsDbTest extends BaseComponentTestCase {
         verifyPresentInDatastore(modifiedSession);
     }
     
+    @Test
+    public void testRespondants() throws Exception {
+        FeedbackSessionAttributes fsa = getNewFeedbackSession();
+        fsa.setFeedbackSessionName("fsRespondantsTest");
+        fsa.setRespondingStudentList(new HashSet<String>(Arrays.asList("legacy@email.com")));
+        fsDb.deleteEntity(fsa);
+        fsDb.createEntity(fsa);
+        
+        ______TS("respondants recorded in the session entity are still read");
+        
+        FeedbackSessionAttributes session = getFeedbackSession(fsa);
+        assertTrue(fsDb.isStudentRespondant("legacy@email.com", session));
+        fsDb.loadRespondants(session);
+        assertEquals(new HashSet<String>(Arrays.asList("legacy@email.com")), session.getRespondingStudentList());
+        assertTrue(session.getRespondingInstructorList().isEmpty());
+        
+        ______TS("add respondants without changing the session entity");
+        
+        fsDb.addStudentRespondant("student@email.com", getFeedbackSession(fsa));
+        fsDb.addStudentRespondant("student@email.com", getFeedbackSession(fsa));
+        fsDb.addInstructorRespondants(Arrays.asList("instr1@email.com", "instr2@email.com"), getFeedbackSession(fsa));
+        
+        session = getFeedbackSession(fsa);
+        assertEquals(new HashSet<String>(Arrays.asList("legacy@email.com")), session.getRespondingStudentList());
+        assertTrue(fsDb.isStudentRespondant("student@email.com", session));
+        assertFalse(fsDb.isInstructorRespondant("student@email.com", session));
+        assertTrue(fsDb.isInstructorRespondant("instr1@email.com", session));
+        
+        fsDb.loadRespondants(session);
+        assertEquals(new HashSet<String>(Arrays.asList("legacy@email.com", "student@email.com")),
+                     session.getRespondingStudentList());
+        assertEquals(new HashSet<String>(Arrays.asList("instr1@email.com", "instr2@email.com")),
+                     session.getRespondingInstructorList());
+        
+        ______TS("update and delete respondants");
+        
+        fsDb.updateStudentRespondant("student@email.com", "new.student@email.com", getFeedbackSession(fsa));
+        fsDb.updateStudentRespondant("legacy@email.com", "new.legacy@email.com", getFeedbackSession(fsa));
+        fsDb.deleteInstructorRespondant("instr2@email.com", getFeedbackSession(fsa));
+        
+        session = getFeedbackSession(fsa);
+        assertEquals(new HashSet<String>(Arrays.asList("new.legacy@email.com")), session.getRespondingStudentList());
+        fsDb.loadRespondants(session);
+        assertEquals(new HashSet<String>(Arrays.asList("new.legacy@email.com", "new.student@email.com")),
+                     session.getRespondingStudentList());
+        assertEquals(new HashSet<String>(Arrays.asList("instr1@email.com")), session.getRespondingInstructorList());
+        
+        fsDb.deleteStudentRespondant("new.legacy@email.com", getFeedbackSession(fsa));
+        session = getFeedbackSession(fsa);
+        assertTrue(session.getRespondingStudentList().isEmpty());
+        assertFalse(fsDb.isStudentRespondant("new.legacy@email.com", session));
+        assertTrue(fsDb.isStudentRespondant("new.student@email.com", session));
+        
+        ______TS("clear respondants");
+        
+        fsDb.clearStudentRespondants(getFeedbackSession(fsa));
+        session = getFeedbackSession(fsa);
+        fsDb.loadRespondants(session);
+        assertTrue(session.getRespondingStudentList().isEmpty());
+        assertEquals(new HashSet<String>(Arrays.asList("instr1@email.com")), session.getRespondingInstructorList());
+        
+        ______TS("delete respondants of the session");
+        
+        fsDb.deleteRespondantsForSession(fsa);
+        session = getFeedbackSession(fsa);
+        fsDb.loadRespondants(session);
+        assertTrue(session.getRespondingInstructorList().isEmpty());
+        
+        fsDb.deleteEntity(fsa);
+    }
+    
+    @Test
+    public void testStudentSessionStatuses() throws Exception {
+        FeedbackSessionAttributes fsa = getNewFeedbackSession();
+        fsa.setFeedbackSessionName("fsStudentStatusesTest");
+        String courseId = fsa.getCourseId();
+        fsDb.deleteStudentSessionSummariesForCourse(courseId);
+        
+        ______TS("no summary");
+        
+        assertTrue(fsDb.getStudentSessionStatuses(courseId, "student@email.com").isEmpty());
+        fsDb.removeStudentSessionStatus("student@email.com", fsa);
+        
+        ______TS("add statuses, keeping those already recorded");
+        
+        Map<String, Boolean> statuses = new HashMap<String, Boolean>();
+        statuses.put("session A", false);
+        statuses.put("session B", true);
+        fsDb.addStudentSessionStatuses(courseId, "student@email.com", statuses);
+        assertEquals(statuses, fsDb.getStudentSessionStatuses(courseId, "student@email.com"));
+        
+        statuses.put("session A", true);
+        statuses.put(fsa.getFeedbackSessionName(), false);
+        fsDb.addStudentSessionStatuses(courseId, "student@email.com", statuses);
+        statuses.put("session A", false);
+        assertEquals(statuses, fsDb.getStudentSessionStatuses(courseId, "student@email.com"));
+        
+        ______TS("set submitted, creating missing summaries");
+        
+        fsDb.setStudentSessionStatusesSubmitted(Arrays.asList("student@email.com", "student2@email.com"), fsa);
+        statuses.put(fsa.getFeedbackSessionName(), true);
+        assertEquals(statuses, fsDb.getStudentSessionStatuses(courseId, "student@email.com"));
+        Map<String, Boolean> statuses2 = new HashMap<String, Boolean>();
+        statuses2.put(fsa.getFeedbackSessionName(), true);
+        assertEquals(statuses2, fsDb.getStudentSessionStatuses(courseId, "student2@email.com"));
+        
+        ______TS("remove status");
+        
+        fsDb.removeStudentSessionStatus("student@email.com", fsa);
+        statuses.remove(fsa.getFeedbackSessionName());
+        assertEquals(statuses, fsDb.getStudentSessionStatuses(courseId, "student@email.com"));
+        
+        ______TS("delete summaries");
+        
+        fsDb.deleteStudentSessionSummary(courseId, "student@email.com");
+        assertTrue(fsDb.getStudentSessionStatuses(courseId, "student@email.com").isEmpty());
+        assertEquals(statuses2, fsDb.getStudentSessionStatuses(courseId, "student2@email.com"));
+        
+        fsDb.deleteStudentSessionSummariesForCourse(courseId);
+        assertTrue(fsDb.getStudentSessionStatuses(courseId, "student2@email.com").isEmpty());
+        
+        ______TS("null parameters");
+        
+        try {
+            fsDb.getStudentSessionStatuses(courseId, null);
+            signalFailureToDetectException();
+        } catch (AssertionError e) {
+            assertEquals(Const.StatusCodes.DBLEVEL_NULL_INPUT, e.getMessage());
+        }
+    }
+    
+    private FeedbackSessionAttributes getFeedbackSession(FeedbackSessionAttributes fsa) {
+        return fsDb.getFeedbackSession(fsa.getCourseId(), fsa.getFeedbackSessionName());
+    }
+    
     private FeedbackSessionAttributes getNewFeedbackSession() {
         FeedbackSessionAttributes fsa = new FeedbackSessionAttributes();
         fsa.setFeedbackSessionType(FeedbackSessionType.STANDARD);
@@ -1,6 +1,8 @@
 package teammates.test.cases.storage;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -218,6 +220,45 @@ public class InstructorsDbTest extends BaseComponentTestCase {
         }
     }
 
+    @Test
+    public void testGetInstructorsForEmails() {
+        
+        InstructorAttributes i1 = dataBundle.instructors.get("instructor1OfCourse1");
+        InstructorAttributes i2 = dataBundle.instructors.get("instructor2OfCourse1");
+        
+        ______TS("Success: get instructors of a course, ignoring non-existent emails");
+        
+        List<InstructorAttributes> retrieved = instructorsDb.getInstructorsForEmails(
+                i1.courseId, Arrays.asList(i1.email, "non-exist-email", i2.email));
+        assertEquals(2, retrieved.size());
+        Set<String> retrievedEmails = new HashSet<String>();
+        for (InstructorAttributes instructor : retrieved) {
+            assertEquals(i1.courseId, instructor.courseId);
+            retrievedEmails.add(instructor.email);
+        }
+        assertEquals(new HashSet<String>(Arrays.asList(i1.email, i2.email)), retrievedEmails);
+        
+        ______TS("Success: instructors already in the cache");
+        
+        retrieved = instructorsDb.getInstructorsForEmails(i1.courseId, Arrays.asList(i1.email, i1.email));
+        assertEquals(1, retrieved.size());
+        assertEquals(i1.name, retrieved.get(0).name);
+        
+        ______TS("Failure: instructors do not exist in the course");
+        
+        retrieved = instructorsDb.getInstructorsForEmails("non.existent.course", Arrays.asList(i1.email, i2.email));
+        assertEquals(0, retrieved.size());
+        
+        ______TS("Failure: null parameters");
+
+        try {
+            instructorsDb.getInstructorsForEmails(i1.courseId, null);
+            signalFailureToDetectException();
+        } catch (AssertionError e) {
+            assertEquals(Const.StatusCodes.DBLEVEL_NULL_INPUT, e.getMessage());
+        }
+    }
+
     @Test
     public void testGetInstructorsForGoogleId() throws Exception {
         
@@ -3,6 +3,12 @@ package teammates.test.cases.storage;
 import static teammates.common.util.FieldValidator.COURSE_ID_ERROR_MESSAGE;
 import static teammates.common.util.FieldValidator.REASON_INCORRECT_FORMAT;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
@@ -122,6 +128,54 @@ public class StudentsDbTest extends BaseComponentTestCase {
         
     }
 
+    @Test
+    public void testEnrollStudentsInBatch() throws Exception {
+        String courseId = "valid-course-batch";
+        List<StudentAttributes> students = new ArrayList<StudentAttributes>();
+        for (int i = 0; i < 3; i++) {
+            students.add(new StudentAttributes("section " + i, "team " + i, "name " + i,
+                                               "batch" + i + "@email.com", "", courseId));
+        }
+        
+        ______TS("fail : invalid params, nothing is created");
+        StudentAttributes invalidStudent = new StudentAttributes("section", "team", "name", "invalid email", "", courseId);
+        try {
+            studentsDb.createStudentsWithoutExistenceCheck(
+                    Arrays.asList(students.get(0), invalidStudent), false);
+            signalFailureToDetectException();
+        } catch (InvalidParametersException e) {
+            ignoreExpectedException();
+        }
+        verifyAbsentInDatastore(students.get(0));
+        
+        ______TS("success : create in batch");
+        studentsDb.createStudentsWithoutExistenceCheck(students, false);
+        for (StudentAttributes student : students) {
+            verifyPresentInDatastore(student);
+        }
+        assertEquals(3, studentsDb.getStudentsForCourse(courseId).size());
+        
+        ______TS("success : update in batch");
+        students.get(0).team = "new team";
+        students.get(2).name = "new name";
+        studentsDb.updateStudentsEnrollmentDetails(courseId, Arrays.asList(students.get(0), students.get(2)), false);
+        assertEquals("new team", studentsDb.getStudentForEmail(courseId, students.get(0).email).team);
+        StudentAttributes updatedStudent = studentsDb.getStudentForEmail(courseId, students.get(2).email);
+        assertEquals("new name", updatedStudent.name);
+        assertEquals("name", updatedStudent.lastName);
+        
+        ______TS("fail : update non-existent student");
+        StudentAttributes nonExistentStudent = new StudentAttributes("section", "team", "name", "absent@email.com", "", courseId);
+        try {
+            studentsDb.updateStudentsEnrollmentDetails(courseId, Arrays.asList(nonExistentStudent), false);
+            signalFailureToDetectException();
+        } catch (EntityDoesNotExistException e) {
+            AssertHelper.assertContains(StudentsDb.ERROR_UPDATE_NON_EXISTENT_STUDENT, e.getMessage());
+        }
+        
+        studentsDb.deleteStudentsForCourseWithoutDocument(courseId);
+    }
+
     @SuppressWarnings("deprecation")
     @Test
     public void testGetStudent() throws InvalidParametersException, EntityDoesNotExistException {
@@ -174,6 +228,58 @@ public class StudentsDbTest extends BaseComponentTestCase {
         studentsDb.deleteStudent(s2.course, s2.email);
     }
     
+    @Test
+    public void testGetStudentsForEmails() throws InvalidParametersException {
+        
+        StudentAttributes s = createNewStudent();
+        StudentAttributes s2 = createNewStudent("one.new@gmail.com");
+        
+        ______TS("typical success case: duplicate and non-existent emails are ignored");
+        
+        List<StudentAttributes> retrieved = studentsDb.getStudentsForEmails(
+                s.course, Arrays.asList(s.email, "non-existent@email.com", s2.email, s.email));
+        assertEquals(2, retrieved.size());
+        Set<String> retrievedEmails = new HashSet<String>();
+        for (StudentAttributes student : retrieved) {
+            assertEquals(s.course, student.course);
+            retrievedEmails.add(student.email);
+        }
+        assertEquals(new HashSet<String>(Arrays.asList(s.email, s2.email)), retrievedEmails);
+        
+        ______TS("students already in the cache are not looked up again");
+        
+        retrieved = studentsDb.getStudentsForEmails(s.course, Arrays.asList(s.email));
+        assertEquals(1, retrieved.size());
+        assertTrue(retrieved.get(0).isEnrollInfoSameAs(s));
+        
+        ______TS("more emails than can be looked up in one query");
+        
+        List<String> emails = new ArrayList<String>();
+        for (int i = 0; i < 40; i++) {
+            emails.add("non-existent" + i + "@email.com");
+        }
+        emails.add(s2.email);
+        retrieved = studentsDb.getStudentsForEmails(s.course, emails);
+        assertEquals(1, retrieved.size());
+        assertTrue(retrieved.get(0).isEnrollInfoSameAs(s2));
+        
+        ______TS("students of other courses are not returned");
+        
+        assertTrue(studentsDb.getStudentsForEmails("any-course-id", Arrays.asList(s.email, s2.email)).isEmpty());
+        assertTrue(studentsDb.getStudentsForEmails(s.course, new ArrayList<String>()).isEmpty());
+        
+        ______TS("null params case");
+        try {
+            studentsDb.getStudentsForEmails(null, Arrays.asList(s.email));
+            signalFailureToDetectException();
+        } catch (AssertionError ae) {
+            assertEquals(Const.StatusCodes.DBLEVEL_NULL_INPUT, ae.getMessage());
+        }
+        
+        studentsDb.deleteStudent(s.course, s.email);
+        studentsDb.deleteStudent(s2.course, s2.email);
+    }
+    
     @Test
     public void testupdateStudentWithoutDocument() throws InvalidParametersException, EntityDoesNotExistException {
         
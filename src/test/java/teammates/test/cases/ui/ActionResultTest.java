@@ -1,10 +1,21 @@
 package teammates.test.cases.ui;
 
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import javax.servlet.http.HttpServletResponse;
+
 import org.testng.annotations.Test;
 
 import teammates.common.util.Const;
 import teammates.test.cases.BaseTestCase;
 import teammates.ui.controller.ActionResult;
+import teammates.ui.controller.FileDownloadResult;
 import teammates.ui.controller.ShowPageResult;
 
 public class ActionResultTest extends BaseTestCase {
@@ -16,5 +27,71 @@ public class ActionResultTest extends BaseTestCase {
         svr.addResponseParam(Const.ParamsNames.USER_ID, "david");
         assertEquals("/page/instructorHome?user=david", svr.getDestinationWithParams());
     }
+    
+    @Test
+    public void testFileDownloadResultFailingWhileSent() throws Exception {
+        
+        ______TS("failure after part of the file is sent marks the file as incomplete");
+        
+        FileDownloadResult result = new FileDownloadResult("filedownload", null, null, "results",
+                new FileDownloadResult.FileContentWriter() {
+                    @Override
+                    public void writeTo(Writer writer) throws IOException {
+                        writer.write("first question");
+                        writer.flush();
+                        throw new IllegalStateException("failed after the first question");
+                    }
+                });
+        StringWriter sentContent = new StringWriter();
+        result.send(null, createResponseSentTo(sentContent));
+        
+        assertTrue(sentContent.toString().startsWith("\uFEFFfirst question"));
+        assertTrue(sentContent.toString().endsWith(Const.StatusMessages.FILE_DOWNLOAD_INCOMPLETE + Const.EOL));
+        
+        ______TS("failure before anything is sent is left to be shown as an error");
+        
+        result = new FileDownloadResult("filedownload", null, null, "results",
+                new FileDownloadResult.FileContentWriter() {
+                    @Override
+                    public void writeTo(Writer writer) throws IOException {
+                        throw new IllegalStateException("failed before the first question");
+                    }
+                });
+        sentContent = new StringWriter();
+        try {
+            result.send(null, createResponseSentTo(sentContent));
+            signalFailureToDetectException();
+        } catch (IllegalStateException e) {
+            assertEquals("failed before the first question", e.getMessage());
+        }
+        assertFalse(sentContent.toString().contains(Const.StatusMessages.FILE_DOWNLOAD_INCOMPLETE));
+    }
+    
+    /**
+     * @return a response writing to {@code sentContent}, which is committed once its writer is flushed
+     */
+    private static HttpServletResponse createResponseSentTo(StringWriter sentContent) {
+        final boolean[] isCommitted = new boolean[1];
+        final PrintWriter writer = new PrintWriter(sentContent) {
+            @Override
+            public void flush() {
+                super.flush();
+                isCommitted[0] = true;
+            }
+        };
+        return (HttpServletResponse) Proxy.newProxyInstance(HttpServletResponse.class.getClassLoader(),
+                new Class<?>[] { HttpServletResponse.class }, new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        if ("getWriter".equals(method.getName())) {
+                            return writer;
+                        }
+                        if ("isCommitted".equals(method.getName())) {
+                            return isCommitted[0];
+                        }
+                        return null;
+                    }
+                });
+    }
 
 }
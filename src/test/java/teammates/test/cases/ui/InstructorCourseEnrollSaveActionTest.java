@@ -207,8 +207,7 @@ public class InstructorCourseEnrollSaveActionTest extends BaseActionTest {
         
         ______TS("Boundary test for size limit per enrollment");
         
-        //TODO: sync this var with SIZE_LIMIT_PER_ENROLLMENT defined in StudentsLogic, by putting it in config or Const class
-        int sizeLimitBoundary = 150;
+        int sizeLimitBoundary = Const.SystemParams.MAX_STUDENTS_PER_ENROLLMENT;
         
         //can enroll, if within the size limit
         StringBuilder enrollStringBuilder = new StringBuilder(200);
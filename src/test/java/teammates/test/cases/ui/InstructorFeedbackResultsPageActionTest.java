@@ -213,7 +213,24 @@ public class InstructorFeedbackResultsPageActionTest extends BaseActionTest {
                      result.getDestinationWithParams());
         assertEquals("", result.getStatusMessage());
         assertFalse(result.isError);
-        
+
+        ______TS("Typical case: all sections with more responses than the range shows the section view warning");
+        FeedbackSessionAttributes sessionWithManyResponses = dataBundle.feedbackSessions.get("session1InCourse1");
+        String[] paramsNeedAjaxWithManyResponses = {
+                Const.ParamsNames.COURSE_ID, sessionWithManyResponses.getCourseId(),
+                Const.ParamsNames.FEEDBACK_SESSION_NAME, sessionWithManyResponses.getFeedbackSessionName(),
+                Const.ParamsNames.FEEDBACK_RESULTS_SORTTYPE, "giver-recipient-question",
+                Const.ParamsNames.FEEDBACK_RESULTS_NEED_AJAX, "true"
+        };
+        action = getAction(paramsNeedAjaxWithManyResponses);
+        result = action.executeAndPostProcess();
+
+        assertEquals(Const.ViewURIs.INSTRUCTOR_FEEDBACK_RESULTS_BY_GIVER_RECIPIENT_QUESTION
+                     + "?error=true&user=idOfInstructor1OfCourse1",
+                     result.getDestinationWithParams());
+        assertEquals(Const.StatusMessages.FEEDBACK_RESULTS_SECTIONVIEWWARNING, result.getStatusMessage());
+        assertTrue(result.isError);
+
         ______TS("Typical case: specific question number");
         action = getAction(paramsQuestionNumberOne);
         result = action.executeAndPostProcess();
@@ -22,6 +22,7 @@ public class InstructorCommentsPageUiTest extends BaseUiTestCase {
         printTestClassHeader();
         testData = loadDataBundle("/InstructorCommentsPageUiTest.json");
         removeAndRestoreTestDataOnServer(testData);
+        putDocuments(testData);
         browser = BrowserPool.getBrowser(true);
     }
     
@@ -233,17 +234,6 @@ public class InstructorCommentsPageUiTest extends BaseUiTestCase {
         commentsPage.clickCommentsPageLinkInHeader();
         
         ______TS("search: typical successful case");
-        //prepare search document
-        // TODO: remove this and use backdoor to put  document
-        commentsPage.clickStudentCommentEditForRow(1);
-        commentsPage.saveEditStudentCommentForRow(1);
-        commentsPage.clickStudentCommentEditForRow(2);
-        commentsPage.saveEditStudentCommentForRow(2);
-        commentsPage.loadResponseComments();
-        commentsPage.clickResponseCommentEdit(1, 1, 1, 1);
-        commentsPage.saveResponseComment(1, 1, 1, 1);
-        commentsPage.clickCommentsPageLinkInHeader();
-        
         commentsPage.search("comments");
         commentsPage.verifyHtmlMainContent("/instructorCommentsPageSearchNormal.html");
         commentsPage.clickCommentsPageLinkInHeader();
@@ -13,6 +13,7 @@ import javax.servlet.http.HttpServletRequest;
 import teammates.common.util.Const;
 import teammates.logic.api.Logic;
 import teammates.storage.datastore.Datastore;
+import teammates.storage.search.PendingSearchDocuments;
 import teammates.ui.controller.Action;
 import teammates.ui.controller.ActionFactory;
 
@@ -140,6 +141,7 @@ public class GaeSimulation {
      */
     public Action getActionObject(String uri, String... parameters) {
         HttpServletRequest req = createWebRequest(uri, parameters);
+        startNewRequest();
         return new ActionFactory().getAction(req);
     }
 
@@ -149,6 +151,18 @@ public class GaeSimulation {
             helper.tearDown();
         }
         helper.setUp();
+        // the documents of the entities written before are not to be put into the new datastore
+        PendingSearchDocuments.clear();
+        startNewRequest();
+    }
+    
+    /**
+     * Ends the per-request state as the DatastoreFilter would between requests. The search documents
+     * of the entities written so far are put right away, as there is no task queue to put them.
+     */
+    private void startNewRequest() {
+        PendingSearchDocuments.putNow();
+        Datastore.clearRequestEntityCache();
     }
 
     public void tearDown() {